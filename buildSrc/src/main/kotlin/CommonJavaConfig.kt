@@ -37,6 +37,7 @@
 
     tasks.withType<Test>().configureEach {
         useJUnitPlatform()
+        jvmArgs("--add-modules=jdk.incubator.vector")
     }
 
     dependencies {
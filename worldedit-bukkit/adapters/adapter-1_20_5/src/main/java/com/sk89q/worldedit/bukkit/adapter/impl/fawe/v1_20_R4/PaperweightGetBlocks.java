@@ -11,6 +11,8 @@
 import com.fastasyncworldedit.core.math.IntPair;
 import com.fastasyncworldedit.core.nbt.FaweCompoundTag;
 import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.implementation.packet.ChunkUpdateCost;
+import com.fastasyncworldedit.core.queue.implementation.packet.SectionDelta;
 import com.fastasyncworldedit.core.util.MathMan;
 import com.fastasyncworldedit.core.util.NbtUtils;
 import com.fastasyncworldedit.core.util.collection.AdaptedMap;
@@ -374,6 +376,8 @@ protected <T extends Future<T>> T internalCall(
             }
         }
         final BiomeType[][] biomes = set.getBiomes();
+        // Changes of each section, in case they are cheaper to send than the full chunk
+        final SectionDelta[] deltas = ChunkUpdateCost.newDeltas(set, getSectionCount());
 
         int bitMask = 0;
         synchronized (nmsChunk) {
@@ -453,6 +457,9 @@ protected <T extends Future<T>> T internalCall(
                 // setArr is modified by PaperweightPlatformAdapter#newChunkSection. This is in order to write changes to
                 // this chunk GET when #updateGet is called. Future dords, please listen this time.
                 char[] tmp = set.load(layerNo);
+                if (deltas != null) {
+                    deltas[getSectionIndex] = SectionDelta.of(layerNo, tmp);
+                }
                 char[] setArr = new char[tmp.length];
                 System.arraycopy(tmp, 0, setArr, 0, tmp.length);
 
@@ -749,7 +756,7 @@ protected <T extends Future<T>> T internalCall(
                     if (!set
                             .getSideEffectSet()
                             .shouldApply(SideEffect.LIGHTING) || !Settings.settings().LIGHTING.DELAY_PACKET_SENDING || finalMask == 0 && biomes != null) {
-                        this.send();
+                        this.send(deltas);
                     }
                     if (finalizer != null) {
                         finalizer.run();
@@ -796,6 +803,21 @@ public void send() {
         }
     }
 
+    /**
+     * Send the chunk to players, or only the given changes if that is estimated to be cheaper.
+     *
+     * @param deltas the changes of each section, or null to send the full chunk
+     */
+    private void send(@Nullable SectionDelta[] deltas) {
+        if (ChunkUpdateCost.shouldSendDeltas(deltas, getSectionCount())) {
+            synchronized (sendLock) {
+                PaperweightPlatformAdapter.sendSectionUpdates(new IntPair(chunkX, chunkZ), serverLevel, chunkX, chunkZ, deltas);
+            }
+        } else {
+            send();
+        }
+    }
+
     /**
      * Update a given (nullable) data array to the current data stored in the server's chunk, associated with this
      * {@link PaperweightPlatformAdapter} instance. Not synchronised to the {@link PaperweightPlatformAdapter} instance as synchronisation
@@ -967,7 +989,25 @@ private PalettedContainer<Holder<Biome>> setBiomesToPalettedContainer(
         if (biomes == null || (sectionBiomes = biomes[sectionIndex]) == null) {
             return null;
         }
+        // A section set to one biome, e.g. by //setbiome, is handed over as a single value container, without setting
+        // each cell and resizing the palette
+        BiomeType uniform = sectionBiomes[0];
+        for (int i = 1; uniform != null && i < 64; i++) {
+            if (sectionBiomes[i] != uniform) {
+                uniform = null;
+            }
+        }
+        if (uniform != null) {
+            return new PalettedContainer<>(
+                    biomeHolderIdMap,
+                    biomeHolderIdMap.byIdOrThrow(adapter.getInternalBiomeId(uniform)),
+                    PalettedContainer.Strategy.SECTION_BIOMES
+            );
+        }
         PalettedContainer<Holder<Biome>> biomeData = data.recreate();
+        // Cells are usually set to few biomes, look up the holder only when the biome changes
+        BiomeType lastType = null;
+        Holder<Biome> lastHolder = null;
         for (int y = 0, index = 0; y < 4; y++) {
             for (int z = 0; z < 4; z++) {
                 for (int x = 0; x < 4; x++, index++) {
@@ -975,12 +1015,11 @@ private PalettedContainer<Holder<Biome>> setBiomesToPalettedContainer(
                     if (biomeType == null) {
                         biomeData.set(x, y, z, data.get(x, y, z));
                     } else {
-                        biomeData.set(
-                                x,
-                                y,
-                                z,
-                                biomeHolderIdMap.byIdOrThrow(adapter.getInternalBiomeId(biomeType))
-                        );
+                        if (biomeType != lastType) {
+                            lastHolder = biomeHolderIdMap.byIdOrThrow(adapter.getInternalBiomeId(biomeType));
+                            lastType = biomeType;
+                        }
+                        biomeData.set(x, y, z, lastHolder);
                     }
                 }
             }
@@ -2,12 +2,14 @@
 
 import com.destroystokyo.paper.util.maplist.EntityList;
 import com.fastasyncworldedit.bukkit.adapter.CachedBukkitAdapter;
+import com.fastasyncworldedit.bukkit.adapter.ChunkResender;
 import com.fastasyncworldedit.bukkit.adapter.DelegateSemaphore;
 import com.fastasyncworldedit.bukkit.adapter.NMSAdapter;
 import com.fastasyncworldedit.core.Fawe;
 import com.fastasyncworldedit.core.FaweCache;
-import com.fastasyncworldedit.core.math.BitArrayUnstretched;
 import com.fastasyncworldedit.core.math.IntPair;
+import com.fastasyncworldedit.core.queue.implementation.packet.ChunkUpdateCost;
+import com.fastasyncworldedit.core.queue.implementation.packet.SectionDelta;
 import com.fastasyncworldedit.core.util.MathMan;
 import com.fastasyncworldedit.core.util.TaskManager;
 import com.sk89q.worldedit.bukkit.WorldEditPlugin;
@@ -20,12 +22,16 @@
 import com.sk89q.worldedit.world.block.BlockTypesCache;
 import io.papermc.lib.PaperLib;
 import io.papermc.paper.world.ChunkEntitySlices;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Holder;
 import net.minecraft.core.IdMap;
 import net.minecraft.core.Registry;
+import net.minecraft.core.SectionPos;
 import net.minecraft.network.protocol.game.ClientboundLevelChunkWithLightPacket;
-import net.minecraft.server.MinecraftServer;
+import net.minecraft.network.protocol.game.ClientboundLightUpdatePacketData;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
 import net.minecraft.server.level.ChunkHolder;
 import net.minecraft.server.level.ChunkMap;
 import net.minecraft.server.level.ServerLevel;
@@ -44,6 +50,7 @@
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.DataLayer;
 import net.minecraft.world.level.chunk.GlobalPalette;
 import net.minecraft.world.level.chunk.HashMapPalette;
 import net.minecraft.world.level.chunk.LevelChunk;
@@ -74,6 +81,7 @@
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
@@ -340,13 +348,22 @@ public static ChunkHolder getPlayerChunk(ServerLevel nmsWorld, final int chunkX,
         }
     }
 
-    @SuppressWarnings("deprecation")
     public static void sendChunk(IntPair pair, ServerLevel nmsWorld, int chunkX, int chunkZ) {
+        // The packet is built on the thread owning the chunk, as it reads the chunk
+        ChunkResender.resend(nmsWorld.getWorld(), chunkX, chunkZ, () -> sendChunkNow(pair, nmsWorld, chunkX, chunkZ, null));
+    }
+
+    /**
+     * Build the packet of a chunk from its current state and send it to the given player, or to all players tracking the
+     * chunk if null. Must be run on the thread owning the chunk. Sends to a given player are not limited, as their bandwidth
+     * was used when the chunk was queued for them.
+     */
+    @SuppressWarnings("deprecation")
+    private static void sendChunkNow(IntPair pair, ServerLevel nmsWorld, int chunkX, int chunkZ, @Nullable UUID target) {
         ChunkHolder chunkHolder = getPlayerChunk(nmsWorld, chunkX, chunkZ);
         if (chunkHolder == null) {
             return;
         }
-        ChunkPos coordIntPair = new ChunkPos(chunkX, chunkZ);
         LevelChunk levelChunk;
         if (PaperLib.isPaper()) {
             // getChunkAtIfLoadedImmediately is paper only
@@ -362,27 +379,120 @@ public static void sendChunk(IntPair pair, ServerLevel nmsWorld, int chunkX, int
         if (lockHolder.chunkLock == null) {
             return;
         }
-        MinecraftServer.getServer().execute(() -> {
-            try {
-                ClientboundLevelChunkWithLightPacket packet;
-                if (PaperLib.isPaper()) {
-                    packet = new ClientboundLevelChunkWithLightPacket(
-                            levelChunk,
-                            nmsWorld.getChunkSource().getLightEngine(),
-                            null,
-                            null,
-                            false // last false is to not bother with x-ray
-                    );
+        try {
+            ChunkPos pos = levelChunk.getPos();
+            ClientboundLevelChunkWithLightPacket packet;
+            if (PaperLib.isPaper()) {
+                packet = new ClientboundLevelChunkWithLightPacket(
+                        levelChunk,
+                        nmsWorld.getChunkSource().getLightEngine(),
+                        null,
+                        null,
+                        false // last false is to not bother with x-ray
+                );
+            } else {
+                // deprecated on paper - deprecation suppressed
+                packet = new ClientboundLevelChunkWithLightPacket(
+                        levelChunk,
+                        nmsWorld.getChunkSource().getLightEngine(),
+                        null,
+                        null
+                );
+            }
+            int bytes = getPacketSize(packet);
+            for (ServerPlayer player : nearbyPlayers(nmsWorld, pos)) {
+                if (target != null && !target.equals(player.getUUID())) {
+                    continue;
+                }
+                Runnable send = () -> {
+                    player.connection.send(packet);
+                };
+                if (target != null) {
+                    // The player's bandwidth was used when the chunk was queued for them
+                    send.run();
                 } else {
-                    // deprecated on paper - deprecation suppressed
-                    packet = new ClientboundLevelChunkWithLightPacket(
-                            levelChunk,
-                            nmsWorld.getChunkSource().getLightEngine(),
-                            null,
-                            null
+                    ChunkResender.send(
+                            player.getUUID(),
+                            nmsWorld.getWorld(),
+                            chunkX,
+                            chunkZ,
+                            bytes,
+                            send,
+                            () -> sendChunkNow(pair, nmsWorld, chunkX, chunkZ, player.getUUID())
+                    );
+                }
+            }
+        } finally {
+            NMSAdapter.endChunkPacketSend(nmsWorld.getWorld().getName(), pair, lockHolder);
+        }
+    }
+
+    // Only counts the chunk data and light arrays, the rest of the packet is small
+    private static int getPacketSize(ClientboundLevelChunkWithLightPacket packet) {
+        ClientboundLightUpdatePacketData light = packet.getLightData();
+        return packet.getChunkData().getReadBuffer().readableBytes()
+                + (light.getSkyUpdates().size() + light.getBlockUpdates().size()) * DataLayer.SIZE;
+    }
+
+    /**
+     * Send the given changes of a chunk to players as section block updates. The states are read from the chunk when the
+     * packets are built, so the latest states are sent.
+     */
+    public static void sendSectionUpdates(
+            IntPair pair,
+            ServerLevel nmsWorld,
+            int chunkX,
+            int chunkZ,
+            SectionDelta[] deltas
+    ) {
+        // Not coalesced, as a pending update of the chunk may be for other blocks
+        ChunkResender.run(nmsWorld.getWorld(), chunkX, chunkZ, () -> {
+            LevelChunk levelChunk = nmsWorld.getChunkSource().getChunkNow(chunkX, chunkZ);
+            if (levelChunk == null) {
+                return;
+            }
+            List<ServerPlayer> players = nearbyPlayers(nmsWorld, levelChunk.getPos());
+            if (players.isEmpty()) {
+                return;
+            }
+            StampLockHolder lockHolder = new StampLockHolder();
+            NMSAdapter.beginChunkPacketSend(nmsWorld.getWorld().getName(), pair, lockHolder);
+            if (lockHolder.chunkLock == null) {
+                return;
+            }
+            try {
+                LevelChunkSection[] sections = levelChunk.getSections();
+                for (SectionDelta delta : deltas) {
+                    if (delta == null) {
+                        continue;
+                    }
+                    int sectionIndex = nmsWorld.getSectionIndexFromSectionY(delta.getLayer());
+                    if (sectionIndex < 0 || sectionIndex >= sections.length || sections[sectionIndex] == null) {
+                        continue;
+                    }
+                    ShortSet positions = new ShortOpenHashSet(delta.size());
+                    for (int i = 0; i < delta.size(); i++) {
+                        // Same packing as SectionPos#sectionRelativePos
+                        positions.add((short) (delta.getX(i) << 8 | delta.getZ(i) << 4 | delta.getY(i)));
+                    }
+                    ClientboundSectionBlocksUpdatePacket packet = new ClientboundSectionBlocksUpdatePacket(
+                            SectionPos.of(chunkX, delta.getLayer(), chunkZ),
+                            positions,
+                            sections[sectionIndex]
                     );
+                    int bytes = ChunkUpdateCost.getDeltaBytes(delta);
+                    for (ServerPlayer player : players) {
+                        ChunkResender.send(
+                                player.getUUID(),
+                                nmsWorld.getWorld(),
+                                chunkX,
+                                chunkZ,
+                                bytes,
+                                () -> player.connection.send(packet),
+                                () -> sendChunkNow(pair, nmsWorld, chunkX, chunkZ, player.getUUID())
+                        );
+                    }
                 }
-                nearbyPlayers(nmsWorld, coordIntPair).forEach(p -> p.connection.send(packet));
             } finally {
                 NMSAdapter.endChunkPacketSend(nmsWorld.getWorld().getName(), pair, lockHolder);
             }
@@ -417,90 +527,55 @@ public static LevelChunkSection newChunkSection(
         if (set == null) {
             return newChunkSection(biomeRegistry, biomes);
         }
-        final int[] blockToPalette = FaweCache.INSTANCE.BLOCK_TO_PALETTE.get();
-        final int[] paletteToBlock = FaweCache.INSTANCE.PALETTE_TO_BLOCK.get();
-        final long[] blockStates = FaweCache.INSTANCE.BLOCK_STATES.get();
-        final int[] blocksCopy = FaweCache.INSTANCE.SECTION_BLOCKS.get();
-        try {
-            int num_palette;
-            if (get == null) {
-                num_palette = createPalette(blockToPalette, paletteToBlock, blocksCopy, set, adapter);
-            } else {
-                num_palette = createPalette(layer, blockToPalette, paletteToBlock, blocksCopy, get, set, adapter);
-            }
-
-            int bitsPerEntry = MathMan.log2nlz(num_palette - 1);
-            if (bitsPerEntry > 0 && bitsPerEntry < 5) {
-                bitsPerEntry = 4;
-            } else if (bitsPerEntry > 8) {
-                bitsPerEntry = MathMan.log2nlz(Block.BLOCK_STATE_REGISTRY.size() - 1);
-            }
-
-            int bitsPerEntryNonZero = Math.max(bitsPerEntry, 1); // We do want to use zero sometimes
-            final int blocksPerLong = MathMan.floorZero((double) 64 / bitsPerEntryNonZero);
-            final int blockBitArrayEnd = MathMan.ceilZero((float) 4096 / blocksPerLong);
-
-            if (num_palette == 1) {
-                for (int i = 0; i < blockBitArrayEnd; i++) {
-                    blockStates[i] = 0;
-                }
-            } else {
-                final BitArrayUnstretched bitArray = new BitArrayUnstretched(bitsPerEntryNonZero, 4096, blockStates);
-                bitArray.fromRaw(blocksCopy);
-            }
-
-            final long[] bits = Arrays.copyOfRange(blockStates, 0, blockBitArrayEnd);
-            final BitStorage nmsBits;
-            if (bitsPerEntry == 0) {
-                nmsBits = new ZeroBitStorage(4096);
-            } else {
-                nmsBits = new SimpleBitStorage(bitsPerEntry, 4096, bits);
-            }
-            List<net.minecraft.world.level.block.state.BlockState> palette;
-            if (bitsPerEntry < 9) {
-                palette = new ArrayList<>();
-                for (int i = 0; i < num_palette; i++) {
-                    int ordinal = paletteToBlock[i];
-                    blockToPalette[ordinal] = Integer.MAX_VALUE;
-                    final BlockState state = BlockTypesCache.states[ordinal];
-                    palette.add(((PaperweightBlockMaterial) state.getMaterial()).getState());
-                }
-            } else {
-                palette = List.of();
+        final FaweCache.Palette encoded = encodeSection(
+                layer,
+                get,
+                set,
+                adapter,
+                MathMan.log2nlz(Block.BLOCK_STATE_REGISTRY.size() - 1)
+        );
+        final int bitsPerEntry = encoded.bitsPerEntry;
+        final BitStorage nmsBits;
+        if (bitsPerEntry == 0) {
+            nmsBits = new ZeroBitStorage(4096);
+        } else {
+            nmsBits = new SimpleBitStorage(bitsPerEntry, 4096, encoded.blockStates);
+        }
+        List<net.minecraft.world.level.block.state.BlockState> palette;
+        if (bitsPerEntry < 9) {
+            palette = new ArrayList<>(encoded.paletteToBlockLength);
+            for (int i = 0; i < encoded.paletteToBlockLength; i++) {
+                final BlockState state = BlockTypesCache.states[encoded.paletteToBlock[i]];
+                palette.add(((PaperweightBlockMaterial) state.getMaterial()).getState());
             }
+        } else {
+            palette = List.of();
+        }
 
-            // Create palette with data
-            @SuppressWarnings("deprecation") // constructor is deprecated on paper, but needed to keep compatibility with spigot
-            final PalettedContainer<net.minecraft.world.level.block.state.BlockState> blockStatePalettedContainer =
-                    new PalettedContainer<>(
-                            Block.BLOCK_STATE_REGISTRY,
-                            PalettedContainer.Strategy.SECTION_STATES,
-                            PalettedContainer.Strategy.SECTION_STATES.getConfiguration(Block.BLOCK_STATE_REGISTRY, bitsPerEntry),
-                            nmsBits,
-                            palette
-                    );
-            if (biomes == null) {
-                IdMap<Holder<Biome>> biomeHolderIdMap = biomeRegistry.asHolderIdMap();
-                biomes = new PalettedContainer<>(
-                        biomeHolderIdMap,
-                        biomeHolderIdMap.byIdOrThrow(WorldEditPlugin
-                                .getInstance()
-                                .getBukkitImplAdapter()
-                                .getInternalBiomeId(
-                                        BiomeTypes.PLAINS)),
-                        PalettedContainer.Strategy.SECTION_BIOMES
+        // Create palette with data
+        @SuppressWarnings("deprecation") // constructor is deprecated on paper, but needed to keep compatibility with spigot
+        final PalettedContainer<net.minecraft.world.level.block.state.BlockState> blockStatePalettedContainer =
+                new PalettedContainer<>(
+                        Block.BLOCK_STATE_REGISTRY,
+                        PalettedContainer.Strategy.SECTION_STATES,
+                        PalettedContainer.Strategy.SECTION_STATES.getConfiguration(Block.BLOCK_STATE_REGISTRY, bitsPerEntry),
+                        nmsBits,
+                        palette
                 );
-            }
-
-            return new LevelChunkSection(blockStatePalettedContainer, biomes);
-        } catch (final Throwable e) {
-            throw e;
-        } finally {
-            Arrays.fill(blockToPalette, Integer.MAX_VALUE);
-            Arrays.fill(paletteToBlock, Integer.MAX_VALUE);
-            Arrays.fill(blockStates, 0);
-            Arrays.fill(blocksCopy, 0);
+        if (biomes == null) {
+            IdMap<Holder<Biome>> biomeHolderIdMap = biomeRegistry.asHolderIdMap();
+            biomes = new PalettedContainer<>(
+                    biomeHolderIdMap,
+                    biomeHolderIdMap.byIdOrThrow(WorldEditPlugin
+                            .getInstance()
+                            .getBukkitImplAdapter()
+                            .getInternalBiomeId(
+                                    BiomeTypes.PLAINS)),
+                    PalettedContainer.Strategy.SECTION_BIOMES
+            );
         }
+
+        return new LevelChunkSection(blockStatePalettedContainer, biomes);
     }
 
     @SuppressWarnings("deprecation") // Only deprecated in paper
@@ -5,6 +5,7 @@
 plugins {
     `java-library`
     alias(libs.plugins.mod.publish.plugin)
+    alias(libs.plugins.jmh)
 }
 
 project.description = "Bukkit"
@@ -128,6 +129,9 @@
     testImplementation(libs.adventureApi)
     testImplementation(libs.checkerqual)
     testImplementation(libs.paper) { isTransitive = true }
+
+    // Benchmarks
+    jmhImplementation(libs.paper) { isTransitive = true }
 }
 
 tasks.named<Copy>("processResources") {
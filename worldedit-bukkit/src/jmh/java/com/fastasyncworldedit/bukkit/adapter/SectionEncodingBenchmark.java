@@ -0,0 +1,138 @@
+package com.fastasyncworldedit.bukkit.adapter;
+
+import com.fastasyncworldedit.core.math.BitArrayUnstretched;
+import com.fastasyncworldedit.core.util.MathMan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Compares {@link NMSAdapter#encodeSection} with the {@code createPalette}, {@link BitArrayUnstretched} and
+ * {@link Arrays#copyOfRange} sequence the adapters' {@code newChunkSection} used before it, on a generated section.
+ * Both produce the packed block states handed to the game; building the game's palette and container is the same for
+ * both and is not measured. Palettes small enough not to need the global palette are compared, as the old path read the
+ * global palette from a server's adapter.
+ * Run with {@code ./gradlew :worldedit-bukkit:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SectionEncodingBenchmark {
+
+    private static final int GLOBAL_BITS = 15;
+
+    /**
+     * Distinct blocks in the section.
+     */
+    @Param({"1", "16", "256"})
+    public int paletteSize;
+
+    /**
+     * Whether half of the section is not being set, and is read from the existing blocks.
+     */
+    @Param({"false", "true"})
+    public boolean partial;
+
+    private char[] set;
+    private IntFunction<char[]> get;
+
+    private final int[] blockToPalette = new int[Character.MAX_VALUE + 1];
+    private final int[] paletteToBlock = new int[Character.MAX_VALUE + 1];
+    private final int[] indices = new int[4096];
+    private final long[] blockStates = new long[2048];
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(paletteSize);
+        char[] palette = new char[paletteSize];
+        for (int i = 0; i < paletteSize; i++) {
+            palette[i] = (char) (2 + i * 37);
+        }
+        set = new char[4096];
+        char[] existing = new char[4096];
+        for (int i = 0; i < 4096; i++) {
+            set[i] = palette[random.nextInt(paletteSize)];
+            existing[i] = palette[random.nextInt(paletteSize)];
+        }
+        if (partial) {
+            for (int i = 0; i < 4096; i += 2) {
+                set[i] = 0;
+            }
+        }
+        get = layer -> existing;
+        Arrays.fill(blockToPalette, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long[] encodeSection() {
+        return NMSAdapter.encodeSection(
+                0,
+                partial ? get : null,
+                set.clone(),
+                () -> {
+                    throw new IllegalStateException("palette should not need the global palette");
+                },
+                GLOBAL_BITS,
+                blockToPalette,
+                paletteToBlock,
+                indices
+        ).blockStates;
+    }
+
+    @Benchmark
+    @SuppressWarnings("removal")
+    public long[] createPaletteAndCopy() {
+        final char[] blocks = set.clone();
+        try {
+            int numPalette;
+            if (partial) {
+                numPalette = NMSAdapter.createPalette(0, blockToPalette, paletteToBlock, indices, get, blocks, null);
+            } else {
+                numPalette = NMSAdapter.createPalette(blockToPalette, paletteToBlock, indices, blocks, null);
+            }
+
+            int bitsPerEntry = MathMan.log2nlz(numPalette - 1);
+            if (bitsPerEntry > 0 && bitsPerEntry < 5) {
+                bitsPerEntry = 4;
+            } else if (bitsPerEntry > 8) {
+                bitsPerEntry = GLOBAL_BITS;
+            }
+
+            int bitsPerEntryNonZero = Math.max(bitsPerEntry, 1);
+            final int blocksPerLong = MathMan.floorZero((double) 64 / bitsPerEntryNonZero);
+            final int blockBitArrayEnd = MathMan.ceilZero((float) 4096 / blocksPerLong);
+
+            if (numPalette == 1) {
+                for (int i = 0; i < blockBitArrayEnd; i++) {
+                    blockStates[i] = 0;
+                }
+            } else {
+                final BitArrayUnstretched bitArray = new BitArrayUnstretched(bitsPerEntryNonZero, 4096, blockStates);
+                bitArray.fromRaw(indices);
+            }
+            return Arrays.copyOfRange(blockStates, 0, blockBitArrayEnd);
+        } finally {
+            Arrays.fill(blockToPalette, Integer.MAX_VALUE);
+            Arrays.fill(paletteToBlock, Integer.MAX_VALUE);
+            Arrays.fill(blockStates, 0);
+            Arrays.fill(indices, 0);
+        }
+    }
+
+}
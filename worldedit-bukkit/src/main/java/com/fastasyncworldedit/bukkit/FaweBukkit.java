@@ -1,6 +1,7 @@
 package com.fastasyncworldedit.bukkit;
 
 import com.fastasyncworldedit.bukkit.adapter.BukkitQueueHandler;
+import com.fastasyncworldedit.bukkit.adapter.ChunkResender;
 import com.fastasyncworldedit.bukkit.adapter.NMSAdapter;
 import com.fastasyncworldedit.bukkit.listener.BrushListener;
 import com.fastasyncworldedit.bukkit.listener.ChunkListener9;
@@ -281,6 +282,7 @@ public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         BukkitPlayer wePlayer = BukkitAdapter.adapt(player);
         wePlayer.unregister();
+        ChunkResender.forget(player.getUniqueId());
     }
 
     @Override
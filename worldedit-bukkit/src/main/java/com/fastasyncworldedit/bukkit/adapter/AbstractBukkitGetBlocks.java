@@ -11,6 +11,7 @@
 import com.fastasyncworldedit.core.queue.implementation.QueueHandler;
 import com.fastasyncworldedit.core.queue.implementation.blocks.CharGetBlocks;
 import com.fastasyncworldedit.core.util.MemUtil;
+import com.fastasyncworldedit.core.util.PipelineStats;
 import com.sk89q.worldedit.internal.util.LogManagerCompat;
 import com.sk89q.worldedit.util.formatting.text.TextComponent;
 import org.apache.logging.log4j.Logger;
@@ -20,11 +21,21 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 
 public abstract class AbstractBukkitGetBlocks<ServerLevel, LevelChunk> extends CharGetBlocks {
 
     private static final Logger LOGGER = LogManagerCompat.getLogger();
+    // Writes of all chunks that waited for another write to the same chunk
+    private static final LongAdder CONTENDED_CALLS = new LongAdder();
+    private static final LongAdder CONTENDED_NANOS = new LongAdder();
+
+    static {
+        PipelineStats.registerGauge("chunk.contended-calls", CONTENDED_CALLS::sum);
+        PipelineStats.registerGauge("chunk.contended-millis", () -> CONTENDED_NANOS.sum() / 1_000_000);
+    }
 
     protected final ServerLevel serverLevel;
     protected final int chunkX;
@@ -37,6 +48,9 @@
     protected boolean createCopy = false;
     protected boolean forceLoadSections = true;
     protected int copyKey = 0;
+    // Read without taking callLock, so reading them does not wait for a write in progress
+    private final AtomicLong contendedCalls = new AtomicLong();
+    private final AtomicLong contendedNanos = new AtomicLong();
 
     protected AbstractBukkitGetBlocks(
             ServerLevel serverLevel, int chunkX, int chunkZ, int minY, int maxY
@@ -190,7 +204,39 @@ public IChunkGet getCopy(final int key) {
 
     @Override
     public void lockCall() {
+        if (this.callLock.tryLock()) {
+            return;
+        }
+        // Another edit is writing to this chunk
+        long start = System.nanoTime();
         this.callLock.lock();
+        long waited = System.nanoTime() - start;
+        contendedCalls.incrementAndGet();
+        contendedNanos.addAndGet(waited);
+        CONTENDED_CALLS.increment();
+        CONTENDED_NANOS.add(waited);
+        if (PipelineStats.isEnabled()) {
+            PipelineStats.recordNanos("chunk.call-lock-wait", waited);
+            PipelineStats.count("chunk.contended-calls." + chunkX + "," + chunkZ, 1);
+        }
+    }
+
+    /**
+     * Get the number of writes to this chunk that had to wait for another write to it to finish.
+     *
+     * @since 2.13.1
+     */
+    public long getContendedCalls() {
+        return contendedCalls.get();
+    }
+
+    /**
+     * Get the total time writes to this chunk waited for other writes to it to finish, in nanoseconds.
+     *
+     * @since 2.13.1
+     */
+    public long getContendedNanos() {
+        return contendedNanos.get();
     }
 
     @Override
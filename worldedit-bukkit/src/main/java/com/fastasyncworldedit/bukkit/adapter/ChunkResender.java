@@ -0,0 +1,250 @@
+package com.fastasyncworldedit.bukkit.adapter;
+
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.fastasyncworldedit.core.util.TaskManager;
+import com.sk89q.worldedit.bukkit.WorldEditPlugin;
+import com.sk89q.worldedit.internal.util.LogManagerCompat;
+import org.apache.logging.log4j.Logger;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resends edited chunks to players.
+ * <ul>
+ *     <li>Resends are run on the thread owning the chunk: its region thread on Folia, the main thread otherwise</li>
+ *     <li>Resends of a chunk requested before a pending resend of it has run are coalesced into the pending resend</li>
+ *     <li>Packets are sent to each player at most at the rate of {@code queue.chunk-send.bytes-per-tick}. Chunks of packets
+ *     over the limit are queued for the player, and sent from their state at the time once bandwidth is available</li>
+ *     <li>Players are forgotten once they leave</li>
+ * </ul>
+ *
+ * @since 2.13.1
+ */
+public final class ChunkResender {
+
+    private static final Logger LOGGER = LogManagerCompat.getLogger();
+
+    private static final boolean FOLIA;
+
+    static {
+        boolean folia = false;
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            folia = true;
+        } catch (ClassNotFoundException ignored) {
+            // Not Folia
+        }
+        FOLIA = folia;
+    }
+
+    private static final Set<PendingChunk> PENDING = ConcurrentHashMap.newKeySet();
+    private static final Map<UUID, Bandwidth> BANDWIDTH = new ConcurrentHashMap<>();
+
+    private ChunkResender() {
+    }
+
+    /**
+     * If the server is running Folia.
+     */
+    public static boolean isFolia() {
+        return FOLIA;
+    }
+
+    /**
+     * Schedule a resend of a chunk on the thread owning the chunk. If a resend of the chunk is already pending, the given
+     * resend is not scheduled, as the pending resend will send the chunk as it is when it runs.
+     *
+     * @param world  the world of the chunk
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @param resend builds and sends the chunk packets, e.g. using {@link #send}
+     */
+    public static void resend(World world, int chunkX, int chunkZ, Runnable resend) {
+        PendingChunk pending = new PendingChunk(world.getName(), chunkX, chunkZ);
+        if (!PENDING.add(pending)) {
+            return;
+        }
+        schedule(world, chunkX, chunkZ, () -> {
+            // Removed first, so that a resend requested while this one is running is not lost
+            PENDING.remove(pending);
+            resend.run();
+        }, () -> PENDING.remove(pending));
+    }
+
+    /**
+     * Run a task on the thread owning a chunk, e.g. to send updates to it that may not be coalesced.
+     *
+     * @param world  the world of the chunk
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @param task   the task
+     */
+    public static void run(World world, int chunkX, int chunkZ, Runnable task) {
+        schedule(world, chunkX, chunkZ, task, null);
+    }
+
+    private static void schedule(World world, int chunkX, int chunkZ, Runnable task, @Nullable Runnable onFailure) {
+        Runnable safeTask = () -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                LOGGER.warn("Error sending chunk", e);
+            }
+        };
+        try {
+            if (FOLIA) {
+                Bukkit.getRegionScheduler().execute(WorldEditPlugin.getInstance(), world, chunkX, chunkZ, safeTask);
+            } else {
+                TaskManager.taskManager().task(safeTask);
+            }
+        } catch (Exception e) {
+            if (onFailure != null) {
+                onFailure.run();
+            }
+            LOGGER.warn("Error scheduling chunk send", e);
+        }
+    }
+
+    /**
+     * Send a chunk packet to a player, within the player's bandwidth limit. If the player has exceeded the limit, the
+     * packet is dropped and the chunk is queued for the player instead. Once bandwidth is available, the chunk is sent again
+     * with {@code sendCurrent}, on the thread owning the chunk, so the player is sent its state at that time and not a stale
+     * packet. A chunk queued for a player more than once is sent once.
+     *
+     * @param player      the player
+     * @param world       the world of the chunk
+     * @param chunkX      the x coordinate of the chunk
+     * @param chunkZ      the z coordinate of the chunk
+     * @param bytes       the (estimated) size of the packet
+     * @param send        sends the packet to the player
+     * @param sendCurrent builds a packet of the whole chunk from its current state and sends it to the player, without
+     *                    checking the limit
+     */
+    public static void send(UUID player, World world, int chunkX, int chunkZ, int bytes, Runnable send, Runnable sendCurrent) {
+        long bytesPerTick = Settings.settings().QUEUE.CHUNK_SEND.BYTES_PER_TICK;
+        if (bytesPerTick <= 0) {
+            send.run();
+            return;
+        }
+        Bandwidth bandwidth = BANDWIDTH.computeIfAbsent(player, k -> new Bandwidth());
+        boolean sendNow;
+        synchronized (bandwidth) {
+            bandwidth.refill(bytesPerTick);
+            sendNow = bandwidth.queue.isEmpty() && bandwidth.tokens > 0;
+            if (sendNow) {
+                bandwidth.tokens -= bytes;
+            } else {
+                PendingChunk key = new PendingChunk(world.getName(), chunkX, chunkZ);
+                QueuedChunk queued = bandwidth.queue.get(key);
+                bandwidth.queue.put(key, new QueuedChunk(
+                        world,
+                        chunkX,
+                        chunkZ,
+                        queued == null ? bytes : Math.max(bytes, queued.bytes),
+                        sendCurrent
+                ));
+                if (!bandwidth.drainScheduled) {
+                    bandwidth.drainScheduled = true;
+                    TaskManager.taskManager().laterAsync(() -> drain(player, bandwidth), 1);
+                }
+            }
+        }
+        if (sendNow) {
+            send.run();
+        }
+    }
+
+    /**
+     * Forget the bandwidth and queued chunks of a player, e.g. once they left.
+     *
+     * @param player the player
+     */
+    public static void forget(UUID player) {
+        Bandwidth bandwidth = BANDWIDTH.remove(player);
+        if (bandwidth != null) {
+            synchronized (bandwidth) {
+                bandwidth.queue.clear();
+            }
+        }
+    }
+
+    private static void drain(UUID player, Bandwidth bandwidth) {
+        long bytesPerTick = Settings.settings().QUEUE.CHUNK_SEND.BYTES_PER_TICK;
+        ArrayDeque<QueuedChunk> sending = new ArrayDeque<>();
+        synchronized (bandwidth) {
+            if (BANDWIDTH.get(player) != bandwidth) {
+                // Forgotten
+                bandwidth.drainScheduled = false;
+                return;
+            }
+            bandwidth.refill(bytesPerTick);
+            // A chunk larger than the limit is sent once any bandwidth is available, so every chunk is sent eventually
+            Iterator<QueuedChunk> iter = bandwidth.queue.values().iterator();
+            while (iter.hasNext() && (bytesPerTick <= 0 || bandwidth.tokens > 0)) {
+                QueuedChunk chunk = iter.next();
+                iter.remove();
+                bandwidth.tokens -= chunk.bytes;
+                sending.add(chunk);
+            }
+            if (bandwidth.queue.isEmpty()) {
+                bandwidth.drainScheduled = false;
+                // Forget the player once they have caught up
+                if (bandwidth.tokens >= bytesPerTick * Bandwidth.MAX_SAVED_TICKS) {
+                    BANDWIDTH.remove(player, bandwidth);
+                }
+            } else {
+                TaskManager.taskManager().laterAsync(() -> drain(player, bandwidth), 1);
+            }
+        }
+        for (QueuedChunk chunk : sending) {
+            run(chunk.world, chunk.chunkX, chunk.chunkZ, chunk.sendCurrent);
+        }
+    }
+
+    private record PendingChunk(String world, int chunkX, int chunkZ) {
+
+    }
+
+    private record QueuedChunk(World world, int chunkX, int chunkZ, int bytes, Runnable sendCurrent) {
+
+    }
+
+    /**
+     * Token bucket of the bytes a player may be sent. Up to one second of bandwidth may be saved up.
+     */
+    private static final class Bandwidth {
+
+        private static final long TICK_NANOS = 50_000_000L;
+        private static final int MAX_SAVED_TICKS = 20;
+
+        // Chunks waiting for bandwidth, in the order they were first queued
+        private final LinkedHashMap<PendingChunk, QueuedChunk> queue = new LinkedHashMap<>();
+        private long tokens;
+        private long lastRefill = System.nanoTime();
+        private boolean drainScheduled;
+
+        private Bandwidth() {
+            tokens = Settings.settings().QUEUE.CHUNK_SEND.BYTES_PER_TICK;
+        }
+
+        private void refill(long bytesPerTick) {
+            long now = System.nanoTime();
+            long ticks = (now - lastRefill) / TICK_NANOS;
+            if (ticks > 0) {
+                tokens = Math.min(bytesPerTick * MAX_SAVED_TICKS, tokens + ticks * bytesPerTick);
+                lastRefill += ticks * TICK_NANOS;
+            }
+        }
+
+    }
+
+}
@@ -3,18 +3,157 @@
 import com.fastasyncworldedit.bukkit.FaweBukkitWorld;
 import com.fastasyncworldedit.core.FAWEPlatformAdapterImpl;
 import com.fastasyncworldedit.core.Fawe;
+import com.fastasyncworldedit.core.FaweCache;
 import com.fastasyncworldedit.core.math.IntPair;
 import com.fastasyncworldedit.core.queue.IChunkGet;
 import com.fastasyncworldedit.core.util.MathMan;
 import com.fastasyncworldedit.core.util.ReflectionUtils;
 import com.sk89q.worldedit.world.block.BlockTypesCache;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 public class NMSAdapter implements FAWEPlatformAdapterImpl {
 
+    /**
+     * Encode a chunk section into the palette and packed block states of a new section, in a single pass over the blocks.
+     * Block states are packed directly into an array sized for the section, which may be handed to the section without
+     * being copied.
+     * <p>
+     * If more than 256 distinct blocks are present, the indices of the global palette are packed using the adapter's
+     * ordinal to id mapping, and the returned palette should be ignored.
+     * <p>
+     * The returned palette is reused by the current thread, and must be consumed before a section is encoded again.
+     *
+     * @param layer      the layer of the section
+     * @param get        existing blocks, used for the blocks of the set array that are not being set, or null
+     * @param set        the blocks of the section. Blocks that are not being set are replaced with the existing blocks
+     * @param adapter    adapter providing the global palette
+     * @param globalBits bits per entry of the global palette
+     * @return the palette, with {@link FaweCache.Palette#blockStates} owned by the caller
+     * @since 2.13.1
+     */
+    public static FaweCache.Palette encodeSection(
+            int layer,
+            @Nullable IntFunction<char[]> get,
+            char[] set,
+            CachedBukkitAdapter adapter,
+            int globalBits
+    ) {
+        return encodeSection(
+                layer,
+                get,
+                set,
+                adapter::getOrdinalToIbdID,
+                globalBits,
+                FaweCache.INSTANCE.BLOCK_TO_PALETTE.get(),
+                FaweCache.INSTANCE.PALETTE_TO_BLOCK.get(),
+                FaweCache.INSTANCE.SECTION_BLOCKS.get()
+        );
+    }
+
+    /**
+     * Encode a chunk section using the given tables, as {@link #encodeSection(int, IntFunction, char[], CachedBukkitAdapter, int)}
+     * does with the thread-local tables of {@link FaweCache}.
+     *
+     * @param ordinalToId    supplies the global palette, if required
+     * @param blockToPalette ordinal to palette index table, all entries {@link Integer#MAX_VALUE}. Left as it was given
+     * @param paletteToBlock palette index to ordinal table, returned as part of the palette
+     * @param indices        holds the palette indices of the section while it is encoded
+     */
+    static FaweCache.Palette encodeSection(
+            int layer,
+            @Nullable IntFunction<char[]> get,
+            char[] set,
+            Supplier<int[]> ordinalToId,
+            int globalBits,
+            int[] blockToPalette,
+            int[] paletteToBlock,
+            int[] indices
+    ) {
+        int numPaletteEntries = 0;
+        try {
+            char[] getArr = null;
+            for (int i = 0; i < 4096; i++) {
+                int ordinal = set[i];
+                if (ordinal == BlockTypesCache.ReservedIDs.__RESERVED__ && get != null) {
+                    if (getArr == null) {
+                        getArr = get.apply(layer);
+                    }
+                    // write to set array as this should be a copied array, and will be important when the changes are
+                    // written to the GET chunk cached by FAWE.
+                    set[i] = (char) (ordinal = Math.max(getArr[i], BlockTypesCache.ReservedIDs.AIR));
+                }
+                ordinal = Math.max(ordinal, BlockTypesCache.ReservedIDs.AIR);
+                int palette = blockToPalette[ordinal];
+                if (palette == Integer.MAX_VALUE) {
+                    blockToPalette[ordinal] = palette = numPaletteEntries;
+                    paletteToBlock[numPaletteEntries] = ordinal;
+                    numPaletteEntries++;
+                }
+                indices[i] = palette;
+            }
+        } finally {
+            // Only the used entries need to be reset
+            for (int i = 0; i < numPaletteEntries; i++) {
+                blockToPalette[paletteToBlock[i]] = Integer.MAX_VALUE;
+            }
+        }
+
+        int bitsPerEntry = MathMan.log2nlz(numPaletteEntries - 1);
+        if (bitsPerEntry > 0 && bitsPerEntry < 5) {
+            bitsPerEntry = 4;
+        } else if (bitsPerEntry > 8) {
+            // If bits per entry is over 8, the game uses the global palette.
+            bitsPerEntry = globalBits;
+            int[] ordinalToIbdId = ordinalToId.get();
+            for (int i = 0; i < 4096; i++) {
+                indices[i] = ordinalToIbdId[paletteToBlock[indices[i]]];
+            }
+        }
+
+        final long[] blockStates = packBlockStates(indices, bitsPerEntry);
+
+        FaweCache.Palette palette = new FaweCache.Palette();
+        palette.bitsPerEntry = bitsPerEntry;
+        palette.paletteToBlockLength = numPaletteEntries;
+        palette.paletteToBlock = paletteToBlock;
+        palette.blockStatesLength = blockStates.length;
+        palette.blockStates = blockStates;
+        return palette;
+    }
+
+    /**
+     * Pack the palette indices of a section, {@code 64 / bitsPerEntry} per long starting at the lowest bits. Entries do not
+     * span longs.
+     *
+     * @param indices      the palette indices of the 4096 blocks of a section
+     * @param bitsPerEntry bits per entry, 0 if the palette has a single entry
+     * @return the packed indices
+     */
+    static long[] packBlockStates(int[] indices, int bitsPerEntry) {
+        if (bitsPerEntry == 0) {
+            return new long[0];
+        }
+        final int valuesPerLong = 64 / bitsPerEntry;
+        final long[] blockStates = new long[(4096 + valuesPerLong - 1) / valuesPerLong];
+        for (int i = 0, index = 0; i < blockStates.length; i++) {
+            long value = 0;
+            for (int shift = 0, end = Math.min(index + valuesPerLong, 4096); index < end; shift += bitsPerEntry) {
+                value |= (long) indices[index++] << shift;
+            }
+            blockStates[i] = value;
+        }
+        return blockStates;
+    }
+
+    /**
+     * @deprecated Use {@link #encodeSection(int, IntFunction, char[], CachedBukkitAdapter, int)}
+     */
+    @Deprecated(forRemoval = true, since = "2.13.1")
     public static int createPalette(
             int[] blockToPalette,
             int[] paletteToBlock,
@@ -38,6 +177,10 @@ public static int createPalette(
         return numPaletteEntries;
     }
 
+    /**
+     * @deprecated Use {@link #encodeSection(int, IntFunction, char[], CachedBukkitAdapter, int)}
+     */
+    @Deprecated(forRemoval = true, since = "2.13.1")
     public static int createPalette(
             int layer,
             int[] blockToPalette,
@@ -31,6 +31,7 @@
 
 import javax.annotation.Nullable;
 import java.lang.ref.WeakReference;
+import java.util.UUID;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -108,6 +109,15 @@ public BaseEntity getState() {
         }
     }
 
+    //FAWE start
+    @Nullable
+    @Override
+    public UUID getUniqueId() {
+        org.bukkit.entity.Entity entity = entityRef.get();
+        return entity != null ? entity.getUniqueId() : null;
+    }
+    //FAWE end
+
     @Override
     public boolean remove() {
         org.bukkit.entity.Entity entity = entityRef.get();
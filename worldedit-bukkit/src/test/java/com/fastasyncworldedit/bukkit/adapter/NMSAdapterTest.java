@@ -0,0 +1,51 @@
+package com.fastasyncworldedit.bukkit.adapter;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NMSAdapterTest {
+
+    @Nested
+    class packBlockStates {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 4, 5, 6, 7, 8, 9, 13, 15, 16})
+        void testEntriesAreReadBackAsStoredByTheGame(int bitsPerEntry) {
+            SplittableRandom random = new SplittableRandom(bitsPerEntry);
+            int[] indices = new int[4096];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = random.nextInt(1 << bitsPerEntry);
+            }
+
+            long[] packed = NMSAdapter.packBlockStates(indices, bitsPerEntry);
+
+            // Sections read entries as SimpleBitStorage does: entries do not span longs
+            int valuesPerLong = 64 / bitsPerEntry;
+            assertEquals((4096 + valuesPerLong - 1) / valuesPerLong, packed.length);
+            long mask = (1L << bitsPerEntry) - 1;
+            for (int i = 0; i < indices.length; i++) {
+                long value = packed[i / valuesPerLong] >>> (i % valuesPerLong * bitsPerEntry) & mask;
+                assertEquals(indices[i], value, "entry " + i);
+            }
+            for (int i = 0; i < packed.length; i++) {
+                int used = Math.min(valuesPerLong, 4096 - i * valuesPerLong) * bitsPerEntry;
+                if (used < 64) {
+                    assertEquals(0, packed[i] >>> used, "unused bits of long " + i);
+                }
+            }
+        }
+
+        @Test
+        void testSingleEntryPaletteHasNoStates() {
+            assertEquals(0, NMSAdapter.packBlockStates(new int[4096], 0).length);
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@
 plugins {
     `java-library`
     antlr
+    alias(libs.plugins.jmh)
 }
 
 project.description = "Core"
@@ -66,6 +67,9 @@
     testRuntimeOnly(libs.log4jCore)
     testImplementation(libs.parallelgzip)
 
+    // Benchmarks
+    jmhImplementation(libs.sparsebitset)
+
     compileOnly("org.spigotmc:spigot-api:1.16.5-R0.1-SNAPSHOT")
 }
 
@@ -73,6 +77,15 @@
     maxHeapSize = "1G"
 }
 
+// Benchmarks of the vectorized masks and patterns
+tasks.named<JavaCompile>("compileJmhJava") {
+    options.compilerArgs.add("--add-modules=jdk.incubator.vector")
+}
+
+jmh {
+    jvmArgsAppend.add("--add-modules=jdk.incubator.vector")
+}
+
 tasks.withType<JavaCompile>().configureEach {
     dependsOn(":worldedit-libs:build")
     options.compilerArgs.add("-Aarg.name.key.prefix=")
@@ -0,0 +1,144 @@
+package com.fastasyncworldedit.core.extent.processor;
+
+import com.fastasyncworldedit.core.queue.IBatchProcessor;
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.fastasyncworldedit.core.queue.IChunkGet;
+import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.ISectionBatchProcessor;
+import com.sk89q.worldedit.extent.Extent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares section processors fused into a single pass over the sections of a chunk by {@link MultiBatchProcessor} with
+ * the same processors each scanning every section in turn. Run with {@code ./gradlew :worldedit-core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiBatchProcessorBenchmark {
+
+    private static final int MIN_SECTION = -4;
+    private static final int MAX_SECTION = 19;
+
+    /**
+     * Number of processors reading the sections, e.g. history, limits and disallowed blocks for //set.
+     */
+    @Param({"2", "4", "8"})
+    public int processors;
+
+    private IChunkSet set;
+    private IBatchProcessor fused;
+    private IBatchProcessor separate;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1);
+        char[][] sections = new char[MAX_SECTION - MIN_SECTION + 1][];
+        for (int i = 0; i < sections.length; i++) {
+            char[] blocks = new char[4096];
+            for (int j = 0; j < blocks.length; j++) {
+                blocks[j] = (char) random.nextInt(1, 1024);
+            }
+            sections[i] = blocks;
+        }
+        set = (IChunkSet) Proxy.newProxyInstance(
+                IChunkSet.class.getClassLoader(),
+                new Class<?>[]{IChunkSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getMinSectionPosition" -> MIN_SECTION;
+                    case "getMaxSectionPosition" -> MAX_SECTION;
+                    case "hasSection" -> true;
+                    case "loadIfPresent" -> sections[(int) args[0] - MIN_SECTION];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+        IBatchProcessor[] sectionProcessors = new IBatchProcessor[processors];
+        IBatchProcessor[] plainProcessors = new IBatchProcessor[processors];
+        for (int i = 0; i < processors; i++) {
+            ScanningProcessor processor = new ScanningProcessor(i);
+            sectionProcessors[i] = processor;
+            plainProcessors[i] = new PlainProcessor(processor);
+        }
+        fused = new MultiBatchProcessor(sectionProcessors);
+        separate = new MultiBatchProcessor(plainProcessors);
+    }
+
+    @Benchmark
+    public IChunkSet fused() {
+        return fused.processSet(null, null, set);
+    }
+
+    @Benchmark
+    public IChunkSet separate() {
+        return separate.processSet(null, null, set);
+    }
+
+    // Reads every block of a section, as history or block limits do
+    private static final class ScanningProcessor implements ISectionBatchProcessor {
+
+        private final int salt;
+        long result;
+
+        private ScanningProcessor(int salt) {
+            this.salt = salt;
+        }
+
+        @Override
+        public void processSection(IChunk chunk, IChunkGet get, IChunkSet set, int layer, char[] blocks) {
+            long sum = result;
+            for (char block : blocks) {
+                sum += block ^ salt;
+            }
+            result = sum;
+        }
+
+        @Override
+        public Extent construct(Extent child) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ProcessorScope getScope() {
+            return ProcessorScope.READING_BLOCKS;
+        }
+
+    }
+
+    // Hides that the processor works by section, so it scans the chunk on its own
+    private record PlainProcessor(ScanningProcessor processor) implements IBatchProcessor {
+
+        @Override
+        public IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
+            return processor.processSet(chunk, get, set);
+        }
+
+        @Override
+        public Extent construct(Extent child) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ProcessorScope getScope() {
+            return ProcessorScope.READING_BLOCKS;
+        }
+
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.fastasyncworldedit.core.internal.simd;
+
+import com.fastasyncworldedit.core.math.random.TrueRandom;
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.util.collection.RandomCollection;
+import com.sk89q.worldedit.function.mask.BlockMask;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the vectorized block masks, mask unions and intersections and random patterns of {@link SimdSupport} with
+ * testing each block's ordinal against the masks and picking each block from a {@link RandomCollection}, over the sections
+ * of a chunk. Masks are built from ordinal tables, as block states cannot be created without a platform, so the scalar
+ * side measures {@link BlockMask#testOrdinal} rather than the position based {@code test} methods.
+ * Run with {@code ./gradlew :worldedit-core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimdSupportBenchmark {
+
+    private static final int SECTIONS = 24;
+    private static final int ORDINALS = 1024;
+    private static final char PATTERN = 5;
+
+    /**
+     * Number of block masks combined into a union or intersection.
+     */
+    @Param({"2", "4"})
+    public int masks;
+
+    /**
+     * Number of blocks of the random pattern.
+     */
+    @Param({"2", "8"})
+    public int blocks;
+
+    private char[][] existing;
+    private char[] work;
+
+    private BlockMask[] blockMasks;
+    private VectorizedMask[] vectorizedMasks;
+    private VectorizedMask union;
+    private VectorizedMask intersection;
+
+    private RandomCollection<Character> collection;
+    private VectorizedFilter randomPattern;
+
+    private VectorFacade get;
+    private VectorFacade set;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1);
+        existing = new char[SECTIONS][4096];
+        for (char[] section : existing) {
+            for (int i = 0; i < section.length; i++) {
+                section[i] = (char) random.nextInt(2, ORDINALS);
+            }
+        }
+        work = new char[4096];
+
+        // Each mask passes a quarter of the ordinals
+        blockMasks = new BlockMask[masks];
+        vectorizedMasks = new VectorizedMask[masks];
+        for (int i = 0; i < masks; i++) {
+            boolean[] ordinals = new boolean[ORDINALS];
+            short[] table = new short[ORDINALS];
+            for (int ordinal = 2; ordinal < ORDINALS; ordinal++) {
+                if (random.nextInt(4) == 0) {
+                    ordinals[ordinal] = true;
+                    table[ordinal] = 1;
+                }
+            }
+            blockMasks[i] = new BlockMask(null, ordinals);
+            vectorizedMasks[i] = SimdSupport.vectorizedTargetMask(table);
+        }
+        union = SimdSupport.combine(vectorizedMasks, true);
+        intersection = SimdSupport.combine(vectorizedMasks, false);
+
+        Map<Character, Double> weights = new HashMap<>();
+        short[] ordinals = new short[blocks];
+        double[] values = new double[blocks];
+        for (int i = 0; i < blocks; i++) {
+            ordinals[i] = (short) (2 + i);
+            values[i] = 1 + i;
+            weights.put((char) ordinals[i], values[i]);
+        }
+        collection = RandomCollection.of(weights, new TrueRandom());
+        randomPattern = new SimdSupport.VectorizedRandomPattern<>(new Filter() {
+        }, ordinals, SimdSupport.thresholds(values));
+
+        get = new VectorFacade(null);
+        set = new VectorFacade(null);
+    }
+
+    // The blocks to set, before the mask is applied
+    private void fill() {
+        for (int i = 0; i < work.length; i++) {
+            work[i] = PATTERN;
+        }
+    }
+
+    private void processSections(VectorizedMask mask) {
+        for (char[] section : existing) {
+            fill();
+            get.setData(section);
+            set.setData(work);
+            mask.processSection(0, set, get);
+        }
+    }
+
+    @Benchmark
+    public char[] blockMaskScalar() {
+        BlockMask mask = blockMasks[0];
+        for (char[] section : existing) {
+            fill();
+            for (int i = 0; i < 4096; i++) {
+                if (!mask.testOrdinal(section[i])) {
+                    work[i] = 0;
+                }
+            }
+        }
+        return work;
+    }
+
+    @Benchmark
+    public char[] blockMaskVector() {
+        processSections(vectorizedMasks[0]);
+        return work;
+    }
+
+    @Benchmark
+    public char[] unionScalar() {
+        for (char[] section : existing) {
+            fill();
+            for (int i = 0; i < 4096; i++) {
+                boolean passes = false;
+                for (int j = 0; j < blockMasks.length && !passes; j++) {
+                    passes = blockMasks[j].testOrdinal(section[i]);
+                }
+                if (!passes) {
+                    work[i] = 0;
+                }
+            }
+        }
+        return work;
+    }
+
+    @Benchmark
+    public char[] unionVector() {
+        processSections(union);
+        return work;
+    }
+
+    @Benchmark
+    public char[] intersectionScalar() {
+        for (char[] section : existing) {
+            fill();
+            for (int i = 0; i < 4096; i++) {
+                boolean passes = true;
+                for (int j = 0; j < blockMasks.length && passes; j++) {
+                    passes = blockMasks[j].testOrdinal(section[i]);
+                }
+                if (!passes) {
+                    work[i] = 0;
+                }
+            }
+        }
+        return work;
+    }
+
+    @Benchmark
+    public char[] intersectionVector() {
+        processSections(intersection);
+        return work;
+    }
+
+    @Benchmark
+    public char[] randomPatternScalar() {
+        for (int section = 0; section < SECTIONS; section++) {
+            for (int i = 0; i < 4096; i++) {
+                work[i] = collection.next(i & 15, section << 4 | i >> 8, i >> 4 & 15);
+            }
+        }
+        return work;
+    }
+
+    @Benchmark
+    public char[] randomPatternVector() {
+        final VectorSpecies<Short> species = ShortVector.SPECIES_PREFERRED;
+        final VectorMask<Short> all = species.maskAll(true);
+        for (int section = 0; section < SECTIONS; section++) {
+            set.setData(work);
+            for (int i = 0; i < 4096; i += species.length()) {
+                set.setIndex(i);
+                randomPattern.applyVector(get, set, all);
+            }
+        }
+        return work;
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.fastasyncworldedit.core.math;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bulk operations of {@link BlockVectorSet} with the per-position operations they replace, the iteration
+ * methods, and concurrent adds to {@link ConcurrentBlockVectorSet} and to a synchronized {@link BlockVectorSet}.
+ * Run with {@code ./gradlew :worldedit-core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockVectorSetBenchmark {
+
+    /**
+     * Side length of the overlapping cubes both sets are filled from.
+     */
+    @Param({"64", "256"})
+    public int size;
+
+    private BlockVectorSet first;
+    private BlockVectorSet second;
+    // Hides the type of the second set, so the per-position paths are taken
+    private Collection<BlockVector3> secondAsCollection;
+
+    private ConcurrentBlockVectorSet concurrent;
+    private BlockVectorSet synchronizedSet;
+
+    @Setup
+    public void setup() {
+        first = fill(0, 1);
+        second = fill(size / 2, 2);
+        secondAsCollection = Collections.unmodifiableCollection(second);
+        concurrent = new ConcurrentBlockVectorSet();
+        synchronizedSet = new BlockVectorSet();
+    }
+
+    // Half of the positions of a cube, across region boundaries in x and z
+    private BlockVectorSet fill(int offset, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BlockVectorSet set = new BlockVectorSet();
+        int min = -size / 2 + offset;
+        for (int x = min; x < min + size; x++) {
+            for (int z = min; z < min + size; z++) {
+                for (int y = 0; y < Math.min(size, 256); y++) {
+                    if (random.nextBoolean()) {
+                        set.add(x + 2048, y, z + 2048);
+                    }
+                }
+            }
+        }
+        return set;
+    }
+
+    @Benchmark
+    public BlockVectorSet retainAllBulk() {
+        BlockVectorSet set = first.copy();
+        set.retainAll(second);
+        return set;
+    }
+
+    @Benchmark
+    public BlockVectorSet retainAllPerPosition() {
+        BlockVectorSet set = first.copy();
+        set.retainAll(secondAsCollection);
+        return set;
+    }
+
+    @Benchmark
+    public BlockVectorSet addAllBulk() {
+        BlockVectorSet set = first.copy();
+        set.addAll(second);
+        return set;
+    }
+
+    @Benchmark
+    public BlockVectorSet addAllPerPosition() {
+        BlockVectorSet set = first.copy();
+        set.addAll(secondAsCollection);
+        return set;
+    }
+
+    @Benchmark
+    public BlockVectorSet removeAllBulk() {
+        BlockVectorSet set = first.copy();
+        set.removeAll(second);
+        return set;
+    }
+
+    @Benchmark
+    public BlockVectorSet removeAllPerPosition() {
+        BlockVectorSet set = first.copy();
+        set.removeAll(secondAsCollection);
+        return set;
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (BlockVector3 pos : first) {
+            blackhole.consume(pos.x() + pos.y() + pos.z());
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole blackhole) {
+        first.forEach((x, y, z, index) -> blackhole.consume(x + y + z));
+    }
+
+    @Benchmark
+    public void forEachInChunkOrder(Blackhole blackhole) {
+        first.forEachInChunkOrder((x, y, z, index) -> blackhole.consume(x + y + z));
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(4)
+    public boolean addConcurrent(ThreadPositions positions) {
+        return concurrent.add(positions.nextX(), positions.nextY(), positions.nextZ());
+    }
+
+    @Benchmark
+    @Group("synchronized")
+    @GroupThreads(4)
+    public boolean addSynchronized(ThreadPositions positions) {
+        synchronized (synchronizedSet) {
+            return synchronizedSet.add(positions.nextX(), positions.nextY(), positions.nextZ());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadPositions {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        int nextX() {
+            return random.nextInt(-512, 512);
+        }
+
+        int nextY() {
+            return random.nextInt(-64, 320);
+        }
+
+        int nextZ() {
+            return random.nextInt(-512, 512);
+        }
+
+    }
+
+}
@@ -54,6 +54,7 @@
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.LongFunction;
 import java.util.function.Supplier;
@@ -80,12 +81,52 @@ public enum FaweCache implements Trimable {
 
     private final IdentityHashMap<Class<? extends IChunkSet>, Pool<? extends IChunkSet>> REGISTERED_POOLS = new IdentityHashMap<>();
 
+    // Number of times threads were requested to release their buffers, and the number each thread has released them for
+    private final AtomicInteger trimRequests = new AtomicInteger();
+    private final ThreadLocal<int[]> trimmedRequests = ThreadLocal.withInitial(() -> new int[1]);
+
     /*
     Palette buffers / cache
      */
 
     @Override
     public synchronized boolean trim(boolean aggressive) {
+        cleanThreadBuffers();
+        for (Entry<Class<? extends IChunkSet>, Pool<? extends IChunkSet>> entry : REGISTERED_POOLS.entrySet()) {
+            Pool<? extends IChunkSet> pool = entry.getValue();
+            pool.clear();
+        }
+
+        return false;
+    }
+
+    /**
+     * Request every thread to release its buffers. Buffers are thread-local and can only be released by their own thread,
+     * so each thread releases them the next time it calls {@link #trimIfRequested()}.
+     *
+     * @since 2.13.1
+     */
+    public void requestTrim() {
+        trimRequests.incrementAndGet();
+    }
+
+    /**
+     * Release the buffers of the calling thread if {@link #requestTrim()} was called since they were last released. Called
+     * by threads writing chunks and applying filters before they start.
+     *
+     * @since 2.13.1
+     */
+    public void trimIfRequested() {
+        int requested = trimRequests.get();
+        int[] trimmed = trimmedRequests.get();
+        if (trimmed[0] != requested) {
+            trimmed[0] = requested;
+            cleanThreadBuffers();
+        }
+    }
+
+    // Release the buffers of the calling thread
+    private void cleanThreadBuffers() {
         CHUNK_FLAG.clean();
         BYTE_BUFFER_8192.clean();
         BLOCK_TO_PALETTE.clean();
@@ -99,12 +140,6 @@ public synchronized boolean trim(boolean aggressive) {
         MUTABLE_VECTOR3.clean();
         MUTABLE_BLOCKVECTOR3.clean();
         SECTION_BITS_TO_CHAR.clean();
-        for (Entry<Class<? extends IChunkSet>, Pool<? extends IChunkSet>> entry : REGISTERED_POOLS.entrySet()) {
-            Pool<? extends IChunkSet> pool = entry.getValue();
-            pool.clear();
-        }
-
-        return false;
     }
 
     public synchronized <T extends IChunkSet> Pool<T> registerPool(Class<T> clazz, Supplier<T> cache, boolean buffer) {
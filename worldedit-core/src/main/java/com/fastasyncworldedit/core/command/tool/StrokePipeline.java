@@ -0,0 +1,180 @@
+package com.fastasyncworldedit.core.command.tool;
+
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.fastasyncworldedit.core.extent.PendingBlockExtent;
+import com.fastasyncworldedit.core.util.TaskManager;
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.LocalSession;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.entity.Player;
+import com.sk89q.worldedit.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Places consecutive brush strokes of a session together. The strokes set their blocks on one edit, which is committed
+ * (one commit per chunk, then relit) once no stroke follows within {@link Settings.QUEUE.BRUSH_STROKES#WINDOW_MS}.
+ * <ul>
+ *     <li>Strokes read the blocks of the strokes before them, see {@link PendingBlockExtent}</li>
+ *     <li>Each stroke records its own history as it sets blocks, and is remembered as its own undo step once placed</li>
+ *     <li>Other edits, undo and redo of the session place the waiting strokes first</li>
+ * </ul>
+ *
+ * @since 2.13.1
+ */
+public class StrokePipeline {
+
+    private final LocalSession session;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final List<EditSession> strokes = new ArrayList<>();
+    private EditSession batch;
+    private PendingBlockExtent pending;
+    private World world;
+    private int generation;
+    private volatile boolean placeRequested;
+
+    /**
+     * Create a new instance.
+     *
+     * @param session the session the strokes belong to
+     */
+    public StrokePipeline(LocalSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Run a stroke, to be placed with the strokes before and after it. Should be run as an action of the player, see
+     * {@link Player#runAction(Runnable, boolean, boolean)}.
+     *
+     * @param player  the player
+     * @param stroke  runs the stroke
+     * @param waiting if another stroke is waiting to run after this one
+     */
+    public void run(Player player, Runnable stroke, BooleanSupplier waiting) {
+        if (!Settings.settings().QUEUE.BRUSH_STROKES.ENABLED) {
+            stroke.run();
+            return;
+        }
+        lock.lock();
+        try {
+            try {
+                stroke.run();
+            } finally {
+                if (batch != null) {
+                    int window = Settings.settings().QUEUE.BRUSH_STROKES.WINDOW_MS;
+                    boolean idle = !waiting.getAsBoolean();
+                    if (placeRequested || pending.size() >= Settings.settings().QUEUE.BRUSH_STROKES.MAX_BLOCKS
+                            || (idle && window <= 0)) {
+                        placeNow();
+                    } else if (idle) {
+                        int gen = generation;
+                        TaskManager.taskManager().laterAsync(
+                                () -> player.runAction(() -> placeIfIdle(gen), false, true),
+                                Math.max(1, window / 50)
+                        );
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get if the current thread is running a stroke through this pipeline.
+     */
+    public boolean isRunning() {
+        return lock.isHeldByCurrentThread();
+    }
+
+    /**
+     * Create the edit session of the running stroke, setting its blocks on the strokes placed together.
+     *
+     * @param player  the player
+     * @param command the command of the stroke
+     * @return an edit session
+     */
+    public EditSession createEditSession(Player player, String command) {
+        World world = session.hasWorldOverride() ? session.getWorldOverride() : player.getWorld();
+        if (batch != null && (!world.equals(this.world)
+                || pending.size() >= Settings.settings().QUEUE.BRUSH_STROKES.MAX_BLOCKS)) {
+            placeNow();
+        }
+        if (batch == null) {
+            batch = WorldEdit.getInstance().newEditSessionBuilder()
+                    .world(world)
+                    .actor(player)
+                    .changeSetNull()
+                    .limitUnlimited()
+                    .allowedRegionsEverywhere()
+                    .checkMemory(false)
+                    .fastMode(session.hasFastMode())
+                    .setSideEffectSet(session.getSideEffectSet())
+                    .build();
+            pending = new PendingBlockExtent(batch);
+            this.world = world;
+        }
+        generation++;
+        return session.createEditSession(player, command, pending);
+    }
+
+    /**
+     * Remember the edit session of the running stroke once the strokes are placed.
+     *
+     * @param editSession the edit session of the stroke
+     */
+    public void remember(EditSession editSession) {
+        strokes.add(editSession);
+    }
+
+    /**
+     * Place the waiting strokes, waiting for a stroke running on another thread to be done. If called by the running stroke,
+     * they are placed once it is done.
+     */
+    public void place() {
+        if (lock.isHeldByCurrentThread()) {
+            placeRequested = true;
+            return;
+        }
+        lock.lock();
+        try {
+            placeNow();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void placeIfIdle(int gen) {
+        lock.lock();
+        try {
+            if (gen == generation) {
+                placeNow();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void placeNow() {
+        placeRequested = false;
+        if (batch == null) {
+            return;
+        }
+        EditSession placing = batch;
+        batch = null;
+        pending = null;
+        world = null;
+        try {
+            placing.close();
+        } finally {
+            for (EditSession stroke : strokes) {
+                session.remember(stroke);
+            }
+            strokes.clear();
+        }
+    }
+
+}
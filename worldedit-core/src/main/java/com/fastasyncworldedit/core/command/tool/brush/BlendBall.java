@@ -1,21 +1,21 @@
 package com.fastasyncworldedit.core.command.tool.brush;
 
 import com.fastasyncworldedit.core.function.mask.CachedMask;
-import com.fastasyncworldedit.core.math.MutableBlockVector3;
+import com.fastasyncworldedit.core.math.stencil.OrdinalGrid;
+import com.fastasyncworldedit.core.math.stencil.StencilEngine;
+import com.fastasyncworldedit.core.math.stencil.StencilKernels;
 import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.MaxChangedBlocksException;
 import com.sk89q.worldedit.command.tool.brush.Brush;
 import com.sk89q.worldedit.function.pattern.Pattern;
 import com.sk89q.worldedit.math.BlockVector3;
-import com.sk89q.worldedit.world.block.BlockState;
 import com.sk89q.worldedit.world.block.BlockTypes;
 
 import javax.annotation.Nullable;
-import java.util.Arrays;
 
 public class BlendBall implements Brush {
 
-    private static final BlockState AIR = BlockTypes.AIR.getDefaultState();
+    private static final char AIR = BlockTypes.AIR.getDefaultState().getOrdinalChar();
 
     private final int minFreqDiff;
     private final boolean onlyAir;
@@ -50,93 +50,26 @@ public void build(EditSession editSession, BlockVector3 position, Pattern patter
         final int outsetSize = (int) (size + 1);
         double brushSizeSquared = size * size;
 
-        int tx = position.x();
-        int ty = position.y();
-        int tz = position.z();
-
-        int[] frequency = new int[BlockTypes.size()];
-
         int maxY = editSession.getMaxY();
         int minY = editSession.getMinY();
 
-        MutableBlockVector3 mutable = new MutableBlockVector3();
-        for (int x = -outsetSize; x <= outsetSize; x++) {
-            int x0 = x + tx;
-            int xx = x * x;
-            for (int y = -outsetSize; y <= outsetSize; y++) {
-                int y0 = y + ty;
-                if (y0 + 1 < minY || y0 - 1 > maxY) {
-                    continue;
-                }
-                int yy = y * y;
-                int xxyy = xx + yy;
-                if (xxyy >= brushSizeSquared) {
-                    continue;
-                }
-                for (int z = -outsetSize; z <= outsetSize; z++) {
-                    int z0 = z + tz;
-                    if (xxyy + z * z >= brushSizeSquared || maskFails(editSession, mutable.setComponents(x0, y0, z0))) {
-                        continue;
-                    }
-                    int highest = 1, currentBlockFrequency = 1;
-                    BlockState currentState = editSession.getBlock(x0, y0, z0);
-                    BlockState highestState = currentState;
-                    int currentStateID = currentState.getInternalBlockTypeId();
-                    Arrays.fill(frequency, 0);
-                    int air = 0;
-                    int total = 26;
-                    boolean tie = false;
-                    for (int ox = -1; ox <= 1; ox++) {
-                        for (int oz = -1; oz <= 1; oz++) {
-                            for (int oy = -1; oy <= 1; oy++) {
-                                if (ox == 0 && oy == 0 && oz == 0) {
-                                    continue;
-                                } else if (oy + y0 < minY || oy + y0 > maxY) {
-                                    total--;
-                                    continue;
-                                }
-                                boolean masked = maskFails(editSession, mutable.setComponents(x0 + ox, y0 + oy, z0 + oz));
-                                BlockState state = masked ? AIR : editSession.getBlock(x0 + ox, y0 + oy, z0 + oz);
-                                if (state.getBlockType().getMaterial().isAir()) {
-                                    air++;
-                                }
-                                int internalID = state.getInternalBlockTypeId();
-                                int count = frequency[internalID];
-                                if (internalID == currentStateID) {
-                                    currentBlockFrequency++;
-                                }
-                                count++;
-                                if (count - highest >= minFreqDiff) {
-                                    highest = count;
-                                    highestState = state;
-                                    tie = false;
-                                } else if (count == highest) {
-                                    tie = true;
-                                }
-                                frequency[internalID] = count;
-                            }
-                        }
-                    }
-                    if (onlyAir) {
-                        if (air * 2 - total >= minFreqDiff) {
-                            if (!currentState.isAir()) {
-                                editSession.setBlock(x0, y0, z0, AIR);
-                            }
-                        } else if (currentState.isAir() && total - 2 * air >= minFreqDiff) {
-                            editSession.setBlock(x0, y0, z0, highestState);
-                        }
-                        continue;
-                    }
-                    if (highest - currentBlockFrequency >= minFreqDiff && !tie && currentState != highestState) {
-                        editSession.setBlock(x0, y0, z0, highestState);
-                    }
-                }
-            }
-        }
+        OrdinalGrid grid = new OrdinalGrid(
+                position.subtract(outsetSize, outsetSize, outsetSize),
+                position.add(outsetSize, outsetSize, outsetSize),
+                1
+        );
+        // Ordinal 0 marks positions outside the world, which are not considered by the kernel
+        grid.load(editSession, (char) 0);
+        grid.activateSphere(position, brushSizeSquared);
+        // Positions not meeting the mask are considered as air and never altered
+        grid.retainMasked(pos -> pos.y() >= minY && pos.y() <= maxY && !maskFails(editSession, pos), AIR);
+
+        OrdinalGrid result = StencilEngine.iterate(grid, StencilKernels.blend(minFreqDiff, onlyAir), 1);
+        result.commit(editSession, grid);
     }
 
-    private boolean maskFails(EditSession editSession, MutableBlockVector3 mutable) {
-        return mask != null && !mask.test(editSession, mutable);
+    private boolean maskFails(EditSession editSession, BlockVector3 position) {
+        return mask != null && !mask.test(editSession, position);
     }
 
 }
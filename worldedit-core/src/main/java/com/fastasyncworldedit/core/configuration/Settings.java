@@ -496,6 +496,13 @@ public static class HISTORY {
                 " - Does not affect edit performance if `combine-stages`",
         })
         public boolean USE_DISK = true;
+        @Comment({
+                "Maximum memory (in MB) used by history kept in memory (use-disk: false), across all players",
+                " - When exceeded, the oldest history is moved to disk in the background",
+                " - Moved history can still be undone, but does not persist restarts",
+                " - Set to -1 to never move history to disk",
+        })
+        public int MEMORY_BUDGET_MB = 512;
         @Comment({
                 "Use a database to store disk storage summaries:",
                 " - Enables inspection and rollback",
@@ -536,6 +543,13 @@ public static class HISTORY {
                 " - Must be in the range [64, 33554432]",
         })
         public int BUFFER_SIZE = 531441;
+        @Comment({
+                "Store sections with many changed blocks as a single compact record",
+                " - Makes large edits faster to undo and their history smaller",
+                " - History written with this enabled cannot be read by FAWE versions before 2.13.1",
+                " - Disable before downgrading FAWE to keep new history readable by the older version",
+        })
+        public boolean SECTION_RECORDS = true;
 
         @Comment("Delete history on disk after a number of days")
         public int DELETE_AFTER_DAYS = 7;
@@ -570,6 +584,12 @@ public static class QUEUE {
 
         @Create
         public static PROGRESS PROGRESS;
+        @Create
+        public static SECTION_CACHE SECTION_CACHE;
+        @Create
+        public static CHUNK_SEND CHUNK_SEND;
+        @Create
+        public static BRUSH_STROKES BRUSH_STROKES;
 
         @Comment({
                 "This should equal the number of processors you have",
@@ -633,6 +653,14 @@ public static class QUEUE {
         @ComputedFrom(node = "queue.parallel-threads", computer = ConfigOptComputation.THREAD_TARGET_SIZE_COMPUTATION.class)
         public int THREAD_TARGET_SIZE_PERCENT = 100 * 2 / Runtime.getRuntime().availableProcessors();
 
+        @Comment({
+                "Maximum percentage of the heap used by chunks submitted to be written to the world that are not yet written",
+                " - Edits submitting chunks beyond this wait for their earlier chunks to be written, instead of running out of memory",
+                " - Shared fairly between concurrent edits, and halved while memory is low",
+                " - 0 = unlimited"
+        })
+        public int IN_FLIGHT_MEMORY_PERCENT = 25;
+
         public static class PROGRESS {
 
             @Comment({"Display constant titles about the progress of a user's edit",
@@ -649,6 +677,68 @@ public static class PROGRESS {
 
         }
 
+        @Comment({
+                "Share decoded chunk sections between edits in the same world",
+                " - Repeated reads of the same area (e.g. brushing) avoid decoding the world's chunk data again",
+                " - Sections are invalidated when FAWE writes to their chunk",
+        })
+        public static class SECTION_CACHE {
+
+            @Comment("If the shared section cache is enabled")
+            public boolean ENABLED = true;
+            @Comment({
+                    "Maximum memory (in MB) used by the cache for each world",
+                    " - Each cached section uses 8KB",
+            })
+            public int MAX_MEMORY_MB = 64;
+            @Comment({
+                    "How long (in milliseconds) a cached section may be used for",
+                    " - Changes made to the world outside of FAWE (e.g. by players or other plugins) are not tracked,",
+                    "   edits may read a section from before such a change for up to this long",
+            })
+            public int TTL_MS = 2000;
+
+        }
+
+        @Comment({
+                "Options for resending edited chunks to players",
+                " - Resends of the same chunk that are requested before it is sent are combined",
+        })
+        public static class CHUNK_SEND {
+
+            @Comment({
+                    "Maximum bytes of chunk packets sent to each player per tick",
+                    " - Packets over the limit are sent on later ticks instead of all at once",
+                    " - Prevents large edits from disconnecting nearby players",
+                    " - 0 = unlimited",
+            })
+            public int BYTES_PER_TICK = 131072;
+
+        }
+
+        @Comment({
+                "Options for placing consecutive brush strokes of a player together",
+                " - Strokes are placed once per chunk instead of once per stroke, and read the blocks of the strokes before them",
+                " - Each stroke is still undone separately",
+        })
+        public static class BRUSH_STROKES {
+
+            @Comment("If consecutive brush strokes are placed together")
+            public boolean ENABLED = true;
+            @Comment({
+                    "How long (in milliseconds) to wait for another stroke before placing the strokes",
+                    " - Strokes used while an earlier stroke is running are always placed together",
+                    " - Strokes are not undoable until they are placed",
+            })
+            public int WINDOW_MS = 100;
+            @Comment({
+                    "Maximum number of blocks changed by strokes placed together",
+                    " - Each changed block uses about 16 bytes of memory until the strokes are placed",
+            })
+            public int MAX_BLOCKS = 2000000;
+
+        }
+
     }
 
     @Comment({
@@ -825,6 +915,13 @@ public static class CLIPBOARD {
                 " - May run into issues where a file lock is not correctly lifted"
         })
         public boolean LOCK_CLIPBOARD_FILE = false;
+        @Comment({
+                "Schematics loaded from files are shared between all players loading the same file contents",
+                " - A player's copy of a shared schematic is only made if they modify it",
+                " - Estimated size (2 bytes per block) of loaded schematics to keep after no player uses them",
+                " - Set to 0 to disable sharing"
+        })
+        public int SHARED_CACHE_MB = 512;
 
     }
 
@@ -2,10 +2,10 @@
 
 import com.fastasyncworldedit.core.extent.processor.ProcessorScope;
 import com.fastasyncworldedit.core.limit.PropertyRemap;
-import com.fastasyncworldedit.core.queue.IBatchProcessor;
 import com.fastasyncworldedit.core.queue.IChunk;
 import com.fastasyncworldedit.core.queue.IChunkGet;
 import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.ISectionBatchProcessor;
 import com.fastasyncworldedit.core.util.ExtentTraverser;
 import com.sk89q.worldedit.WorldEditException;
 import com.sk89q.worldedit.extension.factory.parser.DefaultBlockParser;
@@ -25,11 +25,10 @@
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-public class DisallowedBlocksExtent extends AbstractDelegateExtent implements IBatchProcessor {
+public class DisallowedBlocksExtent extends AbstractDelegateExtent implements ISectionBatchProcessor {
 
     private static final BlockState RESERVED = BlockTypes.__RESERVED__.getDefaultState();
     private final Set<PropertyRemap<?>> remaps;
@@ -123,48 +122,43 @@ private <B extends BlockStateHolder<B>> B checkBlock(B block) {
     }
 
     @Override
-    public IChunkSet processSet(final IChunk chunk, final IChunkGet get, final IChunkSet set) {
+    public void processSection(
+            final IChunk chunk, final IChunkGet get, final IChunkSet set, final int layer, final char[] blocks
+    ) {
         if (blockedStates == null && blockedBlocks == null) { // Shouldn't be possible, but make sure
-            return set;
+            return;
         }
-        for (int layer = set.getMinSectionPosition(); layer <= set.getMaxSectionPosition(); layer++) {
-            if (!set.hasSection(layer)) {
+        it:
+        for (int i = 0; i < blocks.length; i++) {
+            char block = blocks[i];
+            if (block == BlockTypesCache.ReservedIDs.__RESERVED__) {
                 continue;
             }
-            char[] blocks = Objects.requireNonNull(set.loadIfPresent(layer));
-            it:
-            for (int i = 0; i < blocks.length; i++) {
-                char block = blocks[i];
-                if (block == BlockTypesCache.ReservedIDs.__RESERVED__) {
+            BlockState state = BlockTypesCache.states[block];
+            if (blockedBlocks != null) {
+                if (blockedBlocks.contains(state.getBlockType().id())) {
+                    blocks[i] = BlockTypesCache.ReservedIDs.__RESERVED__;
                     continue;
                 }
-                BlockState state = BlockTypesCache.states[block];
-                if (blockedBlocks != null) {
-                    if (blockedBlocks.contains(state.getBlockType().id())) {
-                        blocks[i] = BlockTypesCache.ReservedIDs.__RESERVED__;
-                        continue;
-                    }
-                }
-                if (blockedStates == null) {
-                    continue;
-                }
-                for (FuzzyBlockState fuzzy : blockedStates) {
-                    if (fuzzy.equalsFuzzy(state)) {
-                        blocks[i] = BlockTypesCache.ReservedIDs.__RESERVED__;
-                        continue it;
-                    }
-                }
-                if (remaps == null || remaps.isEmpty()) {
-                    blocks[i] = block;
-                    continue;
-                }
-                for (PropertyRemap<?> remap : remaps) {
-                    state = remap.apply(state);
+            }
+            if (blockedStates == null) {
+                continue;
+            }
+            for (FuzzyBlockState fuzzy : blockedStates) {
+                if (fuzzy.equalsFuzzy(state)) {
+                    blocks[i] = BlockTypesCache.ReservedIDs.__RESERVED__;
+                    continue it;
                 }
-                blocks[i] = state.getOrdinalChar();
             }
+            if (remaps == null || remaps.isEmpty()) {
+                blocks[i] = block;
+                continue;
+            }
+            for (PropertyRemap<?> remap : remaps) {
+                state = remap.apply(state);
+            }
+            blocks[i] = state.getOrdinalChar();
         }
-        return set;
     }
 
     @Nullable
@@ -5,10 +5,10 @@
 import com.fastasyncworldedit.core.internal.exception.FaweException;
 import com.fastasyncworldedit.core.limit.FaweLimit;
 import com.fastasyncworldedit.core.queue.Filter;
-import com.fastasyncworldedit.core.queue.IBatchProcessor;
 import com.fastasyncworldedit.core.queue.IChunk;
 import com.fastasyncworldedit.core.queue.IChunkGet;
 import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.ISectionBatchProcessor;
 import com.fastasyncworldedit.core.util.ExtentTraverser;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.worldedit.MaxChangedBlocksException;
@@ -40,7 +40,7 @@
 import java.util.UUID;
 import java.util.function.Consumer;
 
-public class LimitExtent extends AbstractDelegateExtent implements IBatchProcessor {
+public class LimitExtent extends AbstractDelegateExtent implements ISectionBatchProcessor {
 
     private final FaweLimit limit;
     private final boolean[] faweExceptionReasonsUsed = new boolean[FaweException.Type.values().length];
@@ -309,6 +309,12 @@ public int setBlocks(Region region, Pattern pattern) throws MaxChangedBlocksExce
         return extent.setBlocks(region, pattern);
     }
 
+    @Override
+    public int setBiomes(Region region, BiomeType biome) throws MaxChangedBlocksException {
+        limit.THROW_MAX_CHANGES(region.getVolume());
+        return extent.setBiomes(region, biome);
+    }
+
     @Override
     public <B extends BlockStateHolder<B>> int replaceBlocks(Region region, Set<BaseBlock> filter, B replacement) throws
             MaxChangedBlocksException {
@@ -508,7 +514,7 @@ public void setProcessing(boolean processing) {
     }
 
     @Override
-    public IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
+    public IChunkSet processChunkEnd(IChunk chunk, IChunkGet get, IChunkSet set) {
         if (!processing) {
             return set;
         }
@@ -261,6 +261,11 @@ public int setBlocks(Region region, Pattern pattern) throws MaxChangedBlocksExce
         throw reason;
     }
 
+    @Override
+    public int setBiomes(Region region, BiomeType biome) throws MaxChangedBlocksException {
+        throw reason;
+    }
+
     @Override
     public <B extends BlockStateHolder<B>> int replaceBlocks(Region region, Set<BaseBlock> filter, B replacement) throws
             MaxChangedBlocksException {
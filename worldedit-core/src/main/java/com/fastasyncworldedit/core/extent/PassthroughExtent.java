@@ -166,6 +166,11 @@ public int setBlocks(Region region, Pattern pattern) throws MaxChangedBlocksExce
         return getExtent().setBlocks(region, pattern);
     }
 
+    @Override
+    public int setBiomes(Region region, BiomeType biome) throws MaxChangedBlocksException {
+        return getExtent().setBiomes(region, biome);
+    }
+
     @Override
     public <B extends BlockStateHolder<B>> int replaceBlocks(Region region, Set<BaseBlock> filter, B replacement) throws
             MaxChangedBlocksException {
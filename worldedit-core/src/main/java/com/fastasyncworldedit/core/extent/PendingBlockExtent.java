@@ -0,0 +1,180 @@
+package com.fastasyncworldedit.core.extent;
+
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.util.MathMan;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.AbstractDelegateExtent;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.function.RegionMaskingFilter;
+import com.sk89q.worldedit.function.block.BlockReplace;
+import com.sk89q.worldedit.function.mask.BlockMask;
+import com.sk89q.worldedit.function.mask.ExistingBlockMask;
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.function.operation.Operation;
+import com.sk89q.worldedit.function.operation.Operations;
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.function.visitor.RegionVisitor;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import it.unimi.dsi.fastutil.longs.Long2CharOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.Set;
+
+/**
+ * Extent remembering the blocks set through it, so they are read back before the extent below places them, e.g. to run
+ * several edits on a queue that is only committed once they are all done.
+ * <ul>
+ *     <li>Blocks are stored by state, and by full block only if they have NBT</li>
+ *     <li>Region operations are applied block by block through this extent, so that their blocks are remembered too</li>
+ *     <li>{@link #commit()} and {@link #cancel()} do not reach the extent below, the owner of this extent commits it</li>
+ * </ul>
+ * Not thread safe, blocks should be set by one edit at a time.
+ *
+ * @since 2.13.1
+ */
+public class PendingBlockExtent extends AbstractDelegateExtent {
+
+    // Ordinal 0 is BlockTypes.__RESERVED__, i.e. not set
+    private final Long2CharOpenHashMap states = new Long2CharOpenHashMap();
+    private final Long2ObjectOpenHashMap<BaseBlock> blocks = new Long2ObjectOpenHashMap<>();
+
+    /**
+     * Create a new instance.
+     *
+     * @param extent the extent to place blocks on
+     */
+    public PendingBlockExtent(Extent extent) {
+        super(extent);
+    }
+
+    /**
+     * Get the number of blocks set through this extent.
+     */
+    public int size() {
+        return states.size();
+    }
+
+    @Override
+    public BlockState getBlock(int x, int y, int z) {
+        char ordinal = states.get(MathMan.tripleWorldCoord(x, y, z));
+        if (ordinal != 0) {
+            return BlockState.getFromOrdinal(ordinal);
+        }
+        return super.getBlock(x, y, z);
+    }
+
+    @Override
+    public BlockState getBlock(BlockVector3 position) {
+        return getBlock(position.x(), position.y(), position.z());
+    }
+
+    @Override
+    public BaseBlock getFullBlock(int x, int y, int z) {
+        long key = MathMan.tripleWorldCoord(x, y, z);
+        char ordinal = states.get(key);
+        if (ordinal != 0) {
+            BaseBlock block = blocks.get(key);
+            return block != null ? block : BlockState.getFromOrdinal(ordinal).toBaseBlock();
+        }
+        return super.getFullBlock(x, y, z);
+    }
+
+    @Override
+    public BaseBlock getFullBlock(BlockVector3 position) {
+        return getFullBlock(position.x(), position.y(), position.z());
+    }
+
+    @Override
+    public <T extends BlockStateHolder<T>> boolean setBlock(int x, int y, int z, T block) throws WorldEditException {
+        if (!super.setBlock(x, y, z, block)) {
+            return false;
+        }
+        long key = MathMan.tripleWorldCoord(x, y, z);
+        states.put(key, block.getOrdinalChar());
+        if (block.hasNbtData()) {
+            blocks.put(key, block.toBaseBlock());
+        } else if (!blocks.isEmpty()) {
+            blocks.remove(key);
+        }
+        return true;
+    }
+
+    @Override
+    public <T extends BlockStateHolder<T>> boolean setBlock(BlockVector3 position, T block) throws WorldEditException {
+        return setBlock(position.x(), position.y(), position.z(), block);
+    }
+
+    @Override
+    public <B extends BlockStateHolder<B>> int setBlocks(Region region, B block) throws MaxChangedBlocksException {
+        int changes = 0;
+        for (BlockVector3 pos : region) {
+            if (setBlock(pos, block)) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public int setBlocks(Region region, Pattern pattern) throws MaxChangedBlocksException {
+        int changes = 0;
+        for (BlockVector3 pos : region) {
+            if (pattern.apply(this, pos, pos)) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public int setBlocks(Set<BlockVector3> vset, Pattern pattern) {
+        int changes = 0;
+        for (BlockVector3 pos : vset) {
+            if (pattern.apply(this, pos, pos)) {
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    @Override
+    public <B extends BlockStateHolder<B>> int replaceBlocks(Region region, Set<BaseBlock> filter, B replacement) throws
+            MaxChangedBlocksException {
+        return replaceBlocks(region, filter, (Pattern) replacement);
+    }
+
+    @Override
+    public int replaceBlocks(Region region, Set<BaseBlock> filter, Pattern pattern) throws MaxChangedBlocksException {
+        Mask mask = filter == null ? new ExistingBlockMask(this) : new BlockMask(this, filter);
+        return replaceBlocks(region, mask, pattern);
+    }
+
+    @Override
+    public int replaceBlocks(Region region, Mask mask, Pattern pattern) throws MaxChangedBlocksException {
+        RegionVisitor visitor = new RegionVisitor(region, new RegionMaskingFilter(mask, new BlockReplace(this, pattern)), this);
+        Operations.completeLegacy(visitor);
+        return visitor.getAffected();
+    }
+
+    @Override
+    public <T extends Filter> T apply(Region region, T filter, boolean full) {
+        return apply((Iterable<BlockVector3>) region, filter);
+    }
+
+    @Override
+    public Operation commit() {
+        return null;
+    }
+
+    @Override
+    public boolean cancel() {
+        // The extents above stop setting blocks, the blocks already set are still placed by the owner
+        return true;
+    }
+
+}
@@ -3,10 +3,10 @@
 import com.fastasyncworldedit.core.extent.processor.ProcessorScope;
 import com.fastasyncworldedit.core.math.BlockVector3ChunkMap;
 import com.fastasyncworldedit.core.nbt.FaweCompoundTag;
-import com.fastasyncworldedit.core.queue.IBatchProcessor;
 import com.fastasyncworldedit.core.queue.IChunk;
 import com.fastasyncworldedit.core.queue.IChunkGet;
 import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.ISectionBatchProcessor;
 import com.fastasyncworldedit.core.util.ExtentTraverser;
 import com.sk89q.worldedit.WorldEditException;
 import com.sk89q.worldedit.entity.BaseEntity;
@@ -31,7 +31,7 @@
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-public class StripNBTExtent extends AbstractDelegateExtent implements IBatchProcessor {
+public class StripNBTExtent extends AbstractDelegateExtent implements ISectionBatchProcessor {
 
     private final Set<String> strip;
 
@@ -99,7 +99,7 @@ public <T extends NbtValued> T stripEntityNBT(T entity) {
     }
 
     @Override
-    public IChunkSet processSet(final IChunk chunk, final IChunkGet get, final IChunkSet set) {
+    public IChunkSet processChunkStart(final IChunk chunk, final IChunkGet get, final IChunkSet set) {
         Map<BlockVector3, FaweCompoundTag> tiles = set.tiles();
         Collection<FaweCompoundTag> entities = set.entities();
         if (tiles.isEmpty() && entities.isEmpty()) {
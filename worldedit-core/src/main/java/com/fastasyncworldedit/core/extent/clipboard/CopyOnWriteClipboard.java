@@ -0,0 +1,210 @@
+package com.fastasyncworldedit.core.extent.clipboard;
+
+import com.fastasyncworldedit.core.function.visitor.Order;
+import com.fastasyncworldedit.core.nbt.FaweCompoundTag;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.entity.BaseEntity;
+import com.sk89q.worldedit.entity.Entity;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.util.Location;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A view of a clipboard shared through {@link SharedClipboardCache}. Reads go to the shared clipboard until the view is
+ * first modified, when the shared clipboard is copied into a clipboard owned by the view. The origin is always owned by
+ * the view.
+ */
+final class CopyOnWriteClipboard extends SimpleClipboard {
+
+    private final SimpleClipboard shared;
+    private final Runnable release;
+    private volatile SimpleClipboard target;
+    private boolean closed;
+
+    /**
+     * @param shared  the shared clipboard, which is never modified
+     * @param release run once when the view is closed
+     */
+    CopyOnWriteClipboard(SimpleClipboard shared, Runnable release) {
+        super(shared.getDimensions(), BlockVector3.ZERO);
+        this.shared = shared;
+        this.release = release;
+        this.target = shared;
+    }
+
+    /**
+     * Get the clipboard to modify, copying the shared clipboard on the first modification.
+     */
+    private SimpleClipboard write() {
+        SimpleClipboard current = target;
+        if (current != shared) {
+            return current;
+        }
+        synchronized (this) {
+            if (target == shared) {
+                target = copy();
+            }
+            return target;
+        }
+    }
+
+    private SimpleClipboard copy() {
+        // Storage chosen from the clipboard settings, as for any other clipboard
+        SimpleClipboard copy = (SimpleClipboard) new BlockArrayClipboard(shared.getRegion(), UUID.randomUUID()).getParent();
+        boolean biomes = shared.hasBiomes();
+        for (BlockVector3 pos : shared) {
+            int x = pos.x();
+            int y = pos.y();
+            int z = pos.z();
+            copy.setBlock(x, y, z, shared.getFullBlock(x, y, z));
+            if (biomes) {
+                copy.setBiome(x, y, z, shared.getBiomeType(x, y, z));
+            }
+        }
+        for (Entity entity : shared.getEntities()) {
+            BaseEntity state = entity.getState();
+            if (state != null) {
+                copy.createEntity(entity.getLocation(), state);
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public BlockState getBlock(int x, int y, int z) {
+        return target.getBlock(x, y, z);
+    }
+
+    @Override
+    public BlockState getBlock(BlockVector3 position) {
+        return target.getBlock(position.x(), position.y(), position.z());
+    }
+
+    @Override
+    public BaseBlock getFullBlock(int x, int y, int z) {
+        return target.getFullBlock(x, y, z);
+    }
+
+    @Override
+    public BaseBlock getFullBlock(BlockVector3 position) {
+        return target.getFullBlock(position.x(), position.y(), position.z());
+    }
+
+    @Override
+    public boolean hasBiomes() {
+        return target.hasBiomes();
+    }
+
+    @Override
+    public BiomeType getBiomeType(int x, int y, int z) {
+        return target.getBiomeType(x, y, z);
+    }
+
+    @Override
+    public BiomeType getBiome(BlockVector3 position) {
+        return target.getBiomeType(position.x(), position.y(), position.z());
+    }
+
+    @Override
+    public <B extends BlockStateHolder<B>> boolean setBlock(int x, int y, int z, B block) throws WorldEditException {
+        return write().setBlock(x, y, z, block);
+    }
+
+    @Override
+    public <B extends BlockStateHolder<B>> boolean setBlock(BlockVector3 position, B block) throws WorldEditException {
+        return write().setBlock(position.x(), position.y(), position.z(), block);
+    }
+
+    @Override
+    public boolean tile(int x, int y, int z, FaweCompoundTag tile) throws WorldEditException {
+        return write().tile(x, y, z, tile);
+    }
+
+    @Override
+    public boolean setBiome(int x, int y, int z, BiomeType biome) {
+        return write().setBiome(x, y, z, biome);
+    }
+
+    @Override
+    public boolean setBiome(BlockVector3 position, BiomeType biome) {
+        return write().setBiome(position.x(), position.y(), position.z(), biome);
+    }
+
+    @Override
+    public List<? extends Entity> getEntities() {
+        return target.getEntities();
+    }
+
+    @Override
+    public List<? extends Entity> getEntities(Region region) {
+        return target.getEntities(region);
+    }
+
+    @Nullable
+    @Override
+    public Entity createEntity(Location location, BaseEntity entity) {
+        return write().createEntity(location, entity);
+    }
+
+    @Nullable
+    @Override
+    public Entity createEntity(Location location, BaseEntity entity, UUID uuid) {
+        return write().createEntity(location, entity, uuid);
+    }
+
+    @Override
+    public void removeEntity(int x, int y, int z, UUID uuid) {
+        write().removeEntity(x, y, z, uuid);
+    }
+
+    @Override
+    public void removeEntity(Entity entity) {
+        write().removeEntity(entity);
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<BlockVector3> iterator() {
+        return target.iterator();
+    }
+
+    @Override
+    public Iterator<BlockVector3> iterator(Order order) {
+        return target.iterator(order);
+    }
+
+    @Override
+    public void flush() {
+        SimpleClipboard current = target;
+        if (current != shared) {
+            current.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        SimpleClipboard current = target;
+        if (current != shared) {
+            current.close();
+        }
+        release.run();
+    }
+
+}
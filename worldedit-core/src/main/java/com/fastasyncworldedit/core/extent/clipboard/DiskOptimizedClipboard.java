@@ -2,10 +2,11 @@
 
 import com.fastasyncworldedit.core.Fawe;
 import com.fastasyncworldedit.core.configuration.Settings;
+import com.fastasyncworldedit.core.function.visitor.Order;
 import com.fastasyncworldedit.core.internal.exception.FaweClipboardVersionMismatchException;
 import com.fastasyncworldedit.core.internal.io.ByteBufferInputStream;
 import com.fastasyncworldedit.core.jnbt.streamer.IntValueReader;
-import com.fastasyncworldedit.core.math.IntTriple;
+import com.fastasyncworldedit.core.math.MutableBlockVector3;
 import com.fastasyncworldedit.core.nbt.FaweCompoundTag;
 import com.fastasyncworldedit.core.util.MainUtil;
 import com.fastasyncworldedit.core.util.NbtUtils;
@@ -30,10 +31,12 @@
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 import com.sk89q.worldedit.world.block.BlockTypes;
 import com.sk89q.worldedit.world.block.BlockTypesCache;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import org.apache.logging.log4j.Logger;
 import org.enginehub.linbus.tree.LinCompoundTag;
 import org.enginehub.linbus.tree.LinTagType;
 
+import javax.annotation.Nonnull;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.File;
@@ -52,6 +55,7 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -59,27 +63,48 @@
  * A clipboard with disk backed storage. (lower memory + loads on crash)
  * - Uses an auto closable RandomAccessFile for getting / setting id / data
  * - I don't know how to reduce nbt / entities to O(2) complexity, so it is stored in memory.
+ * <p>
+ * Since version 3, blocks are stored in 16x16x16 tiles, each tile contiguous on disk. Tiles are mapped in segments, so
+ * the file is not limited to 2GiB, and tiles never written to are not allocated on file systems supporting sparse files.
+ * Iterating the clipboard (e.g. when pasting) visits the blocks tile by tile, so the file is read sequentially.
  */
 public class DiskOptimizedClipboard extends LinearClipboard {
 
-    public static final int VERSION = 2;
+    public static final int VERSION = 3;
     private static final Logger LOGGER = LogManagerCompat.getLogger();
-    private static final int HEADER_SIZE = 27; // Current header size
+    private static final int HEADER_SIZE = 35; // Current header size
     private static final int VERSION_1_HEADER_SIZE = 22; // Header size of "version 1"
     private static final int VERSION_2_HEADER_SIZE = 27; // Header size of "version 2" i.e. when NBT/entities could be saved
+    private static final int VERSION_3_HEADER_SIZE = 35; // Header size of "version 3" i.e. when blocks are stored in tiles
+    private static final int TILE_BYTES = 4096 << 1;
+    // Tiles start at a page aligned offset, after the header
+    private static final long TILES_START = TILE_BYTES;
+    // Bytes mapped per segment, a multiple of the tile size
+    private static final int SEGMENT_SHIFT = 29;
+    // Legacy files are at most 2GiB, and mapped in a single segment
+    private static final int LEGACY_SEGMENT_SHIFT = 31;
     private static final Map<String, LockHolder> LOCK_HOLDER_CACHE = new ConcurrentHashMap<>();
 
-    private final HashMap<IntTriple, FaweCompoundTag> nbtMap;
+    private final Long2ObjectOpenHashMap<FaweCompoundTag> nbtMap;
     private final File file;
     private final int headerSize;
+    private final boolean tiled;
+    private final int tilesX;
+    private final int tilesZ;
+    private final long blocksStart;
+    private final long blocksLength;
+    private final long biomeLength;
+    private final int segmentShift;
+    private final long segmentMask;
 
     private RandomAccessFile braf;
     private MappedByteBuffer byteBuffer = null;
+    private MappedByteBuffer[] segments = null;
+    private MappedByteBuffer biomeBuffer = null;
 
     private FileChannel fileChannel = null;
     private boolean hasBiomes = false;
     private boolean canHaveBiomes = true;
-    private int nbtBytesRemaining;
 
     /**
      * Creates a new DiskOptimizedClipboard for the given region. Creates or overwrites a file using the given UUID as a name.
@@ -121,14 +146,15 @@ public DiskOptimizedClipboard(BlockVector3 dimensions) {
     public DiskOptimizedClipboard(BlockVector3 dimensions, File file) {
         super(dimensions, BlockVector3.ZERO);
         headerSize = HEADER_SIZE;
-        if (headerSize + ((long) getVolume() << 1) >= Integer.MAX_VALUE) {
-            throw new IllegalArgumentException(
-                    "Dimensions too large for this clipboard format. Use //lazycopy for large selections.");
-        } else if (headerSize + ((long) getVolume() << 1) + (long) ((getHeight() >> 2) + 1) * ((getLength() >> 2) + 1) * ((getWidth() >> 2) + 1) >= Integer.MAX_VALUE) {
-            LOGGER.error("Dimensions are too large for biomes to be stored in a DiskOptimizedClipboard");
-            canHaveBiomes = false;
-        }
-        nbtMap = new HashMap<>();
+        tiled = true;
+        tilesX = (getWidth() + 15) >> 4;
+        tilesZ = (getLength() + 15) >> 4;
+        blocksStart = TILES_START;
+        blocksLength = (long) tilesX * ((getHeight() + 15) >> 4) * tilesZ * TILE_BYTES;
+        biomeLength = getBiomeLength();
+        segmentShift = SEGMENT_SHIFT;
+        segmentMask = (1L << segmentShift) - 1;
+        nbtMap = new Long2ObjectOpenHashMap<>();
         try {
             this.file = file;
             try {
@@ -143,10 +169,9 @@ public DiskOptimizedClipboard(BlockVector3 dimensions, File file) {
                 e.printStackTrace();
             }
             this.braf = new RandomAccessFile(file, "rw");
-            long fileLength = (long) (getVolume() << 1) + (long) headerSize;
+            // Extending the file rather than writing it leaves the tiles unallocated until they are written to
             braf.setLength(0);
-            braf.setLength(fileLength);
-            this.nbtBytesRemaining = Integer.MAX_VALUE - (int) fileLength;
+            braf.setLength(blocksStart + blocksLength);
             init();
             // write getLength() etc
             byteBuffer.putChar(2, (char) (VERSION));
@@ -184,26 +209,40 @@ public DiskOptimizedClipboard(File file) {
     public DiskOptimizedClipboard(File file, int versionOverride) {
         super(readSize(file, versionOverride), BlockVector3.ZERO);
         headerSize = getHeaderSizeOverrideFromVersion(versionOverride);
-        nbtMap = new HashMap<>();
+        tiled = headerSize >= VERSION_3_HEADER_SIZE;
+        tilesX = (getWidth() + 15) >> 4;
+        tilesZ = (getLength() + 15) >> 4;
+        if (tiled) {
+            blocksStart = TILES_START;
+            blocksLength = (long) tilesX * ((getHeight() + 15) >> 4) * tilesZ * TILE_BYTES;
+            segmentShift = SEGMENT_SHIFT;
+        } else {
+            blocksStart = headerSize;
+            blocksLength = (long) getVolume() << 1;
+            segmentShift = LEGACY_SEGMENT_SHIFT;
+            canHaveBiomes = blocksStart + blocksLength + getBiomeLength() < Integer.MAX_VALUE;
+        }
+        biomeLength = getBiomeLength();
+        segmentMask = (1L << segmentShift) - 1;
+        nbtMap = new Long2ObjectOpenHashMap<>();
         try {
             this.file = file;
             this.braf = new RandomAccessFile(file, "rw");
             braf.setLength(file.length());
-            this.nbtBytesRemaining = Integer.MAX_VALUE - (int) file.length();
-            init();
-
-            int biomeLength = ((getHeight() >> 2) + 1) * ((getLength() >> 2) + 1) * ((getWidth() >> 2) + 1);
-            canHaveBiomes = (long) headerSize + biomeLength < Integer.MAX_VALUE;
 
             if (headerSize >= VERSION_2_HEADER_SIZE) {
-                readBiomeStatusFromHeader();
+                init();
+                if (readBiomeStatusFromHeader()) {
+                    mapBiomes();
+                }
                 int nbtCount = readNBTSavedCountFromHeader();
                 int entitiesCount = readEntitiesSavedCountFromHeader();
                 if (Settings.settings().CLIPBOARD.SAVE_CLIPBOARD_NBT_TO_DISK && (nbtCount + entitiesCount > 0)) {
-                    loadNBTFromFileFooter(nbtCount, entitiesCount, biomeLength);
+                    loadNBTFromFileFooter(nbtCount, entitiesCount);
                 }
-            } else if (canHaveBiomes && braf.length() - headerSize == ((long) getVolume() << 1) + biomeLength) {
-                hasBiomes = true;
+            } else {
+                hasBiomes = canHaveBiomes && braf.length() == blocksStart + blocksLength + biomeLength;
+                init();
             }
             getAndSetOffsetAndOrigin();
         } catch (IOException e) {
@@ -247,9 +286,9 @@ private static BlockVector3 readSize(File file, int expectedVersion) {
         }
     }
 
-    private void loadNBTFromFileFooter(int nbtCount, int entitiesCount, long biomeLength) throws IOException {
-        int biomeBlocksLength = headerSize + (getVolume() << 1) + (hasBiomes ? (int) biomeLength : 0);
-        MappedByteBuffer tmp = fileChannel.map(FileChannel.MapMode.READ_ONLY, biomeBlocksLength, braf.length());
+    private void loadNBTFromFileFooter(int nbtCount, int entitiesCount) throws IOException {
+        long footerStart = getDataEnd();
+        MappedByteBuffer tmp = fileChannel.map(FileChannel.MapMode.READ_ONLY, footerStart, braf.length() - footerStart);
         try (NBTInputStream nbtIS = new NBTInputStream(MainUtil.getCompressedIS(new ByteBufferInputStream(tmp)))) {
             Iterator<CompoundTag> iter = nbtIS.toIterator();
             while (nbtCount > 0 && iter.hasNext()) { // TileEntities are stored "before" entities
@@ -257,8 +296,7 @@ private void loadNBTFromFileFooter(int nbtCount, int entitiesCount, long biomeLe
                 int x = tag.getTag("x", LinTagType.intTag()).valueAsInt();
                 int y = tag.getTag("y", LinTagType.intTag()).valueAsInt();
                 int z = tag.getTag("z", LinTagType.intTag()).valueAsInt();
-                IntTriple pos = new IntTriple(x, y, z);
-                nbtMap.put(pos, FaweCompoundTag.of(tag));
+                nbtMap.put(getTileKey(x, y, z), FaweCompoundTag.of(tag));
                 nbtCount--;
             }
             while (entitiesCount > 0 && iter.hasNext()) {
@@ -294,10 +332,24 @@ private int getHeaderSizeOverrideFromVersion(int versionOverride) {
         return switch (versionOverride) {
             case 1 -> VERSION_1_HEADER_SIZE;
             case 2 -> VERSION_2_HEADER_SIZE;
+            case 3 -> VERSION_3_HEADER_SIZE;
             default -> HEADER_SIZE;
         };
     }
 
+    private long getBiomeLength() {
+        // Since biomes represent a 4x4x4 cube, we store fewer biome bytes that volume at 1 byte per biome
+        // +1 to each to allow for cubes that lie across the region boundary
+        return (long) ((getHeight() >> 2) + 1) * ((getLength() >> 2) + 1) * ((getWidth() >> 2) + 1);
+    }
+
+    /**
+     * Get the end of the blocks and biomes in the file, i.e. the start of the NBT footer.
+     */
+    private long getDataEnd() {
+        return blocksStart + blocksLength + (hasBiomes ? biomeLength : 0);
+    }
+
     @Override
     public URI getURI() {
         return file.toURI();
@@ -329,10 +381,24 @@ private void init() throws IOException {
                     throw e;
                 }
             }
-            this.byteBuffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, braf.length());
+            int segmentCount = (int) ((blocksLength + segmentMask) >> segmentShift);
+            this.segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = (long) i << segmentShift;
+                long size = Math.min(1L << segmentShift, blocksLength - start);
+                segments[i] = fileChannel.map(FileChannel.MapMode.READ_WRITE, blocksStart + start, size);
+            }
+            if (hasBiomes) {
+                mapBiomes();
+            }
+            this.byteBuffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, headerSize);
         }
     }
 
+    private void mapBiomes() throws IOException {
+        this.biomeBuffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, blocksStart + blocksLength, biomeLength);
+    }
+
     private boolean initBiome() {
         if (!canHaveBiomes) {
             return false;
@@ -340,15 +406,9 @@ private boolean initBiome() {
         if (!hasBiomes) {
             try {
                 hasBiomes = true;
-                close();
-                this.braf = new RandomAccessFile(file, "rw");
-                // Since biomes represent a 4x4x4 cube, we store fewer biome bytes that volume at 1 byte per biome
-                // +1 to each to allow for cubes that lie across the region boundary
-                long length =
-                        headerSize + ((long) getVolume() << 1) + (long) ((getHeight() >> 2) + 1) * ((getLength() >> 2) + 1) * ((getWidth() >> 2) + 1);
-                this.braf.setLength(length);
-                this.nbtBytesRemaining = Integer.MAX_VALUE - (int) length;
-                init();
+                // Blocks stay mapped, only the biomes following them need to be mapped
+                this.braf.setLength(blocksStart + blocksLength + biomeLength);
+                mapBiomes();
             } catch (IOException e) {
                 e.printStackTrace();
                 return false;
@@ -377,7 +437,7 @@ public boolean setBiome(int x, int y, int z, BiomeType biome) {
     public void setBiome(int index, BiomeType biome) {
         if (initBiome()) {
             try {
-                byteBuffer.put(headerSize + (getVolume() << 1) + index, (byte) biome.getInternalId());
+                biomeBuffer.put(index, (byte) biome.getInternalId());
             } catch (IndexOutOfBoundsException e) {
                 LOGGER.info((long) (getHeight() >> 2) * (getLength() >> 2) * (getWidth() >> 2));
                 LOGGER.info(index);
@@ -391,7 +451,7 @@ public BiomeType getBiome(int index) {
         if (!hasBiomes()) {
             return null;
         }
-        int biomeId = byteBuffer.get(headerSize + (getVolume() << 1) + index) & 0xFF;
+        int biomeId = biomeBuffer.get(index) & 0xFF;
         return BiomeTypes.get(biomeId);
     }
 
@@ -400,12 +460,11 @@ public void streamBiomes(IntValueReader task) {
         if (!hasBiomes()) {
             return;
         }
-        int mbbIndex = headerSize + (getVolume() << 1);
         try {
             for (int y = 0; y < getHeight(); y++) {
                 for (int z = 0; z < getLength(); z++) {
                     for (int x = 0; x < getWidth(); x++) {
-                        int biome = byteBuffer.get(mbbIndex + getBiomeIndex(x, y, z)) & 0xFF;
+                        int biome = biomeBuffer.get(getBiomeIndex(x, y, z)) & 0xFF;
                         task.applyInt(getIndex(x, y, z), biome);
                     }
                 }
@@ -477,6 +536,12 @@ private void getAndSetOffsetAndOrigin() {
     @Override
     public void flush() {
         byteBuffer.force();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        if (biomeBuffer != null) {
+            biomeBuffer.force();
+        }
     }
 
     private void closeDirectBuffer(ByteBuffer cb) {
@@ -491,11 +556,19 @@ private void writeBiomeStatusToHeader() {
     }
 
     private void writeNBTSavedCountToHeader(int count) {
-        byteBuffer.putChar(23, (char) count);
+        if (tiled) {
+            byteBuffer.putInt(27, count);
+        } else {
+            byteBuffer.putChar(23, (char) count);
+        }
     }
 
     private void writeEntitiesSavedCountToHeader(int count) {
-        byteBuffer.putChar(25, (char) count);
+        if (tiled) {
+            byteBuffer.putInt(31, count);
+        } else {
+            byteBuffer.putChar(25, (char) count);
+        }
     }
 
     private boolean readBiomeStatusFromHeader() {
@@ -503,11 +576,11 @@ private boolean readBiomeStatusFromHeader() {
     }
 
     private int readNBTSavedCountFromHeader() {
-        return byteBuffer.getChar(23);
+        return tiled ? byteBuffer.getInt(27) : byteBuffer.getChar(23);
     }
 
     private int readEntitiesSavedCountFromHeader() {
-        return byteBuffer.getChar(25);
+        return tiled ? byteBuffer.getInt(31) : byteBuffer.getChar(25);
     }
 
     @Override
@@ -525,13 +598,21 @@ public void close() {
                     }
                     writeBiomeStatusToHeader();
                 }
-                byteBuffer.force();
+                flush();
                 fileChannel.close();
                 braf.close();
                 file.setWritable(true);
                 MappedByteBuffer tmpBuffer = byteBuffer;
+                MappedByteBuffer[] tmpSegments = segments;
+                MappedByteBuffer tmpBiomeBuffer = biomeBuffer;
                 byteBuffer = null;
+                segments = null;
+                biomeBuffer = null;
                 closeDirectBuffer(tmpBuffer);
+                for (MappedByteBuffer segment : tmpSegments) {
+                    closeDirectBuffer(segment);
+                }
+                closeDirectBuffer(tmpBiomeBuffer);
                 fileChannel = null;
                 braf = null;
             } else if (fileChannel != null) {
@@ -571,7 +652,7 @@ private void writeNBTToDisk() throws IOException {
                         e.printStackTrace();
                     }
                     nbtOS.flush();
-                    if (baOS.size() > nbtBytesRemaining) {
+                    if (!tiled && getDataEnd() + baOS.size() > Integer.MAX_VALUE) {
                         LOGGER.warn(
                                 "Clipboard file {} does not have enough remaining space to store NBT data on disk.",
                                 file.getName()
@@ -581,7 +662,6 @@ private void writeNBTToDisk() throws IOException {
                         return;
                     } else {
                         writeNBTSavedCountToHeader(nbtMap.size());
-                        nbtBytesRemaining -= baOS.size();
                     }
                     output = baOS.toByteArray(); //Keep this in case entities are unable to fit.
                 }
@@ -594,8 +674,8 @@ private void writeNBTToDisk() throws IOException {
                                 HashMap<String, Tag<?, ?>> value = new HashMap<>(data.getValue());
                                 List<DoubleTag> pos = new ArrayList<>(3);
                                 pos.add(new DoubleTag(entity.getLocation().x()));
-                                pos.add(new DoubleTag(entity.getLocation().x()));
-                                pos.add(new DoubleTag(entity.getLocation().x()));
+                                pos.add(new DoubleTag(entity.getLocation().y()));
+                                pos.add(new DoubleTag(entity.getLocation().z()));
                                 value.put("Pos", new ListTag(DoubleTag.class, pos));
                                 nbtOS.writeTag(new CompoundTag(value));
                             }
@@ -604,7 +684,7 @@ private void writeNBTToDisk() throws IOException {
                         e.printStackTrace();
                     }
                     nbtOS.flush();
-                    if (baOS.size() > nbtBytesRemaining) {
+                    if (!tiled && getDataEnd() + baOS.size() > Integer.MAX_VALUE) {
                         LOGGER.warn(
                                 "Clipboard file {} does not have enough remaining space to store entity data on disk.",
                                 file.getName()
@@ -625,11 +705,12 @@ private void writeNBTToDisk() throws IOException {
                 return;
             }
 
-            long currentLength = this.braf.length();
-            this.braf.setLength(currentLength + baOS.size());
+            // Replaces the footer the file was loaded with, if any
+            long footerStart = getDataEnd();
+            this.braf.setLength(footerStart + baOS.size());
             MappedByteBuffer tempBuffer = fileChannel.map(
                     FileChannel.MapMode.READ_WRITE,
-                    currentLength,
+                    footerStart,
                     baOS.size()
             );
             tempBuffer.put(output);
@@ -650,6 +731,54 @@ public int getIndex(int x, int y, int z) {
         return x + y * getArea() + z * getWidth();
     }
 
+    private static long getTileKey(int x, int y, int z) {
+        // Dimensions are stored as chars, so each coordinate fits in 16 bits
+        return (long) y << 32 | (long) z << 16 | x;
+    }
+
+    /**
+     * Get the offset of a block relative to the start of the blocks in the file.
+     */
+    private long getBlockOffset(int x, int y, int z) {
+        if (!tiled) {
+            return (long) getIndex(x, y, z) << 1;
+        }
+        long tile = ((long) (y >> 4) * tilesZ + (z >> 4)) * tilesX + (x >> 4);
+        return tile * TILE_BYTES + (((y & 15) << 8 | (z & 15) << 4 | (x & 15)) << 1);
+    }
+
+    private long getBlockOffset(int index) {
+        if (!tiled) {
+            return (long) index << 1;
+        }
+        int y = index / getArea();
+        int newI = index - y * getArea();
+        int z = newI / getWidth();
+        int x = newI - z * getWidth();
+        return getBlockOffset(x, y, z);
+    }
+
+    private char getOrdinal(long offset) {
+        return segments[(int) (offset >>> segmentShift)].getChar((int) (offset & segmentMask));
+    }
+
+    private void setOrdinal(long offset, char ordinal) {
+        segments[(int) (offset >>> segmentShift)].putChar((int) (offset & segmentMask), ordinal);
+    }
+
+    /**
+     * Iterates the blocks of a version 3 clipboard tile by tile, in the order they are stored on disk. Other versions are
+     * iterated in {@link Order#YZX} order, which is their order on disk.
+     */
+    @Nonnull
+    @Override
+    public Iterator<BlockVector3> iterator() {
+        if (!tiled) {
+            return super.iterator();
+        }
+        return new TileIterator();
+    }
+
     public int getBiomeIndex(int x, int y, int z) {
         return (x >> 2) + (y >> 2) * (getWidth() >> 2) * (getLength() >> 2) + (z >> 2) * (getWidth() >> 2);
     }
@@ -661,24 +790,11 @@ public BaseBlock getFullBlock(int x, int y, int z) {
 
     private BaseBlock toBaseBlock(BlockState state, int i) {
         if (state.getMaterial().hasContainer() && !nbtMap.isEmpty()) {
-            FaweCompoundTag nbt;
-            if (nbtMap.size() < 4) {
-                nbt = null;
-                for (Map.Entry<IntTriple, FaweCompoundTag> entry : nbtMap.entrySet()) {
-                    IntTriple key = entry.getKey();
-                    int index = getIndex(key.x(), key.y(), key.z());
-                    if (index == i) {
-                        nbt = entry.getValue();
-                        break;
-                    }
-                }
-            } else {
-                int y = i / getArea();
-                int newI = i - y * getArea();
-                int z = newI / getWidth();
-                int x = newI - z * getWidth();
-                nbt = nbtMap.get(new IntTriple(x, y, z));
-            }
+            int y = i / getArea();
+            int newI = i - y * getArea();
+            int z = newI / getWidth();
+            int x = newI - z * getWidth();
+            FaweCompoundTag nbt = nbtMap.get(getTileKey(x, y, z));
             return state.toBaseBlock(nbt == null ? null : nbt.linTag());
         }
         return state.toBaseBlock();
@@ -686,7 +802,7 @@ private BaseBlock toBaseBlock(BlockState state, int i) {
 
     private BaseBlock toBaseBlock(BlockState state, int x, int y, int z) {
         if (state.getMaterial().hasContainer() && !nbtMap.isEmpty()) {
-            FaweCompoundTag nbt = nbtMap.get(new IntTriple(x, y, z));
+            FaweCompoundTag nbt = nbtMap.get(getTileKey(x, y, z));
             return state.toBaseBlock(nbt == null ? null : nbt.linTag());
         }
         return state.toBaseBlock();
@@ -700,9 +816,7 @@ public BaseBlock getFullBlock(int i) {
     @Override
     public BlockState getBlock(int index) {
         try {
-            int diskIndex = headerSize + (index << 1);
-            char ordinal = byteBuffer.getChar(diskIndex);
-            return BlockState.getFromOrdinal(ordinal);
+            return BlockState.getFromOrdinal(getOrdinal(getBlockOffset(index)));
         } catch (IndexOutOfBoundsException ignored) {
         }
         return BlockTypes.AIR.getDefaultState();
@@ -710,24 +824,27 @@ public BlockState getBlock(int index) {
 
     @Override
     public BlockState getBlock(int x, int y, int z) {
-        return getBlock(getIndex(x, y, z));
+        try {
+            return BlockState.getFromOrdinal(getOrdinal(getBlockOffset(x, y, z)));
+        } catch (IndexOutOfBoundsException ignored) {
+        }
+        return BlockTypes.AIR.getDefaultState();
     }
 
     @Override
     public boolean tile(final int x, final int y, final int z, final FaweCompoundTag tile) throws WorldEditException {
-        nbtMap.put(new IntTriple(x, y, z), NbtUtils.withPosition(tile, x, y, z));
+        nbtMap.put(getTileKey(x, y, z), NbtUtils.withPosition(tile, x, y, z));
         return true;
     }
 
     @Override
     public <B extends BlockStateHolder<B>> boolean setBlock(int x, int y, int z, B block) {
         try {
-            int index = headerSize + (getIndex(x, y, z) << 1);
             char ordinal = block.getOrdinalChar();
             if (ordinal == BlockTypesCache.ReservedIDs.__RESERVED__) {
                 ordinal = BlockTypesCache.ReservedIDs.AIR;
             }
-            byteBuffer.putChar(index, ordinal);
+            setOrdinal(getBlockOffset(x, y, z), ordinal);
             boolean hasNbt = block instanceof BaseBlock && block.hasNbtData();
             if (hasNbt) {
                 setTile(x, y, z, block.getNbtData());
@@ -743,14 +860,13 @@ public <B extends BlockStateHolder<B>> boolean setBlock(int x, int y, int z, B b
     public <B extends BlockStateHolder<B>> boolean setBlock(int i, B block) {
         try {
             char ordinal = block.getOrdinalChar();
-            int index = headerSize + (i << 1);
-            byteBuffer.putChar(index, ordinal);
+            int y = i / getArea();
+            int newI = i - y * getArea();
+            int z = newI / getWidth();
+            int x = newI - z * getWidth();
+            setOrdinal(getBlockOffset(x, y, z), ordinal);
             boolean hasNbt = block instanceof BaseBlock && block.hasNbtData();
             if (hasNbt) {
-                int y = i / getArea();
-                int newI = i - y * getArea();
-                int z = newI / getWidth();
-                int x = newI - z * getWidth();
                 setTile(x, y, z, block.getNbtData());
             }
             return true;
@@ -760,6 +876,61 @@ public <B extends BlockStateHolder<B>> boolean setBlock(int i, B block) {
         return false;
     }
 
+    private class TileIterator implements Iterator<BlockVector3> {
+
+        private final MutableBlockVector3 mutable = new MutableBlockVector3();
+        private int tileX;
+        private int tileY;
+        private int tileZ;
+        private int x;
+        private int y;
+        private int z;
+        private boolean hasNext = true;
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public BlockVector3 next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            mutable.setComponents(x, y, z);
+            advance();
+            return mutable;
+        }
+
+        private void advance() {
+            if (++x < Math.min(tileX + 16, getWidth())) {
+                return;
+            }
+            x = tileX;
+            if (++z < Math.min(tileZ + 16, getLength())) {
+                return;
+            }
+            z = tileZ;
+            if (++y < Math.min(tileY + 16, getHeight())) {
+                return;
+            }
+            if ((tileX += 16) >= getWidth()) {
+                tileX = 0;
+                if ((tileZ += 16) >= getLength()) {
+                    tileZ = 0;
+                    if ((tileY += 16) >= getHeight()) {
+                        hasNext = false;
+                        return;
+                    }
+                }
+            }
+            x = tileX;
+            y = tileY;
+            z = tileZ;
+        }
+
+    }
+
     private static class LockHolder {
 
         final FileLock lock;
@@ -1,11 +1,14 @@
 package com.fastasyncworldedit.core.extent.clipboard;
 
 import com.google.common.io.ByteSource;
+import com.google.common.io.Files;
 import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
 
+import javax.annotation.Nullable;
+import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.UUID;
@@ -15,6 +18,8 @@ public class LazyClipboardHolder extends URIClipboardHolder {
     private final ByteSource source;
     private final ClipboardFormat format;
     private final UUID uuid;
+    @Nullable
+    private final File file;
     private Clipboard clipboard;
 
     /**
@@ -25,6 +30,21 @@ public LazyClipboardHolder(URI uri, ByteSource source, ClipboardFormat format, U
         this.source = source;
         this.format = format;
         this.uuid = uuid != null ? uuid : UUID.randomUUID();
+        this.file = null;
+    }
+
+    /**
+     * Create a new instance loading the given file. The clipboard is shared with other loads of the same file contents
+     * through {@link SharedClipboardCache}.
+     *
+     * @since 2.13.1
+     */
+    public LazyClipboardHolder(File file, ClipboardFormat format) {
+        super(file.toURI(), EmptyClipboard.getInstance());
+        this.source = Files.asByteSource(file);
+        this.format = format;
+        this.uuid = UUID.randomUUID();
+        this.file = file;
     }
 
     @Override
@@ -36,6 +56,10 @@ public boolean contains(Clipboard clipboard) {
     public synchronized Clipboard getClipboard() {
         if (clipboard == null) {
             try {
+                if (file != null) {
+                    this.clipboard = SharedClipboardCache.load(file, format);
+                    return clipboard;
+                }
                 try (InputStream in = source.openBufferedStream()) {
                     final ClipboardReader reader = format.getReader(in);
                     final Clipboard clipboard;
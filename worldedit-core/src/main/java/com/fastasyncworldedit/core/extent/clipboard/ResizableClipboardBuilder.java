@@ -29,32 +29,13 @@ public ResizableClipboardBuilder(World world) {
     }
 
     @Override
-    public void add(int x, int y, int z, int combinedFrom, int combinedTo) {
-        super.add(x, y, z, combinedFrom, combinedTo);
-        if (x < minX) {
-            if (maxX == Integer.MIN_VALUE) {
-                maxX = x;
-            }
-            minX = x;
-        } else if (x > maxX) {
-            maxX = x;
-        }
-        if (y < minY) {
-            if (maxY == Integer.MIN_VALUE) {
-                maxY = y;
-            }
-            minY = y;
-        } else if (y > maxY) {
-            maxY = y;
-        }
-        if (z < minZ) {
-            if (maxZ == Integer.MIN_VALUE) {
-                maxZ = z;
-            }
-            minZ = z;
-        } else if (z > maxZ) {
-            maxZ = z;
-        }
+    protected void expandBounds(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.minX = Math.min(this.minX, minX);
+        this.minY = Math.min(this.minY, minY);
+        this.minZ = Math.min(this.minZ, minZ);
+        this.maxX = Math.max(this.maxX, maxX);
+        this.maxY = Math.max(this.maxY, maxY);
+        this.maxZ = Math.max(this.maxZ, maxZ);
     }
 
     public Clipboard build() {
@@ -0,0 +1,234 @@
+package com.fastasyncworldedit.core.extent.clipboard;
+
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
+import com.sk89q.worldedit.internal.util.LogManagerCompat;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schematics loaded from files, shared between everyone loading a file with the same contents in the same format, rather
+ * than each loading its own copy.
+ * <ul>
+ *     <li>Files are identified by the hash of their contents, which is only recomputed if their modification time or
+ *     length changes</li>
+ *     <li>Each load returns a separate {@link BlockArrayClipboard} with its own origin. The shared blocks are copied for
+ *     a clipboard only once it is modified</li>
+ *     <li>Schematics are kept loaded while in use. Schematics no longer in use are kept up to
+ *     {@code clipboard.shared-cache-mb} in total, and the least recently loaded are unloaded first</li>
+ * </ul>
+ *
+ * @since 2.13.1
+ */
+public final class SharedClipboardCache {
+
+    private static final Logger LOGGER = LogManagerCompat.getLogger();
+
+    private static final Map<String, FileHash> HASHES = new ConcurrentHashMap<>();
+    // Ordered from least to most recently loaded, guarded by itself
+    private static final LinkedHashMap<Key, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true);
+    private static long cachedBytes;
+
+    private SharedClipboardCache() {
+    }
+
+    /**
+     * If schematics loaded from files are shared, i.e. {@code clipboard.shared-cache-mb} is positive.
+     */
+    public static boolean isEnabled() {
+        return Settings.settings().CLIPBOARD.SHARED_CACHE_MB > 0;
+    }
+
+    /**
+     * Load a schematic, sharing it with other loads of the same file contents and format. The returned clipboard must be
+     * closed once no longer used.
+     *
+     * @param file   the schematic file
+     * @param format the format of the file
+     * @return the clipboard
+     * @throws IOException if the file could not be read
+     */
+    public static Clipboard load(File file, ClipboardFormat format) throws IOException {
+        if (!isEnabled()) {
+            return read(file, format, UUID.randomUUID());
+        }
+        Key key = new Key(hash(file), format);
+        Entry entry;
+        synchronized (ENTRIES) {
+            entry = ENTRIES.computeIfAbsent(key, Entry::new);
+            entry.references++;
+        }
+        boolean shareable = true;
+        try {
+            synchronized (entry) {
+                if (entry.clipboard == null && (shareable = entry.load(file))) {
+                    List<Entry> evicted;
+                    synchronized (ENTRIES) {
+                        entry.bytes = (long) entry.clipboard.getVolume() << 1;
+                        cachedBytes += entry.bytes;
+                        evicted = evict(budget());
+                    }
+                    evicted.forEach(Entry::close);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            release(entry);
+            throw e;
+        }
+        if (!shareable) {
+            // Not a clipboard that can be shared, so each load reads its own copy
+            release(entry);
+            return read(file, format, UUID.randomUUID());
+        }
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(
+                entry.region,
+                new CopyOnWriteClipboard(entry.clipboard, () -> release(entry))
+        );
+        clipboard.setOrigin(entry.origin);
+        return clipboard;
+    }
+
+    private static Clipboard read(File file, ClipboardFormat format, UUID uuid) throws IOException {
+        try (InputStream in = Files.asByteSource(file).openBufferedStream()) {
+            return format.getReader(in).read(uuid);
+        }
+    }
+
+    private static HashCode hash(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+        FileHash cached = HASHES.get(path);
+        if (cached != null && cached.lastModified() == lastModified && cached.length() == length) {
+            return cached.hash();
+        }
+        HashCode hash = Files.asByteSource(file).hash(Hashing.sha256());
+        HASHES.put(path, new FileHash(lastModified, length, hash));
+        return hash;
+    }
+
+    private static void release(Entry entry) {
+        List<Entry> evicted;
+        synchronized (ENTRIES) {
+            entry.references--;
+            // An entry that failed to load is not kept
+            if (entry.references == 0 && entry.bytes == 0) {
+                ENTRIES.remove(entry.key, entry);
+            }
+            evicted = evict(budget());
+        }
+        evicted.forEach(Entry::close);
+    }
+
+    /**
+     * Unload all schematics not in use.
+     */
+    static void clear() {
+        List<Entry> evicted;
+        synchronized (ENTRIES) {
+            evicted = evict(0);
+        }
+        evicted.forEach(Entry::close);
+    }
+
+    private static long budget() {
+        return (long) Settings.settings().CLIPBOARD.SHARED_CACHE_MB << 20;
+    }
+
+    /**
+     * Remove the least recently loaded entries not in use until the cache is within the given budget. Must be called
+     * holding the lock of {@link #ENTRIES}, and the entries returned must be closed after releasing it.
+     */
+    private static List<Entry> evict(long budget) {
+        List<Entry> evicted = new ArrayList<>();
+        Iterator<Entry> iterator = ENTRIES.values().iterator();
+        while (cachedBytes > budget && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.references == 0) {
+                iterator.remove();
+                cachedBytes -= entry.bytes;
+                evicted.add(entry);
+            }
+        }
+        return evicted;
+    }
+
+    private record Key(HashCode hash, ClipboardFormat format) {
+
+    }
+
+    private record FileHash(long lastModified, long length, HashCode hash) {
+
+    }
+
+    private static final class Entry {
+
+        private final Key key;
+        // Guarded by ENTRIES
+        private int references;
+        private long bytes;
+        // Guarded by this
+        private SimpleClipboard clipboard;
+        private Region region;
+        private BlockVector3 origin;
+
+        private Entry(Key key) {
+            this.key = key;
+        }
+
+        /**
+         * Read the clipboard to share.
+         *
+         * @return false if the clipboard read can not be shared
+         */
+        private boolean load(File file) throws IOException {
+            // Each entry has its own file, so an entry closed after being evicted never deletes the file of a newer entry of
+            // the same contents
+            Clipboard read = read(file, key.format(), UUID.randomUUID());
+            if (read instanceof BlockArrayClipboard blockArrayClipboard
+                    && blockArrayClipboard.getParent() instanceof SimpleClipboard parent) {
+                this.clipboard = parent;
+                this.region = blockArrayClipboard.getRegion();
+                this.origin = blockArrayClipboard.getOrigin();
+                return true;
+            }
+            read.close();
+            return false;
+        }
+
+        @SuppressWarnings("ResultOfMethodCallIgnored")
+        private synchronized void close() {
+            if (clipboard == null) {
+                return;
+            }
+            try {
+                clipboard.close();
+                if (clipboard instanceof DiskOptimizedClipboard diskClipboard) {
+                    diskClipboard.getFile().delete();
+                }
+            } catch (Exception e) {
+                LOGGER.warn("Error unloading shared clipboard", e);
+            }
+            clipboard = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.fastasyncworldedit.core.extent.filter;
+
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.biome.BiomeType;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Sets the biome of every 4x4x4 biome cell containing a position of a region. Each cell is visited once and the cells of a
+ * section are set together, rather than setting the biome of the cell once for every block in it. Cells of cuboid regions
+ * are computed from the bounds of the region without testing positions.
+ *
+ * @since 2.13.1
+ */
+public class BiomeCellFilter extends ForkedFilter<BiomeCellFilter> {
+
+    private final BiomeType biome;
+    private final BiomeType[] cells = new BiomeType[64];
+    private long affected;
+
+    /**
+     * New instance.
+     *
+     * @param biome the biome to set
+     */
+    public BiomeCellFilter(BiomeType biome) {
+        super(null);
+        this.biome = biome;
+    }
+
+    private BiomeCellFilter(BiomeCellFilter root) {
+        super(root);
+        this.biome = root.biome;
+    }
+
+    @Override
+    public BiomeCellFilter init() {
+        return new BiomeCellFilter(this);
+    }
+
+    @Override
+    public void join(BiomeCellFilter filter) {
+        this.affected += filter.affected;
+    }
+
+    @Override
+    public <T extends IChunk> T applyChunk(T chunk, @Nullable Region region) {
+        int bx = chunk.getX() << 4;
+        int bz = chunk.getZ() << 4;
+        int minLayer = chunk.getMinSectionPosition();
+        int maxLayer = chunk.getMaxSectionPosition();
+        if (region != null) {
+            minLayer = Math.max(minLayer, region.getMinimumY() >> 4);
+            maxLayer = Math.min(maxLayer, region.getMaximumY() >> 4);
+        }
+        for (int layer = minLayer; layer <= maxLayer; layer++) {
+            int by = layer << 4;
+            long count;
+            if (region == null) {
+                Arrays.fill(cells, biome);
+                count = 4096;
+            } else if (region instanceof CuboidRegion cuboid) {
+                count = fillCuboid(cuboid, bx, by, bz);
+            } else {
+                count = fill(region, bx, by, bz);
+            }
+            if (count > 0) {
+                chunk.setSectionBiomes(layer, cells);
+                affected += count;
+            }
+        }
+        // Blocks are not visited
+        return null;
+    }
+
+    private long fillCuboid(CuboidRegion region, int bx, int by, int bz) {
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        int minX = Math.max(min.x(), bx) - bx;
+        int minY = Math.max(min.y(), by) - by;
+        int minZ = Math.max(min.z(), bz) - bz;
+        int maxX = Math.min(max.x(), bx + 15) - bx;
+        int maxY = Math.min(max.y(), by + 15) - by;
+        int maxZ = Math.min(max.z(), bz + 15) - bz;
+        if (minX > maxX || minY > maxY || minZ > maxZ) {
+            return 0;
+        }
+        Arrays.fill(cells, null);
+        for (int y = minY >> 2; y <= maxY >> 2; y++) {
+            for (int z = minZ >> 2; z <= maxZ >> 2; z++) {
+                for (int x = minX >> 2; x <= maxX >> 2; x++) {
+                    cells[y << 4 | z << 2 | x] = biome;
+                }
+            }
+        }
+        return (long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1);
+    }
+
+    private long fill(Region region, int bx, int by, int bz) {
+        Arrays.fill(cells, null);
+        long count = 0;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (region.contains(bx + x, by + y, bz + z)) {
+                        cells[(y >> 2) << 4 | (z >> 2) << 2 | x >> 2] = biome;
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of positions in the region whose biome was set.
+     */
+    public int getAffected() {
+        return (int) Math.min(Integer.MAX_VALUE, affected);
+    }
+
+}
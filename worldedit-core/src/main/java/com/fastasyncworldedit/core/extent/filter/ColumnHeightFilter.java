@@ -0,0 +1,136 @@
+package com.fastasyncworldedit.core.extent.filter;
+
+import com.fastasyncworldedit.core.extent.processor.heightmap.HeightMapType;
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.function.mask.SolidBlockMask;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Filter reading the highest terrain (movement blocking) block of every column of a region, a whole chunk at a time. The
+ * result is equivalent to calling {@link Extent#getHighestTerrainBlock(int, int, int, int)} for each column.
+ * <p>
+ * Chunks without pending changes use the world's {@link HeightMapType#OCEAN_FLOOR} heightmap where the surface lies
+ * within the region, other columns are found by scanning down through non-empty sections. Chunks are visited
+ * concurrently when applied to a parallel queue, each writing only its own columns.
+ *
+ * @since 2.13.1
+ */
+public class ColumnHeightFilter implements Filter {
+
+    private static final int UNSET = Integer.MIN_VALUE;
+
+    private final int minX;
+    private final int minZ;
+    private final int maxX;
+    private final int maxZ;
+    private final int minY;
+    private final int maxY;
+    private final int width;
+    private final int[] heights;
+
+    /**
+     * Create a new filter for the columns of the given region's bounding box.
+     *
+     * @param region region to read heights in
+     */
+    public ColumnHeightFilter(Region region) {
+        this.minX = region.getMinimumPoint().x();
+        this.minZ = region.getMinimumPoint().z();
+        this.maxX = region.getMaximumPoint().x();
+        this.maxZ = region.getMaximumPoint().z();
+        this.minY = region.getMinimumPoint().y();
+        this.maxY = region.getMaximumPoint().y();
+        this.width = maxX - minX + 1;
+        this.heights = new int[width * (maxZ - minZ + 1)];
+        Arrays.fill(heights, UNSET);
+    }
+
+    /**
+     * Read the heights of every column of the region's bounding box from the given extent.
+     *
+     * @param extent extent to read from
+     * @param region region to read heights in
+     * @return heights indexed by {@code (z - minZ) * width + (x - minX)}
+     */
+    public static int[] read(Extent extent, Region region) {
+        ColumnHeightFilter filter = new ColumnHeightFilter(region);
+        CuboidRegion bounds = new CuboidRegion(region.getMinimumPoint(), region.getMaximumPoint());
+        extent.apply(bounds, filter, true);
+        return filter.complete(extent);
+    }
+
+    @Override
+    public @Nullable <T extends IChunk> T applyChunk(T chunk, @Nullable Region region) {
+        int bx = chunk.getX() << 4;
+        int bz = chunk.getZ() << 4;
+        int x0 = Math.max(minX, bx);
+        int x1 = Math.min(maxX, bx + 15);
+        int z0 = Math.max(minZ, bz);
+        int z1 = Math.min(maxZ, bz + 15);
+        int chunkMinY = chunk.getMinY();
+        int top = Math.min(maxY, chunk.getMaxY());
+        int bottom = Math.max(minY, chunkMinY);
+        int[] heightMap = null;
+        if (chunk.isEmpty()) {
+            heightMap = chunk.getHeightMap(HeightMapType.OCEAN_FLOOR);
+            if (heightMap != null && heightMap.length != 256) {
+                heightMap = null;
+            }
+        }
+        for (int z = z0; z <= z1; z++) {
+            int lz = z & 15;
+            int index = (z - minZ) * width - minX;
+            for (int x = x0; x <= x1; x++) {
+                int lx = x & 15;
+                if (heightMap != null) {
+                    // Stored as the block above the highest motion blocking block, relative to the world's minimum
+                    int surface = heightMap[lz << 4 | lx] + chunkMinY - 1;
+                    if (surface <= top) {
+                        heights[index + x] = Math.max(surface, bottom);
+                        continue;
+                    }
+                }
+                heights[index + x] = scan(chunk, lx, lz, top, bottom);
+            }
+        }
+        // No per-block filtering required
+        return null;
+    }
+
+    private static int scan(IChunk chunk, int lx, int lz, int top, int bottom) {
+        boolean empty = chunk.isEmpty();
+        for (int y = top; y >= bottom; y--) {
+            if (empty && !chunk.hasNonEmptySection(y >> 4)) {
+                y &= ~15;
+                continue;
+            }
+            if (SolidBlockMask.isSolid(chunk.getBlock(lx, y, lz))) {
+                return y;
+            }
+        }
+        return bottom;
+    }
+
+    /**
+     * Fill any columns not visited by {@link #applyChunk} (e.g. when the extent is not backed by a queue) and return the
+     * heights.
+     *
+     * @param extent extent to read remaining columns from
+     * @return heights indexed by {@code (z - minZ) * width + (x - minX)}
+     */
+    public int[] complete(Extent extent) {
+        for (int i = 0; i < heights.length; i++) {
+            if (heights[i] == UNSET) {
+                heights[i] = extent.getHighestTerrainBlock(minX + i % width, minZ + i / width, minY, maxY);
+            }
+        }
+        return heights;
+    }
+
+}
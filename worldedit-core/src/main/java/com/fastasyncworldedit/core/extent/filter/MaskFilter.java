@@ -2,6 +2,7 @@
 
 import com.fastasyncworldedit.core.extent.filter.block.DelegateFilter;
 import com.fastasyncworldedit.core.extent.filter.block.FilterBlock;
+import com.fastasyncworldedit.core.function.mask.ABlockMask;
 import com.fastasyncworldedit.core.internal.simd.VectorFacade;
 import com.fastasyncworldedit.core.internal.simd.SimdSupport;
 import com.fastasyncworldedit.core.internal.simd.VectorizedFilter;
@@ -14,6 +15,7 @@
 import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 
+import javax.annotation.Nullable;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -24,9 +26,20 @@
  */
 public class MaskFilter<T extends Filter> extends DelegateFilter<T> {
 
+    private static final byte UNTESTED = 0;
+    private static final byte FAILS = 1;
+    private static final byte PASSES = 2;
+
     final Mask mask;
     final AtomicInteger changes;
 
+    // Result of the mask per ordinal present in the last section, see forSection
+    private byte[] sectionResults;
+    private final char[] sectionPalette = new char[4096];
+    private int sectionPaletteSize;
+    private Filter unmasked;
+    private Filter sectionMasked;
+
     public MaskFilter(T other, Mask root) {
         this(other, root, new AtomicInteger());
     }
@@ -50,6 +63,72 @@ public void applyBlock(FilterBlock block) {
         }
     }
 
+    /**
+     * Get a filter equivalent to this filter for the blocks of a section. For block state masks the mask is tested once per
+     * distinct block state present in the section rather than once per block, the mask does not need to be tested at all if
+     * every or no block of the section passes.
+     *
+     * @param blocks ordinals of the existing blocks of the section
+     * @return the filter to apply to the section's blocks, or null if no block of the section passes the mask
+     * @since 2.13.1
+     */
+    @Nullable
+    public Filter forSection(char[] blocks) {
+        if (!(mask instanceof ABlockMask blockMask)) {
+            return this;
+        }
+        byte[] results = sectionResults;
+        if (results == null) {
+            results = sectionResults = new byte[Character.MAX_VALUE + 1];
+        } else {
+            for (int i = 0; i < sectionPaletteSize; i++) {
+                results[sectionPalette[i]] = UNTESTED;
+            }
+        }
+        int size = 0;
+        int passes = 0;
+        for (char ordinal : blocks) {
+            if (results[ordinal] == UNTESTED) {
+                sectionPalette[size++] = ordinal;
+                if (blockMask.testOrdinal(ordinal)) {
+                    results[ordinal] = PASSES;
+                    passes++;
+                } else {
+                    results[ordinal] = FAILS;
+                }
+            }
+        }
+        sectionPaletteSize = size;
+        if (passes == 0) {
+            return null;
+        }
+        if (passes == size) {
+            if (unmasked == null) {
+                unmasked = new Filter() {
+                    @Override
+                    public void applyBlock(FilterBlock block) {
+                        getParent().applyBlock(block);
+                        changes.incrementAndGet();
+                    }
+                };
+            }
+            return unmasked;
+        }
+        if (sectionMasked == null) {
+            final byte[] sectionResults = results;
+            sectionMasked = new Filter() {
+                @Override
+                public void applyBlock(FilterBlock block) {
+                    if (sectionResults[block.getOrdinal()] == PASSES) {
+                        getParent().applyBlock(block);
+                        changes.incrementAndGet();
+                    }
+                }
+            };
+        }
+        return sectionMasked;
+    }
+
     /**
      * Get the number of blocks which passed the Mask test and were applied to
      *
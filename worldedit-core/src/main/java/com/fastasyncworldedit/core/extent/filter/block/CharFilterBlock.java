@@ -1,6 +1,7 @@
 package com.fastasyncworldedit.core.extent.filter.block;
 
 import com.fastasyncworldedit.core.FaweCache;
+import com.fastasyncworldedit.core.extent.filter.MaskFilter;
 import com.fastasyncworldedit.core.nbt.FaweCompoundTag;
 import com.fastasyncworldedit.core.queue.Filter;
 import com.fastasyncworldedit.core.queue.FilterBlockMask;
@@ -54,6 +55,9 @@ public class CharFilterBlock extends ChunkFilterBlock {
     private int zz;
     private int chunkX;
     private int chunkZ;
+    // Filter to apply to the blocks of the current layer, see MaskFilter#forSection
+    private Filter layerFilter;
+    private Filter layerFilterSource;
 
     public CharFilterBlock(Extent extent) {
         super(extent);
@@ -88,9 +92,26 @@ public synchronized final ChunkFilterBlock initLayer(IBlocks iget, IChunkSet ise
             setArr = null;
         }
         this.yy = layer << 4;
+        this.layerFilter = null;
+        this.layerFilterSource = null;
         return this;
     }
 
+    /**
+     * Get the filter to apply to the blocks of the current layer in place of the given filter, evaluated once per layer.
+     *
+     * @param filter filter to apply
+     * @return the filter to apply, or null if the filter would not change any block of the layer
+     */
+    @Nullable
+    protected final Filter getLayerFilter(Filter filter) {
+        if (filter != layerFilterSource) {
+            layerFilterSource = filter;
+            layerFilter = filter instanceof MaskFilter<?> maskFilter ? maskFilter.forSection(getArr) : filter;
+        }
+        return layerFilter;
+    }
+
     @Override
     public synchronized void flood(
             IChunkGet iget, IChunkSet iset, int layer, Flood flood,
@@ -128,6 +149,9 @@ public synchronized void filter(Filter filter, int x, int y, int z) {
 
     @Override
     public synchronized void filter(Filter filter, int startY, int endY) {
+        if ((filter = getLayerFilter(filter)) == null) {
+            return;
+        }
         for (y = startY, index = startY << 8; y <= endY; y++) {
             for (z = 0; z < 16; z++) {
                 for (x = 0; x < 16; x++, index++) {
@@ -139,6 +163,9 @@ public synchronized void filter(Filter filter, int startY, int endY) {
 
     @Override
     public synchronized void filter(Filter filter, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if ((filter = getLayerFilter(filter)) == null) {
+            return;
+        }
         int yis = minY << 8;
         int zis = minZ << 4;
         int zie = (15 - maxZ) << 4;
@@ -158,6 +185,9 @@ public synchronized void filter(Filter filter, int minX, int minY, int minZ, int
 
     @Override
     public synchronized final void filter(Filter filter, Region region) {
+        if ((filter = getLayerFilter(filter)) == null) {
+            return;
+        }
         for (y = 0, index = 0; y < 16; y++) {
             int absY = yy + y;
             for (z = 0; z < 16; z++) {
@@ -174,6 +204,9 @@ public synchronized final void filter(Filter filter, Region region) {
 
     @Override
     public synchronized void filter(Filter filter) {
+        if ((filter = getLayerFilter(filter)) == null) {
+            return;
+        }
         for (y = 0, index = 0; y < 16; y++) {
             for (z = 0; z < 16; z++) {
                 for (x = 0; x < 16; x++, index++) {
@@ -1,9 +1,9 @@
 package com.fastasyncworldedit.core.extent.processor;
 
-import com.fastasyncworldedit.core.queue.IBatchProcessor;
 import com.fastasyncworldedit.core.queue.IChunk;
 import com.fastasyncworldedit.core.queue.IChunkGet;
 import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.ISectionBatchProcessor;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.internal.util.LogManagerCompat;
@@ -17,12 +17,12 @@
  *
  * @since 2.7.0
  */
-public class EntityInBlockRemovingProcessor implements IBatchProcessor {
+public class EntityInBlockRemovingProcessor implements ISectionBatchProcessor {
 
     private static final Logger LOGGER = LogManagerCompat.getLogger();
 
     @Override
-    public IChunkSet processSet(final IChunk chunk, final IChunkGet get, final IChunkSet set) {
+    public IChunkSet processChunkEnd(final IChunk chunk, final IChunkGet get, final IChunkSet set) {
         try {
             for (CompoundTag tag : get.getEntities()) {
                 // Empty tags for seemingly non-existent entities can exist?
@@ -9,7 +9,9 @@
 import com.fastasyncworldedit.core.queue.IChunk;
 import com.fastasyncworldedit.core.queue.IChunkGet;
 import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.ISectionBatchProcessor;
 import com.fastasyncworldedit.core.util.MultiFuture;
+import com.fastasyncworldedit.core.util.PipelineStats;
 import com.fastasyncworldedit.core.util.StringMan;
 import com.google.common.cache.LoadingCache;
 import com.sk89q.worldedit.extent.Extent;
@@ -36,6 +38,8 @@ public class MultiBatchProcessor implements IBatchProcessor {
     // not very important)
     private boolean[] faweExceptionReasonsUsed = new boolean[FaweException.Type.values().length];
     private IBatchProcessor[] processors;
+    // Processors in processing order, grouped into stages. Reset when processors change
+    private volatile IBatchProcessor[][] stages;
     private int lastException = Integer.MIN_VALUE;
     private int exceptionCount = 0;
 
@@ -63,6 +67,7 @@ public void addBatchProcessor(IBatchProcessor processor) {
         List<IBatchProcessor> processors = new ArrayList<>(Arrays.asList(this.processors));
         processors.add(processor);
         this.processors = processors.toArray(new IBatchProcessor[0]);
+        this.stages = null;
     }
 
     public List<IBatchProcessor> getBatchProcessors() {
@@ -73,28 +78,127 @@ public void removeBatchProcessor(IBatchProcessor processor) {
         List<IBatchProcessor> processors = new ArrayList<>(Arrays.asList(this.processors));
         processors.remove(processor);
         this.processors = processors.toArray(new IBatchProcessor[0]);
+        this.stages = null;
     }
 
     @Override
     public IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
-        Map<ProcessorScope, List<IBatchProcessor>> ordered = new EnumMap<>(ProcessorScope.class);
+        IBatchProcessor[][] stages = getStages();
         IChunkSet chunkSet = set;
+        for (IBatchProcessor[] stage : stages) {
+            chunkSet = stage.length == 1 && !(stage[0] instanceof ISectionBatchProcessor)
+                    ? processSet(stage[0], chunk, get, chunkSet)
+                    : processSections(stage, chunk, get, chunkSet);
+            if (chunkSet == null) {
+                return null;
+            }
+        }
+        return chunkSet;
+    }
+
+    /**
+     * Get the processors in the order they process sets: processors adding blocks in the order they were added, then the
+     * other processors by {@link ProcessorScope}. Consecutive {@link ISectionBatchProcessor}s are grouped into a single stage,
+     * and the section processors of the scopes only reading blocks run before the other processors of those scopes.
+     */
+    private IBatchProcessor[][] getStages() {
+        IBatchProcessor[][] stages = this.stages;
+        if (stages != null) {
+            return stages;
+        }
+        List<IBatchProcessor> order = new ArrayList<>();
+        Map<ProcessorScope, List<IBatchProcessor>> ordered = new EnumMap<>(ProcessorScope.class);
         for (IBatchProcessor processor : processors) {
             if (processor.getScope() != ProcessorScope.ADDING_BLOCKS) {
                 ordered.computeIfAbsent(processor.getScope(), k -> new ArrayList<>())
                         .add(processor);
                 continue;
             }
-            chunkSet = processSet(processor, chunk, get, chunkSet);
+            order.add(processor);
         }
-        if (!ordered.isEmpty()) {
-            for (List<IBatchProcessor> processors : ordered.values()) {
-                for (IBatchProcessor processor : processors) {
-                    chunkSet = processSet(processor, chunk, get, chunkSet);
-                    if (chunkSet == null) {
-                        return null;
-                    }
+        // Processors reading blocks do not alter them, so their section processors can run first, in a single stage
+        List<IBatchProcessor> reading = new ArrayList<>();
+        for (Map.Entry<ProcessorScope, List<IBatchProcessor>> entry : ordered.entrySet()) {
+            if (isReading(entry.getKey())) {
+                reading.addAll(entry.getValue());
+            } else {
+                order.addAll(entry.getValue());
+            }
+        }
+        reading.stream().filter(p -> p instanceof ISectionBatchProcessor).forEach(order::add);
+        reading.stream().filter(p -> !(p instanceof ISectionBatchProcessor)).forEach(order::add);
+        List<IBatchProcessor[]> result = new ArrayList<>();
+        List<IBatchProcessor> fused = new ArrayList<>();
+        for (IBatchProcessor processor : order) {
+            if (processor instanceof ISectionBatchProcessor) {
+                fused.add(processor);
+                continue;
+            }
+            if (!fused.isEmpty()) {
+                result.add(fused.toArray(new IBatchProcessor[0]));
+                fused.clear();
+            }
+            result.add(new IBatchProcessor[]{processor});
+        }
+        if (!fused.isEmpty()) {
+            result.add(fused.toArray(new IBatchProcessor[0]));
+        }
+        return this.stages = result.toArray(new IBatchProcessor[0][]);
+    }
+
+    @SuppressWarnings("removal")
+    private static boolean isReading(ProcessorScope scope) {
+        return scope == ProcessorScope.READING_BLOCKS || scope == ProcessorScope.READING_SET_BLOCKS;
+    }
+
+    // Run section processors in a single pass over the sections, so each section is only loaded once
+    @Nullable
+    private IChunkSet processSections(IBatchProcessor[] stage, IChunk chunk, IChunkGet get, IChunkSet chunkSet) {
+        ISectionBatchProcessor[] sectionProcessors = new ISectionBatchProcessor[stage.length];
+        // Time spent by each processor, only if stats are enabled
+        long[] nanos = PipelineStats.isEnabled() ? new long[stage.length] : null;
+        long start = 0;
+        for (int i = 0; i < stage.length; i++) {
+            sectionProcessors[i] = (ISectionBatchProcessor) getProcessor(stage[i]);
+            if (nanos != null) {
+                start = System.nanoTime();
+            }
+            if ((chunkSet = sectionProcessors[i].processChunkStart(chunk, get, chunkSet)) == null) {
+                return null;
+            }
+            if (nanos != null) {
+                nanos[i] += System.nanoTime() - start;
+            }
+        }
+        for (int layer = chunkSet.getMinSectionPosition(); layer <= chunkSet.getMaxSectionPosition(); layer++) {
+            char[] blocks;
+            if (!chunkSet.hasSection(layer) || (blocks = chunkSet.loadIfPresent(layer)) == null) {
+                continue;
+            }
+            for (int i = 0; i < sectionProcessors.length; i++) {
+                if (nanos != null) {
+                    start = System.nanoTime();
                 }
+                sectionProcessors[i].processSection(chunk, get, chunkSet, layer, blocks);
+                if (nanos != null) {
+                    nanos[i] += System.nanoTime() - start;
+                }
+            }
+        }
+        for (int i = 0; i < sectionProcessors.length; i++) {
+            if (nanos != null) {
+                start = System.nanoTime();
+            }
+            if ((chunkSet = sectionProcessors[i].processChunkEnd(chunk, get, chunkSet)) == null) {
+                return null;
+            }
+            if (nanos != null) {
+                nanos[i] += System.nanoTime() - start;
+            }
+        }
+        if (nanos != null) {
+            for (int i = 0; i < stage.length; i++) {
+                PipelineStats.recordNanos(PipelineStats.name("process-set", stage[i].getClass()), nanos[i]);
             }
         }
         return chunkSet;
@@ -102,17 +206,19 @@ public IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
 
     @Nullable
     private IChunkSet processSet(IBatchProcessor processor, IChunk chunk, IChunkGet get, IChunkSet chunkSet) {
+        long start = PipelineStats.start();
+        chunkSet = getProcessor(processor).processSet(chunk, get, chunkSet);
+        PipelineStats.record("process-set", processor.getClass(), start);
+        return chunkSet;
+    }
+
+    // Filters are forked for each thread
+    private IBatchProcessor getProcessor(IBatchProcessor processor) {
         if (processor instanceof Filter) {
-            chunkSet = ((IBatchProcessor) classToThreadIdToFilter.getUnchecked(processor.getClass())
-                    .computeIfAbsent(Thread.currentThread().getId(), k -> ((Filter) processor).fork())).processSet(
-                    chunk,
-                    get,
-                    chunkSet
-            );
-        } else {
-            chunkSet = processor.processSet(chunk, get, chunkSet);
+            return (IBatchProcessor) classToThreadIdToFilter.getUnchecked(processor.getClass())
+                    .computeIfAbsent(Thread.currentThread().getId(), k -> ((Filter) processor).fork());
         }
-        return chunkSet;
+        return processor;
     }
 
     @Override
@@ -124,7 +230,9 @@ public Future<?> postProcessSet(IChunk chunk, IChunkGet get, IChunkSet set) {
                 if (processor.getScope() != ProcessorScope.READING_BLOCKS) {
                     continue;
                 }
+                long start = PipelineStats.start();
                 futures.add(processor.postProcessSet(chunk, get, set));
+                PipelineStats.record("post-process", processor.getClass(), start);
             } catch (Throwable e) {
                 if (e instanceof FaweException) {
                     Fawe.handleFaweException(faweExceptionReasonsUsed, (FaweException) e, LOGGER);
@@ -155,7 +263,9 @@ public void postProcess(IChunk chunk, IChunkGet get, IChunkSet set) {
                 if (processor.getScope() != ProcessorScope.READING_BLOCKS) {
                     continue;
                 }
+                long start = PipelineStats.start();
                 processor.postProcess(chunk, get, set);
+                PipelineStats.record("post-process", processor.getClass(), start);
             } catch (Throwable e) {
                 if (e instanceof FaweException) {
                     Fawe.handleFaweException(faweExceptionReasonsUsed, (FaweException) e, LOGGER);
@@ -19,7 +19,7 @@ public class HeightmapProcessor implements IBatchProcessor {
     private static final int BLOCKS_PER_Y_SHIFT = 8; // log2(256)
     private static final int BLOCKS_PER_Y = 256; // 16 x 16
     private static final char[] AIR_LAYER = new char[4096];
-    private static final int NEEDED_UPDATES = TYPES.length * BLOCKS_PER_Y;
+    private static final int COLUMN_WORDS = BLOCKS_PER_Y / Long.SIZE;
 
     static {
         Arrays.fill(AIR_LAYER, (char) BlockTypesCache.ReservedIDs.AIR);
@@ -46,10 +46,13 @@ private static int index(int y, int offset) {
 
     @Override
     public IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
+        final byte[] flags = TypeFlags.FLAGS;
         // each heightmap gets one 16*16 array
         int[][] heightmaps = new int[TYPES.length][BLOCKS_PER_Y];
-        byte[] updated = new byte[BLOCKS_PER_Y];
-        int updateCount = 0; // count updates, this way we know when we're finished
+        // columns of each heightmap that are not found yet, as 4 words of 64 columns
+        long[] pending = new long[TYPES.length * COLUMN_WORDS];
+        Arrays.fill(pending, -1L);
+        long[] found = new long[TYPES.length];
         layerIter:
         for (int layer = maxY >> 4; layer >= minY >> 4; layer--) {
             boolean hasSectionSet = set.hasNonEmptySection(layer);
@@ -67,59 +70,63 @@ public IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
             }
             char[] getSection = null;
             for (int y = 15; y >= 0; y--) {
-                // We don't need to actually iterate over x and z as we're both reading and writing an index
-                for (int j = 0; j < BLOCKS_PER_Y; j++) {
-                    char ordinal = BlockTypesCache.ReservedIDs.__RESERVED__;
-                    if (hasSectionSet) {
-                        ordinal = setSection[index(y, j)];
+                // mc requires + 1, heightmaps are normalized internally, thus we need to "zero" them.
+                int height = ((layer - get.getMinSectionPosition()) << 4) + y + 1;
+                for (int word = 0; word < COLUMN_WORDS; word++) {
+                    long open = 0;
+                    for (int i = 0; i < TYPES.length; i++) {
+                        open |= pending[i * COLUMN_WORDS + word];
                     }
-                    if (ordinal == BlockTypesCache.ReservedIDs.__RESERVED__) {
-                        if (!hasSectionGet) {
-                            if (!hasSectionSet) {
-                                continue layerIter;
-                            }
-                            continue;
-                        } else if (getSection == null) {
-                            getSection = get.load(layer);
-                            // skip empty layer
-                            if (Arrays.equals(getSection, FaweCache.INSTANCE.EMPTY_CHAR_4096)
-                                    || Arrays.equals(getSection, AIR_LAYER)) {
-                                hasSectionGet = false;
-                                if (!hasSectionSet) {
-                                    continue layerIter;
-                                }
+                    if (open == 0) {
+                        continue; // all heightmaps found in these columns
+                    }
+                    Arrays.fill(found, 0);
+                    int offset = index(y, word << 6);
+                    for (int column = 0; column < 64; column++) {
+                        char ordinal = BlockTypesCache.ReservedIDs.__RESERVED__;
+                        if (hasSectionSet) {
+                            ordinal = setSection[offset + column];
+                        }
+                        if (ordinal == BlockTypesCache.ReservedIDs.__RESERVED__) {
+                            if (!hasSectionGet) {
                                 continue;
+                            } else if (getSection == null) {
+                                getSection = get.load(layer);
+                                // skip empty layer
+                                if (Arrays.equals(getSection, FaweCache.INSTANCE.EMPTY_CHAR_4096)
+                                        || Arrays.equals(getSection, AIR_LAYER)) {
+                                    hasSectionGet = false;
+                                    if (!hasSectionSet) {
+                                        continue layerIter;
+                                    }
+                                    continue;
+                                }
+                            }
+                            ordinal = getSection[offset + column];
+                        }
+                        int flag = flags[ordinal];
+                        if (flag != 0) {
+                            for (int i = 0; i < TYPES.length; i++) {
+                                found[i] |= (long) (flag >>> i & 1) << column;
                             }
                         }
-                        ordinal = getSection[index(y, j)];
-                    }
-                    // fast skip if block isn't relevant for any height map (air or empty)
-                    if (ordinal < 4) {
-                        continue;
-                    }
-                    BlockState block = BlockTypesCache.states[ordinal];
-                    if (block == null) {
-                        continue;
                     }
-                    byte updateStateAtJ = updated[j];
                     for (int i = 0; i < TYPES.length; i++) {
-                        int bitFlag = 1 << i;
-                        if ((updateStateAtJ & bitFlag) != 0) {
-                            continue; // skip finished height map at this column
-                        }
-                        HeightMapType type = TYPES[i];
-                        // ignore if that position was already set
-                        if (type.includes(block)) {
-                            // mc requires + 1, heightmaps are normalized internally, thus we need to "zero" them.
-                            heightmaps[i][j] = ((layer - get.getMinSectionPosition()) << 4) + y + 1;
-                            updated[j] |= (byte) bitFlag; // mark as updated
-                            if (++updateCount == NEEDED_UPDATES) {
-                                break layerIter; // all heightmaps in all columns updated
-                            }
-
+                        long hits = found[i] & pending[i * COLUMN_WORDS + word];
+                        if (hits == 0) {
+                            continue;
                         }
+                        pending[i * COLUMN_WORDS + word] &= ~hits;
+                        int[] heightmap = heightmaps[i];
+                        do {
+                            heightmap[(word << 6) + Long.numberOfTrailingZeros(hits)] = height;
+                            hits &= hits - 1;
+                        } while (hits != 0);
                     }
                 }
+                if (isEmpty(pending)) {
+                    break layerIter; // all heightmaps in all columns updated
+                }
             }
         }
         for (int i = 0; i < TYPES.length; i++) {
@@ -128,6 +135,14 @@ public IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
         return set;
     }
 
+    private static boolean isEmpty(long[] bits) {
+        long any = 0;
+        for (long word : bits) {
+            any |= word;
+        }
+        return any == 0;
+    }
+
     @Override
     @Nullable
     public Extent construct(Extent child) {
@@ -139,4 +154,27 @@ public ProcessorScope getScope() {
         return ProcessorScope.READING_BLOCKS;
     }
 
+    // Bit i of an ordinal's flags is set if the state is included by the i-th heightmap type. Built on first use, as the
+    // block states are not known when the processor class is loaded
+    private static final class TypeFlags {
+
+        private static final byte[] FLAGS = new byte[BlockTypesCache.states.length];
+
+        static {
+            for (int ordinal = 0; ordinal < FLAGS.length; ordinal++) {
+                BlockState state = BlockTypesCache.states[ordinal];
+                // air or empty is not relevant for any heightmap
+                if (ordinal < 4 || state == null) {
+                    continue;
+                }
+                for (int i = 0; i < TYPES.length; i++) {
+                    if (TYPES[i].includes(state)) {
+                        FLAGS[ordinal] |= (byte) (1 << i);
+                    }
+                }
+            }
+        }
+
+    }
+
 }
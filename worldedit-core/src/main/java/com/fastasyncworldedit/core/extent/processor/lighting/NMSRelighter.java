@@ -7,6 +7,7 @@
 import com.fastasyncworldedit.core.queue.IQueueExtent;
 import com.fastasyncworldedit.core.queue.implementation.chunk.ChunkHolder;
 import com.fastasyncworldedit.core.util.MathMan;
+import com.fastasyncworldedit.core.util.PipelineStats;
 import com.fastasyncworldedit.core.util.TaskManager;
 import com.fastasyncworldedit.core.util.task.RunnableVal;
 import com.sk89q.worldedit.registry.state.DirectionalProperty;
@@ -864,7 +865,9 @@ public void fixLightingSafe(boolean sky) {
             return;
         }
         if (sky) {
+            long start = PipelineStats.start();
             fixSkyLighting();
+            PipelineStats.record("lighting.sky", start);
         } else {
             synchronized (this) {
                 Map<Long, RelightSkyEntry> map = getSkyMap();
@@ -876,7 +879,9 @@ public void fixLightingSafe(boolean sky) {
                 }
             }
         }
+        long start = PipelineStats.start();
         fixBlockLighting();
+        PipelineStats.record("lighting.block", start);
         sendChunks();
     }
 
@@ -932,6 +937,7 @@ public synchronized void sendChunks() {
         RunnableVal<Object> runnable = new RunnableVal<>() {
             @Override
             public void run(Object value) {
+                long start = PipelineStats.start();
                 Iterator<Map.Entry<Long, Integer>> iter = chunksToSend.entrySet().iterator();
                 while (iter.hasNext()) {
                     Map.Entry<Long, Integer> entry = iter.next();
@@ -945,6 +951,7 @@ public void run(Object value) {
                     Fawe.platform().getPlatformAdapter().sendChunk(chunk.getOrCreateGet(), bitMask, true);
                     iter.remove();
                 }
+                PipelineStats.record("lighting.send", start);
                 finished.set(true);
             }
         };
@@ -2,15 +2,15 @@
 
 import com.fastasyncworldedit.core.configuration.Settings;
 import com.fastasyncworldedit.core.extent.processor.ProcessorScope;
-import com.fastasyncworldedit.core.queue.IBatchProcessor;
 import com.fastasyncworldedit.core.queue.IChunk;
 import com.fastasyncworldedit.core.queue.IChunkGet;
 import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.ISectionBatchProcessor;
 import com.sk89q.worldedit.extent.Extent;
 
 import javax.annotation.Nullable;
 
-public class RelightProcessor implements IBatchProcessor {
+public class RelightProcessor implements ISectionBatchProcessor {
 
     private final Relighter relighter;
 
@@ -22,7 +22,7 @@ public RelightProcessor(Relighter relighter) {
     }
 
     @Override
-    public IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
+    public IChunkSet processChunkEnd(IChunk chunk, IChunkGet get, IChunkSet set) {
         if (Settings.settings().LIGHTING.MODE == 2) {
             relighter.addChunk(chunk.getX(), chunk.getZ(), null, chunk.getBitMask());
         } else if (Settings.settings().LIGHTING.MODE == 1) {
@@ -1,22 +1,44 @@
 package com.fastasyncworldedit.core.function.block;
 
+import com.fastasyncworldedit.core.math.LocalBlockVectorSet;
 import com.fastasyncworldedit.core.math.MutableBlockVector3;
+import com.fastasyncworldedit.core.util.collection.BlockVector3Set;
 import com.sk89q.worldedit.WorldEditException;
 import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.function.RegionFunction;
 import com.sk89q.worldedit.math.BlockVector3;
 
+import javax.annotation.Nullable;
+
 public class BiomeCopy implements RegionFunction {
 
     protected final Extent source;
     protected final Extent destination;
     private final MutableBlockVector3 mutableVector;
+    private final BlockVector3 translation;
+    private final BlockVector3Set copiedCells;
 
     public BiomeCopy(Extent source, Extent destination) {
+        this(source, destination, null);
+    }
+
+    /**
+     * Copy biomes once per 4x4x4 biome cell of the destination, rather than once per position. Biomes are stored per cell,
+     * so copying the biome of every position in a cell would only set the cell again.
+     *
+     * @param source      the source extent
+     * @param destination the destination extent
+     * @param translation the translation from a position to the position it is set at in the destination, or null if
+     *                    positions may be transformed otherwise, in which case biomes are copied per position
+     * @since 2.13.1
+     */
+    public BiomeCopy(Extent source, Extent destination, @Nullable BlockVector3 translation) {
         this.source = source;
         this.destination = destination;
         this.mutableVector = new MutableBlockVector3();
         this.mutableVector.setComponents(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE);
+        this.translation = translation;
+        this.copiedCells = translation != null ? LocalBlockVectorSet.wrapped() : null;
     }
 
     @Override
@@ -24,6 +46,13 @@ public boolean apply(BlockVector3 position) throws WorldEditException {
         int x = position.x();
         int y = position.y();
         int z = position.z();
+        if (copiedCells != null && !copiedCells.add(
+                (x + translation.x()) >> 2,
+                (y + translation.y()) >> 2,
+                (z + translation.z()) >> 2
+        )) {
+            return false;
+        }
         if (x != mutableVector.x() || z != mutableVector.z() || y != mutableVector
                 .y()) {
             mutableVector.setComponents(x, y, z);
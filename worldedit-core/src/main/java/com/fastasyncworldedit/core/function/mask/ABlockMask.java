@@ -31,6 +31,17 @@ public boolean test(BlockVector3 vector) {
 
     public abstract boolean test(BlockState state);
 
+    /**
+     * Test a block state by its ordinal, equivalent to {@link #test(BlockState)}.
+     *
+     * @param ordinal ordinal of the block state
+     * @return if the block state passes the mask
+     * @since 2.13.1
+     */
+    public boolean testOrdinal(int ordinal) {
+        return test(BlockTypesCache.states[ordinal]);
+    }
+
     @Override
     public String toString() {
         List<String> strings = new ArrayList<>();
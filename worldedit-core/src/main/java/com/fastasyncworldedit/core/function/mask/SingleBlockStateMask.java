@@ -39,6 +39,11 @@ public final boolean test(BlockState state) {
         return state.getOrdinalChar() == ordinal;
     }
 
+    @Override
+    public boolean testOrdinal(int ordinal) {
+        return ordinal == this.ordinal;
+    }
+
     @Override
     public Mask inverse() {
         return new InverseSingleBlockStateMask(getExtent(), BlockState.getFromOrdinal(ordinal));
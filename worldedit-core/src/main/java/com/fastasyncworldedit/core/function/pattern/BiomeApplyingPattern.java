@@ -22,6 +22,15 @@ public BiomeApplyingPattern(Extent extent, BiomeType biomeType) {
         this.biomeType = biomeType;
     }
 
+    /**
+     * Get the biome type set by this pattern.
+     *
+     * @since 2.13.1
+     */
+    public BiomeType getBiomeType() {
+        return biomeType;
+    }
+
     @Override
     public BaseBlock applyBlock(BlockVector3 position) {
         getExtent().setBiome(position, this.biomeType);
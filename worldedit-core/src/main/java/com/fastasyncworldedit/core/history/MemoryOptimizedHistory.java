@@ -11,11 +11,15 @@
 import com.sk89q.jnbt.NBTOutputStream;
 import com.sk89q.worldedit.world.World;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * ChangeSet optimized for low memory usage
- * - No disk usage
+ * - No disk usage, unless the global history memory budget is exceeded (see {@link TieredHistoryStore})
  * - High CPU usage
  * - Low memory usage
  */
@@ -45,6 +49,11 @@ public class MemoryOptimizedHistory extends FaweStreamChangeSet {
     private FastByteArrayOutputStream tileRStream;
     private NBTOutputStream tileRStreamZip;
 
+    private TieredHistoryStore.Tracked tracked;
+    // Set once the contents have been moved to disk. Read without holding the lock of the changeset
+    private volatile DiskStorageHistory spilled;
+    private volatile int spilledSize;
+
     public MemoryOptimizedHistory(World world) {
         super(world);
     }
@@ -122,11 +131,105 @@ public void close() throws IOException {
             } catch (IOException e) {
                 e.printStackTrace();
             }
+            if (tracked == null && spilled == null && getBufferedSize() > 0) {
+                tracked = TieredHistoryStore.tieredHistoryStore().register(this);
+            }
         }
     }
 
+    @Override
+    public void delete() {
+        TieredHistoryStore.Tracked tracked;
+        synchronized (this) {
+            tracked = this.tracked;
+            this.tracked = null;
+        }
+        if (tracked != null) {
+            TieredHistoryStore.tieredHistoryStore().release(tracked);
+        }
+    }
+
+    /**
+     * Get the number of bytes of compressed history held in memory.
+     *
+     * @since 2.13.1
+     */
+    public synchronized long getBufferedSize() {
+        return size(ids) + size(biomes) + size(entC) + size(entR) + size(tileC) + size(tileR);
+    }
+
+    /**
+     * Write the contents of this closed changeset to the files of the given disk history and release them from memory.
+     * Further reads are served from the files.
+     *
+     * @param target disk history to write the files of
+     * @since 2.13.1
+     */
+    void spill(DiskStorageHistory target) throws IOException {
+        final byte[][] ids;
+        final byte[][] biomes;
+        final byte[][] entC;
+        final byte[][] entR;
+        final byte[][] tileC;
+        final byte[][] tileR;
+        synchronized (this) {
+            if (spilled != null || idsStream != null) {
+                return;
+            }
+            ids = this.ids;
+            biomes = this.biomes;
+            entC = this.entC;
+            entR = this.entR;
+            tileC = this.tileC;
+            tileR = this.tileR;
+        }
+        // Contents are immutable once closed, so write without holding the lock
+        write(ids, target.getBDFile());
+        write(biomes, target.getBioFile());
+        write(entC, target.getEnttFile());
+        write(entR, target.getEntfFile());
+        write(tileC, target.getNbttFile());
+        write(tileR, target.getNbtfFile());
+        synchronized (this) {
+            spilledSize = getCompressedSize();
+            spilled = target;
+            this.ids = null;
+            this.biomes = null;
+            this.entC = null;
+            this.entR = null;
+            this.tileC = null;
+            this.tileR = null;
+        }
+    }
+
+    private static void write(byte[][] arrays, File file) throws IOException {
+        if (arrays == null) {
+            return;
+        }
+        file.getParentFile().mkdirs();
+        try (OutputStream os = new FileOutputStream(file)) {
+            for (byte[] array : arrays) {
+                os.write(array);
+            }
+        }
+    }
+
+    private static long size(byte[][] arrays) {
+        if (arrays == null) {
+            return 0;
+        }
+        long size = 0;
+        for (byte[] array : arrays) {
+            size += array.length;
+        }
+        return size;
+    }
+
     @Override
     public int getCompressedSize() {
+        if (spilled != null) {
+            return spilledSize;
+        }
         if (ids == null) {
             return 0;
         }
@@ -139,9 +242,18 @@ public int getCompressedSize() {
 
     @Override
     public long getSizeInMemory() {
+        if (spilled != null) {
+            return 92;
+        }
         return 92 + getCompressedSize();
     }
 
+    @Override
+    public long getSizeOnDisk() {
+        // Keep the total reported size constant when spilled, as sessions account for it when history is removed
+        return spilled != null ? spilledSize : 0;
+    }
+
     @Override
     public FaweOutputStream getBlockOS(int x, int y, int z) throws IOException {
         if (idsStreamZip != null) {
@@ -157,7 +269,10 @@ public FaweOutputStream getBlockOS(int x, int y, int z) throws IOException {
     }
 
     @Override
-    public FaweInputStream getBiomeIS() throws IOException {
+    public synchronized FaweInputStream getBiomeIS() throws IOException {
+        if (spilled != null) {
+            return spilled.getBiomeIS();
+        }
         if (biomes == null) {
             return null;
         }
@@ -177,7 +292,15 @@ public FaweOutputStream getBiomeOS() throws IOException {
     }
 
     @Override
-    public FaweInputStream getBlockIS() throws IOException {
+    public synchronized FaweInputStream getBlockIS() throws IOException {
+        if (spilled != null) {
+            if (!spilled.getBDFile().exists()) {
+                return null;
+            }
+            FaweInputStream result = MainUtil.getCompressedIS(new FileInputStream(spilled.getBDFile()));
+            readHeader(result);
+            return result;
+        }
         if (ids == null) {
             return null;
         }
@@ -223,22 +346,34 @@ public NBTOutputStream getTileRemoveOS() throws IOException {
     }
 
     @Override
-    public NBTInputStream getEntityCreateIS() throws IOException {
+    public synchronized NBTInputStream getEntityCreateIS() throws IOException {
+        if (spilled != null) {
+            return spilled.getEntityCreateIS();
+        }
         return entC == null ? null : new NBTInputStream(MainUtil.getCompressedIS(new FastByteArraysInputStream(entC)));
     }
 
     @Override
-    public NBTInputStream getEntityRemoveIS() throws IOException {
+    public synchronized NBTInputStream getEntityRemoveIS() throws IOException {
+        if (spilled != null) {
+            return spilled.getEntityRemoveIS();
+        }
         return entR == null ? null : new NBTInputStream(MainUtil.getCompressedIS(new FastByteArraysInputStream(entR)));
     }
 
     @Override
-    public NBTInputStream getTileCreateIS() throws IOException {
+    public synchronized NBTInputStream getTileCreateIS() throws IOException {
+        if (spilled != null) {
+            return spilled.getTileCreateIS();
+        }
         return tileC == null ? null : new NBTInputStream(MainUtil.getCompressedIS(new FastByteArraysInputStream(tileC)));
     }
 
     @Override
-    public NBTInputStream getTileRemoveIS() throws IOException {
+    public synchronized NBTInputStream getTileRemoveIS() throws IOException {
+        if (spilled != null) {
+            return spilled.getTileRemoveIS();
+        }
         return tileR == null ? null : new NBTInputStream(MainUtil.getCompressedIS(new FastByteArraysInputStream(tileR)));
     }
 
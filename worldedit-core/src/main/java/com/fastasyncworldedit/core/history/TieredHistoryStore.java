@@ -0,0 +1,238 @@
+package com.fastasyncworldedit.core.history;
+
+import com.fastasyncworldedit.core.Fawe;
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.fastasyncworldedit.core.util.MainUtil;
+import com.fastasyncworldedit.core.util.TaskManager;
+import com.sk89q.worldedit.internal.util.LogManagerCompat;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global memory budget for history held in memory by {@link MemoryOptimizedHistory}, shared by all sessions. Once the
+ * total size of in-memory history exceeds {@code history.memory-budget-mb}, the oldest changesets are moved to disk in the
+ * background, using the {@link DiskStorageHistory} file format. Spilled changesets are read back from disk when undone.
+ * <p>
+ * Spill files are kept in a separate directory (not the per-player history directory) and are removed when their
+ * changeset is deleted, on startup, and once their changeset is garbage collected, the next time history is tracked, spilled
+ * or counted.
+ *
+ * @since 2.13.1
+ */
+public final class TieredHistoryStore {
+
+    private static final Logger LOGGER = LogManagerCompat.getLogger();
+    private static final UUID SPILL_UUID = new UUID(0, 0);
+    private static TieredHistoryStore INSTANCE;
+
+    private final ArrayDeque<Tracked> resident = new ArrayDeque<>();
+    // Changesets moved to disk, held strongly so they are enqueued once their changeset is garbage collected
+    private final Set<Tracked> spilled = new HashSet<>();
+    private final ReferenceQueue<MemoryOptimizedHistory> collected = new ReferenceQueue<>();
+    private final AtomicBoolean spilling = new AtomicBoolean();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final File folder;
+    private long residentBytes;
+    // Set while memory is limited, to spill down to half of the budget
+    private volatile boolean relieving;
+
+    @VisibleForTesting
+    TieredHistoryStore(File folder) {
+        this.folder = folder;
+        // Spilled history does not persist restarts
+        MainUtil.iterateFiles(folder, File::delete);
+    }
+
+    /**
+     * Get the instance of the store.
+     */
+    public static synchronized TieredHistoryStore tieredHistoryStore() {
+        if (INSTANCE == null) {
+            INSTANCE = new TieredHistoryStore(MainUtil.getFile(
+                    Fawe.platform().getDirectory(),
+                    Settings.settings().PATHS.HISTORY + File.separator + ".spill"
+            ));
+        }
+        return INSTANCE;
+    }
+
+    @VisibleForTesting
+    static synchronized void setInstance(TieredHistoryStore store) {
+        INSTANCE = store;
+    }
+
+    /**
+     * Get the total number of bytes of history currently held in memory across all sessions.
+     */
+    public synchronized long getResidentBytes() {
+        expunge();
+        return residentBytes;
+    }
+
+    /**
+     * Track a completed changeset held in memory, spilling older changesets to disk if the budget is exceeded.
+     *
+     * @param changeSet closed changeset
+     * @return handle to pass to {@link #release(Tracked)} when the changeset is deleted
+     */
+    Tracked register(MemoryOptimizedHistory changeSet) {
+        Tracked tracked = new Tracked(changeSet, collected, changeSet.getBufferedSize());
+        synchronized (this) {
+            expunge();
+            resident.addLast(tracked);
+            residentBytes += tracked.bytes;
+        }
+        if (isOverBudget() && spilling.compareAndSet(false, true)) {
+            TaskManager.taskManager().async(this::spill);
+        }
+        return tracked;
+    }
+
+    /**
+     * Stop tracking a changeset, deleting its spill files if it was moved to disk.
+     */
+    void release(Tracked tracked) {
+        synchronized (this) {
+            if (resident.remove(tracked)) {
+                residentBytes -= tracked.bytes;
+            }
+            spilled.remove(tracked);
+            // Cleared while holding the lock, so a failed spill does not track it again
+            tracked.clear();
+        }
+        tracked.deleteFiles();
+    }
+
+    /**
+     * Move in-memory history to disk until at most half of {@code history.memory-budget-mb} is used, to release memory while
+     * memory is limited. Does nothing if history was never kept in memory, or if the budget is disabled.
+     *
+     * @since 2.13.1
+     */
+    public static void relieveMemory() {
+        TieredHistoryStore store;
+        synchronized (TieredHistoryStore.class) {
+            store = INSTANCE;
+        }
+        if (store == null) {
+            return;
+        }
+        store.relieving = true;
+        if (store.isOverBudget() && store.spilling.compareAndSet(false, true)) {
+            TaskManager.taskManager().async(store::spill);
+        }
+    }
+
+    private synchronized boolean isOverBudget() {
+        int budget = Settings.settings().HISTORY.MEMORY_BUDGET_MB;
+        if (budget < 0) {
+            return false;
+        }
+        long limit = (long) budget << 20;
+        return residentBytes > (relieving ? limit >> 1 : limit);
+    }
+
+    @VisibleForTesting
+    void spill() {
+        try {
+            while (isOverBudget()) {
+                Tracked tracked;
+                synchronized (this) {
+                    expunge();
+                    tracked = resident.pollFirst();
+                    if (tracked == null) {
+                        return;
+                    }
+                    residentBytes -= tracked.bytes;
+                    spilled.add(tracked);
+                }
+                MemoryOptimizedHistory changeSet = tracked.get();
+                if (changeSet == null) {
+                    continue;
+                }
+                DiskStorageHistory target = new DiskStorageHistory(
+                        folder,
+                        changeSet.getWorld(),
+                        SPILL_UUID,
+                        nextIndex.getAndIncrement()
+                );
+                tracked.disk = target;
+                try {
+                    changeSet.spill(target);
+                } catch (IOException e) {
+                    LOGGER.error("Could not move history to disk, keeping it in memory", e);
+                    tracked.deleteFiles();
+                    tracked.disk = null;
+                    synchronized (this) {
+                        spilled.remove(tracked);
+                        // Still held in memory, so still counted, as the oldest changeset
+                        if (tracked.get() != null) {
+                            resident.addFirst(tracked);
+                            residentBytes += tracked.bytes;
+                        }
+                    }
+                    return;
+                }
+                boolean dropped;
+                synchronized (this) {
+                    dropped = !spilled.contains(tracked);
+                }
+                // Released or expunged while its files were being written
+                if (dropped) {
+                    tracked.deleteFiles();
+                }
+            }
+        } finally {
+            relieving = false;
+            spilling.set(false);
+        }
+        // Changesets may have been registered while the flag was still set
+        if (isOverBudget() && spilling.compareAndSet(false, true)) {
+            TaskManager.taskManager().async(this::spill);
+        }
+    }
+
+    // Delete the spill files of changesets that were dropped without being deleted
+    private void expunge() {
+        Tracked tracked;
+        while ((tracked = (Tracked) collected.poll()) != null) {
+            if (resident.remove(tracked)) {
+                residentBytes -= tracked.bytes;
+            }
+            spilled.remove(tracked);
+            tracked.deleteFiles();
+        }
+    }
+
+    static final class Tracked extends WeakReference<MemoryOptimizedHistory> {
+
+        private final long bytes;
+        private volatile DiskStorageHistory disk;
+
+        private Tracked(MemoryOptimizedHistory referent, ReferenceQueue<MemoryOptimizedHistory> queue, long bytes) {
+            super(referent, queue);
+            this.bytes = bytes;
+        }
+
+        private void deleteFiles() {
+            DiskStorageHistory disk = this.disk;
+            if (disk != null) {
+                disk.deleteFiles();
+                disk.getBioFile().delete();
+            }
+        }
+
+    }
+
+}
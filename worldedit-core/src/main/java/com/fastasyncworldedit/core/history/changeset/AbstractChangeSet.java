@@ -5,10 +5,10 @@
 import com.fastasyncworldedit.core.extent.HistoryExtent;
 import com.fastasyncworldedit.core.extent.processor.ProcessorScope;
 import com.fastasyncworldedit.core.nbt.FaweCompoundTag;
-import com.fastasyncworldedit.core.queue.IBatchProcessor;
 import com.fastasyncworldedit.core.queue.IChunk;
 import com.fastasyncworldedit.core.queue.IChunkGet;
 import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.ISectionBatchProcessor;
 import com.fastasyncworldedit.core.util.NbtUtils;
 import com.fastasyncworldedit.core.util.TaskManager;
 import com.google.common.util.concurrent.Futures;
@@ -41,7 +41,6 @@
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -52,11 +51,13 @@
 
 /**
  * This batch processor writes changes to a concrete implementation.
- * {@link #processSet(IChunk, IChunkGet, IChunkSet)} is synchronized to guarantee consistency.
+ * {@link #processSet(IChunk, IChunkGet, IChunkSet)} synchronizes on the change set while writing changes to guarantee
+ * consistency. Block changes are written a section at a time by {@link #addSection(int, int, int, char[], char[])}, which
+ * implementations may override to prepare the section's changes before taking the lock.
  * To avoid many blocking threads on this method, changes are enqueued in {@link #queue}.
  * This allows to keep other threads free for other work.
  */
-public abstract class AbstractChangeSet implements ChangeSet, IBatchProcessor {
+public abstract class AbstractChangeSet implements ChangeSet, ISectionBatchProcessor {
 
     private static final Logger LOGGER = LogManagerCompat.getLogger();
 
@@ -123,12 +124,48 @@ public Extent construct(Extent child) {
     }
 
     @Override
-    public final synchronized IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
+    public final IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
+        return ISectionBatchProcessor.super.processSet(chunk, get, set);
+    }
+
+    @Override
+    public final void processSection(IChunk chunk, IChunkGet get, IChunkSet set, int layer, char[] blocksSet) {
+        char[] blocksGet = get.load(layer);
+        if (blocksGet == null) {
+            blocksGet = FaweCache.INSTANCE.EMPTY_CHAR_4096;
+        }
+        // Account for negative layers
+        addSection(chunk.getX() << 4, layer << 4, chunk.getZ() << 4, blocksGet, blocksSet);
+    }
+
+    @Override
+    public final IChunkSet processChunkEnd(IChunk chunk, IChunkGet get, IChunkSet set) {
+        // Tiles and entities are read once the blocks and entity removals of the chunk are final
         int bx = chunk.getX() << 4;
         int bz = chunk.getZ() << 4;
-
         Map<BlockVector3, FaweCompoundTag> tilesFrom = get.tiles();
         Map<BlockVector3, FaweCompoundTag> tilesTo = set.tiles();
+        Set<UUID> entRemoves = set.getEntityRemoves();
+        Collection<FaweCompoundTag> ents = set.entities();
+        if (!tilesFrom.isEmpty() || !tilesTo.isEmpty() || !entRemoves.isEmpty() || !ents.isEmpty()) {
+            synchronized (this) {
+                processTilesAndEntities(bx, bz, get, set, tilesFrom, tilesTo, entRemoves, ents);
+            }
+        }
+        BiomeType[][] biomes = set.getBiomes();
+        if (biomes != null) {
+            synchronized (this) {
+                processBiomes(bx, bz, get, set, biomes);
+            }
+        }
+        return set;
+    }
+
+    private void processTilesAndEntities(
+            int bx, int bz, IChunkGet get, IChunkSet set,
+            Map<BlockVector3, FaweCompoundTag> tilesFrom, Map<BlockVector3, FaweCompoundTag> tilesTo,
+            Set<UUID> entRemoves, Collection<FaweCompoundTag> ents
+    ) {
         if (!tilesFrom.isEmpty()) {
             for (Map.Entry<BlockVector3, FaweCompoundTag> entry : tilesFrom.entrySet()) {
                 BlockVector3 pos = entry.getKey();
@@ -147,7 +184,6 @@ public final synchronized IChunkSet processSet(IChunk chunk, IChunkGet get, IChu
                 addTileCreate(NbtUtils.withPosition(entry.getValue(), pos.x() + bx, pos.y(), pos.z() + bz));
             }
         }
-        Set<UUID> entRemoves = set.getEntityRemoves();
         if (!entRemoves.isEmpty()) {
             for (UUID uuid : entRemoves) {
                 FaweCompoundTag found = get.entity(uuid);
@@ -156,30 +192,51 @@ public final synchronized IChunkSet processSet(IChunk chunk, IChunkGet get, IChu
                 }
             }
         }
-        Collection<FaweCompoundTag> ents = set.entities();
         if (!ents.isEmpty()) {
             for (FaweCompoundTag tag : ents) {
                 addEntityCreate(tag);
             }
         }
+    }
+
+    private void processBiomes(int bx, int bz, IChunkGet get, IChunkSet set, BiomeType[][] biomes) {
         for (int layer = get.getMinSectionPosition(); layer <= get.getMaxSectionPosition(); layer++) {
-            if (!set.hasSection(layer)) {
+            if (!set.hasBiomes(layer)) {
                 continue;
             }
-            // add each block and tile
-            char[] blocksGet;
-            char[] tmp = get.load(layer);
-            if (tmp == null) {
-                blocksGet = FaweCache.INSTANCE.EMPTY_CHAR_4096;
-            } else {
-                System.arraycopy(tmp, 0, (blocksGet = new char[4096]), 0, 4096);
+            BiomeType[] biomeSection = biomes[layer - set.getMinSectionPosition()];
+            int index = 0;
+            int yy = layer << 4;
+            for (int y = 0; y < 16; y += 4) {
+                for (int z = 0; z < 16; z += 4) {
+                    for (int x = 0; x < 16; x += 4, index++) {
+                        BiomeType newBiome = biomeSection[index];
+                        if (newBiome != null) {
+                            BiomeType oldBiome = get.getBiomeType(x, yy + y, z);
+                            if (oldBiome != newBiome) {
+                                addBiomeChange(bx + x, yy + y, bz + z, oldBiome, newBiome);
+                            }
+                        }
+                    }
+                }
             }
-            char[] blocksSet;
-            // loadIfPresent shouldn't be null if set.hasSection(layer) is true
-            System.arraycopy(Objects.requireNonNull(set.loadIfPresent(layer)), 0, (blocksSet = new char[4096]), 0, 4096);
+        }
+    }
 
-            // Account for negative layers
-            int by = layer << 4;
+    /**
+     * Add the block changes of a chunk section. Blocks set to {@link BlockTypesCache.ReservedIDs#__RESERVED__} are
+     * unchanged. May be called concurrently for different sections; the default implementation synchronizes on the change
+     * set and calls {@link #add(int, int, int, int, int)} for each changed block.
+     *
+     * @param bx        block x coordinate of the section's minimum corner
+     * @param by        block y coordinate of the section's minimum corner
+     * @param bz        block z coordinate of the section's minimum corner
+     * @param blocksGet ordinals of the section before the change
+     * @param blocksSet ordinals of the section after the change
+     * @since 2.13.1
+     */
+    protected void addSection(int bx, int by, int bz, char[] blocksGet, char[] blocksSet) {
+        synchronized (this) {
             for (int y = 0, index = 0; y < 16; y++) {
                 int yy = y + by;
                 for (int z = 0; z < 16; z++) {
@@ -199,32 +256,6 @@ public final synchronized IChunkSet processSet(IChunk chunk, IChunkGet get, IChu
                 }
             }
         }
-
-        BiomeType[][] biomes = set.getBiomes();
-        if (biomes != null) {
-            for (int layer = get.getMinSectionPosition(); layer <= get.getMaxSectionPosition(); layer++) {
-                if (!set.hasBiomes(layer)) {
-                    continue;
-                }
-                BiomeType[] biomeSection = biomes[layer - set.getMinSectionPosition()];
-                int index = 0;
-                int yy = layer << 4;
-                for (int y = 0; y < 16; y += 4) {
-                    for (int z = 0; z < 16; z += 4) {
-                        for (int x = 0; x < 16; x += 4, index++) {
-                            BiomeType newBiome = biomeSection[index];
-                            if (newBiome != null) {
-                                BiomeType oldBiome = get.getBiomeType(x, yy + y, z);
-                                if (oldBiome != newBiome) {
-                                    addBiomeChange(bx + x, yy + y, bz + z, oldBiome, newBiome);
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return set;
     }
 
     @Override
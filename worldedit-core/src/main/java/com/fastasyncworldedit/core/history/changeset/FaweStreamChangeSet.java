@@ -8,11 +8,13 @@
 import com.fastasyncworldedit.core.history.change.MutableFullBlockChange;
 import com.fastasyncworldedit.core.history.change.MutableTileChange;
 import com.fastasyncworldedit.core.internal.exception.FaweSmallEditUnsupportedException;
+import com.fastasyncworldedit.core.internal.io.FastByteArrayOutputStream;
 import com.fastasyncworldedit.core.internal.io.FaweInputStream;
 import com.fastasyncworldedit.core.internal.io.FaweOutputStream;
 import com.fastasyncworldedit.core.nbt.FaweCompoundTag;
 import com.fastasyncworldedit.core.util.MainUtil;
 import com.fastasyncworldedit.core.util.MathMan;
+import com.fastasyncworldedit.core.util.collection.CleanableThreadLocal;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.jnbt.NBTInputStream;
 import com.sk89q.jnbt.NBTOutputStream;
@@ -22,6 +24,7 @@
 import com.sk89q.worldedit.world.World;
 import com.sk89q.worldedit.world.biome.BiomeType;
 import com.sk89q.worldedit.world.block.BlockTypes;
+import com.sk89q.worldedit.world.block.BlockTypesCache;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -45,12 +48,27 @@
 public abstract class FaweStreamChangeSet extends AbstractChangeSet {
 
     public static final int HEADER_SIZE = 9;
-    private static final int VERSION = 2;
+    private static final int VERSION = 3;
+    // Latest version without section records, readable by builds from before version 3
+    private static final int VERSION_WITHOUT_SECTION_RECORDS = 2;
     // equivalent to Short#MIN_VALUE three times stored with [(x) & 0xff, ((rx) >> 8) & 0xff]
     private static final byte[] MAGIC_NEW_RELATIVE = new byte[]{0, (byte) 128, 0, (byte) 128, 0, (byte) 128};
+    // x and z relative positions of Short#MIN_VALUE are never written (see MAGIC_NEW_RELATIVE), y differs from it
+    private static final byte[] MAGIC_SECTION = new byte[]{0, (byte) 128, 0, (byte) 128, 1, (byte) 128};
+    // Minimum number of changed blocks of a section for it to be stored as a section record (large positions only)
+    private static final int SECTION_RECORD_MIN_CHANGES = 256;
+    private static final CleanableThreadLocal<SectionChangeRecord> SECTION_RECORD = new CleanableThreadLocal<>(
+            SectionChangeRecord::new
+    );
+    // Changes of a single section, at most 4096 * (6 position + 2 * 5 varint) bytes
+    private static final CleanableThreadLocal<FaweOutputStream> SECTION_BUFFER = new CleanableThreadLocal<>(
+            () -> new FaweOutputStream(new FastByteArrayOutputStream(1 << 16))
+    );
     private int mode;
     private final int compression;
     private final int minY;
+    // Decided once, so the version written in the header matches the records written after it
+    private final boolean sectionRecords = Settings.settings().HISTORY.SECTION_RECORDS;
 
     protected long blockSize;
     private int originX;
@@ -95,6 +113,23 @@ public interface FaweStreamPositionDelegate {
 
         int readZ(FaweInputStream in) throws IOException;
 
+        /**
+         * Set the position the next written position is relative to, as if the given position had just been written.
+         *
+         * @since 2.13.1
+         */
+        void setLast(int x, int y, int z);
+
+        /**
+         * If the last call to {@link #readX(FaweInputStream)} read the start of a section record rather than a position.
+         * The record follows in the stream, the value returned by {@code readX} should be ignored.
+         *
+         * @since 2.13.1
+         */
+        default boolean isSection() {
+            return false;
+        }
+
     }
 
     public interface FaweStreamIdDelegate {
@@ -109,8 +144,13 @@ public interface FaweStreamIdDelegate {
 
     protected void setupStreamDelegates(int mode) {
         this.mode = mode;
+        idDel = createIdDelegate(mode);
+        posDel = createPositionDelegate(mode);
+    }
+
+    private FaweStreamIdDelegate createIdDelegate(int mode) {
         if (mode == 3 || mode == 4) {
-            idDel = new FaweStreamIdDelegate() {
+            return new FaweStreamIdDelegate() {
                 @Override
                 public void writeChange(FaweOutputStream stream, int combinedFrom, int combinedTo) throws IOException {
                     stream.writeVarInt(combinedFrom);
@@ -135,7 +175,7 @@ public void readCombined(FaweInputStream is, MutableFullBlockChange change) thro
                 }
             };
         } else {
-            idDel = new FaweStreamIdDelegate() {
+            return new FaweStreamIdDelegate() {
                 @Override
                 public void writeChange(FaweOutputStream stream, int combinedFrom, int to) throws IOException {
                     stream.writeVarInt(combinedFrom);
@@ -153,8 +193,11 @@ public void readCombined(FaweInputStream is, MutableFullBlockChange change) thro
                 }
             };
         }
+    }
+
+    private FaweStreamPositionDelegate createPositionDelegate(int mode) {
         if (mode == 1 || mode == 4) { // small
-            posDel = new FaweStreamPositionDelegate() {
+            return new FaweStreamPositionDelegate() {
                 int lx;
                 int ly;
                 int lz;
@@ -196,13 +239,21 @@ public int readY(FaweInputStream in) {
                 public int readZ(FaweInputStream in) throws IOException {
                     return lz = lz + ((((buffer[2] & 0xFF) | ((MathMan.unpair16y(buffer[3])) << 8)) << 20) >> 20);
                 }
+
+                @Override
+                public void setLast(int x, int y, int z) {
+                    lx = x;
+                    ly = y;
+                    lz = z;
+                }
             };
         } else {
-            posDel = new FaweStreamPositionDelegate() {
+            return new FaweStreamPositionDelegate() {
                 final byte[] buffer = new byte[6];
                 int lx;
                 int ly;
                 int lz;
+                boolean section;
 
                 @Override
                 public void write(OutputStream stream, int x, int y, int z) throws IOException {
@@ -234,8 +285,12 @@ public void write(OutputStream stream, int x, int y, int z) throws IOException {
                 @Override
                 public int readX(FaweInputStream is) throws IOException {
                     is.readFully(buffer);
+                    section = version >= 3 && Arrays.equals(buffer, MAGIC_SECTION);
+                    if (section) {
+                        return lx;
+                    }
                     // Don't break reading version 1 history (just in case)
-                    if (version == 2 && Arrays.equals(buffer, MAGIC_NEW_RELATIVE)) {
+                    if (version >= 2 && Arrays.equals(buffer, MAGIC_NEW_RELATIVE)) {
                         lx = ((is.read() << 24) + (is.read() << 16) + (is.read() << 8) + is.read());
                         lz = ((is.read() << 24) + (is.read() << 16) + (is.read() << 8) + is.read());
                         is.readFully(buffer);
@@ -252,6 +307,18 @@ public int readY(FaweInputStream is) throws IOException {
                 public int readZ(FaweInputStream is) throws IOException {
                     return lz = lz + ((buffer[2] & 0xFF) | (buffer[3]) << 8);
                 }
+
+                @Override
+                public void setLast(int x, int y, int z) {
+                    lx = x;
+                    ly = y;
+                    lz = z;
+                }
+
+                @Override
+                public boolean isSection() {
+                    return section;
+                }
             };
         }
     }
@@ -259,7 +326,7 @@ public int readZ(FaweInputStream is) throws IOException {
     public void writeHeader(OutputStream os, int x, int y, int z) throws IOException {
         os.write(mode);
         // Allows for version detection of history in case of changes to format.
-        os.write(VERSION);
+        os.write(sectionRecords ? VERSION : VERSION_WITHOUT_SECTION_RECORDS);
         setOrigin(x, z);
         os.write((byte) (x >> 24));
         os.write((byte) (x >> 16));
@@ -276,7 +343,7 @@ public void readHeader(InputStream is) throws IOException {
         // skip mode
         int mode = is.read();
         version = is.read();
-        if (version != 1 && version != VERSION) { // version 1 is fine
+        if (version < 1 || version > VERSION) { // older versions are fine
             throw new UnsupportedOperationException(String.format("Version %s history not supported!", version));
         }
         // origin
@@ -370,6 +437,155 @@ public void add(int x, int y, int z, int combinedFrom, int combinedTo) {
         } catch (IOException e) {
             e.printStackTrace();
         }
+        expandBounds(x, y, z, x, y, z);
+    }
+
+    /**
+     * Called with the bounds of block changes as they are added, while synchronized on this change set.
+     *
+     * @since 2.13.1
+     */
+    protected void expandBounds(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+    }
+
+    /**
+     * Encode the section's changes outside the lock into a per-thread buffer, with positions relative to the section's first
+     * change. Only the first change is written relative to the stream's last position; the rest is appended as is.
+     * <p>
+     * Densely modified sections are stored as a single {@link SectionChangeRecord} instead, if positions are not limited to
+     * the small format and section records are enabled.
+     */
+    @Override
+    protected void addSection(int bx, int by, int bz, char[] blocksGet, char[] blocksSet) {
+        if (sectionRecords && (mode == 2 || mode == 3) && countChanges(blocksSet) >= SECTION_RECORD_MIN_CHANGES) {
+            addSectionRecord(bx, by, bz, blocksGet, blocksSet);
+            return;
+        }
+        final FaweOutputStream buffer = SECTION_BUFFER.get();
+        final FastByteArrayOutputStream bytes = (FastByteArrayOutputStream) buffer.getParent();
+        bytes.reset();
+        FaweStreamPositionDelegate pos = null;
+        FaweStreamIdDelegate id = null;
+        int count = 0;
+        int first = 0;
+        int firstFrom = 0;
+        int firstTo = 0;
+        int last = 0;
+        int minX = 15;
+        int minZ = 15;
+        int maxX = 0;
+        int maxZ = 0;
+        try {
+            for (int index = 0; index < 4096; index++) {
+                final int combinedTo = blocksSet[index];
+                if (combinedTo == BlockTypesCache.ReservedIDs.__RESERVED__) {
+                    continue;
+                }
+                int combinedFrom = blocksGet[index];
+                if (combinedFrom == BlockTypesCache.ReservedIDs.__RESERVED__) {
+                    combinedFrom = BlockTypesCache.ReservedIDs.AIR;
+                }
+                if (count++ == 0) {
+                    first = index;
+                    firstFrom = combinedFrom;
+                    firstTo = combinedTo;
+                    pos = createPositionDelegate(mode);
+                    id = createIdDelegate(mode);
+                    pos.setLast(bx + (index & 15), by + (index >> 8), bz + ((index >> 4) & 15));
+                } else {
+                    pos.write(buffer, bx + (index & 15), by + (index >> 8), bz + ((index >> 4) & 15));
+                    id.writeChange(buffer, combinedFrom, combinedTo);
+                }
+                last = index;
+                minX = Math.min(minX, index & 15);
+                maxX = Math.max(maxX, index & 15);
+                minZ = Math.min(minZ, (index >> 4) & 15);
+                maxZ = Math.max(maxZ, (index >> 4) & 15);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        if (count == 0) {
+            return;
+        }
+        final int x = bx + (first & 15);
+        final int y = by + (first >> 8);
+        final int z = bz + ((first >> 4) & 15);
+        synchronized (this) {
+            blockSize += count;
+            try {
+                FaweOutputStream stream = getBlockOS(x, y, z);
+                posDel.write(stream, x - originX, y, z - originZ);
+                idDel.writeChange(stream, firstFrom, firstTo);
+                if (count > 1) {
+                    bytes.writeTo(stream);
+                    posDel.setLast(bx + (last & 15) - originX, by + (last >> 8), bz + ((last >> 4) & 15) - originZ);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            // Changes are in index order, so the first and last change hold the lowest and highest y
+            expandBounds(bx + minX, y, bz + minZ, bx + maxX, by + (last >> 8), bz + maxZ);
+        }
+    }
+
+    private static int countChanges(char[] blocksSet) {
+        int count = 0;
+        for (char combinedTo : blocksSet) {
+            if (combinedTo != BlockTypesCache.ReservedIDs.__RESERVED__) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void addSectionRecord(int bx, int by, int bz, char[] blocksGet, char[] blocksSet) {
+        final FaweOutputStream buffer = SECTION_BUFFER.get();
+        final FastByteArrayOutputStream bytes = (FastByteArrayOutputStream) buffer.getParent();
+        bytes.reset();
+        final SectionChangeRecord record = SECTION_RECORD.get();
+        final int count;
+        try {
+            count = record.write(buffer, blocksGet, blocksSet, mode == 3);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+        int first = -1;
+        int minX = 15;
+        int minZ = 15;
+        int maxX = 0;
+        int maxZ = 0;
+        for (int index = 0; index < 4096; index++) {
+            if (blocksSet[index] == BlockTypesCache.ReservedIDs.__RESERVED__) {
+                continue;
+            }
+            if (first == -1) {
+                first = index;
+            }
+            minX = Math.min(minX, index & 15);
+            maxX = Math.max(maxX, index & 15);
+            minZ = Math.min(minZ, (index >> 4) & 15);
+            maxZ = Math.max(maxZ, (index >> 4) & 15);
+        }
+        final int last = record.lastIndex();
+        synchronized (this) {
+            blockSize += count;
+            try {
+                FaweOutputStream stream = getBlockOS(bx + (first & 15), by + (first >> 8), bz + ((first >> 4) & 15));
+                stream.write(MAGIC_SECTION);
+                stream.writeInt(bx - originX);
+                stream.writeInt(by);
+                stream.writeInt(bz - originZ);
+                bytes.writeTo(stream);
+                // Following positions are relative to the section's last change, as if its changes were written one by one
+                posDel.setLast(bx + (last & 15) - originX, by + (last >> 8), bz + ((last >> 4) & 15) - originZ);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            expandBounds(bx + minX, by + (first >> 8), bz + minZ, bx + maxX, by + (last >> 8), bz + maxZ);
+        }
     }
 
     @Override
@@ -447,16 +663,18 @@ public Iterator<MutableBlockChange> getBlockIterator(final boolean dir) throws I
         if (is == null) {
             return Collections.emptyIterator();
         }
+        final BlockChangeReader reader = new BlockChangeReader(is);
         final MutableBlockChange change = new MutableBlockChange(0, 0, 0, BlockTypes.AIR.getInternalId());
         return new Iterator<MutableBlockChange>() {
             private MutableBlockChange last = read();
 
             public MutableBlockChange read() {
                 try {
-                    change.x = posDel.readX(is) + originX;
-                    change.y = posDel.readY(is);
-                    change.z = posDel.readZ(is) + originZ;
-                    idDel.readCombined(is, change, dir);
+                    reader.next();
+                    change.x = reader.x;
+                    change.y = reader.y;
+                    change.z = reader.z;
+                    change.ordinal = reader.ordinal(dir);
                     return change;
                 } catch (EOFException ignored) {
                 } catch (Exception e) {
@@ -563,16 +781,19 @@ public Iterator<Change> getIterator(BlockBag blockBag, int mode, boolean redo) {
     public Iterator<MutableFullBlockChange> getFullBlockIterator(BlockBag blockBag, int inventory, final boolean dir) throws
             IOException {
         final FaweInputStream is = new FaweInputStream(getBlockIS());
+        final BlockChangeReader reader = new BlockChangeReader(is);
         final MutableFullBlockChange change = new MutableFullBlockChange(blockBag, inventory, dir);
         return new Iterator<MutableFullBlockChange>() {
             private MutableFullBlockChange last = read();
 
             public MutableFullBlockChange read() {
                 try {
-                    change.x = posDel.readX(is) + originX;
-                    change.y = posDel.readY(is);
-                    change.z = posDel.readZ(is) + originZ;
-                    idDel.readCombined(is, change);
+                    reader.next();
+                    change.x = reader.x;
+                    change.y = reader.y;
+                    change.z = reader.z;
+                    change.from = reader.from;
+                    change.to = reader.to;
                     return change;
                 } catch (EOFException ignored) {
                 } catch (Exception e) {
@@ -863,6 +1084,7 @@ private ChangePopulator<MutableFullBlockChange> fullBlockChangePopulator(BlockBa
         if (is == null) {
             return ChangePopulator.empty();
         }
+        final BlockChangeReader reader = new BlockChangeReader(is);
         class Populator implements ChangePopulator<MutableFullBlockChange> {
 
             @Override
@@ -873,10 +1095,12 @@ class Populator implements ChangePopulator<MutableFullBlockChange> {
             @Override
             public @Nullable MutableFullBlockChange populate(@NotNull final MutableFullBlockChange change) {
                 try {
-                    change.x = posDel.readX(is) + originX;
-                    change.y = posDel.readY(is);
-                    change.z = posDel.readZ(is) + originZ;
-                    idDel.readCombined(is, change);
+                    reader.next();
+                    change.x = reader.x;
+                    change.y = reader.y;
+                    change.z = reader.z;
+                    change.from = reader.from;
+                    change.to = reader.to;
                     return change;
                 } catch (EOFException ignored) {
                 } catch (Exception e) {
@@ -905,6 +1129,7 @@ private ChangePopulator<MutableBlockChange> blockChangePopulator(boolean dir) th
         if (is == null) {
             return ChangePopulator.empty();
         }
+        final BlockChangeReader reader = new BlockChangeReader(is);
         class Populator implements ChangePopulator<MutableBlockChange> {
 
             @Override
@@ -915,10 +1140,11 @@ class Populator implements ChangePopulator<MutableBlockChange> {
             @Override
             public @Nullable MutableBlockChange populate(@NotNull final MutableBlockChange change) {
                 try {
-                    change.x = posDel.readX(is) + originX;
-                    change.y = posDel.readY(is);
-                    change.z = posDel.readZ(is) + originZ;
-                    idDel.readCombined(is, change, dir);
+                    reader.next();
+                    change.x = reader.x;
+                    change.y = reader.y;
+                    change.z = reader.z;
+                    change.ordinal = reader.ordinal(dir);
                     return change;
                 } catch (EOFException ignored) {
                 } catch (Exception e) {
@@ -1067,13 +1293,10 @@ public SimpleChangeSetSummary summarize(Region region, boolean shallow) {
         try (FaweInputStream fis = getBlockIS()) {
             if (!shallow) {
                 int amount = (Settings.settings().HISTORY.BUFFER_SIZE - HEADER_SIZE) / 9;
-                MutableFullBlockChange change = new MutableFullBlockChange(null, 0, false);
+                BlockChangeReader reader = new BlockChangeReader(fis);
                 for (int i = 0; i < amount; i++) {
-                    int x = posDel.readX(fis) + ox;
-                    int y = posDel.readY(fis);
-                    int z = posDel.readZ(fis) + ox;
-                    idDel.readCombined(fis, change);
-                    summary.add(x, z, change.to);
+                    reader.next();
+                    summary.add(reader.x, reader.z, reader.to);
                 }
             }
         } catch (EOFException ignored) {
@@ -1083,4 +1306,82 @@ public SimpleChangeSetSummary summarize(Region region, boolean shallow) {
         return summary;
     }
 
+    /**
+     * Reads block changes from a block stream, expanding section records into the changes of their blocks.
+     */
+    private final class BlockChangeReader {
+
+        private final FaweInputStream is;
+        private final MutableFullBlockChange ids = new MutableFullBlockChange(null, 0, false);
+        private SectionChangeRecord section;
+        private int sectionX;
+        private int sectionY;
+        private int sectionZ;
+        private int sectionChange;
+
+        private int x;
+        private int y;
+        private int z;
+        private int from;
+        private int to;
+
+        private BlockChangeReader(FaweInputStream is) {
+            this.is = is;
+        }
+
+        /**
+         * Read the next change.
+         *
+         * @throws EOFException if there are no more changes
+         */
+        private void next() throws IOException {
+            while (true) {
+                if (section != null) {
+                    int index = section.next();
+                    if (index != -1) {
+                        x = sectionX + (index & 15);
+                        y = sectionY + (index >> 8);
+                        z = sectionZ + ((index >> 4) & 15);
+                        from = section.from(sectionChange);
+                        to = section.to(sectionChange++);
+                        return;
+                    }
+                }
+                int rx = posDel.readX(is);
+                if (!posDel.isSection()) {
+                    x = rx + originX;
+                    y = posDel.readY(is);
+                    z = posDel.readZ(is) + originZ;
+                    idDel.readCombined(is, ids);
+                    from = ids.from;
+                    to = ids.to;
+                    return;
+                }
+                readSection();
+            }
+        }
+
+        private void readSection() throws IOException {
+            int relX = is.readInt();
+            sectionY = is.readInt();
+            int relZ = is.readInt();
+            sectionX = relX + originX;
+            sectionZ = relZ + originZ;
+            if (section == null) {
+                section = new SectionChangeRecord();
+            }
+            section.read(is);
+            sectionChange = 0;
+            int last = section.lastIndex();
+            if (last != -1) {
+                posDel.setLast(relX + (last & 15), sectionY + (last >> 8), relZ + ((last >> 4) & 15));
+            }
+        }
+
+        private int ordinal(boolean dir) {
+            return dir && (mode == 3 || mode == 4) ? to : from;
+        }
+
+    }
+
 }
@@ -0,0 +1,216 @@
+package com.fastasyncworldedit.core.history.changeset;
+
+import com.fastasyncworldedit.core.internal.io.FaweInputStream;
+import com.fastasyncworldedit.core.internal.io.FaweOutputStream;
+import com.sk89q.worldedit.world.block.BlockTypesCache;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The changes of a densely modified chunk section, as stored by {@link FaweStreamChangeSet}. A record holds a bitmask of the
+ * changed blocks of the section, followed by the palette-encoded ordinals of the changed blocks before and, if redo is
+ * stored, after the change. Ordinals are packed in index order of the changed blocks, entries do not span longs.
+ * <p>
+ * Instances are reused: a record is either filled by {@link #write} for encoding, or by {@link #read} and then iterated
+ * with {@link #next()}.
+ */
+final class SectionChangeRecord {
+
+    private static final int FLAG_FULL = 1;
+    private static final int FLAG_REDO = 2;
+
+    private final long[] mask = new long[64];
+    private final char[] from = new char[4096];
+    private final char[] to = new char[4096];
+    // Ordinal -> palette index + 1, only used for encoding
+    private char[] paletteIndex;
+    private final char[] palette = new char[4096];
+    private int count;
+    private int cursor;
+
+    /**
+     * Encode the changes of a section. Unchanged blocks are marked as {@link BlockTypesCache.ReservedIDs#__RESERVED__} in
+     * {@code blocksSet}, a reserved value in {@code blocksGet} is stored as air.
+     *
+     * @param out       stream to write to
+     * @param blocksGet ordinals before the change
+     * @param blocksSet ordinals after the change
+     * @param redo      if the ordinals after the change should be stored
+     * @return the number of changed blocks
+     */
+    int write(FaweOutputStream out, char[] blocksGet, char[] blocksSet, boolean redo) throws IOException {
+        Arrays.fill(mask, 0);
+        int count = 0;
+        for (int index = 0; index < 4096; index++) {
+            char combinedTo = blocksSet[index];
+            if (combinedTo == BlockTypesCache.ReservedIDs.__RESERVED__) {
+                continue;
+            }
+            char combinedFrom = blocksGet[index];
+            if (combinedFrom == BlockTypesCache.ReservedIDs.__RESERVED__) {
+                combinedFrom = BlockTypesCache.ReservedIDs.AIR;
+            }
+            from[count] = combinedFrom;
+            to[count] = combinedTo;
+            mask[index >> 6] |= 1L << (index & 63);
+            count++;
+        }
+        int flags = (count == 4096 ? FLAG_FULL : 0) | (redo ? FLAG_REDO : 0);
+        out.write(flags);
+        if (count != 4096) {
+            for (long bits : mask) {
+                out.writeLong(bits);
+            }
+        }
+        writePalette(out, from, count);
+        if (redo) {
+            writePalette(out, to, count);
+        }
+        return count;
+    }
+
+    private void writePalette(FaweOutputStream out, char[] values, int count) throws IOException {
+        if (paletteIndex == null) {
+            paletteIndex = new char[Character.MAX_VALUE + 1];
+        }
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            char value = values[i];
+            if (paletteIndex[value] == 0) {
+                palette[size++] = value;
+                paletteIndex[value] = (char) size;
+            }
+        }
+        out.writeVarInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeVarInt(palette[i]);
+        }
+        int bitsPerEntry = bitsPerEntry(size);
+        if (bitsPerEntry != 0) {
+            int perLong = 64 / bitsPerEntry;
+            for (int i = 0; i < count; i += perLong) {
+                long packed = 0;
+                int end = Math.min(count, i + perLong);
+                for (int j = i; j < end; j++) {
+                    packed |= (long) (paletteIndex[values[j]] - 1) << ((j - i) * bitsPerEntry);
+                }
+                out.writeLong(packed);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            paletteIndex[palette[i]] = 0;
+        }
+    }
+
+    /**
+     * Decode a section's changes, ready to be iterated with {@link #next()}.
+     *
+     * @param in stream to read from
+     */
+    void read(FaweInputStream in) throws IOException {
+        int flags = in.read();
+        if (flags < 0) {
+            throw new EOFException();
+        }
+        if ((flags & FLAG_FULL) != 0) {
+            Arrays.fill(mask, -1L);
+            count = 4096;
+        } else {
+            count = 0;
+            for (int i = 0; i < 64; i++) {
+                count += Long.bitCount(mask[i] = in.readLong());
+            }
+        }
+        readPalette(in, from, count);
+        if ((flags & FLAG_REDO) != 0) {
+            readPalette(in, to, count);
+        } else {
+            Arrays.fill(to, 0, count, (char) BlockTypesCache.ReservedIDs.AIR);
+        }
+        cursor = -1;
+    }
+
+    private void readPalette(FaweInputStream in, char[] values, int count) throws IOException {
+        int size = in.readVarInt();
+        for (int i = 0; i < size; i++) {
+            palette[i] = (char) in.readVarInt();
+        }
+        int bitsPerEntry = bitsPerEntry(size);
+        if (bitsPerEntry == 0) {
+            Arrays.fill(values, 0, count, palette[0]);
+            return;
+        }
+        int perLong = 64 / bitsPerEntry;
+        long entryMask = (1L << bitsPerEntry) - 1;
+        for (int i = 0; i < count; i += perLong) {
+            long packed = in.readLong();
+            int end = Math.min(count, i + perLong);
+            for (int j = i; j < end; j++) {
+                values[j] = palette[(int) (packed & entryMask)];
+                packed >>>= bitsPerEntry;
+            }
+        }
+    }
+
+    private static int bitsPerEntry(int paletteSize) {
+        return paletteSize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+    }
+
+    /**
+     * Get the number of changed blocks of the last read section.
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Get the index of the last changed block of the last read section.
+     */
+    int lastIndex() {
+        for (int i = 63; i >= 0; i--) {
+            if (mask[i] != 0) {
+                return (i << 6) + 63 - Long.numberOfLeadingZeros(mask[i]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Advance to the next changed block of the last read section.
+     *
+     * @return the section index of the next changed block, or -1 if all changes have been read
+     */
+    int next() {
+        int index = cursor + 1;
+        while (index < 4096) {
+            long bits = mask[index >> 6] >>> (index & 63);
+            if (bits != 0) {
+                index += Long.numberOfTrailingZeros(bits);
+                break;
+            }
+            index = (index | 63) + 1;
+        }
+        if (index >= 4096) {
+            cursor = 4096;
+            return -1;
+        }
+        return cursor = index;
+    }
+
+    /**
+     * Get the ordinal before the change of the {@code n}-th changed block.
+     */
+    int from(int n) {
+        return from[n];
+    }
+
+    /**
+     * Get the ordinal after the change of the {@code n}-th changed block, or air if redo was not stored.
+     */
+    int to(int n) {
+        return to[n];
+    }
+
+}
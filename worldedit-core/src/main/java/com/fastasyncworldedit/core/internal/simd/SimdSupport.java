@@ -2,22 +2,31 @@
 
 import com.fastasyncworldedit.core.configuration.Settings;
 import com.fastasyncworldedit.core.extent.filter.block.DelegateFilter;
+import com.fastasyncworldedit.core.function.mask.ABlockMask;
 import com.fastasyncworldedit.core.function.mask.InverseMask;
 import com.fastasyncworldedit.core.function.mask.SingleBlockStateMask;
+import com.fastasyncworldedit.core.math.random.TrueRandom;
 import com.fastasyncworldedit.core.queue.Filter;
 import com.sk89q.worldedit.function.mask.ExistingBlockMask;
 import com.sk89q.worldedit.function.mask.InverseSingleBlockStateMask;
 import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.function.mask.MaskIntersection;
+import com.sk89q.worldedit.function.mask.MaskUnion;
 import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.function.pattern.RandomPattern;
 import com.sk89q.worldedit.internal.util.LogManagerCompat;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
 import com.sk89q.worldedit.world.block.BlockTypesCache;
+import jdk.incubator.vector.IntVector;
 import jdk.incubator.vector.ShortVector;
 import jdk.incubator.vector.VectorMask;
 import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
 
 import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class SimdSupport {
 
@@ -56,10 +65,82 @@ public static boolean useVectorApi() {
                 }
                 yield (set, get, species) -> base.compareVector(set, get, species).not();
             }
+            case MaskUnion union -> vectorizedTargetMask(union.getMasksArray(), true);
+            case MaskIntersection intersection -> vectorizedTargetMask(intersection.getMasksArray(), false);
+            case ABlockMask blockMask -> vectorizedTargetMask(blockMask);
             default -> null;
         };
     }
 
+    private static @Nullable VectorizedMask vectorizedTargetMask(Mask[] masks, boolean union) {
+        if (masks.length == 0) {
+            return null;
+        }
+        final VectorizedMask[] vectorized = new VectorizedMask[masks.length];
+        for (int i = 0; i < masks.length; i++) {
+            if ((vectorized[i] = vectorizedTargetMask(masks[i])) == null) {
+                return null;
+            }
+        }
+        return combine(vectorized, union);
+    }
+
+    /**
+     * Combine vectorized masks into their union or intersection, stopping early once all or no lanes are set.
+     */
+    static VectorizedMask combine(VectorizedMask[] vectorized, boolean union) {
+        if (vectorized.length == 1) {
+            return vectorized[0];
+        }
+        if (union) {
+            return (set, get, species) -> {
+                VectorMask<Short> result = vectorized[0].compareVector(set, get, species);
+                for (int i = 1; i < vectorized.length && !result.allTrue(); i++) {
+                    result = result.or(vectorized[i].compareVector(set, get, species));
+                }
+                return result;
+            };
+        }
+        return (set, get, species) -> {
+            VectorMask<Short> result = vectorized[0].compareVector(set, get, species);
+            for (int i = 1; i < vectorized.length && result.anyTrue(); i++) {
+                result = result.and(vectorized[i].compareVector(set, get, species));
+            }
+            return result;
+        };
+    }
+
+    private static VectorizedMask vectorizedTargetMask(ABlockMask mask) {
+        // Non-zero for every ordinal passing the mask, gathered by the ordinals of a vector
+        final short[] table = new short[BlockTypesCache.states.length];
+        for (int ordinal = 0; ordinal < table.length; ordinal++) {
+            table[ordinal] = (short) (mask.testOrdinal(ordinal) ? 1 : 0);
+        }
+        return vectorizedTargetMask(table);
+    }
+
+    /**
+     * Vectorize a mask given by a lookup table, gathering the entry of each ordinal.
+     *
+     * @param table non-zero for every ordinal passing the mask, with an entry for every ordinal
+     */
+    static VectorizedMask vectorizedTargetMask(short[] table) {
+        final int[] indices = new int[ShortVector.SPECIES_PREFERRED.length()];
+        return (set, get, species) -> {
+            gatherIndices(get.get(species), indices);
+            return ShortVector.fromArray(species, table, 0, indices, 0).compare(VectorOperators.NE, 0);
+        };
+    }
+
+    // Zero extend the ordinals into int lanes of the same shape, half of the ordinals at a time
+    static void gatherIndices(ShortVector ordinals, int[] indices) {
+        VectorSpecies<Integer> ints = VectorSpecies.of(int.class, ordinals.shape());
+        for (int part = 0; part < 2; part++) {
+            ((IntVector) ordinals.convertShape(VectorOperators.ZERO_EXTEND_S2I, ints, part))
+                    .intoArray(indices, part * ints.length());
+        }
+    }
+
     private static VectorizedMask vectorizedTargetMaskNonAir() {
         // everything > VOID_AIR is not air
         return (set, get, species) -> get.get(species).compare(VectorOperators.UNSIGNED_GT, BlockTypesCache.ReservedIDs.VOID_AIR);
@@ -88,10 +169,76 @@ private static VectorizedMask vectorizedTargetMaskInverse(char ordinal) {
                     blockStateHolder,
                     blockStateHolder.getOrdinalChar()
             );
+            case RandomPattern random -> vectorizedRandomPattern(random);
             default -> null;
         };
     }
 
+    private static @Nullable VectorizedFilter vectorizedRandomPattern(RandomPattern pattern) {
+        // Other randoms are position based and must give the same result as the scalar pattern
+        if (!(pattern.getCollection().getRandom() instanceof TrueRandom)) {
+            return null;
+        }
+        Map<Pattern, Double> weights = pattern.getWeights();
+        if (weights.isEmpty()) {
+            return null;
+        }
+        final short[] ordinals = new short[weights.size()];
+        final double[] values = new double[weights.size()];
+        int i = 0;
+        for (Map.Entry<Pattern, Double> entry : weights.entrySet()) {
+            if (!(entry.getKey() instanceof BlockStateHolder<?> block)
+                    || block instanceof BaseBlock baseBlock && baseBlock.getNbtReference() != null) {
+                return null;
+            }
+            ordinals[i] = (short) block.getOrdinalChar();
+            values[i++] = entry.getValue();
+        }
+        final short[] thresholds = thresholds(values);
+        if (ordinals.length == 1) {
+            return new VectorizedPattern<>(pattern, (char) ordinals[0]);
+        }
+        return new VectorizedRandomPattern<>(pattern, ordinals, thresholds);
+    }
+
+    /**
+     * Get the cumulative weights of all but the last entry, scaled to 16 bits, for {@link #select}.
+     */
+    static short[] thresholds(double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        short[] thresholds = new short[weights.length - 1];
+        double cumulative = 0;
+        for (int i = 0; i < thresholds.length; i++) {
+            cumulative += weights[i];
+            thresholds[i] = (short) Math.min(0xFFFF, Math.round(cumulative / total * 0x10000));
+        }
+        return thresholds;
+    }
+
+    /**
+     * Advance a 16-bit xorshift generator in each lane. Its period is 2^16 - 1, every value but 0 is produced once.
+     */
+    static ShortVector xorshift(ShortVector x) {
+        // Full period xorshift triple 7, 9, 8
+        x = x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHL, 7));
+        x = x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 9));
+        return x.lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHL, 8));
+    }
+
+    /**
+     * Pick in each lane the first ordinal whose threshold is above the lane's random value, or the last ordinal.
+     */
+    static ShortVector select(ShortVector random, short[] ordinals, short[] thresholds) {
+        ShortVector chosen = ShortVector.broadcast(random.species(), ordinals[ordinals.length - 1]);
+        for (int i = thresholds.length - 1; i >= 0; i--) {
+            chosen = chosen.blend(ordinals[i], random.compare(VectorOperators.UNSIGNED_LT, thresholds[i]));
+        }
+        return chosen;
+    }
+
     private static final class VectorizedPattern<T extends Filter> extends DelegateFilter<T> implements VectorizedFilter {
 
         private final char ordinal;
@@ -116,4 +263,51 @@ public void applyVector(final VectorFacade get, final VectorFacade set, final Ve
 
     }
 
+    /**
+     * Random pattern of block states, using a 16-bit xorshift generator per lane. Each lane picks the first entry whose
+     * cumulative weight (scaled to 16 bits) is above the lane's random value.
+     */
+    static final class VectorizedRandomPattern<T extends Filter> extends DelegateFilter<T> implements VectorizedFilter {
+
+        private final short[] ordinals;
+        private final short[] thresholds;
+        private ShortVector state;
+
+        VectorizedRandomPattern(final T parent, short[] ordinals, short[] thresholds) {
+            super(parent);
+            this.ordinals = ordinals;
+            this.thresholds = thresholds;
+        }
+
+        @Override
+        public Filter newInstance(final Filter other) {
+            return new VectorizedRandomPattern<>(other, ordinals, thresholds);
+        }
+
+        private ShortVector next(VectorSpecies<Short> species) {
+            ShortVector x = state;
+            if (x == null || x.species() != species) {
+                short[] seeds = new short[species.length()];
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < seeds.length; i++) {
+                    // xorshift must not be seeded with 0
+                    seeds[i] = (short) random.nextInt(1, 0x10000);
+                }
+                x = ShortVector.fromArray(species, seeds, 0);
+            }
+            return state = xorshift(x);
+        }
+
+        @Override
+        public void applyVector(final VectorFacade get, final VectorFacade set, final VectorMask<Short> mask) {
+            final VectorSpecies<Short> species = mask.vectorSpecies();
+            ShortVector chosen = select(next(species), ordinals, thresholds);
+            ShortVector s = set.getOrZero(species);
+            // only change the lanes the mask dictates us to change, keep the rest
+            s = s.blend(chosen, mask);
+            set.setOrIgnore(s);
+        }
+
+    }
+
 }
@@ -23,6 +23,10 @@ public synchronized void filter(final Filter filter, final int startY, final int
         if (!(filter instanceof VectorizedFilter vecFilter)) {
             throw new IllegalStateException("Unexpected VectorizedCharFilterBlock " + filter);
         }
+        if (getLayerFilter(filter) == null) {
+            // No block of the layer passes the mask
+            return;
+        }
         final VectorSpecies<Short> species = ShortVector.SPECIES_PREFERRED;
         VectorFacade setFassade = new VectorFacade(this.set);
         setFassade.setLayer(this.layer);
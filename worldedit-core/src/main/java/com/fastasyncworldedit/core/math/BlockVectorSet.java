@@ -8,6 +8,9 @@
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
 
 import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.Collections;
@@ -24,6 +27,10 @@
  * It uses about 8 bytes of memory for every 64 {@code BlockVector3}s (about 800 times less than a
  * {@code HashSet}.
  * </p>
+ * <p>
+ * Positions are stored in bitsets, one per 2048 * 512 * 2048 region. Bulk operations with another {@code BlockVectorSet}
+ * combine the bitsets of each region rather than visiting each position.
+ * </p>
  */
 public class BlockVectorSet extends AbstractCollection<BlockVector3> implements BlockVector3Set {
 
@@ -161,27 +168,37 @@ public Iterator<BlockVector3> iterator() {
         return new Iterator<>() {
             Long2ObjectMap.Entry<LocalBlockVectorSet> entry = entries.next();
             Iterator<BlockVector3> entryIter = entry.getValue().iterator();
+            Iterator<BlockVector3> lastIter;
             final MutableBlockVector3 mutable = new MutableBlockVector3();
 
             @Override
             public void remove() {
-                entryIter.remove();
+                if (lastIter == null) {
+                    throw new IllegalStateException();
+                }
+                lastIter.remove();
+                lastIter = null;
             }
 
             @Override
             public boolean hasNext() {
-                return entryIter.hasNext() || entries.hasNext();
-            }
-
-            @Override
-            public BlockVector3 next() {
+                // Regions emptied by removing positions one by one are kept, so they are skipped here
                 while (!entryIter.hasNext()) {
                     if (!entries.hasNext()) {
-                        throw new NoSuchElementException("End of iterator");
+                        return false;
                     }
                     entry = entries.next();
                     entryIter = entry.getValue().iterator();
                 }
+                return true;
+            }
+
+            @Override
+            public BlockVector3 next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("End of iterator");
+                }
+                lastIter = entryIter;
                 BlockVector3 localPos = entryIter.next();
                 long triple = entry.getLongKey();
                 int cx = (int) MathMan.untripleWorldCoordX(triple);
@@ -237,8 +254,111 @@ public boolean remove(Object o) {
         return false;
     }
 
+    /**
+     * Visit each position in the set, without allocating a vector per position.
+     *
+     * @param visitor visitor to use, given the index of the position in the bitset of its region
+     * @since 2.13.1
+     */
+    public void forEach(LocalBlockVectorSet.BlockVectorSetVisitor visitor) {
+        for (Long2ObjectMap.Entry<LocalBlockVectorSet> entry : localSets.long2ObjectEntrySet()) {
+            long triple = entry.getLongKey();
+            int bx = (int) MathMan.untripleWorldCoordX(triple) << 11;
+            int by = (int) MathMan.untripleWorldCoordY(triple) << 9;
+            int bz = (int) MathMan.untripleWorldCoordZ(triple) << 11;
+            entry.getValue().forEach((x, y, z, index) -> visitor.run(bx + x, by + y, bz + z, index));
+        }
+    }
+
+    /**
+     * Visit each position in the set, grouped by the 16 * 16 chunk column containing it, without allocating a vector per
+     * position.
+     *
+     * @param visitor visitor to use, given the index of the position in the bitset of its region
+     * @since 2.13.1
+     */
+    public void forEachInChunkOrder(LocalBlockVectorSet.BlockVectorSetVisitor visitor) {
+        // Regions span y -128 to 383, so the chunk columns of a world are not split across regions
+        for (Long2ObjectMap.Entry<LocalBlockVectorSet> entry : localSets.long2ObjectEntrySet()) {
+            long triple = entry.getLongKey();
+            int bx = (int) MathMan.untripleWorldCoordX(triple) << 11;
+            int by = (int) MathMan.untripleWorldCoordY(triple) << 9;
+            int bz = (int) MathMan.untripleWorldCoordZ(triple) << 11;
+            entry.getValue().forEachInChunkOrder((x, y, z, index) -> visitor.run(bx + x, by + y, bz + z, index));
+        }
+    }
+
+    /**
+     * Write the set to the given output, to be read by {@link #read(DataInput)}.
+     *
+     * @param out output to write to
+     * @throws IOException if an I/O error occurs
+     * @since 2.13.1
+     */
+    public void write(DataOutput out) throws IOException {
+        int regions = 0;
+        for (LocalBlockVectorSet set : localSets.values()) {
+            if (!set.isEmpty()) {
+                regions++;
+            }
+        }
+        out.writeInt(regions);
+        for (Long2ObjectMap.Entry<LocalBlockVectorSet> entry : localSets.long2ObjectEntrySet()) {
+            LocalBlockVectorSet set = entry.getValue();
+            if (!set.isEmpty()) {
+                out.writeLong(entry.getLongKey());
+                set.write(out);
+            }
+        }
+    }
+
+    /**
+     * Read a set written by {@link #write(DataOutput)}.
+     *
+     * @param in input to read from
+     * @return the set read
+     * @throws IOException if an I/O error occurs
+     * @since 2.13.1
+     */
+    public static BlockVectorSet read(DataInput in) throws IOException {
+        BlockVectorSet set = new BlockVectorSet();
+        int regions = in.readInt();
+        for (int i = 0; i < regions; i++) {
+            long triple = in.readLong();
+            set.localSets.put(triple, LocalBlockVectorSet.read(in));
+        }
+        return set;
+    }
+
+    /**
+     * If the regions of the given set can be combined with the regions of this set by their bitsets.
+     */
+    private boolean canCombine(BlockVectorSet other) {
+        for (Long2ObjectMap.Entry<LocalBlockVectorSet> entry : other.localSets.long2ObjectEntrySet()) {
+            LocalBlockVectorSet set = localSets.get(entry.getLongKey());
+            LocalBlockVectorSet otherSet = entry.getValue();
+            if (set != null && !set.isEmpty() && !otherSet.isEmpty() && !set.hasSameOffset(otherSet)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean containsAll(Collection<?> c) {
+        if (c instanceof BlockVectorSet other && canCombine(other)) {
+            for (Long2ObjectMap.Entry<LocalBlockVectorSet> entry : other.localSets.long2ObjectEntrySet()) {
+                LocalBlockVectorSet otherSet = entry.getValue();
+                if (otherSet.isEmpty()) {
+                    continue;
+                }
+                LocalBlockVectorSet set = localSets.get(entry.getLongKey());
+                if (set == null || !set.containsAll(otherSet)) {
+                    return false;
+                }
+            }
+            return true;
+        }
         for (Object o : c) {
             if (!contains(o)) {
                 return false;
@@ -249,6 +369,23 @@ public boolean containsAll(Collection<?> c) {
 
     @Override
     public boolean addAll(Collection<? extends BlockVector3> c) {
+        if (c instanceof BlockVectorSet other && canCombine(other)) {
+            boolean modified = false;
+            for (Long2ObjectMap.Entry<LocalBlockVectorSet> entry : other.localSets.long2ObjectEntrySet()) {
+                LocalBlockVectorSet otherSet = entry.getValue();
+                if (otherSet.isEmpty()) {
+                    continue;
+                }
+                LocalBlockVectorSet set = localSets.get(entry.getLongKey());
+                if (set == null || set.isEmpty()) {
+                    localSets.put(entry.getLongKey(), otherSet.copy());
+                    modified = true;
+                } else {
+                    modified |= set.addAll(otherSet);
+                }
+            }
+            return modified;
+        }
         boolean result = false;
         for (BlockVector3 v : c) {
             result |= add(v);
@@ -259,6 +396,25 @@ public boolean addAll(Collection<? extends BlockVector3> c) {
     @Override
     public boolean retainAll(@Nonnull Collection<?> c) {
         Objects.requireNonNull(c);
+        if (c instanceof BlockVectorSet other && canCombine(other)) {
+            boolean modified = false;
+            ObjectIterator<Long2ObjectMap.Entry<LocalBlockVectorSet>> entries = localSets.long2ObjectEntrySet().iterator();
+            while (entries.hasNext()) {
+                Long2ObjectMap.Entry<LocalBlockVectorSet> entry = entries.next();
+                LocalBlockVectorSet set = entry.getValue();
+                LocalBlockVectorSet otherSet = other.localSets.get(entry.getLongKey());
+                if (otherSet == null || otherSet.isEmpty()) {
+                    modified |= !set.isEmpty();
+                    entries.remove();
+                } else {
+                    modified |= set.retainAll(otherSet);
+                    if (set.isEmpty()) {
+                        entries.remove();
+                    }
+                }
+            }
+            return modified;
+        }
         boolean modified = false;
         Iterator<BlockVector3> it = iterator();
         while (it.hasNext()) {
@@ -272,6 +428,24 @@ public boolean retainAll(@Nonnull Collection<?> c) {
 
     @Override
     public boolean removeAll(Collection<?> c) {
+        if (c == this) {
+            boolean modified = !isEmpty();
+            clear();
+            return modified;
+        }
+        if (c instanceof BlockVectorSet other && canCombine(other)) {
+            boolean modified = false;
+            for (Long2ObjectMap.Entry<LocalBlockVectorSet> entry : other.localSets.long2ObjectEntrySet()) {
+                LocalBlockVectorSet set = localSets.get(entry.getLongKey());
+                if (set != null && set.removeAll(entry.getValue())) {
+                    modified = true;
+                    if (set.isEmpty()) {
+                        localSets.remove(entry.getLongKey());
+                    }
+                }
+            }
+            return modified;
+        }
         boolean result = false;
         for (Object o : c) {
             result |= remove(o);
@@ -0,0 +1,339 @@
+package com.fastasyncworldedit.core.math;
+
+import com.fastasyncworldedit.core.util.MathMan;
+import com.fastasyncworldedit.core.util.collection.BlockVector3Set;
+import com.sk89q.worldedit.math.BlockVector3;
+
+import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe set of {@link BlockVector3}s, e.g. for the visited positions of visitors running on several threads.
+ *
+ * <p>
+ * Positions are stored in a bitset per 16 * 16 * 16 chunk section, updated without locking. It uses about 8 bytes for
+ * every 64 positions of a section containing at least one position.
+ * </p>
+ * <p>
+ * Iteration is weakly consistent and visits the positions section by section. Sections emptied by removing positions
+ * are kept until {@link #clear()}.
+ * </p>
+ *
+ * @since 2.13.1
+ */
+public class ConcurrentBlockVectorSet extends AbstractCollection<BlockVector3> implements BlockVector3Set {
+
+    private static final int WORDS = 64;
+
+    private final ConcurrentHashMap<Long, AtomicLongArray> sections = new ConcurrentHashMap<>();
+
+    public ConcurrentBlockVectorSet() {
+    }
+
+    private static long sectionKey(int x, int y, int z) {
+        return MathMan.tripleWorldCoord(x >> 4, y >> 4, z >> 4);
+    }
+
+    // The section coordinates are stored in 24 bits, sign extend them before getting the position of the section
+    private static int baseX(long key) {
+        return ((int) MathMan.untripleWorldCoordX(key) << 8) >> 8 << 4;
+    }
+
+    private static int baseY(long key) {
+        return (int) MathMan.untripleWorldCoordY(key) << 4;
+    }
+
+    private static int baseZ(long key) {
+        return ((int) MathMan.untripleWorldCoordZ(key) << 8) >> 8 << 4;
+    }
+
+    private static int sectionIndex(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    @Override
+    public boolean add(int x, int y, int z) {
+        Long key = sectionKey(x, y, z);
+        AtomicLongArray section = sections.get(key);
+        if (section == null) {
+            section = sections.computeIfAbsent(key, k -> new AtomicLongArray(WORDS));
+        }
+        int index = sectionIndex(x, y, z);
+        long bit = 1L << index;
+        return (section.getAndAccumulate(index >> 6, bit, (word, b) -> word | b) & bit) == 0;
+    }
+
+    @Override
+    public boolean add(BlockVector3 vector) {
+        return add(vector.x(), vector.y(), vector.z());
+    }
+
+    /**
+     * Remove a position from the set.
+     *
+     * @param x x position
+     * @param y y position
+     * @param z z position
+     * @return true if the position was present
+     */
+    public boolean remove(int x, int y, int z) {
+        AtomicLongArray section = sections.get(sectionKey(x, y, z));
+        if (section == null) {
+            return false;
+        }
+        int index = sectionIndex(x, y, z);
+        long bit = 1L << index;
+        return (section.getAndAccumulate(index >> 6, ~bit, (word, b) -> word & b) & bit) != 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o instanceof BlockVector3 v) {
+            return remove(v.x(), v.y(), v.z());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        AtomicLongArray section = sections.get(sectionKey(x, y, z));
+        if (section == null) {
+            return false;
+        }
+        int index = sectionIndex(x, y, z);
+        return (section.get(index >> 6) & (1L << index)) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof BlockVector3 v) {
+            return contains(v.x(), v.y(), v.z());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean containsRadius(int x, int y, int z, int radius) {
+        if (radius <= 0) {
+            return contains(x, y, z);
+        }
+        for (int xx = -radius; xx <= radius; xx++) {
+            int rx = x + xx;
+            for (int yy = -radius; yy <= radius; yy++) {
+                int ry = y + yy;
+                for (int zz = -radius; zz <= radius; zz++) {
+                    if (contains(rx, ry, z + zz)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void setOffset(int x, int z) {
+        // Do nothing
+    }
+
+    @Override
+    public void setOffset(int x, int y, int z) {
+        // Do nothing
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (AtomicLongArray section : sections.values()) {
+            for (int i = 0; i < WORDS; i++) {
+                size += Long.bitCount(section.get(i));
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (AtomicLongArray section : sections.values()) {
+            for (int i = 0; i < WORDS; i++) {
+                if (section.get(i) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visit each position in the set, section by section, without allocating a vector per position.
+     *
+     * @param visitor visitor to use, given the index of the position in its section
+     */
+    public void forEach(LocalBlockVectorSet.BlockVectorSetVisitor visitor) {
+        for (Map.Entry<Long, AtomicLongArray> entry : sections.entrySet()) {
+            long key = entry.getKey();
+            int bx = baseX(key);
+            int by = baseY(key);
+            int bz = baseZ(key);
+            AtomicLongArray section = entry.getValue();
+            for (int i = 0; i < WORDS; i++) {
+                long word = section.get(i);
+                while (word != 0) {
+                    int index = (i << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    visitor.run(bx + (index & 15), by + (index >> 8), bz + ((index >> 4) & 15), index);
+                }
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<BlockVector3> iterator() {
+        final Iterator<Map.Entry<Long, AtomicLongArray>> entries = sections.entrySet().iterator();
+        if (!entries.hasNext()) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<>() {
+            final MutableBlockVector3 mutable = new MutableBlockVector3();
+            AtomicLongArray section;
+            int bx;
+            int by;
+            int bz;
+            int wordIndex = WORDS;
+            long word;
+            int previous = -1;
+            AtomicLongArray previousSection;
+
+            private boolean advance() {
+                while (word == 0) {
+                    if (++wordIndex >= WORDS) {
+                        if (!entries.hasNext()) {
+                            return false;
+                        }
+                        Map.Entry<Long, AtomicLongArray> entry = entries.next();
+                        long key = entry.getKey();
+                        bx = baseX(key);
+                        by = baseY(key);
+                        bz = baseZ(key);
+                        section = entry.getValue();
+                        wordIndex = 0;
+                    }
+                    word = section.get(wordIndex);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return advance();
+            }
+
+            @Override
+            public BlockVector3 next() {
+                if (!advance()) {
+                    throw new NoSuchElementException("End of iterator");
+                }
+                int index = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                previous = index;
+                previousSection = section;
+                return mutable.setComponents(bx + (index & 15), by + (index >> 8), bz + ((index >> 4) & 15));
+            }
+
+            @Override
+            public void remove() {
+                if (previous == -1) {
+                    throw new IllegalStateException();
+                }
+                long bit = 1L << previous;
+                previousSection.getAndAccumulate(previous >> 6, ~bit, (w, b) -> w & b);
+                previous = -1;
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        sections.clear();
+    }
+
+    @Override
+    public ConcurrentBlockVectorSet copy() {
+        ConcurrentBlockVectorSet copy = new ConcurrentBlockVectorSet();
+        for (Map.Entry<Long, AtomicLongArray> entry : sections.entrySet()) {
+            AtomicLongArray section = entry.getValue();
+            AtomicLongArray copied = new AtomicLongArray(WORDS);
+            for (int i = 0; i < WORDS; i++) {
+                copied.set(i, section.get(i));
+            }
+            copy.sections.put(entry.getKey(), copied);
+        }
+        return copy;
+    }
+
+    /**
+     * Write the set to the given output, to be read by {@link #read(DataInput)}. Positions added or removed while
+     * writing may or may not be written.
+     *
+     * @param out output to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void write(DataOutput out) throws IOException {
+        // The number of sections may change while writing, so the sections are ended by an empty mask
+        long[] words = new long[WORDS];
+        for (Map.Entry<Long, AtomicLongArray> entry : sections.entrySet()) {
+            AtomicLongArray section = entry.getValue();
+            long mask = 0;
+            for (int i = 0; i < WORDS; i++) {
+                words[i] = section.get(i);
+                if (words[i] != 0) {
+                    mask |= 1L << i;
+                }
+            }
+            if (mask == 0) {
+                continue;
+            }
+            out.writeLong(mask);
+            out.writeLong(entry.getKey());
+            for (int i = 0; i < WORDS; i++) {
+                if (words[i] != 0) {
+                    out.writeLong(words[i]);
+                }
+            }
+        }
+        out.writeLong(0);
+    }
+
+    /**
+     * Read a set written by {@link #write(DataOutput)}.
+     *
+     * @param in input to read from
+     * @return the set read
+     * @throws IOException if an I/O error occurs
+     */
+    public static ConcurrentBlockVectorSet read(DataInput in) throws IOException {
+        ConcurrentBlockVectorSet set = new ConcurrentBlockVectorSet();
+        long mask;
+        while ((mask = in.readLong()) != 0) {
+            AtomicLongArray section = new AtomicLongArray(WORDS);
+            set.sections.put(in.readLong(), section);
+            for (int i = 0; i < WORDS; i++) {
+                if ((mask & (1L << i)) != 0) {
+                    section.set(i, in.readLong());
+                }
+            }
+        }
+        return set;
+    }
+
+}
@@ -6,6 +6,9 @@
 import com.zaxxer.sparsebits.SparseBitSet;
 
 import javax.annotation.Nonnull;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
@@ -410,8 +413,18 @@ public boolean remove(Object o) {
         return false;
     }
 
+    /**
+     * If the given set stores positions relative to the same offset, so the sets can be combined by their bits.
+     */
+    boolean hasSameOffset(LocalBlockVectorSet other) {
+        return offsetX == other.offsetX && offsetY == other.offsetY && offsetZ == other.offsetZ;
+    }
+
     @Override
     public boolean containsAll(Collection<?> c) {
+        if (c instanceof LocalBlockVectorSet other && hasSameOffset(other)) {
+            return SparseBitSet.andNot(other.set, set).isEmpty();
+        }
         for (Object o : c) {
             if (!contains(o)) {
                 return false;
@@ -422,6 +435,17 @@ public boolean containsAll(Collection<?> c) {
 
     @Override
     public boolean addAll(Collection<? extends BlockVector3> c) {
+        if (c instanceof LocalBlockVectorSet other && other.isInitialised()) {
+            if (!isInitialised() && offsetY == other.offsetY) {
+                offsetX = other.offsetX;
+                offsetZ = other.offsetZ;
+            }
+            if (hasSameOffset(other)) {
+                int size = size();
+                set.or(other.set);
+                return size() != size;
+            }
+        }
         boolean result = false;
         for (BlockVector3 v : c) {
             result |= add(v);
@@ -431,6 +455,11 @@ public boolean addAll(Collection<? extends BlockVector3> c) {
 
     @Override
     public boolean retainAll(@Nonnull Collection<?> c) {
+        if (c instanceof LocalBlockVectorSet other && hasSameOffset(other)) {
+            int size = size();
+            set.and(other.set);
+            return size() != size;
+        }
         boolean result = false;
         int size = size();
         int index = -1;
@@ -457,6 +486,11 @@ public boolean retainAll(@Nonnull Collection<?> c) {
 
     @Override
     public boolean removeAll(Collection<?> c) {
+        if (c instanceof LocalBlockVectorSet other && hasSameOffset(other)) {
+            int size = size();
+            set.andNot(other.set);
+            return size() != size;
+        }
         boolean result = false;
         for (Object o : c) {
             result |= remove(o);
@@ -485,6 +519,118 @@ public void forEach(BlockVectorSetVisitor visitor) {
         }
     }
 
+    /**
+     * Visit each point contained in the set, grouped by the 16 * 16 chunk column containing it. Points are sorted once
+     * per call, no vector is allocated per point.
+     *
+     * @param visitor visitor to use
+     * @since 2.13.1
+     */
+    public void forEachInChunkOrder(BlockVectorSetVisitor visitor) {
+        int size = size();
+        if (size == 0) {
+            return;
+        }
+        // Chunk of the point in the upper bits, index of the point in the lower bits (always positive). The chunks are
+        // counted from the lowest chunk the set can hold, as the offset need not be aligned to chunks.
+        int minChunkX = (offsetX - 1024) >> 4;
+        int minChunkZ = (offsetZ - 1024) >> 4;
+        long[] sorted = new long[size];
+        int index = -1;
+        for (int i = 0; i < size; i++) {
+            index = set.nextSetBit(index + 1);
+            int b2 = (index >> 8) & 0xff;
+            int b3 = (index >> 15) & 0xFF;
+            int b4 = (index >> 23) & 0xFF;
+            int x = offsetX + (((b3 + (((b2 & 0x7)) << 8)) << 21) >> 21);
+            int z = offsetZ + (((b4 + (((b2 >> 3) & 0x7) << 8)) << 21) >> 21);
+            long chunk = ((long) ((z >> 4) - minChunkZ) << 8) | ((x >> 4) - minChunkX);
+            sorted[i] = (chunk << 32) | index;
+        }
+        Arrays.sort(sorted);
+        for (long entry : sorted) {
+            index = (int) entry;
+            int b1 = (index & 0xFF);
+            int b2 = (index >> 8) & 0xff;
+            int b3 = (index >> 15) & 0xFF;
+            int b4 = (index >> 23) & 0xFF;
+            int x = offsetX + (((b3 + (((b2 & 0x7)) << 8)) << 21) >> 21);
+            int y = offsetY + b1 * (((b2 >> 6) & 0x1) == 0 ? 1 : -1);
+            int z = offsetZ + (((b4 + (((b2 >> 3) & 0x7) << 8)) << 21) >> 21);
+            visitor.run(x, y, z, index);
+        }
+    }
+
+    /**
+     * Write the set to the given output, to be read by {@link #read(DataInput)}.
+     *
+     * @param out output to write to
+     * @throws IOException if an I/O error occurs
+     * @since 2.13.1
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(offsetX);
+        out.writeInt(offsetY);
+        out.writeInt(offsetZ);
+        writeBits(out);
+    }
+
+    /**
+     * Read a set written by {@link #write(DataOutput)}.
+     *
+     * @param in input to read from
+     * @return the set read
+     * @throws IOException if an I/O error occurs
+     * @since 2.13.1
+     */
+    public static LocalBlockVectorSet read(DataInput in) throws IOException {
+        LocalBlockVectorSet set = new LocalBlockVectorSet(in.readInt(), in.readInt(), in.readInt());
+        set.readBits(in);
+        return set;
+    }
+
+    /**
+     * Write the bits of the set as the number of non-empty 64-bit words, then the index and value of each word.
+     */
+    void writeBits(DataOutput out) throws IOException {
+        int words = 0;
+        int lastWord = -1;
+        for (int index = set.nextSetBit(0); index != -1; index = set.nextSetBit(index + 1)) {
+            if (index >> 6 != lastWord) {
+                lastWord = index >> 6;
+                words++;
+            }
+        }
+        out.writeInt(words);
+        int index = set.nextSetBit(0);
+        while (index != -1) {
+            int wordIndex = index >> 6;
+            long word = 0;
+            do {
+                word |= 1L << index;
+                index = set.nextSetBit(index + 1);
+            } while (index != -1 && index >> 6 == wordIndex);
+            out.writeInt(wordIndex);
+            out.writeLong(word);
+        }
+    }
+
+    void readBits(DataInput in) throws IOException {
+        int words = in.readInt();
+        for (int i = 0; i < words; i++) {
+            int base = in.readInt() << 6;
+            long word = in.readLong();
+            if (word == -1L) {
+                set.set(base, base + 64);
+                continue;
+            }
+            while (word != 0) {
+                set.set(base + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+
     @Override
     public void clear() {
         offsetZ = Integer.MAX_VALUE;
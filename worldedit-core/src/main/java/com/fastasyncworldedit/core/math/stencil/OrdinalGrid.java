@@ -0,0 +1,326 @@
+package com.fastasyncworldedit.core.math.stencil;
+
+import com.fastasyncworldedit.core.math.FastBitSet;
+import com.fastasyncworldedit.core.math.MutableBlockVector3;
+import com.sk89q.worldedit.MaxChangedBlocksException;
+import com.sk89q.worldedit.extent.Extent;
+import com.sk89q.worldedit.function.mask.Mask;
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockTypesCache;
+
+import java.util.function.Predicate;
+
+/**
+ * Dense grid of block state ordinals over a cuboid area of the world, with a padded border so that stencil kernels can read
+ * neighbours of any cell without bounds checks. Cells are stored x-fastest, then z, then y.
+ * <p>
+ * Each grid has an "active" bitset marking the cells a {@link StencilKernel} should be evaluated for. Grids created with
+ * {@link #copy()} share the active bitset with the original.
+ *
+ * @since 2.13.1
+ */
+public final class OrdinalGrid {
+
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int width;
+    private final int height;
+    private final int length;
+    private final int padding;
+    private final int strideZ;
+    private final int strideY;
+    private final char[] data;
+    private final long[] active;
+    private final int[] faceOffsets;
+    private final int[] neighbourOffsets;
+
+    /**
+     * Create a new, empty grid covering the given (inclusive) bounds, padded on every side.
+     *
+     * @param min     minimum point of the area
+     * @param max     maximum point of the area
+     * @param padding number of cells of padding around the area
+     */
+    public OrdinalGrid(BlockVector3 min, BlockVector3 max, int padding) {
+        this.padding = padding;
+        this.minX = min.x() - padding;
+        this.minY = min.y() - padding;
+        this.minZ = min.z() - padding;
+        this.width = max.x() - min.x() + 1 + 2 * padding;
+        this.height = max.y() - min.y() + 1 + 2 * padding;
+        this.length = max.z() - min.z() + 1 + 2 * padding;
+        this.strideZ = width;
+        this.strideY = width * length;
+        long volume = (long) strideY * height;
+        if (volume > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Grid volume too large: " + volume);
+        }
+        this.data = new char[(int) volume];
+        this.active = FastBitSet.create((int) volume);
+        this.faceOffsets = new int[]{-1, 1, -strideZ, strideZ, -strideY, strideY};
+        this.neighbourOffsets = new int[26];
+        int i = 0;
+        for (int oy = -1; oy <= 1; oy++) {
+            for (int oz = -1; oz <= 1; oz++) {
+                for (int ox = -1; ox <= 1; ox++) {
+                    if (ox != 0 || oy != 0 || oz != 0) {
+                        neighbourOffsets[i++] = oy * strideY + oz * strideZ + ox;
+                    }
+                }
+            }
+        }
+    }
+
+    private OrdinalGrid(OrdinalGrid other) {
+        this.minX = other.minX;
+        this.minY = other.minY;
+        this.minZ = other.minZ;
+        this.width = other.width;
+        this.height = other.height;
+        this.length = other.length;
+        this.padding = other.padding;
+        this.strideZ = other.strideZ;
+        this.strideY = other.strideY;
+        this.data = other.data.clone();
+        this.active = other.active;
+        this.faceOffsets = other.faceOffsets;
+        this.neighbourOffsets = other.neighbourOffsets;
+    }
+
+    /**
+     * Read the block ordinals of the whole grid (including padding) from the given extent. Reads are ordered chunk column by
+     * chunk column so queue-backed extents only load each chunk once.
+     *
+     * @param extent  extent to read from
+     * @param outside ordinal to use for cells outside the extent's height range
+     */
+    public void load(Extent extent, char outside) {
+        int worldMinY = extent.getMinY();
+        int worldMaxY = extent.getMaxY();
+        int maxX = minX + width - 1;
+        int maxZ = minZ + length - 1;
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            int x0 = Math.max(minX, cx << 4);
+            int x1 = Math.min(maxX, (cx << 4) + 15);
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                int z0 = Math.max(minZ, cz << 4);
+                int z1 = Math.min(maxZ, (cz << 4) + 15);
+                for (int ry = 0; ry < height; ry++) {
+                    int y = ry + minY;
+                    boolean inside = y >= worldMinY && y <= worldMaxY;
+                    for (int z = z0; z <= z1; z++) {
+                        int index = ry * strideY + (z - minZ) * strideZ - minX;
+                        for (int x = x0; x <= x1; x++) {
+                            data[index + x] = inside ? extent.getBlock(x, y, z).getOrdinalChar() : outside;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark every cell strictly within the given squared distance of the centre as active, excluding the padding.
+     *
+     * @param centre        sphere centre
+     * @param radiusSquared exclusive squared radius
+     */
+    public void activateSphere(BlockVector3 centre, double radiusSquared) {
+        for (int ry = padding; ry < height - padding; ry++) {
+            int dy = ry + minY - centre.y();
+            int dy2 = dy * dy;
+            for (int rz = padding; rz < length - padding; rz++) {
+                int dz = rz + minZ - centre.z();
+                int dyz2 = dy2 + dz * dz;
+                if (dyz2 >= radiusSquared) {
+                    continue;
+                }
+                int index = ry * strideY + rz * strideZ;
+                for (int rx = padding; rx < width - padding; rx++) {
+                    int dx = rx + minX - centre.x();
+                    if (dyz2 + dx * dx < radiusSquared) {
+                        FastBitSet.set(active, index + rx);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test every cell against the given predicate, deactivating those that fail. Cells holding ordinal {@code 0} (outside of
+     * the world) are left as they are.
+     *
+     * @param mask predicate to test cells with
+     * @param or   ordinal to store in cells that fail the predicate, or {@code 0} to leave the cell contents untouched
+     */
+    public void retainMasked(Predicate<BlockVector3> mask, char or) {
+        MutableBlockVector3 mutable = new MutableBlockVector3();
+        for (int ry = 0; ry < height; ry++) {
+            for (int rz = 0; rz < length; rz++) {
+                int index = ry * strideY + rz * strideZ;
+                for (int rx = 0; rx < width; rx++, index++) {
+                    if (!mask.test(mutable.setComponents(rx + minX, ry + minY, rz + minZ))) {
+                        FastBitSet.clear(active, index);
+                        if (or != 0 && data[index] != 0) {
+                            data[index] = or;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a copy of this grid's contents. The copy shares the active cells of this grid.
+     */
+    public OrdinalGrid copy() {
+        return new OrdinalGrid(this);
+    }
+
+    /**
+     * Write every cell that differs from the given original grid back to the extent as a single masked bulk set.
+     *
+     * @param extent   extent to write to
+     * @param original the grid as it was loaded
+     * @return number of blocks changed
+     */
+    public int commit(Extent extent, OrdinalGrid original) throws MaxChangedBlocksException {
+        final long[] changed = FastBitSet.create(data.length);
+        boolean any = false;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] != original.data[i]) {
+                FastBitSet.set(changed, i);
+                any = true;
+            }
+        }
+        if (!any) {
+            return 0;
+        }
+        CuboidRegion region = new CuboidRegion(
+                BlockVector3.at(minX, minY, minZ),
+                BlockVector3.at(minX + width - 1, minY + height - 1, minZ + length - 1)
+        );
+        return extent.replaceBlocks(region, new ChangedMask(changed), new GridPattern());
+    }
+
+    /**
+     * Get the index of the given world position. The position must lie within the grid, including padding.
+     */
+    public int index(int x, int y, int z) {
+        return (y - minY) * strideY + (z - minZ) * strideZ + (x - minX);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        int rx = x - minX;
+        int ry = y - minY;
+        int rz = z - minZ;
+        return rx >= 0 && rx < width && ry >= 0 && ry < height && rz >= 0 && rz < length;
+    }
+
+    public char get(int index) {
+        return data[index];
+    }
+
+    public void set(int index, char ordinal) {
+        data[index] = ordinal;
+    }
+
+    public boolean isActive(int index) {
+        return FastBitSet.get(active, index);
+    }
+
+    public void setActive(int index, boolean value) {
+        FastBitSet.set(active, index, value);
+    }
+
+    /**
+     * Offsets to add to a cell index to reach its six face neighbours.
+     */
+    public int[] getFaceOffsets() {
+        return faceOffsets;
+    }
+
+    /**
+     * Offsets to add to a cell index to reach all 26 neighbours of the surrounding 3x3x3 cube.
+     */
+    public int[] getNeighbourOffsets() {
+        return neighbourOffsets;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    int getStrideZ() {
+        return strideZ;
+    }
+
+    int getStrideY() {
+        return strideY;
+    }
+
+    int getPadding() {
+        return padding;
+    }
+
+    char[] data() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return "OrdinalGrid{" + "min=" + minX + "," + minY + "," + minZ + ", size=" + width + "x" + height + "x" + length
+                + '}';
+    }
+
+    private final class ChangedMask implements Mask {
+
+        private final long[] changed;
+
+        private ChangedMask(long[] changed) {
+            this.changed = changed;
+        }
+
+        @Override
+        public boolean test(BlockVector3 vector) {
+            int x = vector.x();
+            int y = vector.y();
+            int z = vector.z();
+            return contains(x, y, z) && FastBitSet.get(changed, index(x, y, z));
+        }
+
+        @Override
+        public boolean replacesAir() {
+            return true;
+        }
+
+        @Override
+        public Mask copy() {
+            // Immutable once created
+            return this;
+        }
+
+    }
+
+    private final class GridPattern implements Pattern {
+
+        @Override
+        public BaseBlock applyBlock(BlockVector3 position) {
+            return BlockTypesCache.states[data[index(position.x(), position.y(), position.z())]].toBaseBlock();
+        }
+
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.fastasyncworldedit.core.math.stencil;
+
+import java.util.Arrays;
+
+/**
+ * Small open-addressed counting map of int keys, intended for neighbourhood histograms in {@link StencilKernel}s where only
+ * a handful of distinct keys are ever present. Clearing is proportional to the number of keys used, not the capacity.
+ * <p>
+ * Not thread safe, each worker should use its own instance.
+ *
+ * @since 2.13.1
+ */
+public final class OrdinalHistogram {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] counts;
+    private int[] used;
+    private int size;
+    private int mask;
+
+    /**
+     * Create a new histogram able to hold the given number of distinct keys without resizing.
+     *
+     * @param expected expected maximum number of distinct keys
+     */
+    public OrdinalHistogram(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        this.keys = new int[capacity];
+        this.counts = new int[capacity];
+        this.used = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Increment the count of the given key.
+     *
+     * @param key non-negative key
+     * @return the count of the key after incrementing
+     */
+    public int add(int key) {
+        int slot = mix(key) & mask;
+        while (true) {
+            int existing = keys[slot];
+            if (existing == key) {
+                return ++counts[slot];
+            }
+            if (existing == EMPTY) {
+                if ((size + 1) << 1 > keys.length) {
+                    grow();
+                    return add(key);
+                }
+                keys[slot] = key;
+                counts[slot] = 1;
+                used[size++] = slot;
+                return 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Get the current count of the given key.
+     *
+     * @param key non-negative key
+     * @return the count, or 0 if not present
+     */
+    public int get(int key) {
+        int slot = mix(key) & mask;
+        while (true) {
+            int existing = keys[slot];
+            if (existing == key) {
+                return counts[slot];
+            }
+            if (existing == EMPTY) {
+                return 0;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Get the number of distinct keys present.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all keys.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            keys[used[i]] = EMPTY;
+        }
+        size = 0;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldCounts = counts;
+        int[] oldUsed = used;
+        int oldSize = size;
+        int capacity = oldKeys.length << 1;
+        keys = new int[capacity];
+        counts = new int[capacity];
+        used = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldSize; i++) {
+            int slot = oldUsed[i];
+            int key = oldKeys[slot];
+            int newSlot = mix(key) & mask;
+            while (keys[newSlot] != EMPTY) {
+                newSlot = (newSlot + 1) & mask;
+            }
+            keys[newSlot] = key;
+            counts[newSlot] = oldCounts[slot];
+            used[size++] = newSlot;
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
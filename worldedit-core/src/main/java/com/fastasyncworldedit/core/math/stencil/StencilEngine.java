@@ -0,0 +1,118 @@
+package com.fastasyncworldedit.core.math.stencil;
+
+import com.fastasyncworldedit.core.util.TaskManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Applies {@link StencilKernel}s over the active cells of an {@link OrdinalGrid}. The grid is split into columns of
+ * {@link #TILE_SIZE}x{@link #TILE_SIZE} cells which are evaluated in parallel on the public fork join pool when the grid is
+ * large enough to be worth it.
+ *
+ * @since 2.13.1
+ */
+public final class StencilEngine {
+
+    /**
+     * Width and length of the columns the grid is split into for parallel evaluation.
+     */
+    public static final int TILE_SIZE = 16;
+    /**
+     * Minimum number of cells before the engine will evaluate a grid in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 32768;
+
+    private StencilEngine() {
+    }
+
+    /**
+     * Evaluate the kernel the given number of times, double buffering between iterations.
+     *
+     * @param grid       grid to start from, will not be modified
+     * @param kernel     kernel to apply
+     * @param iterations number of times to apply the kernel
+     * @return a grid holding the result, which is a copy of the input if iterations is 0
+     */
+    public static OrdinalGrid iterate(OrdinalGrid grid, StencilKernel kernel, int iterations) {
+        OrdinalGrid current = grid.copy();
+        if (iterations <= 0) {
+            return current;
+        }
+        OrdinalGrid next = grid.copy();
+        // Inactive cells are never written, and every active cell is, so the buffers need no copying between iterations
+        for (int i = 0; i < iterations; i++) {
+            apply(current, next, kernel);
+            OrdinalGrid swap = current;
+            current = next;
+            next = swap;
+        }
+        return current;
+    }
+
+    /**
+     * Evaluate the kernel for every active cell of the source grid, writing the results to the target grid. The target
+     * must be a copy of the source; inactive cells are not written.
+     *
+     * @param source grid to read from
+     * @param target grid to write to
+     * @param kernel kernel to apply
+     */
+    public static void apply(OrdinalGrid source, OrdinalGrid target, StencilKernel kernel) {
+        int padding = source.getPadding();
+        int tilesX = (source.getWidth() - 2 * padding + TILE_SIZE - 1) / TILE_SIZE;
+        int tilesZ = (source.getLength() - 2 * padding + TILE_SIZE - 1) / TILE_SIZE;
+        int tiles = tilesX * tilesZ;
+        if (tiles <= 1 || source.data().length < PARALLEL_THRESHOLD) {
+            OrdinalHistogram histogram = new OrdinalHistogram(26);
+            for (int tile = 0; tile < tiles; tile++) {
+                applyTile(source, target, kernel, histogram, tile % tilesX, tile / tilesX);
+            }
+            return;
+        }
+        ForkJoinPool pool = TaskManager.taskManager().getPublicForkJoinPool();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(tiles);
+        for (int tile = 0; tile < tiles; tile++) {
+            final int tileX = tile % tilesX;
+            final int tileZ = tile / tilesX;
+            tasks.add(pool.submit(() -> applyTile(source, target, kernel, new OrdinalHistogram(26), tileX, tileZ)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    private static void applyTile(
+            OrdinalGrid source,
+            OrdinalGrid target,
+            StencilKernel kernel,
+            OrdinalHistogram histogram,
+            int tileX,
+            int tileZ
+    ) {
+        int padding = source.getPadding();
+        int strideZ = source.getStrideZ();
+        int strideY = source.getStrideY();
+        int x0 = padding + tileX * TILE_SIZE;
+        int x1 = Math.min(source.getWidth() - padding, x0 + TILE_SIZE);
+        int z0 = padding + tileZ * TILE_SIZE;
+        int z1 = Math.min(source.getLength() - padding, z0 + TILE_SIZE);
+        int y1 = source.getHeight() - padding;
+        char[] out = target.data();
+        for (int y = padding; y < y1; y++) {
+            for (int z = z0; z < z1; z++) {
+                int index = y * strideY + z * strideZ + x0;
+                for (int x = x0; x < x1; x++, index++) {
+                    if (!source.isActive(index)) {
+                        continue;
+                    }
+                    histogram.clear();
+                    out[index] = kernel.apply(source, index, histogram);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.fastasyncworldedit.core.math.stencil;
+
+/**
+ * A function computing the new ordinal of a single cell of an {@link OrdinalGrid} from the cell and its neighbours.
+ * Kernels must not hold mutable state, as they are evaluated concurrently for different cells; per-worker scratch space
+ * is provided through the histogram argument.
+ *
+ * @since 2.13.1
+ */
+@FunctionalInterface
+public interface StencilKernel {
+
+    /**
+     * Compute the new ordinal of the cell at the given index.
+     *
+     * @param source    grid to read the cell and its neighbours from
+     * @param index     index of the cell
+     * @param histogram cleared scratch histogram for the calling worker
+     * @return the new ordinal of the cell
+     */
+    char apply(OrdinalGrid source, int index, OrdinalHistogram histogram);
+
+}
@@ -0,0 +1,157 @@
+package com.fastasyncworldedit.core.math.stencil;
+
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import com.sk89q.worldedit.world.block.BlockTypesCache;
+
+/**
+ * Common {@link StencilKernel}s used by the erosion and blending brushes. Neighbourhood frequencies are counted per block
+ * type, with the resulting ordinal being that of the neighbour which won the count.
+ * <p>
+ * Cells holding ordinal {@code 0} are treated as outside of the world and ignored as neighbours by {@link #blend}.
+ *
+ * @since 2.13.1
+ */
+public final class StencilKernels {
+
+    private static final int[] TYPE_IDS;
+    private static final boolean[] MOVEMENT_BLOCKER;
+    private static final boolean[] AIR;
+    private static final char AIR_ORDINAL = BlockTypes.AIR.getDefaultState().getOrdinalChar();
+
+    static {
+        BlockState[] states = BlockTypesCache.states;
+        TYPE_IDS = new int[states.length];
+        MOVEMENT_BLOCKER = new boolean[states.length];
+        AIR = new boolean[states.length];
+        for (int i = 0; i < states.length; i++) {
+            BlockState state = states[i];
+            if (state == null) {
+                continue;
+            }
+            TYPE_IDS[i] = state.getInternalBlockTypeId();
+            MOVEMENT_BLOCKER[i] = state.getMaterial().isMovementBlocker();
+            AIR[i] = state.isAir();
+        }
+    }
+
+    private StencilKernels() {
+    }
+
+    /**
+     * Replace movement-blocking cells with the most common non-blocking face neighbour, if at least the given number of
+     * faces are exposed.
+     *
+     * @param faces minimum number of exposed faces
+     */
+    public static StencilKernel erode(int faces) {
+        return (grid, index, histogram) -> {
+            char current = grid.get(index);
+            if (!MOVEMENT_BLOCKER[current]) {
+                return current;
+            }
+            char highestState = current;
+            int highest = 1;
+            int total = 0;
+            for (int offset : grid.getFaceOffsets()) {
+                char next = grid.get(index + offset);
+                if (MOVEMENT_BLOCKER[next]) {
+                    continue;
+                }
+                total++;
+                int count = histogram.add(TYPE_IDS[next]);
+                if (count > highest) {
+                    highest = count;
+                    highestState = next;
+                }
+            }
+            return total >= faces ? highestState : current;
+        };
+    }
+
+    /**
+     * Replace non-movement-blocking cells with the most common movement-blocking face neighbour, if at least the given number
+     * of faces are blocked.
+     *
+     * @param faces minimum number of blocked faces
+     */
+    public static StencilKernel fill(int faces) {
+        return (grid, index, histogram) -> {
+            char current = grid.get(index);
+            if (MOVEMENT_BLOCKER[current]) {
+                return current;
+            }
+            char highestState = current;
+            int highest = 1;
+            int total = 0;
+            for (int offset : grid.getFaceOffsets()) {
+                char next = grid.get(index + offset);
+                if (!MOVEMENT_BLOCKER[next]) {
+                    continue;
+                }
+                total++;
+                int count = histogram.add(TYPE_IDS[next]);
+                if (count >= highest) {
+                    highest = count;
+                    highestState = next;
+                }
+            }
+            return total >= faces ? highestState : current;
+        };
+    }
+
+    /**
+     * Replace cells with the most common type of the surrounding 3x3x3 cube, if it is more common than the cell's own type by
+     * at least the given difference.
+     *
+     * @param minFreqDiff minimum difference in frequency to alter a cell
+     * @param onlyAir     only consider air when comparing and altering cells
+     */
+    public static StencilKernel blend(int minFreqDiff, boolean onlyAir) {
+        return (grid, index, histogram) -> {
+            char current = grid.get(index);
+            int currentType = TYPE_IDS[current];
+            char highestState = current;
+            int highest = 1;
+            int currentBlockFrequency = 1;
+            int air = 0;
+            int total = 26;
+            boolean tie = false;
+            for (int offset : grid.getNeighbourOffsets()) {
+                char state = grid.get(index + offset);
+                if (state == 0) {
+                    total--;
+                    continue;
+                }
+                if (AIR[state]) {
+                    air++;
+                }
+                int type = TYPE_IDS[state];
+                if (type == currentType) {
+                    currentBlockFrequency++;
+                }
+                int count = histogram.add(type);
+                if (count - highest >= minFreqDiff) {
+                    highest = count;
+                    highestState = state;
+                    tie = false;
+                } else if (count == highest) {
+                    tie = true;
+                }
+            }
+            if (onlyAir) {
+                if (air * 2 - total >= minFreqDiff) {
+                    return AIR[current] ? current : AIR_ORDINAL;
+                } else if (AIR[current] && total - 2 * air >= minFreqDiff) {
+                    return highestState;
+                }
+                return current;
+            }
+            if (highest - currentBlockFrequency >= minFreqDiff && !tie) {
+                return highestState;
+            }
+            return current;
+        };
+    }
+
+}
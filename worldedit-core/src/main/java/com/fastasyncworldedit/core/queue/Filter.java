@@ -3,7 +3,6 @@
 import com.fastasyncworldedit.core.extent.filter.block.FilterBlock;
 import com.sk89q.worldedit.regions.Region;
 
-import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 /**
@@ -23,8 +22,10 @@ public interface Filter {
 
     /**
      * Do something with the IChunk<br>
+     *
+     * @return the chunk to filter the blocks of, or null if the blocks of the chunk should not be filtered
      */
-    default @Nonnull <T extends IChunk> T applyChunk(T chunk, @Nullable Region region) {
+    default @Nullable <T extends IChunk> T applyChunk(T chunk, @Nullable Region region) {
         return chunk;
     }
 
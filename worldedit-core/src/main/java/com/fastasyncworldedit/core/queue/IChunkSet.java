@@ -31,6 +31,22 @@ default boolean setBiome(BlockVector3 position, BiomeType biome) {
         return setBiome(position.x(), position.y(), position.z(), biome);
     }
 
+    /**
+     * Set the biomes of a section by 4x4x4 biome cell, rather than by block.
+     *
+     * @param layer  section index
+     * @param biomes 64 biomes, indexed {@code y << 4 | z << 2 | x} by the coordinates of the cell within the section. Cells
+     *               with a null biome are not changed. The array is not retained
+     * @since 2.13.1
+     */
+    default void setSectionBiomes(int layer, BiomeType[] biomes) {
+        for (int i = 0; i < 64; i++) {
+            if (biomes[i] != null) {
+                setBiome((i & 3) << 2, layer << 4 | (i >> 4) << 2, (i & 12), biomes[i]);
+            }
+        }
+    }
+
     @Override
     <T extends BlockStateHolder<T>> boolean setBlock(int x, int y, int z, T holder);
 
@@ -5,6 +5,7 @@
 import com.fastasyncworldedit.core.internal.simd.SimdSupport;
 import com.fastasyncworldedit.core.internal.simd.VectorizedCharFilterBlock;
 import com.fastasyncworldedit.core.internal.simd.VectorizedFilter;
+import com.fastasyncworldedit.core.util.PipelineStats;
 import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.function.operation.Operation;
 import com.sk89q.worldedit.math.BlockVector2;
@@ -179,7 +180,9 @@ default ChunkFilterBlock apply(
                 }
             }
             block.initChunk(chunkX, chunkZ);
+            long start = PipelineStats.start();
             chunk.filterBlocks(filter, block, region, full);
+            PipelineStats.record("filter", filter.getClass(), start);
         }
         this.submit(chunk);
         return block;
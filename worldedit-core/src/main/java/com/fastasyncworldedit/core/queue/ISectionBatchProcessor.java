@@ -0,0 +1,70 @@
+package com.fastasyncworldedit.core.queue;
+
+import javax.annotation.Nullable;
+
+/**
+ * A batch processor that processes the blocks of a chunk one section at a time. Consecutive section processors of a
+ * {@link com.fastasyncworldedit.core.extent.processor.MultiBatchProcessor} are fused into a single pass over the sections
+ * of each chunk: every processor processes a section before the next section is loaded, rather than each processor
+ * scanning every section in turn.
+ * <p>
+ * For the fused pass to be equivalent to running the processors one after another, implementations must only read and
+ * modify the given section in {@link #processSection}. In a fused pass, {@link #processChunkStart} of every processor runs
+ * before any section is processed, and {@link #processChunkEnd} of every processor runs after all sections are processed,
+ * in processor order. Work on the chunk that reads the blocks being set, or the tiles and entities other processors may
+ * change, therefore belongs in {@link #processChunkEnd}.
+ *
+ * @since 2.13.1
+ */
+public interface ISectionBatchProcessor extends IBatchProcessor {
+
+    /**
+     * Process the parts of a chunk other than its blocks, before its sections are processed. Must not depend on the
+     * blocks being set.
+     *
+     * @return the given set, or null to cancel the chunk
+     */
+    @Nullable
+    default IChunkSet processChunkStart(IChunk chunk, IChunkGet get, IChunkSet set) {
+        return set;
+    }
+
+    /**
+     * Process a section of a chunk that has blocks being set. Does nothing by default, for processors that only work on the
+     * chunk as a whole but should not break a fused pass.
+     *
+     * @param chunk  the chunk
+     * @param get    existing blocks of the chunk
+     * @param set    blocks being set
+     * @param layer  the section
+     * @param blocks the blocks of the section being set, may be modified in place
+     */
+    default void processSection(IChunk chunk, IChunkGet get, IChunkSet set, int layer, char[] blocks) {
+    }
+
+    /**
+     * Process the parts of a chunk other than its blocks, after its sections are processed. Sees the blocks, tiles and
+     * entities being set as left by the processors before this one.
+     *
+     * @return the given set, or null to cancel the chunk
+     */
+    @Nullable
+    default IChunkSet processChunkEnd(IChunk chunk, IChunkGet get, IChunkSet set) {
+        return set;
+    }
+
+    @Override
+    default IChunkSet processSet(IChunk chunk, IChunkGet get, IChunkSet set) {
+        if ((set = processChunkStart(chunk, get, set)) == null) {
+            return null;
+        }
+        for (int layer = set.getMinSectionPosition(); layer <= set.getMaxSectionPosition(); layer++) {
+            char[] blocks;
+            if (set.hasSection(layer) && (blocks = set.loadIfPresent(layer)) != null) {
+                processSection(chunk, get, set, layer, blocks);
+            }
+        }
+        return processChunkEnd(chunk, get, set);
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.fastasyncworldedit.core.queue.implementation;
 
 import com.fastasyncworldedit.core.Fawe;
+import com.fastasyncworldedit.core.FaweCache;
 import com.fastasyncworldedit.core.extent.filter.block.ChunkFilterBlock;
 import com.fastasyncworldedit.core.internal.exception.FaweException;
 import com.fastasyncworldedit.core.queue.Filter;
@@ -161,6 +162,7 @@ private boolean shouldProcessDirectly() {
     }
 
     private void processRegion(int regionX, int regionZ, int shift) {
+        FaweCache.INSTANCE.trimIfRequested();
         final ThreadState<F> state = getState();
         this.commonState.parallelQueueExtent.enter(state.queue);
         try {
@@ -5,6 +5,7 @@
 import com.fastasyncworldedit.core.extent.NullExtent;
 import com.fastasyncworldedit.core.extent.PassthroughExtent;
 import com.fastasyncworldedit.core.extent.clipboard.WorldCopyClipboard;
+import com.fastasyncworldedit.core.extent.filter.BiomeCellFilter;
 import com.fastasyncworldedit.core.extent.filter.CountFilter;
 import com.fastasyncworldedit.core.extent.filter.DistrFilter;
 import com.fastasyncworldedit.core.extent.filter.LinkedFilter;
@@ -12,6 +13,7 @@
 import com.fastasyncworldedit.core.extent.processor.BatchProcessorHolder;
 import com.fastasyncworldedit.core.extent.processor.MultiBatchProcessor;
 import com.fastasyncworldedit.core.function.mask.BlockMaskBuilder;
+import com.fastasyncworldedit.core.function.pattern.BiomeApplyingPattern;
 import com.fastasyncworldedit.core.internal.exception.FaweException;
 import com.fastasyncworldedit.core.internal.simd.SimdSupport;
 import com.fastasyncworldedit.core.internal.simd.VectorizedFilter;
@@ -37,6 +39,7 @@
 import com.sk89q.worldedit.util.Countable;
 import com.sk89q.worldedit.util.SideEffectSet;
 import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.biome.BiomeType;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockState;
 import com.sk89q.worldedit.world.block.BlockStateHolder;
@@ -78,6 +81,9 @@ public ParallelQueueExtent(QueueHandler handler, World world, boolean fastmode,
         }
         this.fastmode = fastmode;
         this.sideEffectSet = sideEffectSet == null ? SideEffectSet.defaults() : sideEffectSet;
+        if (super.getExtent() instanceof SingleThreadQueueExtent queue) {
+            queue.setBudgetOwner(this);
+        }
     }
 
     /**
@@ -131,6 +137,8 @@ IQueueExtent<IQueueChunk> getNewQueue() {
         queue.setSideEffectSet(sideEffectSet);
         queue.setFaweExceptionArray(faweExceptionReasonsUsed);
         queue.setTargetSize(Settings.settings().QUEUE.TARGET_SIZE * Settings.settings().QUEUE.THREAD_TARGET_SIZE_PERCENT / 100);
+        // All queues of the edit share one share of the memory budget of chunks in flight
+        queue.setBudgetOwner(this);
         return queue;
     }
 
@@ -205,11 +213,20 @@ public <B extends BlockStateHolder<B>> int setBlocks(Region region, B block) thr
 
     @Override
     public int setBlocks(Region region, Pattern pattern) throws MaxChangedBlocksException {
+        if (pattern instanceof BiomeApplyingPattern biomePattern) {
+            // Blocks are left as they are, so only the biome cells need to be visited
+            return setBiomes(region, biomePattern.getBiomeType());
+        }
         VectorizedFilter vectorizedPattern = SimdSupport.vectorizedPattern(pattern);
         var filter = LinkedFilter.of(vectorizedPattern == null ? pattern : vectorizedPattern, new CountFilter());
         return this.changes = apply(region, filter, true).getRight().getTotal();
     }
 
+    @Override
+    public int setBiomes(Region region, BiomeType biome) throws MaxChangedBlocksException {
+        return this.changes = apply(region, new BiomeCellFilter(biome), true).getAffected();
+    }
+
     @Override
     public int setBlocks(Set<BlockVector3> vset, Pattern pattern) {
         if (vset instanceof Region) {
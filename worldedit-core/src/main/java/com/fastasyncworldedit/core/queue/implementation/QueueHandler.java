@@ -3,6 +3,7 @@
 import com.fastasyncworldedit.core.Fawe;
 import com.fastasyncworldedit.core.FaweCache;
 import com.fastasyncworldedit.core.configuration.Settings;
+import com.fastasyncworldedit.core.history.TieredHistoryStore;
 import com.fastasyncworldedit.core.queue.IBatchProcessor;
 import com.fastasyncworldedit.core.queue.IChunkCache;
 import com.fastasyncworldedit.core.queue.IChunkGet;
@@ -10,7 +11,10 @@
 import com.fastasyncworldedit.core.queue.IQueueChunk;
 import com.fastasyncworldedit.core.queue.IQueueExtent;
 import com.fastasyncworldedit.core.queue.Trimable;
+import com.fastasyncworldedit.core.queue.implementation.blocks.CharGetBlocks;
 import com.fastasyncworldedit.core.queue.implementation.chunk.ChunkCache;
+import com.fastasyncworldedit.core.queue.implementation.chunk.SectionSnapshotCache;
+import com.fastasyncworldedit.core.queue.implementation.preloader.Preloader;
 import com.fastasyncworldedit.core.util.MemUtil;
 import com.fastasyncworldedit.core.util.TaskManager;
 import com.fastasyncworldedit.core.util.collection.CleanableThreadLocal;
@@ -22,11 +26,13 @@
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.ApiStatus;
 
+import javax.annotation.Nullable;
 import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Queue;
+import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
@@ -46,6 +52,7 @@
 public abstract class QueueHandler implements Trimable, Runnable {
 
     private static final Logger LOGGER = LogManager.getLogger(QueueHandler.class);
+    private static final long MEMORY_TRIM_INTERVAL_MS = 1000;
 
     /**
      * Primary queue should be used for tasks that are unlikely to wait on other tasks, IO, etc. (i.e. spend most of their
@@ -91,6 +98,8 @@ public abstract class QueueHandler implements Trimable, Runnable {
     private final ConcurrentLinkedQueue<FutureTask> syncWhenFree = new ConcurrentLinkedQueue<>();
 
     private final Map<World, WeakReference<IChunkCache<IChunkGet>>> chunkGetCache = new HashMap<>();
+    // Weakly keyed so caches of unloaded worlds are released
+    private final Map<World, SectionSnapshotCache> sectionCaches = new WeakHashMap<>();
     private final CleanableThreadLocal<IQueueExtent<IQueueChunk>> queuePool = new CleanableThreadLocal<>(QueueHandler.this::create);
     /**
      * Used to calculate elapsed time in milliseconds and ensure block placement doesn't lag the
@@ -98,6 +107,7 @@ public abstract class QueueHandler implements Trimable, Runnable {
      */
     private long last;
     private long allocate = 50;
+    private long lastMemoryTrim;
 
     protected QueueHandler() {
         TaskManager.taskManager().repeat(this, 1);
@@ -120,18 +130,13 @@ public void run() {
             
             if (!syncTasks.isEmpty()) {
                 long currentAllocate = getAllocate();
-
-                if (!MemUtil.isMemoryFree()) {
-                    // TODO reduce mem usage
-                    // FaweCache trim
-                    // Preloader trim
-                }
-
                 operate(syncTasks, last, currentAllocate);
             } else if (!syncWhenFree.isEmpty()) {
                 operate(syncWhenFree, last, getAllocate());
-            } else {
-                // trim??
+            }
+            // After the sync tasks, so a failed trim cannot hold them back
+            if (!MemUtil.isMemoryFree()) {
+                trimForMemory();
             }
         } catch (Throwable e) {
             // Log any exceptions to avoid crashing the server
@@ -139,6 +144,32 @@ public void run() {
         }
     }
 
+    /**
+     * Release memory while memory is limited. Runs at most once every {@value #MEMORY_TRIM_INTERVAL_MS}ms.
+     * <ul>
+     *     <li>Pooled sets and the buffers of the main thread are released, worker threads release their buffers the next
+     *     time they write a chunk or apply a filter</li>
+     *     <li>The world chunk and section caches are trimmed</li>
+     *     <li>In-memory history is moved to disk down to half of {@code history.memory-budget-mb}</li>
+     *     <li>Chunks waiting to be preloaded are dropped</li>
+     * </ul>
+     */
+    private void trimForMemory() {
+        long now = System.currentTimeMillis();
+        if (now - lastMemoryTrim < MEMORY_TRIM_INTERVAL_MS) {
+            return;
+        }
+        lastMemoryTrim = now;
+        FaweCache.INSTANCE.trim(false);
+        FaweCache.INSTANCE.requestTrim();
+        trim(false);
+        TieredHistoryStore.relieveMemory();
+        Preloader preloader = Fawe.platform().getPreloader(false);
+        if (preloader != null) {
+            preloader.clearPending();
+        }
+    }
+
     /**
      * Get if the {@code blockingExecutor} is saturated with tasks or not. Under-utilisation implies the queue has space for
      * more submissions.
@@ -423,12 +454,53 @@ public IChunkCache<IChunkGet> getOrCreateWorldCache(World world) {
                     return cached;
                 }
             }
-            final IChunkCache<IChunkGet> created = new ChunkCache<>(world);
+            final SectionSnapshotCache sections = getSectionCache(world);
+            final IChunkCache<IChunkGet> created;
+            if (sections == null) {
+                created = new ChunkCache<>(world);
+            } else {
+                final World finalWorld = world;
+                created = new ChunkCache<>((x, z) -> {
+                    IChunkGet get = finalWorld.get(x, z);
+                    if (get instanceof CharGetBlocks blocks) {
+                        blocks.setSectionCache(sections, x, z);
+                    }
+                    return get;
+                });
+            }
             chunkGetCache.put(world, new WeakReference<>(created));
             return created;
         }
     }
 
+    /**
+     * Get or create the cache of decoded chunk sections shared between all edits in a world.
+     *
+     * @param world world to get the cache of
+     * @return the world's section cache, or null if disabled
+     * @since 2.13.1
+     */
+    @Nullable
+    public SectionSnapshotCache getSectionCache(World world) {
+        if (!Settings.settings().QUEUE.SECTION_CACHE.ENABLED) {
+            return null;
+        }
+        world = WorldWrapper.unwrap(world);
+        synchronized (sectionCaches) {
+            SectionSnapshotCache cache = sectionCaches.get(world);
+            if (cache == null) {
+                cache = new SectionSnapshotCache(
+                        world.getMinY() >> 4,
+                        world.getMaxY() >> 4,
+                        Settings.settings().QUEUE.SECTION_CACHE.MAX_MEMORY_MB * 1024L * 1024L,
+                        Settings.settings().QUEUE.SECTION_CACHE.TTL_MS
+                );
+                sectionCaches.put(world, cache);
+            }
+            return cache;
+        }
+    }
+
     public IQueueExtent<IQueueChunk> create() {
         return new SingleThreadQueueExtent();
     }
@@ -530,13 +602,19 @@ public boolean trim(boolean aggressive) {
                 final Map.Entry<World, WeakReference<IChunkCache<IChunkGet>>> entry = iter.next();
                 final WeakReference<IChunkCache<IChunkGet>> value = entry.getValue();
                 final IChunkCache<IChunkGet> cache = value.get();
-                if (cache.trim(aggressive)) {
+                // Cleared once the cache is no longer used
+                if (cache == null || cache.trim(aggressive)) {
                     iter.remove();
                     continue;
                 }
                 result = false;
             }
         }
+        synchronized (sectionCaches) {
+            for (SectionSnapshotCache cache : sectionCaches.values()) {
+                result &= cache.trim(aggressive);
+            }
+        }
         return result;
     }
 
@@ -19,6 +19,7 @@
 import com.fastasyncworldedit.core.queue.implementation.chunk.NullChunk;
 import com.fastasyncworldedit.core.util.MathMan;
 import com.fastasyncworldedit.core.util.MemUtil;
+import com.fastasyncworldedit.core.util.PipelineStats;
 import com.fastasyncworldedit.core.wrappers.WorldWrapper;
 import com.google.common.util.concurrent.Futures;
 import com.sk89q.worldedit.EditSession;
@@ -32,7 +33,9 @@
 import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -71,6 +74,10 @@ public class SingleThreadQueueExtent extends ExtentBatchProcessorHolder implemen
     private int exceptionCount = 0;
     private SideEffectSet sideEffectSet = SideEffectSet.defaults();
     private int targetSize = Settings.settings().QUEUE.TARGET_SIZE;
+    // Edit the memory of submitted chunks is reserved for, see SubmissionBudget
+    private Object budgetOwner = this;
+    // Memory reserved for chunks submitted and not yet written
+    private final Set<SubmissionBudget.Reservation> reservations = ConcurrentHashMap.newKeySet();
 
     public SingleThreadQueueExtent() {
     }
@@ -141,6 +148,17 @@ public void setTargetSize(int targetSize) {
         this.targetSize = targetSize;
     }
 
+    /**
+     * Set the edit that chunks submitted by this queue reserve memory for. Queues of the same edit share the edit's share of
+     * the memory budget of chunks in flight, see {@link SubmissionBudget}.
+     *
+     * @param budgetOwner the edit this queue submits chunks for
+     * @since 2.13.1
+     */
+    public void setBudgetOwner(Object budgetOwner) {
+        this.budgetOwner = budgetOwner;
+    }
+
     /**
      * Sets the cached boolean array of length {@code FaweException.Type.values().length} that determines if a thrown
      * {@link FaweException} of type {@link FaweException.Type} should be output to console, rethrown to attempt to be visible
@@ -175,6 +193,7 @@ protected synchronized void reset() {
         this.world = null;
         this.faweExceptionReasonsUsed = new boolean[FaweException.Type.values().length];
         this.targetSize = Settings.settings().QUEUE.TARGET_SIZE;
+        this.budgetOwner = this;
     }
 
     /**
@@ -228,7 +247,9 @@ public <V extends Future<V>> V submit(IQueueChunk chunk) {
         getChunkLock.lock();
         chunks.remove(index, chunk);
         getChunkLock.unlock();
+        long start = PipelineStats.start();
         V future = submitUnchecked(chunk);
+        PipelineStats.record("queue.submit", start);
         submissions.add(future);
         return future;
     }
@@ -263,7 +284,40 @@ private <V extends Future<V>> V submitUnchecked(IQueueChunk chunk) {
             }
         }
 
-        return (V) Fawe.instance().getQueueHandler().submit(chunk);
+        // Wait for earlier chunks to be written if the chunks in flight use too much memory
+        final SubmissionBudget.Reservation reservation = chunk instanceof ChunkHolder<?> holder
+                ? SubmissionBudget.acquire(budgetOwner, holder.getSetMemoryEstimate())
+                : null;
+        if (reservation == null) {
+            return (V) Fawe.instance().getQueueHandler().submit(chunk);
+        }
+        reservations.add(reservation);
+        // Released once the chunk is written, which may be after the call returns if the chunk still has to be loaded
+        final Runnable written = () -> {
+            reservation.release();
+            reservations.remove(reservation);
+        };
+        try {
+            return (V) Fawe.instance().getQueueHandler().submitToBlocking((Callable) () -> {
+                try {
+                    return ((ChunkHolder<?>) chunk).call(written);
+                } catch (Throwable e) {
+                    written.run();
+                    throw e;
+                }
+            });
+        } catch (RuntimeException e) {
+            written.run();
+            throw e;
+        }
+    }
+
+    // Release memory reserved for chunks whose write failed without finishing, once all submissions are done
+    private void releaseReservations() {
+        for (SubmissionBudget.Reservation reservation : reservations) {
+            reservation.release();
+        }
+        reservations.clear();
     }
 
     @Override
@@ -499,6 +553,7 @@ public synchronized void flush() {
             getChunkLock.unlock();
         }
         pollSubmissions(0, true);
+        releaseReservations();
     }
 
     @Override
@@ -0,0 +1,200 @@
+package com.fastasyncworldedit.core.queue.implementation;
+
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.util.MemUtil;
+import com.fastasyncworldedit.core.util.PipelineStats;
+import com.sk89q.worldedit.internal.util.LogManagerCompat;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global budget of the memory held by chunks submitted to be written to the world that have not been written yet. Edits
+ * submitting chunks while the budget is exhausted wait for their earlier chunks to be written, so large edits slow down
+ * rather than filling the heap and being cancelled for low memory.
+ * <ul>
+ *     <li>The budget is {@code queue.in-flight-memory-percent} of the maximum heap, halved while memory is limited</li>
+ *     <li>The budget is shared fairly between edits: while it is exhausted, an edit holding less than its share of the
+ *     budget may still submit, an edit holding more waits. All queues of a parallel edit share the edit's share</li>
+ *     <li>An edit without chunks in flight may always submit, so every edit makes progress</li>
+ *     <li>Memory is reserved until the chunk is written, including chunks that are written once they are loaded</li>
+ * </ul>
+ *
+ * @since 2.13.1
+ */
+public final class SubmissionBudget {
+
+    private static final Logger LOGGER = LogManagerCompat.getLogger();
+
+    // Ordinals of a section of blocks
+    private static final long SECTION_BYTES = 4096 * Character.BYTES;
+    // Biomes of a section, one reference per 4x4x4 cell
+    private static final long BIOME_SECTION_BYTES = 64 * 8;
+    // Arrays and fields of the set itself
+    private static final long SET_BYTES = 512;
+    // Waiting longer than this is assumed to be a stall, the chunk is then submitted anyway
+    private static final long MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final Object LOCK = new Object();
+    // Guarded by LOCK
+    private static final Reference2LongOpenHashMap<Object> HELD = new Reference2LongOpenHashMap<>();
+    private static long inFlight;
+
+    private SubmissionBudget() {
+    }
+
+    /**
+     * Estimate the memory held by a set until it is written.
+     *
+     * @param set the set, or null
+     * @return the estimated size in bytes, 0 if null
+     */
+    public static long estimate(@Nullable IChunkSet set) {
+        if (set == null) {
+            return 0;
+        }
+        long bytes = SET_BYTES;
+        BiomeType[][] biomes = set.getBiomes();
+        for (int layer = set.getMinSectionPosition(); layer <= set.getMaxSectionPosition(); layer++) {
+            if (set.hasSection(layer)) {
+                bytes += SECTION_BYTES;
+            }
+        }
+        if (biomes != null) {
+            for (BiomeType[] section : biomes) {
+                if (section != null) {
+                    bytes += BIOME_SECTION_BYTES;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Get the current budget in bytes, or 0 if disabled.
+     */
+    public static long getBudget() {
+        int percent = Settings.settings().QUEUE.IN_FLIGHT_MEMORY_PERCENT;
+        if (percent <= 0) {
+            return 0;
+        }
+        long budget = Runtime.getRuntime().maxMemory() / 100 * Math.min(percent, 100);
+        return MemUtil.isMemoryLimited() ? budget >> 1 : budget;
+    }
+
+    /**
+     * Get the bytes of all chunks currently in flight.
+     */
+    public static long getInFlightBytes() {
+        synchronized (LOCK) {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Reserve memory for a chunk about to be submitted by an edit, waiting for the edit's earlier chunks to be written if
+     * the budget is exhausted. The reservation must be released once the chunk is written.
+     *
+     * @param owner the edit submitting the chunk, shared by all queues of the edit
+     * @param bytes the estimated size of the chunk
+     * @return the reservation, or null if nothing was reserved
+     */
+    @Nullable
+    public static Reservation acquire(Object owner, long bytes) {
+        if (bytes <= 0 || getBudget() <= 0) {
+            return null;
+        }
+        long start = 0;
+        synchronized (LOCK) {
+            while (!canSubmit(owner, bytes)) {
+                if (start == 0) {
+                    start = System.nanoTime();
+                }
+                long remaining = MAX_WAIT_NANOS - (System.nanoTime() - start);
+                if (remaining <= 0) {
+                    LOGGER.debug("Waited {}s for memory to submit a chunk, submitting anyway", MAX_WAIT_NANOS / 1_000_000_000L);
+                    break;
+                }
+                try {
+                    LOCK.wait(Math.max(1, Math.min(50, TimeUnit.NANOSECONDS.toMillis(remaining))));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            HELD.addTo(owner, bytes);
+            inFlight += bytes;
+        }
+        if (start != 0 && PipelineStats.isEnabled()) {
+            PipelineStats.recordNanos("queue.memory-wait", System.nanoTime() - start);
+        }
+        return new Reservation(owner, bytes);
+    }
+
+    private static void release(Object owner, long bytes) {
+        synchronized (LOCK) {
+            inFlight -= bytes;
+            if (HELD.addTo(owner, -bytes) <= bytes) {
+                HELD.removeLong(owner);
+            }
+            LOCK.notifyAll();
+        }
+    }
+
+    // Must be called holding LOCK
+    private static boolean canSubmit(Object owner, long bytes) {
+        long held = HELD.getLong(owner);
+        if (held == 0) {
+            return true;
+        }
+        long budget = getBudget();
+        if (inFlight + bytes <= budget) {
+            return true;
+        }
+        // Over budget, edits may still use their share of it
+        return held + bytes <= budget / Math.max(1, HELD.size());
+    }
+
+    /**
+     * Memory reserved for a submitted chunk. Releasing it more than once has no effect.
+     */
+    public static final class Reservation implements Runnable {
+
+        private final Object owner;
+        private final AtomicLong bytes;
+
+        private Reservation(Object owner, long bytes) {
+            this.owner = owner;
+            this.bytes = new AtomicLong(bytes);
+        }
+
+        /**
+         * Get the bytes still reserved, 0 once released.
+         */
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        /**
+         * Release the reserved memory, letting edits waiting for memory submit their chunks.
+         */
+        public void release() {
+            long released = bytes.getAndSet(0);
+            if (released > 0) {
+                SubmissionBudget.release(owner, released);
+            }
+        }
+
+        @Override
+        public void run() {
+            release();
+        }
+
+    }
+
+}
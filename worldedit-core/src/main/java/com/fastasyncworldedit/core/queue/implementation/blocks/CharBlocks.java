@@ -152,6 +152,20 @@ public char[] update(int layer, char[] data, boolean aggressive) {
         return data;
     }
 
+    /**
+     * Load the given layer when it is first accessed. Defaults to {@link #update(int, char[], boolean)}, implementations may
+     * serve the layer from elsewhere (e.g. a cache) instead.
+     *
+     * @param layer      layer index (not section index)
+     * @param data       existing array to populate, may be null
+     * @param aggressive if the underlying data should be re-read
+     * @return the populated array
+     * @since 2.13.1
+     */
+    protected char[] updateSection(int layer, char[] data, boolean aggressive) {
+        return update(layer, data, aggressive);
+    }
+
     protected char[] loadPrivately(int layer) {
         layer -= getMinSectionPosition();
         if (sections[layer] != null) {
@@ -286,12 +300,12 @@ public final synchronized void set(CharBlocks blocks, int layer, int index, char
         static char[] getSkipFull(CharBlocks blocks, int layer, boolean aggressive) {
             char[] arr = blocks.blocks[layer];
             if (arr == null) {
-                arr = blocks.blocks[layer] = blocks.update(layer, null, aggressive);
+                arr = blocks.blocks[layer] = blocks.updateSection(layer, null, aggressive);
                 if (arr == null) {
                     throw new IllegalStateException("Array cannot be null: " + blocks.getClass());
                 }
             } else {
-                blocks.blocks[layer] = blocks.update(layer, arr, aggressive);
+                blocks.blocks[layer] = blocks.updateSection(layer, arr, aggressive);
                 if (blocks.blocks[layer] == null) {
                     throw new IllegalStateException("Array cannot be null (update): " + blocks.getClass());
                 }
@@ -3,14 +3,19 @@
 import com.fastasyncworldedit.core.queue.IBlocks;
 import com.fastasyncworldedit.core.queue.IChunkGet;
 import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.queue.implementation.chunk.SectionSnapshotCache;
 import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockState;
 import com.sk89q.worldedit.world.block.BlockTypesCache;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
 
 public abstract class CharGetBlocks extends CharBlocks implements IChunkGet {
 
+    private SectionSnapshotCache sectionCache;
+    private long sectionCacheKey;
+
     /**
      * New instance given the min/max section indices
      */
@@ -42,6 +47,68 @@ public char[] update(int layer, char[] data, boolean aggressive) {
         return data;
     }
 
+    @Override
+    protected char[] updateSection(int layer, char[] data, boolean aggressive) {
+        final SectionSnapshotCache cache = sectionCache;
+        if (cache == null) {
+            return update(layer, data, aggressive);
+        }
+        final int sectionY = layer + minSectionPosition;
+        // Aggressive loads are requested when the world is known to have changed, so do not serve them from the cache
+        if (!aggressive) {
+            char[] cached = cache.get(sectionCacheKey, sectionY, data);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final long version = cache.version(sectionCacheKey, sectionY);
+        data = update(layer, data, aggressive);
+        cache.put(sectionCacheKey, sectionY, data, version);
+        return data;
+    }
+
+    /**
+     * Set the world's shared section cache to load sections from, or null to always read sections from the world.
+     *
+     * @param cache  shared section cache
+     * @param chunkX chunk x coordinate of this instance
+     * @param chunkZ chunk z coordinate of this instance
+     * @since 2.13.1
+     */
+    public void setSectionCache(@Nullable SectionSnapshotCache cache, int chunkX, int chunkZ) {
+        this.sectionCache = cache;
+        this.sectionCacheKey = SectionSnapshotCache.key(chunkX, chunkZ);
+    }
+
+    /**
+     * Invalidate this chunk's sections in the world's shared section cache, if any. Should be called when the chunk is
+     * written to.
+     *
+     * @since 2.13.1
+     */
+    public void invalidateSectionCache() {
+        final SectionSnapshotCache cache = sectionCache;
+        if (cache != null) {
+            cache.invalidate(sectionCacheKey);
+        }
+    }
+
+    /**
+     * Invalidate the given sections of this chunk in the world's shared section cache, if any. Other sections of the chunk
+     * stay cached. Should be called when the sections are written to.
+     *
+     * @param layers section indices of the written sections
+     * @since 2.13.1
+     */
+    public void invalidateSectionCache(int[] layers) {
+        final SectionSnapshotCache cache = sectionCache;
+        if (cache != null) {
+            for (int layer : layers) {
+                cache.invalidate(sectionCacheKey, layer);
+            }
+        }
+    }
+
     @Override
     protected char defaultOrdinal() {
         return BlockTypesCache.ReservedIDs.AIR;
@@ -129,6 +129,24 @@ public boolean setBiome(int x, int y, int z, BiomeType biome) {
         return true;
     }
 
+    @Override
+    public void setSectionBiomes(int layer, BiomeType[] biomes) {
+        updateSectionIndexRange(layer);
+        layer -= minSectionPosition;
+        if (this.biomes == null) {
+            this.biomes = new BiomeType[sectionCount][];
+        }
+        BiomeType[] section = this.biomes[layer];
+        if (section == null) {
+            this.biomes[layer] = section = new BiomeType[64];
+        }
+        for (int i = 0; i < 64; i++) {
+            if (biomes[i] != null) {
+                section[i] = biomes[i];
+            }
+        }
+    }
+
     @Override
     public <T extends BlockStateHolder<T>> boolean setBlock(int x, int y, int z, T holder) {
         updateSectionIndexRange(y >> 4);
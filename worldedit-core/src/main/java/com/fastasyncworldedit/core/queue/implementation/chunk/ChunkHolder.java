@@ -1,5 +1,6 @@
 package com.fastasyncworldedit.core.queue.implementation.chunk;
 
+import com.fastasyncworldedit.core.FaweCache;
 import com.fastasyncworldedit.core.extent.filter.block.ChunkFilterBlock;
 import com.fastasyncworldedit.core.extent.processor.EmptyBatchProcessor;
 import com.fastasyncworldedit.core.extent.processor.heightmap.HeightMapType;
@@ -10,7 +11,10 @@
 import com.fastasyncworldedit.core.queue.IChunkSet;
 import com.fastasyncworldedit.core.queue.IQueueChunk;
 import com.fastasyncworldedit.core.queue.IQueueExtent;
+import com.fastasyncworldedit.core.queue.implementation.SubmissionBudget;
+import com.fastasyncworldedit.core.queue.implementation.blocks.CharGetBlocks;
 import com.fastasyncworldedit.core.util.MemUtil;
+import com.fastasyncworldedit.core.util.PipelineStats;
 import com.sk89q.worldedit.entity.Entity;
 import com.fastasyncworldedit.core.util.task.FaweThread;
 import com.sk89q.worldedit.internal.util.LogManagerCompat;
@@ -30,6 +34,7 @@
 import java.util.UUID;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
 
 /**
  * An abstract {@link IChunk} class that implements basic get/set blocks.
@@ -115,6 +120,11 @@ public void setBlocks(int layer, char[] data) {
         delegate.set(this).setBlocks(layer, data);
     }
 
+    @Override
+    public void setSectionBiomes(int layer, BiomeType[] biomes) {
+        delegate.set(this).setSectionBiomes(layer, biomes);
+    }
+
     @Override
     public char[] load(int layer) {
         return getOrCreateGet().load(layer);
@@ -147,6 +157,16 @@ public int getBitMask() {
         return bitMask;
     }
 
+    /**
+     * Estimate the memory held by the blocks and biomes to be set to this chunk until they are written.
+     *
+     * @return the estimated size in bytes
+     * @since 2.13.1
+     */
+    public long getSetMemoryEstimate() {
+        return SubmissionBudget.estimate(chunkSet);
+    }
+
     @Override
     public boolean hasBiomes(final int layer) {
         // No need to go through delegate. hasBiomes is SET only.
@@ -1009,13 +1029,28 @@ public synchronized <V extends IChunk> void init(IQueueExtent<V> extent, int chu
 
     @Override
     public synchronized T call() {
+        return call(() -> {
+            // Do nothing
+        });
+    }
+
+    /**
+     * Write the blocks and biomes set to this chunk like {@link #call()}, running the given callback once they have been
+     * written. If the chunk still has to be loaded, this returns before the write and the callback runs once the chunk is
+     * loaded and written. The callback also runs if there is nothing to write.
+     *
+     * @param written callback run once the write has finished
+     * @return future of the write, or null
+     * @since 2.13.1
+     */
+    public synchronized T call(Runnable written) {
+        FaweCache.INSTANCE.trimIfRequested();
         if (chunkSet != null && !chunkSet.isEmpty()) {
             IChunkSet copy = chunkSet.createCopy();
 
-            return this.call(extent, copy, () -> {
-                // Do nothing
-            });
+            return this.call(extent, copy, written);
         }
+        written.run();
         return null;
     }
 
@@ -1032,17 +1067,38 @@ public <U extends Future<U>> U call(IQueueExtent<? extends IChunk> owner, IChunk
                 trackExtent();
                 boolean postProcess = !(getExtent().getPostProcessor() instanceof EmptyBatchProcessor);
                 final int copyKey = get.setCreateCopy(postProcess);
+                long start = PipelineStats.start();
                 final IChunkSet iChunkSet = getExtent().processSet(this, get, set);
+                PipelineStats.record("chunk.process-set", start);
                 Runnable finalizer;
                 if (postProcess) {
                     finalizer = () -> {
+                        long postStart = PipelineStats.start();
                         getExtent().postProcess(this, get.getCopy(copyKey), iChunkSet);
+                        PipelineStats.record("chunk.post-process", postStart);
                         finalize.run();
                     };
                 } else {
                     finalizer = finalize;
                 }
-                return get.call(extent, set, finalizer);
+                // Invalidate the written shared sections both before and after the write, so reads overlapping the write are
+                // not cached. Sections the write does not change stay cached for other edits of the chunk
+                if (get instanceof CharGetBlocks blocks) {
+                    final int[] layers = IntStream.rangeClosed(set.getMinSectionPosition(), set.getMaxSectionPosition())
+                            .filter(set::hasSection).toArray();
+                    blocks.invalidateSectionCache(layers);
+                    final Runnable writeFinalizer = finalizer;
+                    finalizer = () -> {
+                        blocks.invalidateSectionCache(layers);
+                        writeFinalizer.run();
+                    };
+                }
+                start = PipelineStats.start();
+                try {
+                    return get.call(extent, set, finalizer);
+                } finally {
+                    PipelineStats.record("chunk.write", start);
+                }
             } finally {
                 get.unlockCall();
                 untrackExtent();
@@ -0,0 +1,345 @@
+package com.fastasyncworldedit.core.queue.implementation.chunk;
+
+import com.fastasyncworldedit.core.queue.Trimable;
+import com.fastasyncworldedit.core.util.MathMan;
+import com.fastasyncworldedit.core.util.MemUtil;
+import com.fastasyncworldedit.core.util.PipelineStats;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * World-scoped cache of decoded chunk sections, shared between all edits in that world. Entries are immutable snapshots of
+ * the block ordinals of a section; readers receive a copy so cached arrays are never modified.
+ * <p>
+ * Every section has a version which is bumped whenever FAWE writes to it. A section read from the world is only cached if
+ * its version did not change while it was being read, so a section decoded concurrently with a write is never stored.
+ * Writes only invalidate the sections they change, so edits of different sections of a chunk do not discard each other's
+ * cached reads. Changes made to the world outside of FAWE are not tracked, entries therefore expire after a configured time.
+ * <p>
+ * The cache is split into segments, each holding an LRU ordered map of chunks and a share of the memory budget.
+ *
+ * @since 2.13.1
+ */
+public final class SectionSnapshotCache implements Trimable {
+
+    static final int SEGMENTS = 16;
+    static final long SECTION_BYTES = 4096 * Character.BYTES;
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    // Totals of the caches of all worlds, shown by //fawe stats
+    private static final LongAdder TOTAL_HITS = new LongAdder();
+    private static final LongAdder TOTAL_MISSES = new LongAdder();
+    private static final LongAdder TOTAL_EVICTIONS = new LongAdder();
+
+    static {
+        PipelineStats.registerGauge("section-cache.hits", TOTAL_HITS::sum);
+        PipelineStats.registerGauge("section-cache.misses", TOTAL_MISSES::sum);
+        PipelineStats.registerGauge("section-cache.evictions", TOTAL_EVICTIONS::sum);
+    }
+
+    private final Segment[] segments;
+    private final int minSectionPosition;
+    private final int sectionCount;
+    private final long segmentBudget;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Create a new cache for a world with the given section bounds.
+     *
+     * @param minSectionPosition minimum section index of the world
+     * @param maxSectionPosition maximum section index of the world
+     * @param maxBytes           maximum number of bytes of section data to hold
+     * @param ttlMillis          maximum age of a cached section in milliseconds
+     */
+    public SectionSnapshotCache(int minSectionPosition, int maxSectionPosition, long maxBytes, long ttlMillis) {
+        this.minSectionPosition = minSectionPosition;
+        this.sectionCount = maxSectionPosition - minSectionPosition + 1;
+        this.segmentBudget = Math.max(SECTION_BYTES, maxBytes / SEGMENTS);
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Get a key for the given chunk coordinates.
+     */
+    public static long key(int chunkX, int chunkZ) {
+        return MathMan.pairInt(chunkX, chunkZ);
+    }
+
+    /**
+     * Get the current version of a section. The version must be read before the section is read from the world, and
+     * passed to {@link #put(long, int, char[], long)}.
+     *
+     * @param key      chunk key
+     * @param sectionY section index
+     * @return the section's current version
+     * @since 2.13.1
+     */
+    public long version(long key, int sectionY) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            return segment.version(key, sectionY - minSectionPosition);
+        }
+    }
+
+    /**
+     * Copy a cached section into the given array.
+     *
+     * @param key      chunk key
+     * @param sectionY section index
+     * @param data     array to copy into, or null to allocate a new array
+     * @return the array with the section's ordinals, or null if not cached
+     */
+    @Nullable
+    public char[] get(long key, int sectionY, @Nullable char[] data) {
+        int layer = sectionY - minSectionPosition;
+        if (layer < 0 || layer >= sectionCount) {
+            return null;
+        }
+        Segment segment = segment(key);
+        char[] snapshot;
+        synchronized (segment) {
+            Entry entry = segment.entries.getAndMoveToLast(key);
+            if (entry == null || (snapshot = entry.sections[layer]) == null) {
+                misses.increment();
+                TOTAL_MISSES.increment();
+                return null;
+            }
+            if (System.nanoTime() - entry.loadedAt[layer] > ttlNanos) {
+                entry.sections[layer] = null;
+                segment.bytes -= SECTION_BYTES;
+                misses.increment();
+                TOTAL_MISSES.increment();
+                return null;
+            }
+        }
+        hits.increment();
+        TOTAL_HITS.increment();
+        if (data == null || data.length != 4096) {
+            data = new char[4096];
+        }
+        System.arraycopy(snapshot, 0, data, 0, 4096);
+        return data;
+    }
+
+    /**
+     * Store a copy of a section read from the world, unless the section has been written to since the given version was
+     * obtained.
+     *
+     * @param key      chunk key
+     * @param sectionY section index
+     * @param data     section ordinals, copied before being stored
+     * @param version  version of the section obtained from {@link #version(long, int)} before reading the section
+     */
+    public void put(long key, int sectionY, char[] data, long version) {
+        int layer = sectionY - minSectionPosition;
+        if (layer < 0 || layer >= sectionCount || data.length != 4096 || MemUtil.isMemoryLimited()) {
+            return;
+        }
+        char[] snapshot = data.clone();
+        long now = System.nanoTime();
+        Segment segment = segment(key);
+        synchronized (segment) {
+            if (segment.version(key, layer) != version) {
+                return;
+            }
+            Entry entry = segment.entries.getAndMoveToLast(key);
+            if (entry == null) {
+                entry = new Entry(sectionCount);
+                segment.entries.putAndMoveToLast(key, entry);
+            }
+            if (entry.sections[layer] == null) {
+                segment.bytes += SECTION_BYTES;
+            }
+            entry.sections[layer] = snapshot;
+            entry.loadedAt[layer] = now;
+            while (segment.bytes > segmentBudget && segment.entries.size() > 1) {
+                segment.bytes -= segment.entries.removeFirst().bytes();
+                evictions.increment();
+                TOTAL_EVICTIONS.increment();
+            }
+        }
+    }
+
+    /**
+     * Invalidate all cached sections of a chunk, and bump their versions so reads in progress are not stored.
+     *
+     * @param key chunk key
+     */
+    public void invalidate(long key) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            Arrays.fill(segment.versions(key, sectionCount), VERSIONS.incrementAndGet());
+            Entry entry = segment.entries.remove(key);
+            if (entry != null) {
+                segment.bytes -= entry.bytes();
+            }
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Invalidate a cached section, and bump its version so reads of it in progress are not stored. Other sections of the
+     * chunk stay cached.
+     *
+     * @param key      chunk key
+     * @param sectionY section index
+     * @since 2.13.1
+     */
+    public void invalidate(long key, int sectionY) {
+        int layer = sectionY - minSectionPosition;
+        if (layer < 0 || layer >= sectionCount) {
+            return;
+        }
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.versions(key, sectionCount)[layer] = VERSIONS.incrementAndGet();
+            Entry entry = segment.entries.get(key);
+            if (entry != null && entry.sections[layer] != null) {
+                entry.sections[layer] = null;
+                segment.bytes -= SECTION_BYTES;
+            }
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Remove all cached sections.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.entries.clear();
+                segment.bytes = 0;
+            }
+        }
+    }
+
+    /**
+     * Remove cached sections and chunk versions that are no longer needed.
+     *
+     * @param aggressive if all cached sections should be removed
+     * @return true if the cache is empty
+     */
+    @Override
+    public boolean trim(boolean aggressive) {
+        boolean empty = true;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                if (aggressive) {
+                    segment.entries.clear();
+                    segment.bytes = 0;
+                }
+                // Versions of chunks without entries are only needed for reads in progress, raising the floor keeps those
+                // reads from being stored
+                LongIterator iter = segment.versions.keySet().iterator();
+                while (iter.hasNext()) {
+                    if (!segment.entries.containsKey(iter.nextLong())) {
+                        iter.remove();
+                    }
+                }
+                segment.floor = VERSIONS.incrementAndGet();
+                empty &= segment.entries.isEmpty();
+            }
+        }
+        return empty;
+    }
+
+    /**
+     * Get the number of bytes of section data currently held.
+     */
+    public long getSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.bytes;
+            }
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    private Segment segment(long key) {
+        return segments[segmentIndex(key)];
+    }
+
+    static int segmentIndex(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 60) & (SEGMENTS - 1);
+    }
+
+    private static final class Segment {
+
+        private final Long2ObjectLinkedOpenHashMap<Entry> entries = new Long2ObjectLinkedOpenHashMap<>();
+        private final Long2ObjectOpenHashMap<long[]> versions = new Long2ObjectOpenHashMap<>();
+        private long bytes;
+        private long floor;
+
+        private long version(long key, int layer) {
+            long[] chunk = versions.get(key);
+            return chunk == null || layer < 0 || layer >= chunk.length ? floor : chunk[layer];
+        }
+
+        private long[] versions(long key, int sectionCount) {
+            long[] chunk = versions.get(key);
+            if (chunk == null) {
+                chunk = new long[sectionCount];
+                Arrays.fill(chunk, floor);
+                versions.put(key, chunk);
+            }
+            return chunk;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final char[][] sections;
+        private final long[] loadedAt;
+
+        private Entry(int sectionCount) {
+            this.sections = new char[sectionCount][];
+            this.loadedAt = new long[sectionCount];
+        }
+
+        private long bytes() {
+            long bytes = 0;
+            for (char[] section : sections) {
+                if (section != null) {
+                    bytes += SECTION_BYTES;
+                }
+            }
+            return bytes;
+        }
+
+    }
+
+}
@@ -20,6 +20,7 @@ public class ChunkPacket implements Function<byte[], byte[]>, Supplier<byte[]> {
     private int chunkX;
     private int chunkZ;
     private byte[] sectionBytes;
+    private SectionDelta[] sectionDeltas;
     private Object nativePacket;
 
     public ChunkPacket(int chunkX, int chunkZ, Supplier<IBlocks> chunkSupplier, boolean replaceAllSections) {
@@ -73,6 +74,44 @@ public byte[] getSectionBytes() {
         return tmp;
     }
 
+    /**
+     * Get the blocks of each section of the chunk, as changes to be sent as section block updates instead of a full chunk.
+     * Blocks that are {@link com.sk89q.worldedit.world.block.BlockTypesCache.ReservedIDs#__RESERVED__} are not included.
+     *
+     * @return the changes of each section, indexed by layer minus the minimum section position of the chunk. Sections
+     *         without changes are null
+     * @since 2.13.1
+     */
+    public SectionDelta[] getSectionDeltas() {
+        SectionDelta[] tmp = this.sectionDeltas;
+        if (tmp == null) {
+            synchronized (this) {
+                if (sectionDeltas == null) {
+                    IBlocks tmpChunk = getChunk();
+                    int minSection = tmpChunk.getMinSectionPosition();
+                    SectionDelta[] deltas = new SectionDelta[tmpChunk.getMaxSectionPosition() - minSection + 1];
+                    for (int layer = minSection; layer <= tmpChunk.getMaxSectionPosition(); layer++) {
+                        if (tmpChunk.hasSection(layer)) {
+                            deltas[layer - minSection] = SectionDelta.of(layer, tmpChunk.loadIfPresent(layer));
+                        }
+                    }
+                    sectionDeltas = deltas;
+                }
+                tmp = sectionDeltas;
+            }
+        }
+        return tmp;
+    }
+
+    /**
+     * If sending the chunk as section block updates is estimated to be cheaper than sending it in full.
+     *
+     * @see ChunkUpdateCost
+     * @since 2.13.1
+     */
+    public boolean shouldSendDeltas() {
+        return !full && ChunkUpdateCost.shouldSendDeltas(getSectionDeltas(), getChunk().getSectionCount());
+    }
 
     public Object getNativePacket() {
         return nativePacket;
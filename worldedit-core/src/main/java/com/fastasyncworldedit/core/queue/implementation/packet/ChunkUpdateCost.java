@@ -0,0 +1,103 @@
+package com.fastasyncworldedit.core.queue.implementation.packet;
+
+import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.util.PipelineStats;
+
+import javax.annotation.Nullable;
+
+/**
+ * Estimates the size of sending the changes of a chunk to clients, either as a full chunk packet or as section block
+ * updates, and chooses the smaller. The client also re-renders all sections of a chunk it is sent in full, but only the
+ * changed sections for section block updates, so section block updates are cheaper for the client whenever they are
+ * smaller. As the client applies section block updates one block at a time, they are not used for more than
+ * {@value #MAX_DELTA_BLOCKS} blocks in a chunk.
+ * <p>
+ * If {@link PipelineStats} is enabled, the decisions and the estimated bytes sent are counted under
+ * {@code chunk-send.full.*} and {@code chunk-send.delta.*}.
+ *
+ * @since 2.13.1
+ */
+public final class ChunkUpdateCost {
+
+    // Block states of a section with a 4-8 bit palette, plus its palette and biomes
+    private static final int FULL_SECTION_BYTES = 3 * 1024;
+    // Sky and block light of a section
+    private static final int LIGHT_SECTION_BYTES = 2 * 2048;
+    // Heightmaps, light masks and other chunk data
+    private static final int FULL_CHUNK_BYTES = 1024;
+    // Packet id, section position and block count
+    private static final int DELTA_SECTION_BYTES = 12;
+    // A var-long of the state id and position, at most 28 bits with the current number of block states
+    private static final int DELTA_BLOCK_BYTES = 4;
+    private static final int MAX_DELTA_BLOCKS = 2048;
+
+    private ChunkUpdateCost() {
+    }
+
+    /**
+     * Get the estimated size of a full chunk packet.
+     *
+     * @param sectionCount the number of sections in the chunk
+     */
+    public static int getFullBytes(int sectionCount) {
+        return FULL_CHUNK_BYTES + sectionCount * (FULL_SECTION_BYTES + LIGHT_SECTION_BYTES);
+    }
+
+    /**
+     * Get the estimated size of the section block updates of a section.
+     */
+    public static int getDeltaBytes(SectionDelta delta) {
+        return DELTA_SECTION_BYTES + delta.size() * DELTA_BLOCK_BYTES;
+    }
+
+    /**
+     * Create the array to collect the changes of each section of a chunk in. Biomes, tiles and light are only sent with the
+     * full chunk, so there are no changes to collect if they are set.
+     *
+     * @param set          the changes to the chunk
+     * @param sectionCount the number of sections in the chunk
+     * @return an array with an element per section, or null if the chunk must be sent in full
+     */
+    @Nullable
+    public static SectionDelta[] newDeltas(IChunkSet set, int sectionCount) {
+        if (set.getBiomes() != null || !set.tiles().isEmpty() || set.getLight() != null || set.getSkyLight() != null) {
+            return null;
+        }
+        return new SectionDelta[sectionCount];
+    }
+
+    /**
+     * Choose whether the changes of a chunk should be sent as section block updates.
+     *
+     * @param deltas       the changes of each section of the chunk, null elements for unchanged sections
+     * @param sectionCount the number of sections in the chunk
+     * @return true to send the non-null deltas as section block updates, false to send the full chunk
+     */
+    public static boolean shouldSendDeltas(@Nullable SectionDelta[] deltas, int sectionCount) {
+        int fullBytes = getFullBytes(sectionCount);
+        if (deltas == null) {
+            record(false, fullBytes);
+            return false;
+        }
+        long deltaBytes = 0;
+        int blocks = 0;
+        for (SectionDelta delta : deltas) {
+            if (delta != null) {
+                deltaBytes += getDeltaBytes(delta);
+                blocks += delta.size();
+            }
+        }
+        boolean sendDeltas = blocks <= MAX_DELTA_BLOCKS && deltaBytes < fullBytes;
+        record(sendDeltas, sendDeltas ? deltaBytes : fullBytes);
+        return sendDeltas;
+    }
+
+    private static void record(boolean deltas, long bytes) {
+        if (PipelineStats.isEnabled()) {
+            String name = deltas ? "chunk-send.delta" : "chunk-send.full";
+            PipelineStats.count(name + ".chunks", 1);
+            PipelineStats.count(name + ".bytes", bytes);
+        }
+    }
+
+}
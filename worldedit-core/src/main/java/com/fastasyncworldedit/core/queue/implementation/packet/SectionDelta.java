@@ -0,0 +1,94 @@
+package com.fastasyncworldedit.core.queue.implementation.packet;
+
+import com.sk89q.worldedit.world.block.BlockTypesCache;
+
+import javax.annotation.Nullable;
+
+/**
+ * The blocks changed in a chunk section, used to send the changes as section block updates rather than a full chunk.
+ *
+ * @since 2.13.1
+ */
+public final class SectionDelta {
+
+    private final int layer;
+    private final short[] indices;
+    private final char[] ordinals;
+
+    private SectionDelta(int layer, short[] indices, char[] ordinals) {
+        this.layer = layer;
+        this.indices = indices;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * Get the blocks set in a section.
+     *
+     * @param layer  the layer of the section
+     * @param blocks the blocks of the section, with {@link BlockTypesCache.ReservedIDs#__RESERVED__} for unchanged blocks
+     * @return the changed blocks, or null if no blocks are changed
+     */
+    @Nullable
+    public static SectionDelta of(int layer, @Nullable char[] blocks) {
+        if (blocks == null) {
+            return null;
+        }
+        int size = 0;
+        for (char ordinal : blocks) {
+            if (ordinal != BlockTypesCache.ReservedIDs.__RESERVED__) {
+                size++;
+            }
+        }
+        if (size == 0) {
+            return null;
+        }
+        short[] indices = new short[size];
+        char[] ordinals = new char[size];
+        for (int index = 0, i = 0; i < size; index++) {
+            char ordinal = blocks[index];
+            if (ordinal != BlockTypesCache.ReservedIDs.__RESERVED__) {
+                indices[i] = (short) index;
+                ordinals[i++] = ordinal;
+            }
+        }
+        return new SectionDelta(layer, indices, ordinals);
+    }
+
+    public int getLayer() {
+        return layer;
+    }
+
+    /**
+     * Get the number of changed blocks.
+     */
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * Get the index of the i-th changed block in the section, ordered {@code y << 8 | z << 4 | x}.
+     */
+    public int getIndex(int i) {
+        return indices[i];
+    }
+
+    public int getX(int i) {
+        return indices[i] & 15;
+    }
+
+    public int getY(int i) {
+        return indices[i] >> 8 & 15;
+    }
+
+    public int getZ(int i) {
+        return indices[i] >> 4 & 15;
+    }
+
+    /**
+     * Get the ordinal of the state the i-th changed block is set to.
+     */
+    public char getOrdinal(int i) {
+        return ordinals[i];
+    }
+
+}
@@ -3,6 +3,8 @@
 import com.fastasyncworldedit.core.Fawe;
 import com.fastasyncworldedit.core.configuration.Settings;
 import com.fastasyncworldedit.core.util.FaweTimer;
+import com.fastasyncworldedit.core.util.MathMan;
+import com.fastasyncworldedit.core.util.PipelineStats;
 import com.fastasyncworldedit.core.util.TaskManager;
 import com.fastasyncworldedit.core.util.collection.MutablePair;
 import com.google.common.collect.ImmutableSet;
@@ -15,6 +17,11 @@
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.regions.Region;
 import com.sk89q.worldedit.world.World;
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 
 import javax.annotation.Nonnull;
 import java.util.Iterator;
@@ -23,14 +30,45 @@
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 public class AsyncPreloader implements Preloader, Runnable {
 
+    // Number of strokes ahead of the last to predict
+    private static final int LOOKAHEAD = 3;
+    // Chunks of the stroke directly ahead are loaded regardless of server load, up to this many per run
+    private static final int IMMINENT_PER_RUN = 64;
+    // How long a prefetched chunk is expected to be used within before it is counted as wasted
+    private static final long PREFETCH_EXPIRY_MS = 30_000;
+    // Minimum movement (in blocks) between strokes for the brush to be considered moving
+    private static final double MIN_STEP = 1;
+
+    /**
+     * Name of the counter of brush stroke chunks that had been preloaded, in {@link PipelineStats#getCounters()}.
+     *
+     * @since 2.13.1
+     */
+    public static final String PREFETCH_HITS = "preload.prefetch-hits";
+    /**
+     * Name of the counter of brush stroke chunks that had not been preloaded, in {@link PipelineStats#getCounters()}.
+     *
+     * @since 2.13.1
+     */
+    public static final String PREFETCH_MISSES = "preload.prefetch-misses";
+
     private final ConcurrentHashMap<UUID, MutablePair<World, Set<BlockVector2>>> update;
+    private final ConcurrentHashMap<UUID, Trajectory> trajectories = new ConcurrentHashMap<>();
     private final AtomicBoolean cancelled = new AtomicBoolean(false);
 
+    private final LongAdder prefetchHits = new LongAdder();
+    private final LongAdder prefetchMisses = new LongAdder();
+    private final LongAdder prefetchWasted = new LongAdder();
+
     public AsyncPreloader() {
         this.update = new ConcurrentHashMap<>();
+        PipelineStats.registerGauge(PREFETCH_HITS, prefetchHits::sum);
+        PipelineStats.registerGauge(PREFETCH_MISSES, prefetchMisses::sum);
+        PipelineStats.registerGauge("preload.prefetch-wasted", prefetchWasted::sum);
         TaskManager.taskManager().laterAsync(this, 1);
     }
 
@@ -40,6 +78,7 @@ public void cancel() {
         synchronized (update) {
             update.clear();
         }
+        trajectories.clear();
     }
 
     @Override
@@ -55,6 +94,19 @@ private MutablePair<World, Set<BlockVector2>> cancelAndGet(@Nonnull Actor actor)
         return existing;
     }
 
+    @Override
+    public void clearPending() {
+        for (MutablePair<World, Set<BlockVector2>> pair : update.values()) {
+            pair.setValue(null);
+        }
+        for (Trajectory trajectory : trajectories.values()) {
+            synchronized (trajectory) {
+                trajectory.imminent.clear();
+                trajectory.speculative.clear();
+            }
+        }
+    }
+
     @Override
     public void update(@Nonnull Actor actor, @Nonnull World world) {
         LocalSession session = WorldEdit.getInstance().getSessionManager().getIfPresent(actor);
@@ -84,12 +136,42 @@ public void update(@Nonnull Actor actor, @Nonnull World world) {
         }
     }
 
+    @Override
+    public void track(@Nonnull Actor actor, @Nonnull World world, @Nonnull BlockVector3 target, double radius) {
+        if (cancelled.get()) {
+            return;
+        }
+        Trajectory trajectory = trajectories.computeIfAbsent(actor.getUniqueId(), k -> new Trajectory());
+        synchronized (trajectory) {
+            if (!world.equals(trajectory.world)) {
+                trajectory.reset(world);
+            }
+            trajectory.record(target, radius);
+        }
+    }
+
+    @Override
+    public long getPrefetchHits() {
+        return prefetchHits.sum();
+    }
+
+    @Override
+    public long getPrefetchMisses() {
+        return prefetchMisses.sum();
+    }
+
+    @Override
+    public long getPrefetchWasted() {
+        return prefetchWasted.sum();
+    }
+
     @Override
     public void run() {
         FaweTimer timer = Fawe.instance().getTimer();
         if (cancelled.get()) {
             return;
         }
+        boolean pendingStrokes = runTrajectories(timer);
         if (update.isEmpty()) {
             TaskManager.taskManager().laterAsync(this, 1);
             return;
@@ -107,13 +189,8 @@ public void run() {
                 Iterator<BlockVector2> chunksIter = chunks.iterator();
                 while (chunksIter.hasNext() && pair.getValue() == chunks) { // Ensure the queued load is still valid
                     BlockVector2 chunk = chunksIter.next();
-                    if (Settings.settings().REGION_RESTRICTIONS_OPTIONS.RESTRICT_TO_SAFE_RANGE) {
-                        int x = chunk.x();
-                        int z = chunk.z();
-                        // if any chunk coord is outside 30 million blocks
-                        if (x > 1875000 || z > 1875000 || x < -1875000 || z < -1875000) {
-                            continue;
-                        }
+                    if (isUnsafe(chunk.x(), chunk.z())) {
+                        continue;
                     }
                     queueLoad(world, chunk);
                 }
@@ -123,11 +200,158 @@ public void run() {
         if (cancelled.get()) {
             return;
         }
-        TaskManager.taskManager().laterAsync(this, 20);
+        // Brush strokes should be followed closely
+        TaskManager.taskManager().laterAsync(this, pendingStrokes ? 1 : 20);
+    }
+
+    /**
+     * Load the predicted chunks of each actor's brush strokes, imminent chunks first. Speculative chunks are only loaded
+     * while the server is not under load.
+     *
+     * @return if any predictions are still waiting to be loaded
+     */
+    private boolean runTrajectories(FaweTimer timer) {
+        boolean pending = false;
+        long now = System.currentTimeMillis();
+        LongArrayList toLoad = new LongArrayList();
+        Iterator<Trajectory> iter = trajectories.values().iterator();
+        while (iter.hasNext()) {
+            if (cancelled.get()) {
+                return false;
+            }
+            Trajectory trajectory = iter.next();
+            World world;
+            toLoad.clear();
+            synchronized (trajectory) {
+                if (trajectory.isIdle(now)) {
+                    prefetchWasted.add(trajectory.prefetched.size());
+                    iter.remove();
+                    continue;
+                }
+                trajectory.expire(now);
+                int loaded = 0;
+                while (!trajectory.imminent.isEmpty() && loaded++ < IMMINENT_PER_RUN) {
+                    toLoad.add(trajectory.take(trajectory.imminent.removeFirstLong(), now));
+                }
+                if (timer.getTPS() > 18) {
+                    while (!trajectory.speculative.isEmpty()) {
+                        toLoad.add(trajectory.take(trajectory.speculative.removeFirstLong(), now));
+                    }
+                }
+                pending |= !trajectory.imminent.isEmpty() || !trajectory.speculative.isEmpty();
+                world = trajectory.world;
+            }
+            // Loads are queued outside the lock, so strokes being tracked do not wait for them
+            for (int i = 0; i < toLoad.size(); i++) {
+                long key = toLoad.getLong(i);
+                queueLoad(world, BlockVector2.at(MathMan.unpairIntX(key), MathMan.unpairIntY(key)));
+            }
+        }
+        return pending;
+    }
+
+    private static boolean isUnsafe(int x, int z) {
+        // if any chunk coord is outside 30 million blocks
+        return Settings.settings().REGION_RESTRICTIONS_OPTIONS.RESTRICT_TO_SAFE_RANGE
+                && (x > 1875000 || z > 1875000 || x < -1875000 || z < -1875000);
     }
 
     private void queueLoad(World world, BlockVector2 chunk) {
         world.checkLoadedChunk(BlockVector3.at(chunk.x() << 4, 0, chunk.z() << 4));
     }
 
+    /**
+     * Recent brush targets of an actor and the chunks predicted to be touched by their next strokes. Each recorded stroke
+     * replaces all predictions not yet loaded, so stale predictions are never loaded.
+     */
+    private final class Trajectory {
+
+        private final LongLinkedOpenHashSet imminent = new LongLinkedOpenHashSet();
+        private final LongLinkedOpenHashSet speculative = new LongLinkedOpenHashSet();
+        // Chunk key -> time the chunk was requested
+        private final Long2LongOpenHashMap prefetched = new Long2LongOpenHashMap();
+        private World world;
+        private BlockVector3 last;
+        private long lastTime;
+        private double velocityX;
+        private double velocityZ;
+
+        private void reset(World world) {
+            this.world = world;
+            this.last = null;
+            this.imminent.clear();
+            this.speculative.clear();
+            prefetchWasted.add(prefetched.size());
+            this.prefetched.clear();
+        }
+
+        private void record(BlockVector3 target, double radius) {
+            long now = System.currentTimeMillis();
+            int chunkRadius = ((int) Math.ceil(radius) >> 4) + 1;
+            // Score the previous predictions against the chunks this stroke actually touches
+            if (!prefetched.isEmpty()) {
+                for (int cx = (target.x() >> 4) - chunkRadius; cx <= (target.x() >> 4) + chunkRadius; cx++) {
+                    for (int cz = (target.z() >> 4) - chunkRadius; cz <= (target.z() >> 4) + chunkRadius; cz++) {
+                        if (prefetched.remove(MathMan.pairInt(cx, cz)) != prefetched.defaultReturnValue()) {
+                            prefetchHits.increment();
+                        } else {
+                            prefetchMisses.increment();
+                        }
+                    }
+                }
+            }
+            if (last != null) {
+                // Smooth the velocity so a single jittery stroke does not throw the prediction off
+                velocityX = (velocityX + target.x() - last.x()) / 2;
+                velocityZ = (velocityZ + target.z() - last.z()) / 2;
+            }
+            last = target;
+            lastTime = now;
+            imminent.clear();
+            speculative.clear();
+            if (Math.abs(velocityX) < MIN_STEP && Math.abs(velocityZ) < MIN_STEP) {
+                return;
+            }
+            int limit = Settings.settings().QUEUE.PRELOAD_CHUNK_COUNT;
+            for (int step = 1; step <= LOOKAHEAD; step++) {
+                int x = (int) Math.round(target.x() + velocityX * step);
+                int z = (int) Math.round(target.z() + velocityZ * step);
+                LongLinkedOpenHashSet into = step == 1 ? imminent : speculative;
+                for (int cx = (x >> 4) - chunkRadius; cx <= (x >> 4) + chunkRadius; cx++) {
+                    for (int cz = (z >> 4) - chunkRadius; cz <= (z >> 4) + chunkRadius; cz++) {
+                        long key = MathMan.pairInt(cx, cz);
+                        if (isUnsafe(cx, cz) || prefetched.containsKey(key) || (step > 1 && imminent.contains(key))) {
+                            continue;
+                        }
+                        if (imminent.size() + speculative.size() >= limit) {
+                            return;
+                        }
+                        into.add(key);
+                    }
+                }
+            }
+        }
+
+        // Mark a predicted chunk as prefetched, to be loaded by the caller
+        private long take(long key, long now) {
+            prefetched.put(key, now);
+            return key;
+        }
+
+        private void expire(long now) {
+            ObjectIterator<Long2LongMap.Entry> iter = prefetched.long2LongEntrySet().fastIterator();
+            while (iter.hasNext()) {
+                if (now - iter.next().getLongValue() > PREFETCH_EXPIRY_MS) {
+                    iter.remove();
+                    prefetchWasted.increment();
+                }
+            }
+        }
+
+        private boolean isIdle(long now) {
+            return imminent.isEmpty() && speculative.isEmpty() && now - lastTime > PREFETCH_EXPIRY_MS;
+        }
+
+    }
+
 }
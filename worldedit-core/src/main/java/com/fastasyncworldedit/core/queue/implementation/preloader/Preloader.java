@@ -1,6 +1,7 @@
 package com.fastasyncworldedit.core.queue.implementation.preloader;
 
 import com.sk89q.worldedit.extension.platform.Actor;
+import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.world.World;
 
 import javax.annotation.Nonnull;
@@ -27,4 +28,65 @@ public interface Preloader {
      */
     void update(@Nonnull Actor actor, @Nonnull World world);
 
+    /**
+     * Drop chunks waiting to be preloaded, so no more chunks are loaded while memory is limited. Preloading resumes with the
+     * next update or brush stroke.
+     *
+     * @since 2.13.1
+     */
+    default void clearPending() {
+    }
+
+    /**
+     * Record a brush stroke of the given actor, so the chunks its next strokes are likely to touch can be loaded ahead of
+     * time.
+     *
+     * @param actor  Actor using the brush
+     * @param world  World the stroke is in
+     * @param target Target position of the stroke
+     * @param radius Radius of the brush
+     * @since 2.13.1
+     */
+    default void track(@Nonnull Actor actor, @Nonnull World world, @Nonnull BlockVector3 target, double radius) {
+    }
+
+    /**
+     * Get the number of chunks touched by brush strokes that had been preloaded.
+     *
+     * @since 2.13.1
+     */
+    default long getPrefetchHits() {
+        return 0;
+    }
+
+    /**
+     * Get the number of chunks touched by brush strokes that had not been preloaded.
+     *
+     * @since 2.13.1
+     */
+    default long getPrefetchMisses() {
+        return 0;
+    }
+
+    /**
+     * Get the number of preloaded chunks that were not touched by a brush stroke in time.
+     *
+     * @since 2.13.1
+     */
+    default long getPrefetchWasted() {
+        return 0;
+    }
+
+    /**
+     * Get the fraction of chunks touched by brush strokes that had been preloaded.
+     *
+     * @return hit rate between 0 and 1, or 0 if no strokes have been predicted
+     * @since 2.13.1
+     */
+    default double getPrefetchHitRate() {
+        long hits = getPrefetchHits();
+        long total = hits + getPrefetchMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
 }
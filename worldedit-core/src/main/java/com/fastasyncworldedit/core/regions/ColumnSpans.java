@@ -0,0 +1,121 @@
+package com.fastasyncworldedit.core.regions;
+
+import com.fastasyncworldedit.core.extent.filter.block.ChunkFilterBlock;
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.fastasyncworldedit.core.queue.IChunkGet;
+import com.fastasyncworldedit.core.queue.IChunkSet;
+
+import java.util.Arrays;
+
+/**
+ * The range of y contained by a region in each column of a chunk, for regions whose columns are contiguous. Used to filter
+ * a chunk without testing every block: sections fully inside the region are filtered as a whole, sections outside are
+ * skipped, and the rest are filtered along runs of columns with the same range.
+ *
+ * @since 2.13.1
+ */
+public final class ColumnSpans {
+
+    private final int[] min = new int[256];
+    private final int[] max = new int[256];
+
+    /**
+     * Create new spans with every column empty.
+     */
+    public ColumnSpans() {
+        Arrays.fill(min, Integer.MAX_VALUE);
+        Arrays.fill(max, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Set the range of a column.
+     *
+     * @param localX x coordinate within the chunk
+     * @param localZ z coordinate within the chunk
+     * @param minY   minimum contained y, inclusive
+     * @param maxY   maximum contained y, inclusive. The column is empty if less than {@code minY}
+     */
+    public void set(int localX, int localZ, int minY, int maxY) {
+        int index = localZ << 4 | localX;
+        if (minY > maxY) {
+            min[index] = Integer.MAX_VALUE;
+            max[index] = Integer.MIN_VALUE;
+        } else {
+            min[index] = minY;
+            max[index] = maxY;
+        }
+    }
+
+    /**
+     * Apply a filter to the blocks of a chunk within the spans.
+     *
+     * @param chunk  chunk to filter
+     * @param filter filter to apply
+     * @param block  filter block to use
+     * @param get    existing blocks of the chunk
+     * @param set    blocks to set
+     * @param full   if sections not present in the world should be filtered
+     */
+    public void filter(
+            IChunk chunk, Filter filter, ChunkFilterBlock block, IChunkGet get, IChunkSet set, boolean full
+    ) {
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+        for (int i = 0; i < 256; i++) {
+            lowest = Math.min(lowest, min[i]);
+            highest = Math.max(highest, max[i]);
+        }
+        if (lowest > highest) {
+            return;
+        }
+        int minSection = Math.max(get.getMinSectionPosition(), lowest >> 4);
+        int maxSection = Math.min(get.getMaxSectionPosition(), highest >> 4);
+        for (int layer = minSection; layer <= maxSection; layer++) {
+            if (!full && !get.hasSection(layer)) {
+                continue;
+            }
+            int by = layer << 4;
+            int ty = by + 15;
+            boolean all = true;
+            boolean any = false;
+            for (int i = 0; i < 256; i++) {
+                if (min[i] > by || max[i] < ty) {
+                    all = false;
+                }
+                if (min[i] <= ty && max[i] >= by) {
+                    any = true;
+                }
+            }
+            if (!any) {
+                continue;
+            }
+            block = block.initLayer(get, set, layer);
+            if (all) {
+                block.filter(filter);
+                continue;
+            }
+            for (int z = 0; z < 16; z++) {
+                int x = 0;
+                while (x < 16) {
+                    int index = z << 4 | x;
+                    int y1 = Math.max(min[index], by);
+                    int y2 = Math.min(max[index], ty);
+                    if (y1 > y2) {
+                        x++;
+                        continue;
+                    }
+                    int end = x;
+                    // Extend the run while the next column has the same range within the section
+                    while (end < 15 && Math.max(min[index + end - x + 1], by) == y1
+                            && Math.min(max[index + end - x + 1], ty) == y2) {
+                        end++;
+                    }
+                    block.filter(filter, x, y1 - by, z, end, y2 - by, z);
+                    x = end + 1;
+                }
+            }
+        }
+    }
+
+}
@@ -1,7 +1,12 @@
 package com.fastasyncworldedit.core.regions;
 
 import com.fastasyncworldedit.core.configuration.Caption;
+import com.fastasyncworldedit.core.extent.filter.block.ChunkFilterBlock;
 import com.fastasyncworldedit.core.math.BlockVectorSet;
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.fastasyncworldedit.core.queue.IChunkGet;
+import com.fastasyncworldedit.core.queue.IChunkSet;
 import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.function.mask.Mask;
@@ -11,6 +16,7 @@
 import com.sk89q.worldedit.regions.AbstractRegion;
 import com.sk89q.worldedit.regions.RegionOperationException;
 import com.sk89q.worldedit.world.World;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 
 import javax.annotation.Nonnull;
 import java.util.Iterator;
@@ -26,6 +32,8 @@ public class FuzzyRegion extends AbstractRegion {
     private int maxY;
     private int maxZ;
     private Extent extent;
+    // Number of selected blocks per chunk section, built when filtering
+    private Long2IntOpenHashMap sectionCounts;
 
     {
         minX = minY = minZ = Integer.MAX_VALUE;
@@ -59,6 +67,7 @@ public void select(BlockVector3 position) {
         mask.test(position);
         search.visit(position);
         Operations.completeBlindly(search);
+        invalidateSectionCounts();
     }
 
     @Nonnull
@@ -91,6 +100,7 @@ private void setMinMax(int x, int y, int z) {
     public final void set(int x, int y, int z) throws RegionOperationException {
         set.add(x, y, z);
         setMinMax(x, y, z);
+        invalidateSectionCounts();
     }
 
     @Override
@@ -138,4 +148,52 @@ public boolean containsEntireCuboid(int bx, int tx, int by, int ty, int bz, int
         return false;
     }
 
+    @Override
+    public void filter(
+            final IChunk chunk, final Filter filter, ChunkFilterBlock block,
+            final IChunkGet get, final IChunkSet set, boolean full
+    ) {
+        if (this.set.isEmpty()) {
+            return;
+        }
+        Long2IntOpenHashMap counts = getSectionCounts();
+        int minSection = Math.max(get.getMinSectionPosition(), minY >> 4);
+        int maxSection = Math.min(get.getMaxSectionPosition(), maxY >> 4);
+        for (int layer = minSection; layer <= maxSection; layer++) {
+            if (!full && !get.hasSection(layer)) {
+                continue;
+            }
+            int count = counts.get(sectionKey(chunk.getX(), layer, chunk.getZ()));
+            if (count == 0) {
+                continue;
+            }
+            block = block.initLayer(get, set, layer);
+            if (count == 4096) {
+                block.filter(filter);
+            } else {
+                block.filter(filter, this);
+            }
+        }
+    }
+
+    private synchronized Long2IntOpenHashMap getSectionCounts() {
+        Long2IntOpenHashMap counts = sectionCounts;
+        if (counts == null) {
+            counts = new Long2IntOpenHashMap();
+            for (BlockVector3 pos : set) {
+                counts.addTo(sectionKey(pos.x() >> 4, pos.y() >> 4, pos.z() >> 4), 1);
+            }
+            sectionCounts = counts;
+        }
+        return counts;
+    }
+
+    private synchronized void invalidateSectionCounts() {
+        sectionCounts = null;
+    }
+
+    private static long sectionKey(int chunkX, int layer, int chunkZ) {
+        return ((long) chunkX & 0x3FFFFFF) << 38 | ((long) chunkZ & 0x3FFFFFF) << 12 | (layer & 0xFFF);
+    }
+
 }
@@ -1,5 +1,10 @@
 package com.fastasyncworldedit.core.regions;
 
+import com.fastasyncworldedit.core.extent.filter.block.ChunkFilterBlock;
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.fastasyncworldedit.core.queue.IChunkGet;
+import com.fastasyncworldedit.core.queue.IChunkSet;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.math.Vector3;
 import com.sk89q.worldedit.regions.AbstractRegion;
@@ -323,4 +328,103 @@ public AbstractRegion clone() {
         return new PolyhedralRegion(this);
     }
 
+    @Override
+    public void filter(
+            final IChunk chunk, final Filter filter, final ChunkFilterBlock block,
+            final IChunkGet get, final IChunkSet set, boolean full
+    ) {
+        if (!isDefined()) {
+            return;
+        }
+        final BlockVector3 min = getMinimumPoint();
+        final BlockVector3 max = getMaximumPoint();
+        int bx = chunk.getX() << 4;
+        int bz = chunk.getZ() << 4;
+        // The region is the surface of the hull, so only blocks near a triangle of the chunk need to be tested
+        List<Triangle> candidates = new ArrayList<>();
+        List<int[]> bounds = new ArrayList<>();
+        for (Triangle triangle : triangles) {
+            int[] bound = getBounds(triangle, min, max);
+            if (bound[0] <= bx + 15 && bound[3] >= bx && bound[2] <= bz + 15 && bound[5] >= bz) {
+                candidates.add(triangle);
+                bounds.add(bound);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        int minSection = Math.max(get.getMinSectionPosition(), min.y() >> 4);
+        int maxSection = Math.min(get.getMaxSectionPosition(), max.y() >> 4);
+        long[] contained = new long[64];
+        ChunkFilterBlock layerBlock = block;
+        for (int layer = minSection; layer <= maxSection; layer++) {
+            if (!full && !get.hasSection(layer)) {
+                continue;
+            }
+            int by = layer << 4;
+            boolean any = false;
+            for (int i = 0; i < candidates.size(); i++) {
+                int[] bound = bounds.get(i);
+                if (bound[1] > by + 15 || bound[4] < by) {
+                    continue;
+                }
+                Triangle triangle = candidates.get(i);
+                for (int y = Math.max(bound[1], by); y <= Math.min(bound[4], by + 15); y++) {
+                    for (int z = Math.max(bound[2], bz); z <= Math.min(bound[5], bz + 15); z++) {
+                        for (int x = Math.max(bound[0], bx); x <= Math.min(bound[3], bx + 15); x++) {
+                            int index = (y - by) << 8 | (z - bz) << 4 | (x - bx);
+                            if ((contained[index >> 6] & 1L << index) == 0 && triangle.contains(BlockVector3.at(x, y, z))) {
+                                contained[index >> 6] |= 1L << index;
+                                any = true;
+                            }
+                        }
+                    }
+                }
+            }
+            if (!any) {
+                continue;
+            }
+            layerBlock = layerBlock.initLayer(get, set, layer);
+            for (int i = 0; i < 64; i++) {
+                long bits = contained[i];
+                while (bits != 0) {
+                    int index = i << 6 | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    layerBlock.filter(filter, index & 15, index >> 8, (index >> 4) & 15);
+                }
+                contained[i] = 0;
+            }
+        }
+    }
+
+    // Bounds of the blocks whose box may intersect a triangle, clipped to the region: min x, y, z, max x, y, z
+    private static int[] getBounds(Triangle triangle, BlockVector3 min, BlockVector3 max) {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double minZ = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        double maxZ = -Double.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            BlockVector3 vertex = triangle.getVertex(i);
+            minX = Math.min(minX, vertex.x());
+            minY = Math.min(minY, vertex.y());
+            minZ = Math.min(minZ, vertex.z());
+            maxX = Math.max(maxX, vertex.x());
+            maxY = Math.max(maxY, vertex.y());
+            maxZ = Math.max(maxZ, vertex.z());
+        }
+        // A block is tested as a box of the given radius around its center
+        double low = Triangle.RADIUS + 0.5;
+        double high = Triangle.RADIUS - 0.5;
+        return new int[]{
+                Math.max(min.x(), (int) Math.floor(minX - low)),
+                Math.max(min.y(), (int) Math.floor(minY - low)),
+                Math.max(min.z(), (int) Math.floor(minZ - low)),
+                Math.min(max.x(), (int) Math.ceil(maxX + high)),
+                Math.min(max.y(), (int) Math.ceil(maxY + high)),
+                Math.min(max.z(), (int) Math.ceil(maxZ + high))
+        };
+    }
+
 }
@@ -0,0 +1,125 @@
+package com.fastasyncworldedit.core.regions;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.World;
+import it.unimi.dsi.fastutil.ints.IntList;
+
+import javax.annotation.Nullable;
+
+/**
+ * The blocks of a cone, as generated by {@link com.sk89q.worldedit.EditSession#makeCone}.
+ *
+ * @since 2.13.1
+ */
+public class RasterizedCone extends RasterizedRegion {
+
+    private final int cx;
+    private final int cy;
+    private final int cz;
+    private final double rx2;
+    private final double ry2;
+    private final double rz2;
+    private final int height;
+    private final int ceilRadiusX;
+    private final int ceilRadiusZ;
+    private final boolean filled;
+    private final double thickness;
+
+    /**
+     * Create a new cone.
+     *
+     * @param world     the world
+     * @param base      center of the bottom of the cone
+     * @param radiusX   largest north/south extent
+     * @param radiusZ   largest east/west extent
+     * @param height    height of the cone, must be positive
+     * @param filled    if false, only a shell is contained
+     * @param thickness thickness of the shell
+     */
+    public RasterizedCone(
+            @Nullable World world,
+            BlockVector3 base,
+            double radiusX,
+            double radiusZ,
+            int height,
+            boolean filled,
+            double thickness
+    ) {
+        super(world);
+        this.cx = base.x();
+        this.cy = base.y();
+        this.cz = base.z();
+        this.rx2 = Math.pow(radiusX, 2);
+        this.ry2 = Math.pow(height, 2);
+        this.rz2 = Math.pow(radiusZ, 2);
+        this.height = height;
+        this.ceilRadiusX = (int) Math.ceil(radiusX);
+        this.ceilRadiusZ = (int) Math.ceil(radiusZ);
+        this.filled = filled;
+        this.thickness = thickness;
+        setBounds(
+                BlockVector3.at(cx - ceilRadiusX, cy, cz - ceilRadiusZ),
+                BlockVector3.at(cx + ceilRadiusX, cy + height - 1, cz + ceilRadiusZ)
+        );
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        int dx = Math.abs(x - cx);
+        int dz = Math.abs(z - cz);
+        int dy = y - cy;
+        if (dx > ceilRadiusX || dz > ceilRadiusZ || dy < 0 || dy >= height) {
+            return false;
+        }
+        double xSquaredOverRadiusX = Math.pow(dx, 2) / rx2;
+        double zSquaredOverRadiusZ = Math.pow(dz, 2) / rz2;
+        return isInside(xSquaredOverRadiusX, zSquaredOverRadiusZ, dy)
+                && (filled || !isHollow(xSquaredOverRadiusX, zSquaredOverRadiusZ, dx, dz, dy));
+    }
+
+    @Override
+    protected void getSpans(int x, int z, IntList spans) {
+        int dx = Math.abs(x - cx);
+        int dz = Math.abs(z - cz);
+        if (dx > ceilRadiusX || dz > ceilRadiusZ) {
+            return;
+        }
+        double xSquaredOverRadiusX = Math.pow(dx, 2) / rx2;
+        double zSquaredOverRadiusZ = Math.pow(dz, 2) / rz2;
+        // The cone narrows upwards, so each column is contained up to some y
+        int top = lastMatching(0, height - 1, dy -> isInside(xSquaredOverRadiusX, zSquaredOverRadiusZ, dy));
+        if (filled) {
+            addSpan(spans, cy, cy + top);
+            return;
+        }
+        // The inside of the shell does not have a simple form, walk the column instead
+        int start = -1;
+        for (int dy = 0; dy <= top; dy++) {
+            boolean hollow = isHollow(xSquaredOverRadiusX, zSquaredOverRadiusZ, dx, dz, dy);
+            if (!hollow && start < 0) {
+                start = dy;
+            } else if (hollow && start >= 0) {
+                addSpan(spans, cy + start, cy + dy - 1);
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            addSpan(spans, cy + start, cy + top);
+        }
+    }
+
+    // Same arithmetic as the generator, so the shape is identical
+    private boolean isInside(double xSquaredOverRadiusX, double zSquaredOverRadiusZ, int dy) {
+        double ySquaredMinusHeightOverHeightSquared = Math.pow(dy - height, 2) / ry2;
+        return xSquaredOverRadiusX + zSquaredOverRadiusZ - ySquaredMinusHeightOverHeightSquared <= 0;
+    }
+
+    private boolean isHollow(double xSquaredOverRadiusX, double zSquaredOverRadiusZ, int dx, int dz, int dy) {
+        double ySquaredMinusHeightOverHeightSquared = Math.pow(dy - height, 2) / ry2;
+        double xNext = Math.pow(dx + thickness, 2) / rx2 + zSquaredOverRadiusZ - ySquaredMinusHeightOverHeightSquared;
+        double yNext = xSquaredOverRadiusX + zSquaredOverRadiusZ - Math.pow(dy + thickness - height, 2) / ry2;
+        double zNext = xSquaredOverRadiusX + Math.pow(dz + thickness, 2) / rz2 - ySquaredMinusHeightOverHeightSquared;
+        return xNext <= 0 && zNext <= 0 && (yNext <= 0 && dy + thickness != height);
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.fastasyncworldedit.core.regions;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.World;
+import it.unimi.dsi.fastutil.ints.IntList;
+
+import javax.annotation.Nullable;
+
+/**
+ * The blocks of a cylinder, as generated by {@link com.sk89q.worldedit.EditSession#makeCylinder}.
+ *
+ * @since 2.13.1
+ */
+public class RasterizedCylinder extends RasterizedRegion {
+
+    private final int px;
+    private final int pz;
+    private final double invRadiusX;
+    private final double invRadiusZ;
+    private final double minInvRadiusX;
+    private final double minInvRadiusZ;
+    private final int ceilRadiusX;
+    private final int ceilRadiusZ;
+    private final double thickness;
+    private final boolean filled;
+
+    /**
+     * Create a new cylinder.
+     *
+     * @param world     the world
+     * @param base      center of the bottom of the cylinder
+     * @param radiusX   largest north/south extent
+     * @param radiusZ   largest east/west extent
+     * @param height    height of the cylinder, must be positive
+     * @param thickness thickness of the wall, or 0 for a wall of one block if not filled
+     * @param filled    if false, only a shell is contained. Ignored if the thickness is not 0
+     */
+    public RasterizedCylinder(
+            @Nullable World world,
+            BlockVector3 base,
+            double radiusX,
+            double radiusZ,
+            int height,
+            double thickness,
+            boolean filled
+    ) {
+        super(world);
+        radiusX += 0.5;
+        radiusZ += 0.5;
+        this.px = base.x();
+        this.pz = base.z();
+        this.invRadiusX = 1 / radiusX;
+        this.invRadiusZ = 1 / radiusZ;
+        this.minInvRadiusX = 1 / (radiusX - thickness);
+        this.minInvRadiusZ = 1 / (radiusZ - thickness);
+        this.ceilRadiusX = (int) Math.ceil(radiusX);
+        this.ceilRadiusZ = (int) Math.ceil(radiusZ);
+        this.thickness = thickness;
+        this.filled = filled;
+        setBounds(
+                BlockVector3.at(px - ceilRadiusX, base.y(), pz - ceilRadiusZ),
+                BlockVector3.at(px + ceilRadiusX, base.y() + height - 1, pz + ceilRadiusZ)
+        );
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        return y >= getMinimumPoint().y() && y <= getMaximumPoint().y() && containsColumn(x, z);
+    }
+
+    @Override
+    public boolean contains(int x, int z) {
+        return containsColumn(x, z);
+    }
+
+    @Override
+    protected void getSpans(int x, int z, IntList spans) {
+        if (containsColumn(x, z)) {
+            addSpan(spans, getMinimumPoint().y(), getMaximumPoint().y());
+        }
+    }
+
+    // Same arithmetic as the generator, so the shape is identical
+    private boolean containsColumn(int x, int z) {
+        int dx = Math.abs(x - px);
+        int dz = Math.abs(z - pz);
+        if (dx > ceilRadiusX || dz > ceilRadiusZ) {
+            return false;
+        }
+        double xn = dx * invRadiusX;
+        double zn = dz * invRadiusZ;
+        double xSqr = xn * xn;
+        double zSqr = zn * zn;
+        if (xSqr + zSqr > 1) {
+            return false;
+        }
+        if (thickness != 0) {
+            double minXn = dx * minInvRadiusX;
+            double minZn = dz * minInvRadiusZ;
+            double nextMinXn = (dx + 1) * minInvRadiusX;
+            double nextMinZn = (dz + 1) * minInvRadiusZ;
+            return !(minZn * minZn + nextMinXn * nextMinXn <= 1 && nextMinZn * nextMinZn + minXn * minXn <= 1);
+        }
+        if (!filled) {
+            double nextXn = (dx + 1) * invRadiusX;
+            double nextZn = (dz + 1) * invRadiusZ;
+            return !(zSqr + nextXn * nextXn <= 1 && nextZn * nextZn + xSqr <= 1);
+        }
+        return true;
+    }
+
+}
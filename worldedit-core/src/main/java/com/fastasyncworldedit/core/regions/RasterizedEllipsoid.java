@@ -0,0 +1,129 @@
+package com.fastasyncworldedit.core.regions;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.World;
+import it.unimi.dsi.fastutil.ints.IntList;
+
+import javax.annotation.Nullable;
+
+/**
+ * The blocks of a sphere or ellipsoid, as generated by {@link com.sk89q.worldedit.EditSession#makeSphere}.
+ *
+ * @since 2.13.1
+ */
+public class RasterizedEllipsoid extends RasterizedRegion {
+
+    private final int px;
+    private final int py;
+    private final int pz;
+    private final double invRadiusX;
+    private final double invRadiusY;
+    private final double invRadiusZ;
+    private final int ceilRadiusX;
+    private final int ceilRadiusY;
+    private final int ceilRadiusZ;
+    private final boolean filled;
+
+    /**
+     * Create a new ellipsoid.
+     *
+     * @param world   the world
+     * @param center  center of the ellipsoid
+     * @param radiusX largest north/south extent
+     * @param radiusY largest up/down extent
+     * @param radiusZ largest east/west extent
+     * @param filled  if false, only a shell is contained
+     * @param minY    minimum y of the ellipsoid
+     * @param maxY    maximum y of the ellipsoid
+     */
+    public RasterizedEllipsoid(
+            @Nullable World world,
+            BlockVector3 center,
+            double radiusX,
+            double radiusY,
+            double radiusZ,
+            boolean filled,
+            int minY,
+            int maxY
+    ) {
+        super(world);
+        radiusX += 0.5;
+        radiusY += 0.5;
+        radiusZ += 0.5;
+        this.px = center.x();
+        this.py = center.y();
+        this.pz = center.z();
+        this.invRadiusX = 1 / radiusX;
+        this.invRadiusY = 1 / radiusY;
+        this.invRadiusZ = 1 / radiusZ;
+        this.ceilRadiusX = (int) Math.ceil(radiusX);
+        this.ceilRadiusY = (int) Math.ceil(radiusY);
+        this.ceilRadiusZ = (int) Math.ceil(radiusZ);
+        this.filled = filled;
+        setBounds(
+                BlockVector3.at(px - ceilRadiusX, Math.max(minY, py - ceilRadiusY), pz - ceilRadiusZ),
+                BlockVector3.at(px + ceilRadiusX, Math.min(maxY, py + ceilRadiusY), pz + ceilRadiusZ)
+        );
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        if (y < getMinimumPoint().y() || y > getMaximumPoint().y()) {
+            return false;
+        }
+        int dx = Math.abs(x - px);
+        int dy = Math.abs(y - py);
+        int dz = Math.abs(z - pz);
+        if (dx > ceilRadiusX || dy > ceilRadiusY || dz > ceilRadiusZ) {
+            return false;
+        }
+        double xn = dx * invRadiusX;
+        double zn = dz * invRadiusZ;
+        double dxSq = xn * xn;
+        double dzSq = zn * zn;
+        return isInside(dxSq + dzSq, dy) && (filled || !isHollow(dxSq, dzSq, dx, dz, dy));
+    }
+
+    @Override
+    protected void getSpans(int x, int z, IntList spans) {
+        int dx = Math.abs(x - px);
+        int dz = Math.abs(z - pz);
+        if (dx > ceilRadiusX || dz > ceilRadiusZ) {
+            return;
+        }
+        double xn = dx * invRadiusX;
+        double zn = dz * invRadiusZ;
+        double dxSq = xn * xn;
+        double dzSq = zn * zn;
+        double dxz = dxSq + dzSq;
+        int top = lastMatching(0, ceilRadiusY, dy -> isInside(dxz, dy));
+        if (top < 0) {
+            return;
+        }
+        int hole = filled ? -1 : lastMatching(0, top, dy -> isHollow(dxSq, dzSq, dx, dz, dy));
+        if (hole < 0) {
+            addSpan(spans, py - top, py + top);
+        } else {
+            addSpan(spans, py - top, py - hole - 1);
+            addSpan(spans, py + hole + 1, py + top);
+        }
+    }
+
+    // Same arithmetic as the generator, so the shape is identical
+    private boolean isInside(double dxz, int dy) {
+        double yn = dy * invRadiusY;
+        return dxz + yn * yn <= 1;
+    }
+
+    private boolean isHollow(double dxSq, double dzSq, int dx, int dz, int dy) {
+        double yn = dy * invRadiusY;
+        double dySq = yn * yn;
+        double nextXn = (dx + 1) * invRadiusX;
+        double nextYn = (dy + 1) * invRadiusY;
+        double nextZn = (dz + 1) * invRadiusZ;
+        return nextXn * nextXn + (dySq + dzSq) <= 1
+                && nextYn * nextYn + (dxSq + dzSq) <= 1
+                && nextZn * nextZn + (dxSq + dySq) <= 1;
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.fastasyncworldedit.core.regions;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.World;
+import it.unimi.dsi.fastutil.ints.IntList;
+
+import javax.annotation.Nullable;
+
+/**
+ * The blocks of a pyramid, as generated by {@link com.sk89q.worldedit.EditSession#makePyramid}.
+ *
+ * @since 2.13.1
+ */
+public class RasterizedPyramid extends RasterizedRegion {
+
+    private final int bx;
+    private final int by;
+    private final int bz;
+    private final int size;
+    private final boolean filled;
+
+    /**
+     * Create a new pyramid.
+     *
+     * @param world  the world
+     * @param base   center of the bottom of the pyramid
+     * @param size   size of the pyramid, must be positive
+     * @param filled if false, only a shell is contained
+     */
+    public RasterizedPyramid(@Nullable World world, BlockVector3 base, int size, boolean filled) {
+        super(world);
+        this.bx = base.x();
+        this.by = base.y();
+        this.bz = base.z();
+        this.size = size;
+        this.filled = filled;
+        setBounds(
+                BlockVector3.at(bx - size + 1, by, bz - size + 1),
+                BlockVector3.at(bx + size - 1, by + size - 1, bz + size - 1)
+        );
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        int top = getTop(x, z);
+        int dy = y - by;
+        return top >= 0 && dy <= top && (dy == top || filled && dy >= 0);
+    }
+
+    @Override
+    protected void getSpans(int x, int z, IntList spans) {
+        int top = getTop(x, z);
+        if (top >= 0) {
+            addSpan(spans, filled ? by : by + top, by + top);
+        }
+    }
+
+    // Each layer is a square one smaller than the layer below
+    private int getTop(int x, int z) {
+        return size - 1 - Math.max(Math.abs(x - bx), Math.abs(z - bz));
+    }
+
+}
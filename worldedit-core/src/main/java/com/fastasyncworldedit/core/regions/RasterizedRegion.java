@@ -0,0 +1,173 @@
+package com.fastasyncworldedit.core.regions;
+
+import com.fastasyncworldedit.core.configuration.Caption;
+import com.fastasyncworldedit.core.extent.filter.block.ChunkFilterBlock;
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.fastasyncworldedit.core.queue.IChunkGet;
+import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.AbstractRegion;
+import com.sk89q.worldedit.regions.RegionOperationException;
+import com.sk89q.worldedit.world.World;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntPredicate;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A region of the blocks of a generated shape, such as the ones of {@link com.sk89q.worldedit.EditSession#makeSphere}.
+ * Each column of the shape is described by a few ranges of y computed from the shape's equation, so chunks are filtered
+ * by span rather than by testing each block, and generation can run in parallel like any other region.
+ *
+ * @since 2.13.1
+ */
+public abstract class RasterizedRegion extends AbstractRegion {
+
+    private BlockVector3 minimumPoint;
+    private BlockVector3 maximumPoint;
+
+    protected RasterizedRegion(@Nullable World world) {
+        super(world);
+    }
+
+    /**
+     * Set the bounds of the shape. Must be called by the constructor of implementations.
+     *
+     * @param minimumPoint minimum point of the shape
+     * @param maximumPoint maximum point of the shape
+     */
+    protected void setBounds(BlockVector3 minimumPoint, BlockVector3 maximumPoint) {
+        this.minimumPoint = minimumPoint;
+        this.maximumPoint = maximumPoint;
+    }
+
+    /**
+     * Add the ranges of y the shape contains in a column to a list, as pairs of minimum and maximum y, inclusive. Ranges
+     * must be added in ascending order and must not overlap. Use {@link #addSpan(IntList, int, int)} to add a range.
+     *
+     * @param x     x coordinate of the column
+     * @param z     z coordinate of the column
+     * @param spans list to add the ranges to
+     */
+    protected abstract void getSpans(int x, int z, IntList spans);
+
+    @Override
+    public abstract boolean contains(int x, int y, int z);
+
+    /**
+     * Add a range of y to a list of spans, clipped to the bounds of the shape. Empty ranges are ignored.
+     */
+    protected final void addSpan(IntList spans, int minY, int maxY) {
+        minY = Math.max(minY, minimumPoint.y());
+        maxY = Math.min(maxY, maximumPoint.y());
+        if (minY <= maxY) {
+            spans.add(minY);
+            spans.add(maxY);
+        }
+    }
+
+    /**
+     * Get the greatest value in a range that matches a predicate, for predicates that match a prefix of the range.
+     *
+     * @param from      start of the range, inclusive
+     * @param to        end of the range, inclusive
+     * @param predicate predicate matching all values up to some value, and none after
+     * @return the greatest matching value, or {@code from - 1} if none matches
+     */
+    protected static int lastMatching(int from, int to, IntPredicate predicate) {
+        int low = from;
+        int high = to;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (predicate.test(mid)) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    @Override
+    public BlockVector3 getMinimumPoint() {
+        return minimumPoint;
+    }
+
+    @Override
+    public BlockVector3 getMaximumPoint() {
+        return maximumPoint;
+    }
+
+    @Override
+    public boolean contains(BlockVector3 position) {
+        return contains(position.x(), position.y(), position.z());
+    }
+
+    @Override
+    public long getVolume() {
+        IntList spans = new IntArrayList();
+        long volume = 0;
+        for (int z = minimumPoint.z(); z <= maximumPoint.z(); z++) {
+            for (int x = minimumPoint.x(); x <= maximumPoint.x(); x++) {
+                spans.clear();
+                getSpans(x, z, spans);
+                for (int i = 0; i < spans.size(); i += 2) {
+                    volume += spans.getInt(i + 1) - spans.getInt(i) + 1;
+                }
+            }
+        }
+        return volume;
+    }
+
+    @Override
+    public void expand(BlockVector3... changes) throws RegionOperationException {
+        throw new RegionOperationException(Caption.of("fawe.error.selection-expand"));
+    }
+
+    @Override
+    public void contract(BlockVector3... changes) throws RegionOperationException {
+        throw new RegionOperationException(Caption.of("fawe.error.selection-contract"));
+    }
+
+    @Override
+    public void shift(BlockVector3 change) throws RegionOperationException {
+        throw new RegionOperationException(Caption.of("fawe.error.selection-shift"));
+    }
+
+    @Override
+    public void filter(
+            final IChunk chunk, final Filter filter, final ChunkFilterBlock block,
+            final IChunkGet get, final IChunkSet set, boolean full
+    ) {
+        int bx = chunk.getX() << 4;
+        int bz = chunk.getZ() << 4;
+        int minX = Math.max(bx, minimumPoint.x());
+        int maxX = Math.min(bx + 15, maximumPoint.x());
+        int minZ = Math.max(bz, minimumPoint.z());
+        int maxZ = Math.min(bz + 15, maximumPoint.z());
+        // The n-th range of each column, filtered separately as the ranges of a column do not overlap
+        List<ColumnSpans> levels = new ArrayList<>(2);
+        IntList spans = new IntArrayList();
+        for (int z = minZ; z <= maxZ; z++) {
+            for (int x = minX; x <= maxX; x++) {
+                spans.clear();
+                getSpans(x, z, spans);
+                for (int i = 0; i < spans.size(); i += 2) {
+                    int level = i >> 1;
+                    if (level == levels.size()) {
+                        levels.add(new ColumnSpans());
+                    }
+                    levels.get(level).set(x - bx, z - bz, spans.getInt(i), spans.getInt(i + 1));
+                }
+            }
+        }
+        for (ColumnSpans level : levels) {
+            level.filter(chunk, filter, block, get, set, full);
+        }
+    }
+
+}
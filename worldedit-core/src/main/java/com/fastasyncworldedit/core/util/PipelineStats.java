@@ -0,0 +1,289 @@
+package com.fastasyncworldedit.core.util;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Timings of the stages of the queue pipeline: filter application, submission, batch processors, chunk writes and
+ * lighting. Disabled by default, and toggled at runtime with {@code //fawe stats}. When disabled, recording a stage costs
+ * a single volatile read.
+ * <p>
+ * Usage: {@code long start = PipelineStats.start();}, run the stage, then {@code PipelineStats.record(name, start)}.
+ *
+ * @since 2.13.1
+ */
+public final class PipelineStats {
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+    private static final ClassValue<String> NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getSimpleName();
+            return name.isEmpty() ? type.getName() : name;
+        }
+    };
+    private static volatile boolean enabled;
+
+    private PipelineStats() {
+    }
+
+    /**
+     * Whether stages are being timed.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Set whether stages are timed. Timings recorded so far are kept.
+     */
+    public static void setEnabled(boolean enabled) {
+        PipelineStats.enabled = enabled;
+    }
+
+    /**
+     * Discard all timings recorded so far.
+     */
+    public static void reset() {
+        TIMERS.clear();
+        COUNTERS.clear();
+        GAUGES.values().forEach(Gauge::reset);
+    }
+
+    /**
+     * Get the start time of a stage.
+     *
+     * @return the current time in nanoseconds, or 0 if disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record a stage that began at the given start time.
+     *
+     * @param name  name of the stage
+     * @param start value returned by {@link #start()}, the stage is not recorded if 0
+     */
+    public static void record(String name, long start) {
+        if (start != 0) {
+            recordNanos(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a stage run by an object of the given type, named after the category and the type.
+     *
+     * @param category category of the stage, e.g. {@code process-set}
+     * @param type     type of the object that ran the stage
+     * @param start    value returned by {@link #start()}, the stage is not recorded if 0
+     */
+    public static void record(String category, Class<?> type, long start) {
+        if (start != 0) {
+            recordNanos(name(category, type), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Record a stage that took the given time.
+     *
+     * @param name  name of the stage
+     * @param nanos duration in nanoseconds
+     */
+    public static void recordNanos(String name, long nanos) {
+        TIMERS.computeIfAbsent(name, Timer::new).record(nanos);
+    }
+
+    /**
+     * Add to a counter, e.g. of the bytes or items produced by a stage. Not counted if disabled.
+     *
+     * @param name   name of the counter
+     * @param amount amount to add
+     * @since 2.13.1
+     */
+    public static void count(String name, long amount) {
+        if (enabled) {
+            COUNTERS.computeIfAbsent(name, k -> new LongAdder()).add(amount);
+        }
+    }
+
+    /**
+     * Register a counter kept by another component, e.g. the hits of a cache, counted whether or not stages are timed.
+     * It is shown with the other counters, as the amount counted since it was registered or since the last
+     * {@link #reset()}, and only once not 0.
+     *
+     * @param name  name of the counter
+     * @param value current value of the counter, should only increase
+     * @since 2.13.1
+     */
+    public static void registerGauge(String name, LongSupplier value) {
+        GAUGES.put(name, new Gauge(value));
+    }
+
+    /**
+     * Get the values of all counters, by name.
+     *
+     * @since 2.13.1
+     */
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> counters = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.sum()));
+        GAUGES.forEach((name, gauge) -> {
+            long value = gauge.get();
+            if (value != 0) {
+                counters.merge(name, value, Long::sum);
+            }
+        });
+        return counters;
+    }
+
+    /**
+     * Get the name of a stage run by an object of the given type.
+     */
+    public static String name(String category, Class<?> type) {
+        return category + "." + NAMES.get(type);
+    }
+
+    /**
+     * Get the timers of all recorded stages, by descending total time.
+     */
+    public static List<Timer> getTimers() {
+        List<Timer> timers = new ArrayList<>(TIMERS.values());
+        timers.sort(Comparator.comparingLong(Timer::getTotalNanos).reversed());
+        return timers;
+    }
+
+    /**
+     * Export all recorded stages as JSON. Times are in nanoseconds.
+     */
+    public static String toJson() {
+        JsonObject root = new JsonObject();
+        root.addProperty("enabled", enabled);
+        root.addProperty("timestamp", System.currentTimeMillis());
+        JsonArray stages = new JsonArray();
+        for (Timer timer : getTimers()) {
+            JsonObject stage = new JsonObject();
+            stage.addProperty("name", timer.getName());
+            stage.addProperty("count", timer.getCount());
+            stage.addProperty("total", timer.getTotalNanos());
+            stage.addProperty("max", timer.getMaxNanos());
+            stage.addProperty("p50", timer.getPercentileNanos(0.5));
+            stage.addProperty("p90", timer.getPercentileNanos(0.9));
+            stage.addProperty("p99", timer.getPercentileNanos(0.99));
+            JsonArray buckets = new JsonArray();
+            for (int i = 0; i < Timer.BUCKETS; i++) {
+                buckets.add(timer.buckets.get(i));
+            }
+            stage.add("buckets", buckets);
+            stages.add(stage);
+        }
+        root.add("stages", stages);
+        JsonObject counters = new JsonObject();
+        getCounters().forEach(counters::addProperty);
+        root.add("counters", counters);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+
+    private static final class Gauge {
+
+        private final LongSupplier value;
+        private volatile long base;
+
+        private Gauge(LongSupplier value) {
+            this.value = value;
+            this.base = value.getAsLong();
+        }
+
+        private long get() {
+            return value.getAsLong() - base;
+        }
+
+        private void reset() {
+            base = value.getAsLong();
+        }
+
+    }
+
+    /**
+     * Count, total and distribution of the durations of a stage. Durations are counted in power of two buckets of
+     * nanoseconds, so percentiles are accurate to a factor of two.
+     */
+    public static final class Timer {
+
+        private static final int BUCKETS = 64;
+
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos) {
+            nanos = Math.max(0, nanos);
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+            // Bucket i holds durations in [2^i, 2^(i + 1)), 0 included in the first bucket
+            buckets.incrementAndGet(nanos == 0 ? 0 : 63 - Long.numberOfLeadingZeros(nanos));
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return total.sum();
+        }
+
+        public long getMaxNanos() {
+            return max.get();
+        }
+
+        /**
+         * Get an upper bound of the given percentile of durations.
+         *
+         * @param percentile percentile between 0 and 1
+         * @return the upper bound of the bucket containing the percentile, in nanoseconds
+         */
+        public long getPercentileNanos(double percentile) {
+            long[] counts = new long[BUCKETS];
+            long sum = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                sum += counts[i] = buckets.get(i);
+            }
+            long target = (long) Math.ceil(sum * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target && seen > 0) {
+                    return Math.min(getMaxNanos(), (2L << i) - 1);
+                }
+            }
+            return 0;
+        }
+
+    }
+
+}
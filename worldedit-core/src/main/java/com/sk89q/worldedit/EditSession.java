@@ -53,6 +53,11 @@
 import com.fastasyncworldedit.core.math.MutableVector3;
 import com.fastasyncworldedit.core.math.random.SimplexNoise;
 import com.fastasyncworldedit.core.queue.implementation.preloader.Preloader;
+import com.fastasyncworldedit.core.regions.RasterizedCone;
+import com.fastasyncworldedit.core.regions.RasterizedCylinder;
+import com.fastasyncworldedit.core.regions.RasterizedEllipsoid;
+import com.fastasyncworldedit.core.regions.RasterizedPyramid;
+import com.fastasyncworldedit.core.regions.RasterizedRegion;
 import com.fastasyncworldedit.core.util.ExtentTraverser;
 import com.fastasyncworldedit.core.util.MaskTraverser;
 import com.fastasyncworldedit.core.util.MathMan;
@@ -192,6 +197,9 @@ public class EditSession extends PassthroughExtent implements AutoCloseable {
 //FAWE end
 
     private static final Logger LOGGER = LogManagerCompat.getLogger();
+    //FAWE start - shapes with a smaller bounding box are set block by block, as setting them in parallel costs more
+    private static final long PARALLEL_SHAPE_VOLUME = 16 * 16 * 32;
+    //FAWE end
 
     /**
      * Used by {@link EditSession#setBlock(BlockVector3, BlockStateHolder, Stage)} to
@@ -1120,17 +1128,30 @@ public boolean setBlock(BlockVector3 position, Pattern pattern) throws MaxChange
 
     @Override
     public <B extends BlockStateHolder<B>> int setBlocks(Region region, B block) throws MaxChangedBlocksException {
-        return this.changes = super.setBlocks(region, block);
+        int changes = super.setBlocks(region, block);
+        this.changes += changes;
+        return changes;
     }
 
     @Override
     public int setBlocks(Region region, Pattern pattern) throws MaxChangedBlocksException {
-        return this.changes = super.setBlocks(region, pattern);
+        int changes = super.setBlocks(region, pattern);
+        this.changes += changes;
+        return changes;
     }
 
     @Override
     public int setBlocks(Set<BlockVector3> vset, Pattern pattern) {
-        return this.changes = super.setBlocks(vset, pattern);
+        int changes = super.setBlocks(vset, pattern);
+        this.changes += changes;
+        return changes;
+    }
+
+    @Override
+    public int setBiomes(Region region, BiomeType biome) throws MaxChangedBlocksException {
+        int changes = super.setBiomes(region, biome);
+        this.changes += changes;
+        return changes;
     }
     //FAWE end
 
@@ -1373,17 +1394,23 @@ public <B extends BlockStateHolder<B>> int fall(final Region region, boolean ful
     @Override
     public <B extends BlockStateHolder<B>> int replaceBlocks(Region region, Set<BaseBlock> filter, B replacement) throws
             MaxChangedBlocksException {
-        return this.changes = super.replaceBlocks(region, filter, replacement);
+        int changes = super.replaceBlocks(region, filter, replacement);
+        this.changes += changes;
+        return changes;
     }
 
     @Override
     public int replaceBlocks(Region region, Set<BaseBlock> filter, Pattern pattern) throws MaxChangedBlocksException {
-        return this.changes = super.replaceBlocks(region, filter, pattern);
+        int changes = super.replaceBlocks(region, filter, pattern);
+        this.changes += changes;
+        return changes;
     }
 
     @Override
     public int replaceBlocks(Region region, Mask mask, Pattern pattern) throws MaxChangedBlocksException {
-        return this.changes = super.replaceBlocks(region, mask, pattern);
+        int changes = super.replaceBlocks(region, mask, pattern);
+        this.changes += changes;
+        return changes;
     }
 
     /**
@@ -2178,146 +2205,35 @@ public int makeCylinder(
             double thickness,
             boolean filled
     ) throws MaxChangedBlocksException {
-        radiusX += 0.5;
-        radiusZ += 0.5;
-
         //FAWE start
         MutableBlockVector3 mutableBlockVector3 = new MutableBlockVector3(pos);
-        //FAWE end
         if (height == 0) {
             return 0;
         } else if (height < 0) {
             height = -height;
-            //FAWE start
             mutableBlockVector3.mutY(mutableBlockVector3.y() - height);
-            //FAWE end
         }
 
-        //FAWE start
         if (mutableBlockVector3.y() < getWorld().getMinY()) {
             mutableBlockVector3.mutY(world.getMinY());
         } else if (mutableBlockVector3.y() + height - 1 > maxY) {
             height = maxY - mutableBlockVector3.y() + 1;
         }
-        //FAWE end
-
-        final double invRadiusX = 1 / radiusX;
-        final double invRadiusZ = 1 / radiusZ;
-
-        //FAWE start
-        int px = mutableBlockVector3.x();
-        int py = mutableBlockVector3.y();
-        int pz = mutableBlockVector3.z();
-
-        final int ceilRadiusX = (int) Math.ceil(radiusX);
-        final int ceilRadiusZ = (int) Math.ceil(radiusZ);
-
-        double xSqr, zSqr, distanceSq;
-        double xn, zn;
-        double dx2, dz2;
-        double nextXn = 0;
-        double nextZn, nextMinZn;
-        int xx, x_x, zz, z_z, yy;
-
-        if (thickness != 0) {
-            double nextMinXn = 0;
-            final double minInvRadiusX = 1 / (radiusX - thickness);
-            final double minInvRadiusZ = 1 / (radiusZ - thickness);
-            forX:
-            for (int x = 0; x <= ceilRadiusX; ++x) {
-                xn = nextXn;
-                dx2 = nextMinXn * nextMinXn;
-                nextXn = (x + 1) * invRadiusX;
-                nextMinXn = (x + 1) * minInvRadiusX;
-                nextZn = 0;
-                nextMinZn = 0;
-                xSqr = xn * xn;
-                xx = px + x;
-                x_x = px - x;
-                forZ:
-                for (int z = 0; z <= ceilRadiusZ; ++z) {
-                    zn = nextZn;
-                    zSqr = zn * zn;
-                    distanceSq = xSqr + zSqr;
-                    if (distanceSq > 1) {
-                        if (z == 0) {
-                            break forX;
-                        }
-                        break forZ;
-                    }
-                    dz2 = nextMinZn * nextMinZn;
-                    nextZn = (z + 1) * invRadiusZ;
-                    nextMinZn = (z + 1) * minInvRadiusZ;
-
-                    if ((dz2 + nextMinXn * nextMinXn <= 1) && (nextMinZn * nextMinZn + dx2 <= 1)) {
-                        continue;
-                    }
-
-                    zz = pz + z;
-                    z_z = pz - z;
-
-                    for (int y = 0; y < height; ++y) {
-                        yy = py + y;
-                        this.setBlock(xx, yy, zz, block);
-                        this.setBlock(x_x, yy, zz, block);
-                        this.setBlock(xx, yy, z_z, block);
-                        this.setBlock(x_x, yy, z_z, block);
-                    }
-                }
-            }
-        } else {
-            //FAWE end
-            forX:
-            for (int x = 0; x <= ceilRadiusX; ++x) {
-                xn = nextXn;
-                nextXn = (x + 1) * invRadiusX;
-                nextZn = 0;
-                xSqr = xn * xn;
-                // FAWE start
-                xx = px + x;
-                x_x = px - x;
-                //FAWE end
-                forZ:
-                for (int z = 0; z <= ceilRadiusZ; ++z) {
-                    zn = nextZn;
-                    zSqr = zn * zn;
-                    distanceSq = xSqr + zSqr;
-                    if (distanceSq > 1) {
-                        if (z == 0) {
-                            break forX;
-                        }
-                        break forZ;
-                    }
-
-                    // FAWE start
-                    nextZn = (z + 1) * invRadiusZ;
-                    //FAWE end
-                    if (!filled) {
-                        if ((zSqr + nextXn * nextXn <= 1) && (nextZn * nextZn + xSqr <= 1)) {
-                            continue;
-                        }
-                    }
-
-                    //FAWE start
-                    zz = pz + z;
-                    z_z = pz - z;
-                    //FAWE end
-
-                    for (int y = 0; y < height; ++y) {
-                        //FAWE start
-                        yy = py + y;
-                        this.setBlock(xx, yy, zz, block);
-                        this.setBlock(x_x, yy, zz, block);
-                        this.setBlock(xx, yy, z_z, block);
-                        this.setBlock(x_x, yy, z_z, block);
-                        //FAWE end
-                    }
-                }
-            }
+        if (height <= 0) {
+            return this.changes;
         }
 
-        //FAWE start
-        return this.changes;
+        // Rasterize the cylinder and set it like any other region, in parallel by chunk
+        RasterizedRegion region = new RasterizedCylinder(
+                world,
+                mutableBlockVector3.toImmutable(),
+                radiusX,
+                radiusZ,
+                height,
+                thickness,
+                filled
+        );
+        return setShape(region, block);
         //FAWE end
     }
 
@@ -2343,66 +2259,13 @@ public int makeCone(
             boolean filled,
             double thickness
     ) throws MaxChangedBlocksException {
-        int affected = 0;
-
-        final int ceilRadiusX = (int) Math.ceil(radiusX);
-        final int ceilRadiusZ = (int) Math.ceil(radiusZ);
-
-        double rx2 = Math.pow(radiusX, 2);
-        double ry2 = Math.pow(height, 2);
-        double rz2 = Math.pow(radiusZ, 2);
-
-        int cx = pos.x();
-        int cy = pos.y();
-        int cz = pos.z();
-
-        for (int y = 0; y < height; ++y) {
-            double ySquaredMinusHeightOverHeightSquared = Math.pow(y - height, 2) / ry2;
-            int yy = cy + y;
-            forX:
-            for (int x = 0; x <= ceilRadiusX; ++x) {
-                double xSquaredOverRadiusX = Math.pow(x, 2) / rx2;
-                int xx = cx + x;
-                forZ:
-                for (int z = 0; z <= ceilRadiusZ; ++z) {
-                    int zz = cz + z;
-                    double zSquaredOverRadiusZ = Math.pow(z, 2) / rz2;
-                    double distanceFromOriginMinusHeightSquared = xSquaredOverRadiusX + zSquaredOverRadiusZ - ySquaredMinusHeightOverHeightSquared;
-
-                    if (distanceFromOriginMinusHeightSquared > 1) {
-                        if (z == 0) {
-                            break forX;
-                        }
-                        break forZ;
-                    }
-
-                    if (!filled) {
-                        double xNext = Math.pow(x + thickness, 2) / rx2 + zSquaredOverRadiusZ - ySquaredMinusHeightOverHeightSquared;
-                        double yNext = xSquaredOverRadiusX + zSquaredOverRadiusZ - Math.pow(y + thickness - height, 2) / ry2;
-                        double zNext = xSquaredOverRadiusX + Math.pow(z + thickness, 2) / rz2 - ySquaredMinusHeightOverHeightSquared;
-                        if (xNext <= 0 && zNext <= 0 && (yNext <= 0 && y + thickness != height)) {
-                            continue;
-                        }
-                    }
-
-                    if (distanceFromOriginMinusHeightSquared <= 0) {
-                        if (setBlock(xx, yy, zz, block)) {
-                            ++affected;
-                        }
-                        if (setBlock(xx, yy, zz, block)) {
-                            ++affected;
-                        }
-                        if (setBlock(xx, yy, zz, block)) {
-                            ++affected;
-                        }
-                        if (setBlock(xx, yy, zz, block)) {
-                            ++affected;
-                        }
-                    }
-                }
-            }
+        //FAWE start - rasterize the cone and set it like any other region, in parallel by chunk
+        if (height <= 0) {
+            return 0;
         }
-        return affected;
+        RasterizedRegion region = new RasterizedCone(world, pos, radiusX, radiusZ, height, filled, thickness);
+        return setShape(region, block);
+        //FAWE end
     }
 
     /**
@@ -2570,108 +2433,9 @@ public int makeSphere(BlockVector3 pos, Pattern block, double radius, boolean fi
      */
     public int makeSphere(BlockVector3 pos, Pattern block, double radiusX, double radiusY, double radiusZ, boolean filled) throws
             MaxChangedBlocksException {
-        radiusX += 0.5;
-        radiusY += 0.5;
-        radiusZ += 0.5;
-
-        final double invRadiusX = 1 / radiusX;
-        final double invRadiusY = 1 / radiusY;
-        final double invRadiusZ = 1 / radiusZ;
-
-        int px = pos.x();
-        int py = pos.y();
-        int pz = pos.z();
-
-        final int ceilRadiusX = (int) Math.ceil(radiusX);
-        final int ceilRadiusY = (int) Math.ceil(radiusY);
-        final int ceilRadiusZ = (int) Math.ceil(radiusZ);
-
-        //FAWE start
-        double nextXn = 0;
-        double nextYn, nextZn;
-        double nextXnSq, nextYnSq, nextZnSq;
-        double xn, yn, zn, dx, dy, dz;
-        double dxy, dxz, dyz, dxyz;
-        int xx, x_x, yy, zz, z_z;
-
-        forX:
-        for (int x = 0; x <= ceilRadiusX; ++x) {
-            xn = nextXn;
-            dx = xn * xn;
-            nextXn = (x + 1) * invRadiusX;
-            nextXnSq = nextXn * nextXn;
-            xx = px + x;
-            x_x = px - x;
-            nextZn = 0;
-            forZ:
-            for (int z = 0; z <= ceilRadiusZ; ++z) {
-                zn = nextZn;
-                dz = zn * zn;
-                dxz = dx + dz;
-                nextZn = (z + 1) * invRadiusZ;
-                nextZnSq = nextZn * nextZn;
-                zz = pz + z;
-                z_z = pz - z;
-                nextYn = 0;
-
-                forY:
-                for (int y = 0; y <= ceilRadiusY; ++y) {
-                    yn = nextYn;
-                    dy = yn * yn;
-                    dxyz = dxz + dy;
-                    nextYn = (y + 1) * invRadiusY;
-
-                    if (dxyz > 1) {
-                        if (y == 0) {
-                            if (z == 0) {
-                                break forX;
-                            }
-                            break forZ;
-                        }
-                        break forY;
-                    }
-
-                    nextYnSq = nextYn * nextYn;
-                    dxy = dx + dy;
-                    dyz = dy + dz;
-
-                    if (!filled) {
-                        if (nextXnSq + dyz <= 1 && nextYnSq + dxz <= 1 && nextZnSq + dxy <= 1) {
-                            continue;
-                        }
-                    }
-                    //FAWE start
-                    yy = py + y;
-                    if (yy <= maxY) {
-                        this.setBlock(xx, yy, zz, block);
-                        if (x != 0) {
-                            this.setBlock(x_x, yy, zz, block);
-                        }
-                        if (z != 0) {
-                            this.setBlock(xx, yy, z_z, block);
-                            if (x != 0) {
-                                this.setBlock(x_x, yy, z_z, block);
-                            }
-                        }
-                    }
-                    if (y != 0 && (yy = py - y) >= minY) {
-                        this.setBlock(xx, yy, zz, block);
-                        if (x != 0) {
-                            this.setBlock(x_x, yy, zz, block);
-                        }
-                        if (z != 0) {
-                            this.setBlock(xx, yy, z_z, block);
-                            if (x != 0) {
-                                this.setBlock(x_x, yy, z_z, block);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        //FAWE end
-
-        return changes;
+        //FAWE start - rasterize the sphere and set it like any other region, in parallel by chunk
+        RasterizedRegion region = new RasterizedEllipsoid(world, pos, radiusX, radiusY, radiusZ, filled, minY, maxY);
+        return setShape(region, block);
         //FAWE end
     }
 
@@ -2686,37 +2450,31 @@ public int makeSphere(BlockVector3 pos, Pattern block, double radiusX, double ra
      * @throws MaxChangedBlocksException thrown if too many blocks are changed
      */
     public int makePyramid(BlockVector3 position, Pattern block, int size, boolean filled) throws MaxChangedBlocksException {
-        //FAWE start - abbreviated logic
-        int bx = position.x();
-        int by = position.y();
-        int bz = position.z();
-
-        int height = size;
-        int yy, xx, x_x, zz, z_z;
-
-        for (int y = 0; y <= height; ++y) {
-            size--;
-            yy = y + by;
-            for (int x = 0; x <= size; ++x) {
-                xx = bx + x;
-                x_x = bx - x;
-                for (int z = 0; z <= size; ++z) {
-                    zz = bz + z;
-                    z_z = bz - z;
-                    if ((filled && z <= size && x <= size) || z == size || x == size) {
-                        setBlock(xx, yy, zz, block);
-                        setBlock(x_x, yy, zz, block);
-                        setBlock(xx, yy, z_z, block);
-                        setBlock(x_x, yy, z_z, block);
-                    }
-                }
-            }
+        //FAWE start - rasterize the pyramid and set it like any other region, in parallel by chunk
+        if (size <= 0) {
+            return this.changes;
         }
-
-        return changes;
+        RasterizedRegion region = new RasterizedPyramid(world, position, size, filled);
+        return setShape(region, block);
         //FAWE end
     }
 
+    //FAWE start
+    private int setShape(RasterizedRegion region, Pattern pattern) throws MaxChangedBlocksException {
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        long volume = (long) (max.x() - min.x() + 1) * (max.y() - min.y() + 1) * (max.z() - min.z() + 1);
+        if (volume < PARALLEL_SHAPE_VOLUME) {
+            for (BlockVector3 pos : region) {
+                setBlock(pos.x(), pos.y(), pos.z(), pattern);
+            }
+        } else {
+            setBlocks((Region) region, pattern);
+        }
+        return this.changes;
+    }
+    //FAWE end
+
     /**
      * Thaw blocks in a radius.
      *
@@ -105,6 +105,7 @@ public final class EditSessionBuilder {
     private Extent bypassHistory;
     private Extent bypassAll;
     private Extent extent;
+    private Extent placeOn;
     private boolean compiled;
     private boolean wrapped;
     private SideEffectSet sideEffectSet = null;
@@ -419,6 +420,19 @@ public EditSessionBuilder combineStages(@Nullable Boolean combineStages) {
         return setDirty();
     }
 
+    /**
+     * Set blocks on the given extent instead of the world, e.g. to place the blocks of several edits together. The edit does
+     * not commit the extent, and does not relight. History is recorded as blocks are set, and limits and region restrictions
+     * still apply.
+     *
+     * @param placeOn the extent to set blocks on, or null to set blocks in the world
+     * @since 2.13.1
+     */
+    public EditSessionBuilder placeOn(@Nullable Extent placeOn) {
+        this.placeOn = placeOn;
+        return setDirty();
+    }
+
     /**
      * Set the side effects to be used with this edit
      *
@@ -481,9 +495,14 @@ public EditSessionBuilder compile() {
         if (extent == null) {
             IQueueExtent<IQueueChunk> queue = null;
             World unwrapped = WorldWrapper.unwrap(world);
-            boolean placeChunks = (this.fastMode || this.limit.FAST_PLACEMENT) && (wnaMode == null || !wnaMode);
+            boolean placeChunks = placeOn == null && (this.fastMode || this.limit.FAST_PLACEMENT) && (wnaMode == null || !wnaMode);
 
-            if (placeChunks) {
+            if (placeOn != null) {
+                wnaMode = false;
+                extent = placeOn;
+                // Blocks are read back through the extent before they are placed, so history is recorded as they are set
+                combineStages = false;
+            } else if (placeChunks) {
                 wnaMode = false;
                 if (unwrapped instanceof IQueueExtent) {
                     extent = queue = (IQueueExtent) unwrapped;
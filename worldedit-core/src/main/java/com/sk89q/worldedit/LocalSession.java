@@ -20,6 +20,7 @@
 package com.sk89q.worldedit;
 
 import com.fastasyncworldedit.core.Fawe;
+import com.fastasyncworldedit.core.command.tool.StrokePipeline;
 import com.fastasyncworldedit.core.configuration.Caption;
 import com.fastasyncworldedit.core.configuration.Settings;
 import com.fastasyncworldedit.core.extent.ResettableExtent;
@@ -55,6 +56,7 @@
 import com.sk89q.worldedit.extension.input.ParserContext;
 import com.sk89q.worldedit.extension.platform.Actor;
 import com.sk89q.worldedit.extension.platform.Locatable;
+import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.extent.NullExtent;
 import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
@@ -179,6 +181,7 @@ public Object remove(int index) {
     private transient boolean tickingWatchdog = false;
     private transient boolean hasBeenToldVersion;
     private transient boolean tracingActions;
+    private transient volatile StrokePipeline strokePipeline;
 
     // Saved properties
     private String lastScript;
@@ -609,6 +612,32 @@ public void remember(EditSession editSession, boolean append, int limitMb) {
             historyWriteLock.unlock();
         }
     }
+
+    /**
+     * Get the pipeline placing consecutive brush strokes of this session together.
+     *
+     * @since 2.13.1
+     */
+    public StrokePipeline getStrokePipeline() {
+        StrokePipeline strokes = this.strokePipeline;
+        if (strokes == null) {
+            synchronized (historyWriteLock) {
+                strokes = this.strokePipeline;
+                if (strokes == null) {
+                    this.strokePipeline = strokes = new StrokePipeline(this);
+                }
+            }
+        }
+        return strokes;
+    }
+
+    // Place the brush strokes waiting to be placed, before history or the world are read by something else
+    private void placeStrokes() {
+        StrokePipeline strokes = this.strokePipeline;
+        if (strokes != null) {
+            strokes.place();
+        }
+    }
     //FAWE end
 
     /**
@@ -621,6 +650,7 @@ public void remember(EditSession editSession, boolean append, int limitMb) {
     public EditSession undo(@Nullable BlockBag newBlockBag, Actor actor) {
         checkNotNull(actor);
         //FAWE start - use our logic
+        placeStrokes();
         World world = (actor instanceof Player) ? ((Player) actor).getWorldForEditing() : getWorldOverride();
         if (world == null) {
             throw new MissingWorldException();
@@ -667,6 +697,7 @@ public EditSession undo(@Nullable BlockBag newBlockBag, Actor actor) {
     //FAWE start - use our logic
     public EditSession redo(@Nullable BlockBag newBlockBag, Actor actor) {
         checkNotNull(actor);
+        placeStrokes();
         World world = (actor instanceof Player) ? ((Player) actor).getWorldForEditing() : getWorldOverride();
         if (world == null) {
             throw new MissingWorldException();
@@ -1731,6 +1762,21 @@ public EditSession createEditSession(Actor actor) {
     }
 
     public EditSession createEditSession(Actor actor, String command) {
+        // Brush strokes waiting to be placed are placed first, so that the edit reads them
+        placeStrokes();
+        return createEditSession(actor, command, null);
+    }
+
+    /**
+     * Construct a new edit session setting its blocks on the given extent instead of the world.
+     *
+     * @param actor   the actor
+     * @param command the command used, if any
+     * @param placeOn the extent to set blocks on, see {@link EditSessionBuilder#placeOn(Extent)}
+     * @return an edit session
+     * @since 2.13.1
+     */
+    public EditSession createEditSession(Actor actor, String command, @Nullable Extent placeOn) {
         //FAWE end
         checkNotNull(actor);
 
@@ -1752,6 +1798,7 @@ public EditSession createEditSession(Actor actor, String command) {
         builder.command(command);
         builder.fastMode(this.fastMode);
         builder.setSideEffectSet(this.sideEffectSet);
+        builder.placeOn(placeOn);
 
         EditSession editSession = builder.build();
 
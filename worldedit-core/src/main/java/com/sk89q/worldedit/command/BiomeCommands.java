@@ -204,17 +204,22 @@ public void setBiome(
             region = session.getSelection(world);
         }
 
-        RegionFunction replace = new BiomeReplace(editSession, target);
-        if (mask != null) {
-            replace = new RegionMaskingFilter(mask, replace);
+        //FAWE start - set whole biome cells if there is no mask to test each block against
+        int affected;
+        if (mask == null) {
+            affected = editSession.setBiomes(region, target);
+        } else {
+            RegionFunction replace = new RegionMaskingFilter(mask, new BiomeReplace(editSession, target));
+            RegionVisitor visitor = new RegionVisitor(region, replace);
+            Operations.completeLegacy(visitor);
+            affected = visitor.getAffected();
         }
-        RegionVisitor visitor = new RegionVisitor(region, replace);
-        Operations.completeLegacy(visitor);
 
         actor.print(Caption.of(
                 "worldedit.setbiome.changed",
-                TextComponent.of(visitor.getAffected() / (editSession.getMaxY() - editSession.getMinY()))
+                TextComponent.of(affected / (editSession.getMaxY() - editSession.getMinY()))
         ));
+        //FAWE end
     }
 
 }
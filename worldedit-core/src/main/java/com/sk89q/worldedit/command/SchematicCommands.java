@@ -23,6 +23,7 @@
 import com.fastasyncworldedit.core.configuration.Settings;
 import com.fastasyncworldedit.core.event.extent.ActorSaveClipboardEvent;
 import com.fastasyncworldedit.core.extent.clipboard.MultiClipboardHolder;
+import com.fastasyncworldedit.core.extent.clipboard.SharedClipboardCache;
 import com.fastasyncworldedit.core.extent.clipboard.URIClipboardHolder;
 import com.fastasyncworldedit.core.extent.clipboard.io.schematic.MinecraftStructure;
 import com.fastasyncworldedit.core.util.MainUtil;
@@ -326,7 +327,9 @@ public void load(
 
         //FAWE start
         ClipboardFormat format;
-        InputStream in;
+        InputStream in = null;
+        // Loaded through the shared clipboard cache if set
+        File sharedFile = null;
         // if format is set explicitly, do not look up by extension!
         boolean noExplicitFormat = formatName == null;
         if (noExplicitFormat) {
@@ -429,11 +432,21 @@ public void load(
                         return;
                     }
                 }
-                in = new FileInputStream(file);
+                if (SharedClipboardCache.isEnabled()) {
+                    sharedFile = file;
+                } else {
+                    in = new FileInputStream(file);
+                }
                 uri = file.toURI();
             }
-            closer.register(in);
-            format.hold(actor, uri, in);
+            if (sharedFile != null) {
+                // Shared with everyone else holding the same schematic
+                session.setClipboard(null);
+                session.setClipboard(new URIClipboardHolder(uri, SharedClipboardCache.load(sharedFile, format)));
+            } else {
+                closer.register(in);
+                format.hold(actor, uri, in);
+            }
             if (randomRotate) {
                 AffineTransform transform = new AffineTransform();
                 int rotate = 90 * ThreadLocalRandom.current().nextInt(4);
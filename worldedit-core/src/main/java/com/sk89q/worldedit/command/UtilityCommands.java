@@ -25,6 +25,7 @@
 import com.fastasyncworldedit.core.function.QuadFunction;
 import com.fastasyncworldedit.core.util.MainUtil;
 import com.fastasyncworldedit.core.util.MaskTraverser;
+import com.fastasyncworldedit.core.util.MathMan;
 import com.fastasyncworldedit.core.util.StringMan;
 import com.fastasyncworldedit.core.util.TaskManager;
 import com.fastasyncworldedit.core.util.image.ImageUtil;
@@ -92,6 +93,7 @@
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -99,6 +101,7 @@
 import java.util.UUID;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -718,9 +721,8 @@ public int butcher(
         flags.or(CreatureButcher.Flags.ARMOR_STAND, killArmorStands, "worldedit.butcher.armorstands");
         flags.or(CreatureButcher.Flags.WATER, killWater, "worldedit.butcher.water");
 
-        //FAWE start - run this sync
-        int finalRadius = radius;
-        int killed = TaskManager.taskManager().sync(() -> killMatchingEntities(finalRadius, actor, flags::createFunction));
+        //FAWE start - match entities on the main thread, remove them through the queue
+        int killed = killMatchingEntities(radius, actor, flags::matches, flags::createFunction);
         //FAWE end
 
         actor.print(Caption.of(
@@ -751,33 +753,52 @@ public int remove(
             return 0;
         }
 
-        //FAWE start - run this sync
-        int removed = TaskManager.taskManager().sync(() -> killMatchingEntities(radius, actor, remover::createFunction));
+        //FAWE start - match entities on the main thread, remove them through the queue
+        int removed = killMatchingEntities(radius, actor, remover::matches, remover::createFunction);
         //FAWE end
         actor.print(Caption.of("worldedit.remove.removed", TextComponent.of(removed)));
         return removed;
     }
 
-    private int killMatchingEntities(Integer radius, Actor actor, Supplier<EntityFunction> func) throws IncompleteRegionException,
-            MaxChangedBlocksException {
-        List<EntityVisitor> visitors = new ArrayList<>();
-
+    //FAWE start - remove matching entities per chunk through the queue
+    private int killMatchingEntities(
+            Integer radius, Actor actor, Predicate<Entity> matcher, Supplier<EntityFunction> func
+    ) throws IncompleteRegionException, MaxChangedBlocksException {
         LocalSession session = we.getSessionManager().get(actor);
         BlockVector3 center = session.getPlacementPosition(actor);
         EditSession editSession = session.createEditSession(actor);
-        List<? extends Entity> entities;
-        if (radius >= 0) {
-            CylinderRegion region = CylinderRegion.createRadius(editSession, center, radius);
-            entities = editSession.getEntities(region);
+        int killed;
+        if (editSession.isQueueEnabled()) {
+            // Entities are matched on the main thread, then removed from their chunks by the queue. The chunks are written in
+            // parallel and the removed entities are recorded in the history
+            List<RemovedEntity> matched = TaskManager.taskManager().sync(() -> {
+                List<RemovedEntity> list = new ArrayList<>();
+                for (Entity entity : getEntities(editSession, center, radius)) {
+                    if (!matcher.test(entity)) {
+                        continue;
+                    }
+                    UUID uuid = entity.getUniqueId();
+                    if (uuid != null) {
+                        list.add(new RemovedEntity(entity.getLocation().toVector().toBlockPoint(), uuid));
+                    }
+                }
+                return list;
+            });
+            matched.sort(Comparator.comparingLong(RemovedEntity::chunkKey));
+            for (RemovedEntity entity : matched) {
+                editSession.removeEntity(entity.position().x(), entity.position().y(), entity.position().z(), entity.uuid());
+            }
+            // Counts the entities queued for removal. One that dies or leaves its chunk before the chunk is written is not
+            // removed, but is still counted
+            killed = matched.size();
         } else {
-            entities = editSession.getEntities();
-        }
-        visitors.add(new EntityVisitor(entities.iterator(), func.get()));
-
-        int killed = 0;
-        for (EntityVisitor visitor : visitors) {
-            Operations.completeLegacy(visitor);
-            killed += visitor.getAffected();
+            // Without a queue, entities are removed one by one on the main thread
+            EntityFunction function = func.get();
+            killed = TaskManager.taskManager().sync(() -> {
+                EntityVisitor visitor = new EntityVisitor(getEntities(editSession, center, radius).iterator(), function);
+                Operations.completeLegacy(visitor);
+                return visitor.getAffected();
+            });
         }
 
         session.remember(editSession);
@@ -785,6 +806,23 @@ private int killMatchingEntities(Integer radius, Actor actor, Supplier<EntityFun
         return killed;
     }
 
+    private static List<? extends Entity> getEntities(EditSession editSession, BlockVector3 center, int radius) {
+        if (radius >= 0) {
+            CylinderRegion region = CylinderRegion.createRadius(editSession, center, radius);
+            return editSession.getEntities(region);
+        }
+        return editSession.getEntities();
+    }
+
+    private record RemovedEntity(BlockVector3 position, UUID uuid) {
+
+        private long chunkKey() {
+            return MathMan.pairInt(position.x() >> 4, position.z() >> 4);
+        }
+
+    }
+    //FAWE end
+
     private DecimalFormat formatForLocale(Locale locale) {
         DecimalFormat format = (DecimalFormat) NumberFormat.getInstance(locale);
         format.applyPattern("#,##0.#####");
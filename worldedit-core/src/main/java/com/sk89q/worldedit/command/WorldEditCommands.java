@@ -24,6 +24,8 @@
 import com.fastasyncworldedit.core.configuration.Caption;
 import com.fastasyncworldedit.core.configuration.Settings;
 import com.fastasyncworldedit.core.limit.FaweLimit;
+import com.fastasyncworldedit.core.queue.implementation.preloader.AsyncPreloader;
+import com.fastasyncworldedit.core.util.PipelineStats;
 import com.fastasyncworldedit.core.util.UpdateNotification;
 import com.intellectualsites.paster.IncendoPaster;
 import com.sk89q.worldedit.LocalSession;
@@ -47,12 +49,14 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
 import java.time.zone.ZoneRulesException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @CommandContainer(superTypes = {CommandPermissionsConditionGenerator.Registration.class})
@@ -143,6 +147,69 @@ public void threads(Actor actor) throws WorldEditException {
             }
         }
     }
+
+    @Command(
+            name = "stats",
+            desc = "Show, toggle, reset or export timings of the edit pipeline"
+    )
+    @CommandPermissions(value = "worldedit.stats", queued = false)
+    public void stats(
+            Actor actor,
+            @Arg(desc = "on, off, reset or export, or nothing to show the timings", def = "")
+                    String action
+    ) throws WorldEditException {
+        switch (action.toLowerCase(Locale.ROOT)) {
+            case "on" -> {
+                PipelineStats.setEnabled(true);
+                actor.print(Caption.of("fawe.info.stats.enabled"));
+            }
+            case "off" -> {
+                PipelineStats.setEnabled(false);
+                actor.print(Caption.of("fawe.info.stats.disabled"));
+            }
+            case "reset" -> {
+                PipelineStats.reset();
+                actor.print(Caption.of("fawe.info.stats.reset"));
+            }
+            case "export" -> {
+                File file = new File(Fawe.platform().getDirectory(), "stats-" + System.currentTimeMillis() + ".json");
+                try {
+                    Files.writeString(file.toPath(), PipelineStats.toJson());
+                } catch (IOException e) {
+                    actor.printError(TextComponent.of(e.getMessage()));
+                    return;
+                }
+                actor.print(Caption.of("fawe.info.stats.exported", TextComponent.of(file.getPath())));
+            }
+            default -> {
+                List<PipelineStats.Timer> timers = PipelineStats.getTimers();
+                Map<String, Long> counters = PipelineStats.getCounters();
+                if (timers.isEmpty() && counters.isEmpty()) {
+                    actor.print(Caption.of("fawe.info.stats.empty"));
+                    return;
+                }
+                for (PipelineStats.Timer timer : timers) {
+                    long count = timer.getCount();
+                    actor.print(Caption.of(
+                            "fawe.info.stats.entry",
+                            timer.getName(),
+                            count,
+                            timer.getTotalNanos() / 1_000_000,
+                            count == 0 ? 0 : timer.getTotalNanos() / count / 1000,
+                            timer.getPercentileNanos(0.5) / 1000,
+                            timer.getPercentileNanos(0.99) / 1000,
+                            timer.getMaxNanos() / 1000
+                    ));
+                }
+                counters.forEach((name, value) -> actor.print(Caption.of("fawe.info.stats.counter", name, value)));
+                long prefetchHits = counters.getOrDefault(AsyncPreloader.PREFETCH_HITS, 0L);
+                long prefetchTotal = prefetchHits + counters.getOrDefault(AsyncPreloader.PREFETCH_MISSES, 0L);
+                if (prefetchTotal > 0) {
+                    actor.print(Caption.of("fawe.info.stats.prefetch-hit-rate", prefetchHits * 100 / prefetchTotal));
+                }
+            }
+        }
+    }
     //FAWE end
 
     @Command(
@@ -19,8 +19,10 @@
 
 package com.sk89q.worldedit.command.tool;
 
+import com.fastasyncworldedit.core.Fawe;
 import com.fastasyncworldedit.core.command.tool.MovableTool;
 import com.fastasyncworldedit.core.command.tool.ResettableTool;
+import com.fastasyncworldedit.core.command.tool.StrokePipeline;
 import com.fastasyncworldedit.core.command.tool.TargetMode;
 import com.fastasyncworldedit.core.command.tool.brush.BrushSettings;
 import com.fastasyncworldedit.core.command.tool.scroll.Scroll;
@@ -29,6 +31,7 @@
 import com.fastasyncworldedit.core.extent.ResettableExtent;
 import com.fastasyncworldedit.core.function.mask.MaskedTargetBlock;
 import com.fastasyncworldedit.core.function.pattern.PatternTraverser;
+import com.fastasyncworldedit.core.queue.implementation.preloader.Preloader;
 import com.fastasyncworldedit.core.util.BrushCache;
 import com.fastasyncworldedit.core.util.MaskTraverser;
 import com.fastasyncworldedit.core.util.StringMan;
@@ -58,6 +61,8 @@
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -73,7 +78,7 @@
     // set transient values e.g., context
 
 
-    enum BrushAction {
+    public enum BrushAction {
         PRIMARY,
         SECONDARY
     }
@@ -92,6 +97,7 @@ enum BrushAction {
     private transient BrushSettings context = primary;
 
     private transient BaseItem holder;
+    private transient Set<BrushAction> queuedStrokes = ConcurrentHashMap.newKeySet();
     //FAWE end
 
     /**
@@ -140,6 +146,35 @@ private void readObject(ObjectInputStream stream) throws IOException, ClassNotFo
             secondary = primary;
         }
         context = primary;
+        queuedStrokes = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Queue a stroke of the brush to run after the player's running actions. Strokes of an action requested while a stroke
+     * of the same action is still waiting to run are coalesced into the waiting stroke, which targets where the player is
+     * looking when it runs. A player clicking faster than strokes complete thus does not build up a backlog of strokes,
+     * and each stroke run is still a separate undo step. Consecutive strokes are placed together through the
+     * {@link LocalSession#getStrokePipeline() stroke pipeline} of the session.
+     *
+     * @param action  the action of the stroke
+     * @param player  the player
+     * @param session the session of the player
+     * @param stroke  runs the stroke
+     * @since 2.13.1
+     */
+    public void queueStroke(BrushAction action, Player player, LocalSession session, Runnable stroke) {
+        if (!queuedStrokes.add(action)) {
+            return;
+        }
+        try {
+            player.runAction(() -> {
+                queuedStrokes.remove(action);
+                session.getStrokePipeline().run(player, stroke, () -> !queuedStrokes.isEmpty());
+            }, false, true);
+        } catch (Throwable t) {
+            queuedStrokes.remove(action);
+            throw t;
+        }
     }
 
     public BrushSettings getContext() {
@@ -440,7 +475,11 @@ public boolean act(BrushAction action, Player player, LocalSession session) {
                     Caption.of("fawe.error.no-perm", StringMan.join(current.getPermissions(), ",")));
             return false;
         }
-        try (EditSession editSession = session.createEditSession(player, current.toString())) {
+        StrokePipeline strokes = session.getStrokePipeline();
+        boolean pipelined = strokes.isRunning();
+        try (EditSession editSession = pipelined
+                ? strokes.createEditSession(player, current.toString())
+                : session.createEditSession(player, current.toString())) {
             Location target = player.getBlockTrace(getRange(), true, traceMask);
 
             if (target == null) {
@@ -478,11 +517,19 @@ public boolean act(BrushAction action, Player player, LocalSession session) {
                 new PatternTraverser(current).reset(editSession);
                 double size = current.getSize();
                 WorldEdit.getInstance().checkMaxBrushRadius(size, player);
+                Preloader preloader = Fawe.platform().getPreloader(true);
+                if (preloader != null) {
+                    preloader.track(player, player.getWorld(), target.toBlockPoint(), size);
+                }
                 brush.build(editSession, target.toBlockPoint(), current.getMaterial(), size);
             } catch (MaxChangedBlocksException e) {
                 player.print(Caption.of("worldedit.tool.max-block-changes"));
             } finally {
-                session.remember(editSession);
+                if (pipelined) {
+                    strokes.remember(editSession);
+                } else {
+                    session.remember(editSession);
+                }
                 if (bag != null) {
                     bag.flushChanges();
                 }
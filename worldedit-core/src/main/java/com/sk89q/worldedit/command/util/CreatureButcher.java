@@ -19,6 +19,7 @@
 
 package com.sk89q.worldedit.command.util;
 
+import com.sk89q.worldedit.entity.Entity;
 import com.sk89q.worldedit.entity.metadata.EntityProperties;
 import com.sk89q.worldedit.extension.platform.Actor;
 import com.sk89q.worldedit.function.EntityFunction;
@@ -67,62 +68,82 @@ public void or(int flag, boolean on, String permission) {
         }
     }
 
-    public EntityFunction createFunction() {
-        return entity -> {
-            boolean killPets = (flags & Flags.PETS) != 0;
-            boolean killNPCs = (flags & Flags.NPCS) != 0;
-            boolean killAnimals = (flags & Flags.ANIMALS) != 0;
-            boolean killGolems = (flags & Flags.GOLEMS) != 0;
-            boolean killAmbient = (flags & Flags.AMBIENT) != 0;
-            boolean killTagged = (flags & Flags.TAGGED) != 0;
-            boolean killArmorStands = (flags & Flags.ARMOR_STAND) != 0;
-            boolean killWaterCreatures = (flags & Flags.WATER) != 0;
-
-            EntityProperties type = entity.getFacet(EntityProperties.class);
-
-            if (type == null) {
-                return false;
-            }
+    //FAWE start - matching split from createFunction, so matching entities can be removed through the queue
+
+    /**
+     * Get if the function of {@link #createFunction()} kills the given entity.
+     *
+     * @param entity the entity
+     * @return true if the entity is killed
+     * @since 2.13.1
+     */
+    public boolean matches(Entity entity) {
+        boolean killPets = (flags & Flags.PETS) != 0;
+        boolean killNPCs = (flags & Flags.NPCS) != 0;
+        boolean killAnimals = (flags & Flags.ANIMALS) != 0;
+        boolean killGolems = (flags & Flags.GOLEMS) != 0;
+        boolean killAmbient = (flags & Flags.AMBIENT) != 0;
+        boolean killTagged = (flags & Flags.TAGGED) != 0;
+        boolean killArmorStands = (flags & Flags.ARMOR_STAND) != 0;
+        boolean killWaterCreatures = (flags & Flags.WATER) != 0;
+
+        EntityProperties type = entity.getFacet(EntityProperties.class);
+
+        if (type == null) {
+            return false;
+        }
 
-            if (type.isPlayerDerived()) {
-                return false;
-            }
+        if (type.isPlayerDerived()) {
+            return false;
+        }
 
-            if (!type.isLiving()) {
-                return false;
-            }
+        if (!type.isLiving()) {
+            return false;
+        }
 
-            if (!killAnimals && type.isAnimal()) {
-                return false;
-            }
+        if (!killAnimals && type.isAnimal()) {
+            return false;
+        }
 
-            if (!killPets && type.isTamed()) {
-                return false;
-            }
+        if (!killPets && type.isTamed()) {
+            return false;
+        }
 
-            if (!killGolems && type.isGolem()) {
-                return false;
-            }
+        if (!killGolems && type.isGolem()) {
+            return false;
+        }
 
-            if (!killNPCs && type.isNPC()) {
-                return false;
-            }
+        if (!killNPCs && type.isNPC()) {
+            return false;
+        }
 
-            if (!killAmbient && type.isAmbient()) {
-                return false;
-            }
+        if (!killAmbient && type.isAmbient()) {
+            return false;
+        }
 
-            if (!killTagged && type.isTagged()) {
-                return false;
-            }
+        if (!killTagged && type.isTagged()) {
+            return false;
+        }
 
-            if (!killArmorStands && type.isArmorStand()) {
-                return false;
-            }
+        if (!killArmorStands && type.isArmorStand()) {
+            return false;
+        }
+
+        if (!killWaterCreatures && type.isWaterCreature()) {
+            return false;
+        }
 
-            if (!killWaterCreatures && type.isWaterCreature()) {
+        return true;
+    }
+    //FAWE end
+
+    public EntityFunction createFunction() {
+        return entity -> {
+            //FAWE start - see matches
+            if (!matches(entity)) {
                 return false;
             }
+            //FAWE end
 
             entity.remove();
             return true;
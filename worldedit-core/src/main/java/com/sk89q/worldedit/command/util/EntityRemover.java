@@ -20,6 +20,7 @@
 package com.sk89q.worldedit.command.util;
 
 import com.fastasyncworldedit.core.util.TaskManager;
+import com.sk89q.worldedit.entity.Entity;
 import com.sk89q.worldedit.entity.metadata.EntityProperties;
 import com.sk89q.worldedit.function.EntityFunction;
 
@@ -140,22 +141,34 @@ private EntityRemover(Type type) {
         this.type = type;
     }
 
-    public EntityFunction createFunction() {
-        final Type type = this.type;
+    //FAWE start - matching split from createFunction, so matching entities can be removed through the queue
+
+    /**
+     * Get if the function of {@link #createFunction()} removes the given entity.
+     *
+     * @param entity the entity
+     * @return true if the entity is removed
+     * @since 2.13.1
+     */
+    public boolean matches(Entity entity) {
         checkNotNull(type, "type can't be null");
+        EntityProperties registryType = entity.getFacet(EntityProperties.class);
+        return registryType != null && type.matches(registryType);
+    }
+    //FAWE end
+
+    public EntityFunction createFunction() {
+        //FAWE start - see matches
         return entity -> {
-            EntityProperties registryType = entity.getFacet(EntityProperties.class);
-            if (registryType != null) {
-                if (type.matches(registryType)) {
-                    //FAWE start - Calling this async violates thread safety
-                    TaskManager.taskManager().sync(entity::remove);
-                    //FAWE end
-                    return true;
-                }
+            if (matches(entity)) {
+                // Calling this async violates thread safety
+                TaskManager.taskManager().sync(entity::remove);
+                return true;
             }
 
             return false;
         };
+        //FAWE end
     }
 
 }
@@ -19,12 +19,14 @@
 
 package com.sk89q.worldedit.entity;
 
+import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.worldedit.extension.platform.Locatable;
 import com.sk89q.worldedit.extent.Extent;
 import com.sk89q.worldedit.util.Faceted;
 import com.sk89q.worldedit.world.entity.EntityType;
 
 import javax.annotation.Nullable;
+import java.util.UUID;
 
 /**
  * A reference to an instance of an entity that exists in an {@link Extent}
@@ -53,6 +55,19 @@ default EntityType getType() {
         BaseEntity state = getState();
         return state != null ? state.getType() : null;
     }
+
+    /**
+     * Get the unique id of this entity. Platforms should override this to avoid creating a copy of the entity's state.
+     *
+     * @return the unique id, or null if it is not known
+     * @since 2.13.1
+     */
+    @Nullable
+    default UUID getUniqueId() {
+        BaseEntity state = getState();
+        CompoundTag tag = state == null ? null : state.getNbtData();
+        return tag == null ? null : tag.getUUID();
+    }
     //FAWE end
 
     /**
@@ -50,12 +50,18 @@
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.util.UUID;
 
 /**
  * Represents a player.
  */
 public interface Player extends Entity, Actor {
 
+    //FAWE start - declared by both Entity and Actor
+    @Override
+    UUID getUniqueId();
+    //FAWE end
+
     /**
      * Return the world that the player is on.
      *
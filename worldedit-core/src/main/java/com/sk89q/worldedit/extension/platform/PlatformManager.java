@@ -416,11 +416,16 @@ public void handleBlockInteract(BlockInteractEvent event) {
 
                 Tool tool = session.getTool(player);
                 if (tool instanceof DoubleActionBlockTool && tool.canUse(player)) {
-                    //FAWE start - run async
-                    player.runAction(() -> reset((DoubleActionBlockTool) tool)
+                    //FAWE start - run async, coalesce brush strokes
+                    Runnable action = () -> reset((DoubleActionBlockTool) tool)
                             .actSecondary(queryCapability(Capability.WORLD_EDITING),
                                     getConfiguration(), player, session, location, event.getFace()
-                            ), false, true);
+                            );
+                    if (tool instanceof BrushTool brushTool) {
+                        brushTool.queueStroke(BrushTool.BrushAction.SECONDARY, player, session, action);
+                    } else {
+                        player.runAction(action, false, true);
+                    }
                     //FAWE end
                     event.setCancelled(true);
                 }
@@ -430,8 +435,8 @@ public void handleBlockInteract(BlockInteractEvent event) {
                 Tool tool = session.getTool(player);
                 if (tool instanceof BlockTool && tool.canUse(player)) {
                     if (player.checkAction()) {
-                        // FAWE run async
-                        player.runAction(() -> {
+                        // FAWE run async, coalesce brush strokes
+                        Runnable action = () -> {
                             BlockTool blockTool = (BlockTool) tool;
                             if (!(tool instanceof BrushTool)) {
                                 blockTool = reset(blockTool);
@@ -439,7 +444,12 @@ public void handleBlockInteract(BlockInteractEvent event) {
                             blockTool.actPrimary(queryCapability(Capability.WORLD_EDITING),
                                     getConfiguration(), player, session, location, event.getFace()
                             );
-                        }, false, true);
+                        };
+                        if (tool instanceof BrushTool brushTool) {
+                            brushTool.queueStroke(BrushTool.BrushAction.PRIMARY, player, session, action);
+                        } else {
+                            player.runAction(action, false, true);
+                        }
                         //FAWE end
                         event.setCancelled(true);
                     }
@@ -493,11 +503,16 @@ public void handlePlayerInput(PlayerInputEvent event) {
                 case SECONDARY: {
                     Tool tool = session.getTool(player);
                     if (tool instanceof TraceTool && tool.canUse(player)) {
-                        //FAWE start - run async
+                        //FAWE start - run async, coalesce brush strokes
                         //todo this needs to be fixed so the event is canceled after actPrimary is used and returns true
-                        player.runAction(() -> reset((TraceTool) tool).actPrimary(queryCapability(Capability.WORLD_EDITING),
+                        Runnable action = () -> reset((TraceTool) tool).actPrimary(queryCapability(Capability.WORLD_EDITING),
                                 getConfiguration(), player, session
-                        ), false, true);
+                        );
+                        if (tool instanceof BrushTool brushTool) {
+                            brushTool.queueStroke(BrushTool.BrushAction.PRIMARY, player, session, action);
+                        } else {
+                            player.runAction(action, false, true);
+                        }
                         //FAWE end
                         event.setCancelled(true);
                         return;
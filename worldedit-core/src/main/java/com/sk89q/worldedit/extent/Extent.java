@@ -777,6 +777,27 @@ default int setBlocks(Region region, Pattern pattern) throws MaxChangedBlocksExc
         return count;
     }
 
+    /**
+     * Sets the biome of all positions inside a region.
+     *
+     * @param region the region
+     * @param biome  the biome
+     * @return number of positions affected
+     * @throws MaxChangedBlocksException thrown if too many biomes are changed
+     * @since 2.13.1
+     */
+    default int setBiomes(Region region, BiomeType biome) throws MaxChangedBlocksException {
+        checkNotNull(region);
+        checkNotNull(biome);
+        int count = 0;
+        for (BlockVector3 pos : region) {
+            if (setBiome(pos, biome)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Replaces all the blocks matching a given filter, within a given region, to a block
      * returned by a given pattern.
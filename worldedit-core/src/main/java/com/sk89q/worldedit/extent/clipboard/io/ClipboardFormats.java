@@ -29,7 +29,6 @@
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.io.ByteSource;
-import com.google.common.io.Files;
 import com.sk89q.worldedit.LocalConfiguration;
 import com.sk89q.worldedit.WorldEdit;
 import com.sk89q.worldedit.extension.platform.Actor;
@@ -300,9 +299,8 @@ public static MultiClipboardHolder loadAllFromInput(
             return null;
         }
         if (!f.isDirectory()) {
-            ByteSource source = Files.asByteSource(f);
             URI uri = f.toURI();
-            return new MultiClipboardHolder(uri, new LazyClipboardHolder(f.toURI(), source, format, null));
+            return new MultiClipboardHolder(uri, new LazyClipboardHolder(f, format));
         }
         URIClipboardHolder[] clipboards = loadAllFromDirectory(f);
         if (clipboards.length < 1) {
@@ -324,9 +322,8 @@ public static URIClipboardHolder[] loadAllFromDirectory(File dir) {
         LazyClipboardHolder[] clipboards = new LazyClipboardHolder[files.length];
         for (int i = 0; i < files.length; i++) {
             File file = files[i];
-            ByteSource source = Files.asByteSource(file);
             ClipboardFormat format = findByFile(file);
-            clipboards[i] = new LazyClipboardHolder(file.toURI(), source, format, null);
+            clipboards[i] = new LazyClipboardHolder(file, format);
         }
         return clipboards;
     }
@@ -19,7 +19,11 @@
 
 package com.sk89q.worldedit.function.entity;
 
+import com.fastasyncworldedit.core.Fawe;
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.fastasyncworldedit.core.util.MathMan;
 import com.fastasyncworldedit.core.util.TaskManager;
+import com.google.common.base.Throwables;
 import com.sk89q.jnbt.CompoundTag;
 import com.sk89q.jnbt.CompoundTagBuilder;
 import com.sk89q.jnbt.FloatTag;
@@ -39,8 +43,16 @@
 import com.sk89q.worldedit.util.Location;
 import com.sk89q.worldedit.world.entity.EntityTypes;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -50,6 +62,11 @@
  */
 public class ExtentEntityCopy implements EntityFunction {
 
+    //FAWE start
+    // Fewest entities per thread worth preparing in parallel
+    private static final int MIN_PARALLEL_ENTITIES = 256;
+    //FAWE end
+
     private final Extent source;
     private final Extent destination;
     private final Vector3 from;
@@ -124,8 +141,102 @@ public void setRemoving(boolean removing) {
 
     @Override
     public boolean apply(Entity entity) throws WorldEditException {
-        BaseEntity state = entity.getState();
-        //FAWE start - Don't copy players
+        //FAWE start - split into prepare and create, see applyAll
+        PreparedCopy copy = prepare(entity, entity.getState());
+        return copy != null && create(copy);
+    }
+
+    /**
+     * Copy all the given entities. The locations and NBT of the copies are computed in parallel, the copies are then
+     * created on the calling thread ordered by destination chunk, so the entities of a chunk are added to the queue
+     * together. On the main thread, the copies are computed on the main thread.
+     *
+     * @param entities the entities to copy
+     * @return the number of entities copied
+     * @since 2.13.1
+     */
+    public int applyAll(Collection<? extends Entity> entities) throws WorldEditException {
+        List<? extends Entity> list = new ArrayList<>(entities);
+        int threads = Math.max(1, Math.min(Settings.settings().QUEUE.PARALLEL_THREADS, list.size() / MIN_PARALLEL_ENTITIES));
+        PreparedCopy[] copies = new PreparedCopy[list.size()];
+        // Workers must not wait on the main thread, it may be waiting on them
+        if (threads == 1 || Fawe.isMainThread()) {
+            for (int i = 0; i < copies.length; i++) {
+                Entity entity = list.get(i);
+                copies[i] = prepare(entity, entity.getState());
+            }
+        } else {
+            BaseEntity[] states = fetchStates(list);
+            List<Callable<Void>> tasks = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int start = (int) ((long) copies.length * t / threads);
+                int end = (int) ((long) copies.length * (t + 1) / threads);
+                tasks.add(() -> {
+                    for (int i = start; i < end; i++) {
+                        copies[i] = prepare(list.get(i), states[i]);
+                    }
+                    return null;
+                });
+            }
+            try {
+                for (Future<Void> future : Fawe.instance().getQueueHandler().getForkJoinPoolPrimary().invokeAll(tasks)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                Throwables.throwIfUnchecked(e.getCause());
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        Arrays.sort(copies, Comparator.nullsLast(Comparator.comparingLong(PreparedCopy::chunkKey)));
+        int affected = 0;
+        for (PreparedCopy copy : copies) {
+            if (copy == null) {
+                break;
+            }
+            if (create(copy)) {
+                affected++;
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * Get the states of the given entities with their NBT read. The NBT of live entities is read on the main thread, this
+     * reads it in one main thread task per {@value #MIN_PARALLEL_ENTITIES} entities, so the entities can then be prepared in
+     * parallel without waiting on the main thread.
+     */
+    private static BaseEntity[] fetchStates(List<? extends Entity> entities) {
+        BaseEntity[] states = new BaseEntity[entities.size()];
+        for (int start = 0; start < states.length; start += MIN_PARALLEL_ENTITIES) {
+            int from = start;
+            int to = Math.min(states.length, start + MIN_PARALLEL_ENTITIES);
+            TaskManager.taskManager().sync(() -> {
+                for (int i = from; i < to; i++) {
+                    BaseEntity state = entities.get(i).getState();
+                    if (state != null) {
+                        state.getNbtData();
+                    }
+                    states[i] = state;
+                }
+                return null;
+            });
+        }
+        return states;
+    }
+
+    /**
+     * Compute the location and state of the copy of an entity. Does not modify any extent, so may be called concurrently.
+     *
+     * @param entity the entity
+     * @param state  the state of the entity
+     * @return the copy, or null if the entity is not copied
+     */
+    @Nullable
+    private PreparedCopy prepare(Entity entity, @Nullable BaseEntity state) {
+        // Don't copy players
         if (state != null && state.getType() != EntityTypes.PLAYER) {
             //FAWE end
             Location newLocation;
@@ -155,32 +266,48 @@ public boolean apply(Entity entity) throws WorldEditException {
             // Some entities store their position data in NBT
             state = transformNbtData(state);
 
-            boolean success = destination.createEntity(newLocation, state) != null;
+            //FAWE start
+            return new PreparedCopy(entity, newLocation, state);
+        }
+        return null;
+    }
 
-            // Remove
-            if (isRemoving() && success) {
-                //FAWE start
-                UUID uuid = entity.getState().getNbtData().getUUID();
-                if (uuid != null) {
-                    if (source != null) {
-                        source.removeEntity(
-                                entity.getLocation().getBlockX(),
-                                entity.getLocation().getBlockY(),
-                                entity.getLocation().getBlockZ(),
-                                uuid
-                        );
-                    } else {
-                        TaskManager.taskManager().sync(entity::remove);
-                        //FAWE end
-                    }
+    private boolean create(PreparedCopy copy) throws WorldEditException {
+        Entity entity = copy.entity();
+        //FAWE end
+        boolean success = destination.createEntity(copy.location(), copy.state()) != null;
+
+        // Remove
+        if (isRemoving() && success) {
+            //FAWE start
+            UUID uuid = entity.getState().getNbtData().getUUID();
+            if (uuid != null) {
+                if (source != null) {
+                    source.removeEntity(
+                            entity.getLocation().getBlockX(),
+                            entity.getLocation().getBlockY(),
+                            entity.getLocation().getBlockZ(),
+                            uuid
+                    );
+                } else {
+                    TaskManager.taskManager().sync(entity::remove);
+                    //FAWE end
                 }
             }
+        }
 
-            return success;
-        } else {
-            return false;
+        return success;
+    }
+
+    //FAWE start
+    private record PreparedCopy(Entity entity, Location location, BaseEntity state) {
+
+        private long chunkKey() {
+            return MathMan.pairInt(location.getBlockX() >> 4, location.getBlockZ() >> 4);
         }
+
     }
+    //FAWE end
 
     /**
      * Transform NBT data in the given entity state and return a new instance
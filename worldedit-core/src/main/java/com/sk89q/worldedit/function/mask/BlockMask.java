@@ -202,6 +202,11 @@ public boolean test(BlockState state) {
         return ordinals[state.getOrdinal()] || replacesAir() && state.getOrdinal() == 0;
     }
 
+    @Override
+    public boolean testOrdinal(int ordinal) {
+        return ordinals[ordinal] || replacesAir() && ordinal == 0;
+    }
+
     @Override
     public boolean test(BlockVector3 vector) {
         int test = vector.getBlock(getExtent()).getOrdinal();
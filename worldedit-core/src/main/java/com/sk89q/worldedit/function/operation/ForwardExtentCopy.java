@@ -40,7 +40,6 @@
 import com.fastasyncworldedit.core.util.MaskTraverser;
 import com.fastasyncworldedit.core.util.ProcessorTraverser;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
 import com.sk89q.worldedit.WorldEditException;
 import com.sk89q.worldedit.entity.Entity;
 import com.sk89q.worldedit.entity.metadata.EntityProperties;
@@ -70,7 +69,6 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
@@ -110,6 +108,9 @@ public class ForwardExtentCopy implements Operation {
     private int affectedBlocks;
     private int affectedBiomeCols;
     private int affectedEntities;
+    //FAWE start
+    private long entityNanos;
+    //FAWE end
 
     /**
      * Create a new copy using the region's lowest minimum point as the
@@ -419,7 +420,12 @@ public Operation resume(RunContext run) throws WorldEditException {
                 }
             }
             if (copyingBiomes && (source.isWorld() || region instanceof FlatRegion)) {
-                copy = CombinedRegionFunction.combine(copy, new BiomeCopy(source, finalDest));
+                // Without a transform, positions are only translated, so each biome cell is copied once
+                copy = CombinedRegionFunction.combine(copy, new BiomeCopy(
+                        source,
+                        finalDest,
+                        currentTransform.isIdentity() ? translation : null
+                ));
             }
             ExtentTraverser<ParallelQueueExtent> queueTraverser = new ExtentTraverser<>(finalDest).find(ParallelQueueExtent.class);
             Extent preloader = queueTraverser != null ? queueTraverser.get() : source;
@@ -440,14 +446,9 @@ public Operation resume(RunContext run) throws WorldEditException {
                         currentTransform
                 );
                 entityCopy.setRemoving(removingEntities);
-                List<? extends Entity> entities2 = Lists.newArrayList(source.getEntities(region));
-                entities2.removeIf(entity -> {
-                    EntityProperties properties = entity.getFacet(EntityProperties.class);
-                    return properties != null && !properties.isPasteable();
-                });
-                EntityVisitor entityVisitor = new EntityVisitor(entities.iterator(), entityCopy);
-                Operations.completeBlindly(entityVisitor);
-                affectedEntities += entityVisitor.getAffected();
+                long start = System.nanoTime();
+                affectedEntities += entityCopy.applyAll(entities);
+                entityNanos += System.nanoTime() - start;
             }
 
             if (transExt != null) {
@@ -547,7 +548,9 @@ public void cancel() {
 
     @Override
     public Iterable<Component> getStatusMessages() {
-        return ImmutableList.of(
+        //FAWE start - entity rate only if entities were copied
+        ImmutableList.Builder<Component> messages = ImmutableList.builder();
+        messages.add(
                 Caption.of(
                         "worldedit.operation.affected.block",
                         TextComponent.of(affectedBlocks)
@@ -561,6 +564,14 @@ public Iterable<Component> getStatusMessages() {
                         TextComponent.of(affectedEntities)
                 )
         );
+        if (affectedEntities > 0) {
+            messages.add(Caption.of(
+                    "fawe.worldedit.visitor.visitor.entity.rate",
+                    TextComponent.of(entityNanos == 0 ? 0 : affectedEntities * 1_000_000_000L / entityNanos)
+            ));
+        }
+        return messages.build();
+        //FAWE end
     }
 
 }
@@ -19,12 +19,14 @@
 
 package com.sk89q.worldedit.math.convolution;
 
+import com.fastasyncworldedit.core.extent.filter.ColumnHeightFilter;
 import com.fastasyncworldedit.core.registry.state.PropertyGroup;
 import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.MaxChangedBlocksException;
 import com.sk89q.worldedit.function.mask.Mask;
 import com.sk89q.worldedit.math.BlockVector2;
 import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.regions.Region;
 import com.sk89q.worldedit.regions.Regions;
 import com.sk89q.worldedit.world.block.BlockState;
@@ -111,16 +113,19 @@ public HeightMap(EditSession session, Region region, @Nullable Mask mask, boolea
                 layer = session.getNearestSurfaceLayer(x, z, (layer + 7) >> 3, session.getMinY(), maxY);
                 data[(z - bz) * width + (x - bx)] = layer;
             }
+        } else if (mask == null) {
+            // Read whole chunks of columns at a time, in parallel where the session allows
+            int[] heights = ColumnHeightFilter.read(session, new CuboidRegion(
+                    BlockVector3.at(minX, minY, minZ),
+                    BlockVector3.at(minX + width - 1, maxY, minZ + height - 1)
+            ));
+            System.arraycopy(heights, 0, data, 0, data.length);
         } else {
             // Store current heightmap data
             int index = 0;
             for (int z = 0; z < height; z++) {
                 for (int x = 0; x < width; x++, index++) {
-                    if (mask == null) {
-                        data[index] = session.getHighestTerrainBlock(x + minX, z + minZ, minY, maxY);
-                    } else {
-                        data[index] = session.getHighestTerrainBlock(x + minX, z + minZ, minY, maxY, mask);
-                    }
+                    data[index] = session.getHighestTerrainBlock(x + minX, z + minZ, minY, maxY, mask);
                 }
             }
         }
@@ -19,6 +19,14 @@
 
 package com.sk89q.worldedit.math.convolution;
 
+import com.fastasyncworldedit.core.util.TaskManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -28,7 +36,15 @@
  */
 public class HeightMapFilter {
 
+    //FAWE start - separable parallel filtering
+    private static final int PARALLEL_THRESHOLD = 65536;
+    private static final float SEPARABLE_EPSILON = 1e-6f;
+    //FAWE end
+
     private Kernel kernel;
+    //FAWE start
+    private float[][] separable;
+    //FAWE end
 
     /**
      * Construct the HeightMapFilter object.
@@ -38,6 +54,9 @@ public class HeightMapFilter {
     public HeightMapFilter(Kernel kernel) {
         checkNotNull(kernel);
         this.kernel = kernel;
+        //FAWE start
+        this.separable = separate(kernel);
+        //FAWE end
     }
 
     /**
@@ -50,6 +69,9 @@ public HeightMapFilter(Kernel kernel) {
     public HeightMapFilter(int kernelWidth, int kernelHeight, float[] kernelData) {
         checkNotNull(kernelData);
         this.kernel = new Kernel(kernelWidth, kernelHeight, kernelData);
+        //FAWE start
+        this.separable = separate(kernel);
+        //FAWE end
     }
 
     /**
@@ -68,6 +90,9 @@ public void setKernel(Kernel kernel) {
         checkNotNull(kernel);
 
         this.kernel = kernel;
+        //FAWE start
+        this.separable = separate(kernel);
+        //FAWE end
     }
 
     /**
@@ -94,6 +119,12 @@ public int[] filter(int[] inData, int width, int height) {
     public int[] filter(int[] inData, int width, int height, float offset) {
         checkNotNull(inData);
 
+        //FAWE start - separable kernels (e.g. gaussian) are applied as two 1D passes across threads
+        if (separable != null) {
+            return filterSeparable(inData, width, height, offset, separable[0], separable[1]);
+        }
+        //FAWE end
+
         float[] inDataFloat = new float[inData.length];
         for (int i = 0; i < inData.length; i++) {
             inDataFloat[i] = inData[i];
@@ -182,4 +213,112 @@ private float calculateHeight(float[] inData, int width, int height, float offse
         return z + offset;
     }
 
+    //FAWE start - separable parallel filtering
+
+    /**
+     * Split a kernel into a column and a row vector whose outer product is the kernel, if possible.
+     *
+     * @return {@code {column, row}} or null if the kernel is not separable
+     */
+    private static float[][] separate(Kernel kernel) {
+        int kw = kernel.getWidth();
+        int kh = kernel.getHeight();
+        int kox = kernel.getXOrigin();
+        int koy = kernel.getYOrigin();
+        float[] matrix = kernel.getKernelData(null);
+        float pivot = matrix[koy * kw + kox];
+        if (pivot == 0) {
+            return null;
+        }
+        float[] row = new float[kw];
+        float[] column = new float[kh];
+        float max = 0;
+        for (int kx = 0; kx < kw; kx++) {
+            row[kx] = matrix[koy * kw + kx];
+        }
+        for (int ky = 0; ky < kh; ky++) {
+            column[ky] = matrix[ky * kw + kox] / pivot;
+        }
+        for (float f : matrix) {
+            max = Math.max(max, Math.abs(f));
+        }
+        for (int ky = 0; ky < kh; ky++) {
+            for (int kx = 0; kx < kw; kx++) {
+                if (Math.abs(matrix[ky * kw + kx] - column[ky] * row[kx]) > SEPARABLE_EPSILON * max) {
+                    return null;
+                }
+            }
+        }
+        return new float[][]{column, row};
+    }
+
+    /**
+     * Equivalent to the 2D filter for a separable kernel, including the clamping of out-of-bounds coordinates to the
+     * current row/column, but computed as a horizontal then a vertical pass split into bands of rows.
+     */
+    private int[] filterSeparable(int[] inData, int width, int height, float offset, float[] column, float[] row) {
+        final int kox = kernel.getXOrigin();
+        final int koy = kernel.getYOrigin();
+        final double[] horizontal = new double[inData.length];
+        final int[] outData = new int[inData.length];
+
+        forEachRow(height, inData.length, y -> {
+            int rowOffset = y * width;
+            for (int x = 0; x < width; x++) {
+                double sum = 0;
+                for (int kx = 0; kx < row.length; kx++) {
+                    int offsetX = x + kx - kox;
+                    // Clamp coordinates inside data
+                    if (offsetX < 0 || offsetX >= width) {
+                        offsetX = x;
+                    }
+                    sum += row[kx] * inData[rowOffset + offsetX];
+                }
+                horizontal[rowOffset + x] = sum;
+            }
+        });
+        forEachRow(height, inData.length, y -> {
+            int rowOffset = y * width;
+            for (int x = 0; x < width; x++) {
+                double sum = 0;
+                for (int ky = 0; ky < column.length; ky++) {
+                    int offsetY = y + ky - koy;
+                    // Clamp coordinates inside data
+                    if (offsetY < 0 || offsetY >= height) {
+                        offsetY = y;
+                    }
+                    sum += column[ky] * horizontal[offsetY * width + x];
+                }
+                outData[rowOffset + x] = (int) Math.floor(sum + offset);
+            }
+        });
+        return outData;
+    }
+
+    private static void forEachRow(int rows, int cells, IntConsumer task) {
+        if (cells < PARALLEL_THRESHOLD || rows < 2) {
+            for (int y = 0; y < rows; y++) {
+                task.accept(y);
+            }
+            return;
+        }
+        ForkJoinPool pool = TaskManager.taskManager().getPublicForkJoinPool();
+        int bands = Math.min(rows, pool.getParallelism() * 4);
+        int bandSize = (rows + bands - 1) / bands;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(bands);
+        for (int start = 0; start < rows; start += bandSize) {
+            final int from = start;
+            final int to = Math.min(rows, start + bandSize);
+            tasks.add(pool.submit(() -> {
+                for (int y = from; y < to; y++) {
+                    task.accept(y);
+                }
+            }));
+        }
+        for (ForkJoinTask<?> t : tasks) {
+            t.join();
+        }
+    }
+    //FAWE end
+
 }
@@ -19,6 +19,12 @@
 
 package com.sk89q.worldedit.regions;
 
+import com.fastasyncworldedit.core.extent.filter.block.ChunkFilterBlock;
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.fastasyncworldedit.core.queue.IChunkGet;
+import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.regions.ColumnSpans;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.math.Vector3;
 import com.sk89q.worldedit.regions.polyhedron.Edge;
@@ -334,5 +340,76 @@ public AbstractRegion clone() {
     public boolean containsEntireCuboid(int bx, int tx, int by, int ty, int bz, int tz) {
         return false;
     }
+
+    @Override
+    public void filter(
+            final IChunk chunk, final Filter filter, final ChunkFilterBlock block,
+            final IChunkGet get, final IChunkSet set, boolean full
+    ) {
+        if (!isDefined()) {
+            return;
+        }
+        final BlockVector3 min = getMinimumPoint();
+        final BlockVector3 max = getMaximumPoint();
+        int bx = chunk.getX() << 4;
+        int bz = chunk.getZ() << 4;
+        ColumnSpans spans = new ColumnSpans();
+        for (int z = Math.max(0, min.z() - bz); z <= Math.min(15, max.z() - bz); z++) {
+            for (int x = Math.max(0, min.x() - bx); x <= Math.min(15, max.x() - bx); x++) {
+                setColumnSpan(spans, x, z, bx + x, bz + z, min.y(), max.y());
+            }
+        }
+        spans.filter(chunk, filter, block, get, set, full);
+    }
+
+    // The hull is convex, so a column holds a single range of y. The range is found from the planes of the triangles, and
+    // its ends are then corrected against contains in case of rounding.
+    private void setColumnSpan(ColumnSpans spans, int localX, int localZ, int x, int z, int minY, int maxY) {
+        final double epsilon = 1e-9;
+        int lo = minY;
+        int hi = maxY;
+        for (Triangle triangle : triangles) {
+            final Vector3 normal = triangle.getNormal();
+            // Inside if normal.y * y <= b for every triangle
+            double b = triangle.getMaxDotProduct() - normal.x() * x - normal.z() * z;
+            double a = normal.y();
+            if (a > epsilon) {
+                hi = (int) Math.min(hi, Math.floor(b / a));
+            } else if (a < -epsilon) {
+                lo = (int) Math.max(lo, Math.ceil(b / a));
+            } else if (b < -epsilon) {
+                return;
+            }
+        }
+        if (lo > hi) {
+            if (lo - hi > 2) {
+                return;
+            }
+            int y = Math.max(minY, hi);
+            while (y <= Math.min(maxY, lo) && !contains(BlockVector3.at(x, y, z))) {
+                y++;
+            }
+            if (y > Math.min(maxY, lo)) {
+                return;
+            }
+            lo = hi = y;
+        }
+        while (lo <= hi && !contains(BlockVector3.at(x, lo, z))) {
+            lo++;
+        }
+        while (hi >= lo && !contains(BlockVector3.at(x, hi, z))) {
+            hi--;
+        }
+        if (lo > hi) {
+            return;
+        }
+        while (lo > minY && contains(BlockVector3.at(x, lo - 1, z))) {
+            lo--;
+        }
+        while (hi < maxY && contains(BlockVector3.at(x, hi + 1, z))) {
+            hi++;
+        }
+        spans.set(localX, localZ, lo, hi);
+    }
     //FAWE end
 }
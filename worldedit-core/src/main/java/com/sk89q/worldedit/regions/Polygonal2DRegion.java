@@ -20,6 +20,12 @@
 package com.sk89q.worldedit.regions;
 
 import com.fastasyncworldedit.core.configuration.Caption;
+import com.fastasyncworldedit.core.extent.filter.block.ChunkFilterBlock;
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.fastasyncworldedit.core.queue.IChunkGet;
+import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.fastasyncworldedit.core.regions.ColumnSpans;
 import com.sk89q.worldedit.math.BlockVector2;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.regions.iterator.FlatRegion3DIterator;
@@ -530,5 +536,27 @@ public boolean containsEntireCuboid(int bx, int tx, int by, int ty, int bz, int
         }
         return true;
     }
+
+    @Override
+    public void filter(
+            final IChunk chunk, final Filter filter, final ChunkFilterBlock block,
+            final IChunkGet get, final IChunkSet set, boolean full
+    ) {
+        if (points.size() < 3) {
+            return;
+        }
+        int bx = chunk.getX() << 4;
+        int bz = chunk.getZ() << 4;
+        // Every contained column spans the full height, so the polygon only needs to be tested once per column
+        ColumnSpans spans = new ColumnSpans();
+        for (int z = Math.max(0, min.z() - bz); z <= Math.min(15, max.z() - bz); z++) {
+            for (int x = Math.max(0, min.x() - bx); x <= Math.min(15, max.x() - bx); x++) {
+                if (contains(bx + x, bz + z)) {
+                    spans.set(x, z, minY, maxY);
+                }
+            }
+        }
+        spans.filter(chunk, filter, block, get, set, full);
+    }
     //FAWE end
 }
@@ -110,4 +110,28 @@ public String toString() {
         return tag + "(" + this.vertices[0] + "," + this.vertices[1] + "," + this.vertices[2] + ")";
     }
 
+    //FAWE start
+
+    /**
+     * Returns the normal of the plane the triangle is in.
+     *
+     * @return the normal
+     * @since 2.13.1
+     */
+    public Vector3 getNormal() {
+        return normal;
+    }
+
+    /**
+     * Returns the greatest dot product of the triangle's vertices with its normal. Points with a greater dot product are
+     * above the triangle.
+     *
+     * @return the maximum dot product
+     * @since 2.13.1
+     */
+    public double getMaxDotProduct() {
+        return maxDotProduct;
+    }
+    //FAWE end
+
 }
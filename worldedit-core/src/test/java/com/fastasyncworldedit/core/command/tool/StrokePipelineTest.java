@@ -0,0 +1,150 @@
+package com.fastasyncworldedit.core.command.tool;
+
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.EditSessionBuilder;
+import com.sk89q.worldedit.LocalSession;
+import com.sk89q.worldedit.MissingWorldException;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.entity.Player;
+import com.sk89q.worldedit.world.World;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Isolated
+class StrokePipelineTest {
+
+    private boolean enabled;
+    private MockedStatic<WorldEdit> worldEdit;
+    private EditSession batch;
+    private LocalSession session;
+    private Player player;
+    private StrokePipeline pipeline;
+    private final List<EditSession> strokes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        enabled = Settings.settings().QUEUE.BRUSH_STROKES.ENABLED;
+        Settings.settings().QUEUE.BRUSH_STROKES.ENABLED = true;
+
+        batch = mock();
+        final EditSessionBuilder builder = mock(EditSessionBuilder.class, RETURNS_SELF);
+        when(builder.build()).thenReturn(batch);
+        final WorldEdit instance = mock();
+        when(instance.newEditSessionBuilder()).thenReturn(builder);
+        worldEdit = mockStatic(WorldEdit.class);
+        worldEdit.when(WorldEdit::getInstance).thenReturn(instance);
+
+        final World world = mock();
+        player = mock();
+        when(player.getWorld()).thenReturn(world);
+
+        session = spy(new LocalSession());
+        doAnswer(invocationOnMock -> {
+            EditSession stroke = mock();
+            strokes.add(stroke);
+            return stroke;
+        }).when(session).createEditSession(any(), any(), any());
+        doNothing().when(session).remember(any(EditSession.class));
+        pipeline = session.getStrokePipeline();
+    }
+
+    @AfterEach
+    void tearDown() {
+        worldEdit.close();
+        Settings.settings().QUEUE.BRUSH_STROKES.ENABLED = enabled;
+    }
+
+    // Runs a stroke with another stroke waiting after it, so it is not placed when it is done
+    private void stroke(Runnable during) {
+        pipeline.run(player, () -> {
+            pipeline.remember(pipeline.createEditSession(player, "brush"));
+            during.run();
+        }, () -> true);
+    }
+
+    private void stroke() {
+        stroke(() -> {
+        });
+    }
+
+    @Nested
+    class place {
+
+        @Test
+        void testEachStrokeIsItsOwnUndoStep() {
+            stroke();
+            stroke();
+            stroke();
+            verify(session, never()).remember(any(EditSession.class));
+
+            pipeline.place();
+
+            assertEquals(3, strokes.size());
+            // Strokes are placed together, and remembered one by one in the order they ran
+            verify(batch).close();
+            InOrder inOrder = inOrder(session);
+            for (EditSession stroke : strokes) {
+                inOrder.verify(session).remember(stroke);
+            }
+            verify(session, times(3)).remember(any(EditSession.class));
+        }
+
+        @Test
+        void testUndoPlacesPendingStrokesFirst() {
+            stroke();
+            stroke();
+
+            // The player has no world, so undo fails once the strokes were placed
+            assertThrows(MissingWorldException.class, () -> session.undo(null, player));
+
+            InOrder inOrder = inOrder(batch, session, player);
+            inOrder.verify(batch).close();
+            inOrder.verify(session).remember(strokes.get(0));
+            inOrder.verify(session).remember(strokes.get(1));
+            inOrder.verify(player).getWorldForEditing();
+        }
+
+        @Test
+        void testPlaceDuringStrokeIsDeferred() {
+            stroke(() -> {
+                pipeline.place();
+                verify(session, never()).remember(any(EditSession.class));
+            });
+
+            // Placed once the stroke was done, although another stroke is waiting
+            verify(batch).close();
+            verify(session).remember(strokes.get(0));
+        }
+
+        @Test
+        void testPlaceFromAnotherThreadWaitsForStroke() throws Exception {
+            List<CompletableFuture<Void>> placing = new ArrayList<>();
+            stroke(() -> {
+                placing.add(CompletableFuture.runAsync(pipeline::place));
+                assertThrows(TimeoutException.class, () -> placing.get(0).get(200, TimeUnit.MILLISECONDS));
+                verify(session, never()).remember(any(EditSession.class));
+            });
+
+            placing.get(0).get(5, TimeUnit.SECONDS);
+            verify(batch).close();
+            verify(session).remember(strokes.get(0));
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.fastasyncworldedit.core.extent.clipboard;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DiskOptimizedClipboardTest {
+
+    // Layout of version 3: a header padded to the first tile, then 16x16x16 tiles of ordinals in XZY tile order
+    private static final int TILES_START = 8192;
+    private static final int TILE_BYTES = 8192;
+
+    @TempDir
+    Path directory;
+
+    private static long expectedOffset(BlockVector3 dimensions, int x, int y, int z) {
+        int tilesX = (dimensions.x() + 15) >> 4;
+        int tilesZ = (dimensions.z() + 15) >> 4;
+        long tile = ((long) (y >> 4) * tilesZ + (z >> 4)) * tilesX + (x >> 4);
+        return TILES_START + tile * TILE_BYTES + (((y & 15) << 8 | (z & 15) << 4 | (x & 15)) << 1);
+    }
+
+    private static char ordinal(int x, int y, int z) {
+        return (char) (2 + (x * 31 + y * 17 + z * 7) % 1000);
+    }
+
+    @Nested
+    class tiles {
+
+        @ParameterizedTest
+        @MethodSource("provideDimensions")
+        void testHeaderAndFileSize(BlockVector3 dimensions) throws IOException {
+            File file = directory.resolve("header.bd").toFile();
+            new DiskOptimizedClipboard(dimensions, file).close();
+
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            assertEquals(3, bytes.getChar(2), "blocks should be stored in tiles since version 3");
+            assertEquals(dimensions.x(), bytes.getChar(4));
+            assertEquals(dimensions.y(), bytes.getChar(6));
+            assertEquals(dimensions.z(), bytes.getChar(8));
+            long tiles = (long) ((dimensions.x() + 15) >> 4) * ((dimensions.y() + 15) >> 4) * ((dimensions.z() + 15) >> 4);
+            assertEquals(TILES_START + tiles * TILE_BYTES, bytes.capacity(), "file should hold whole tiles only");
+
+            DiskOptimizedClipboard loaded = DiskOptimizedClipboard.loadFromFile(file);
+            try {
+                assertEquals(dimensions, loaded.getDimensions());
+            } finally {
+                loaded.close();
+            }
+        }
+
+        @ParameterizedTest
+        @MethodSource("provideDimensions")
+        void testBlocksAreStoredInTiles(BlockVector3 dimensions) throws IOException {
+            File file = directory.resolve("blocks.bd").toFile();
+            BlockState[] states = new BlockState[1002];
+            for (char ordinal = 2; ordinal < states.length; ordinal++) {
+                BlockState state = mock();
+                when(state.getOrdinalChar()).thenReturn(ordinal);
+                states[ordinal] = state;
+            }
+
+            DiskOptimizedClipboard clipboard = new DiskOptimizedClipboard(dimensions, file);
+            try {
+                int index = 0;
+                for (int y = 0; y < dimensions.y(); y++) {
+                    for (int z = 0; z < dimensions.z(); z++) {
+                        for (int x = 0; x < dimensions.x(); x++, index++) {
+                            BlockState state = states[ordinal(x, y, z)];
+                            // Both ways of addressing a block must agree on its place in the file
+                            if ((x + z) % 2 == 0) {
+                                assertTrue(clipboard.setBlock(x, y, z, state));
+                            } else {
+                                assertTrue(clipboard.setBlock(index, state));
+                            }
+                        }
+                    }
+                }
+            } finally {
+                clipboard.close();
+            }
+
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            for (int y = 0; y < dimensions.y(); y++) {
+                for (int z = 0; z < dimensions.z(); z++) {
+                    for (int x = 0; x < dimensions.x(); x++) {
+                        int offset = (int) expectedOffset(dimensions, x, y, z);
+                        assertEquals(ordinal(x, y, z), bytes.getChar(offset), "block at %d %d %d".formatted(x, y, z));
+                    }
+                }
+            }
+        }
+
+        @ParameterizedTest
+        @MethodSource("provideDimensions")
+        void testIteratorReadsFileSequentially(BlockVector3 dimensions) {
+            File file = directory.resolve("iterate.bd").toFile();
+            DiskOptimizedClipboard clipboard = new DiskOptimizedClipboard(dimensions, file);
+            try {
+                long previous = -1;
+                long visited = 0;
+                Iterator<BlockVector3> iterator = clipboard.iterator();
+                while (iterator.hasNext()) {
+                    BlockVector3 position = iterator.next();
+                    int x = position.x();
+                    int y = position.y();
+                    int z = position.z();
+                    assertTrue(x >= 0 && x < dimensions.x() && y >= 0 && y < dimensions.y() && z >= 0 && z < dimensions.z(),
+                            "position %d %d %d out of bounds".formatted(x, y, z)
+                    );
+                    long offset = expectedOffset(dimensions, x, y, z);
+                    // Strictly increasing offsets also mean each position is visited once
+                    assertTrue(offset > previous, "position %d %d %d visited out of file order".formatted(x, y, z));
+                    previous = offset;
+                    visited++;
+                }
+                assertEquals((long) dimensions.x() * dimensions.y() * dimensions.z(), visited);
+            } finally {
+                clipboard.close();
+            }
+        }
+
+        private static Stream<Arguments> provideDimensions() {
+            return Stream.of(
+                    Arguments.of(BlockVector3.at(16, 16, 16)),
+                    Arguments.of(BlockVector3.at(1, 1, 1)),
+                    // Partial tiles on every axis
+                    Arguments.of(BlockVector3.at(40, 20, 33)),
+                    Arguments.of(BlockVector3.at(17, 300, 5))
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.fastasyncworldedit.core.extent.clipboard;
+
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Isolated
+class SharedClipboardCacheTest {
+
+    private static final BlockVector3 DIMENSIONS = BlockVector3.at(4, 4, 4);
+    private static final BlockVector3 ORIGIN = BlockVector3.at(1, 2, 3);
+    // Half of the budget of the tests
+    private static final int HALF_BUDGET_VOLUME = 1 << 18;
+
+    @TempDir
+    Path directory;
+
+    private int sharedCacheMb;
+    private boolean useDisk;
+    private int compressionLevel;
+
+    @BeforeEach
+    void setUp() {
+        sharedCacheMb = Settings.settings().CLIPBOARD.SHARED_CACHE_MB;
+        useDisk = Settings.settings().CLIPBOARD.USE_DISK;
+        compressionLevel = Settings.settings().CLIPBOARD.COMPRESSION_LEVEL;
+        Settings.settings().CLIPBOARD.SHARED_CACHE_MB = 1;
+        SharedClipboardCache.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SharedClipboardCache.clear();
+        Settings.settings().CLIPBOARD.SHARED_CACHE_MB = sharedCacheMb;
+        Settings.settings().CLIPBOARD.USE_DISK = useDisk;
+        Settings.settings().CLIPBOARD.COMPRESSION_LEVEL = compressionLevel;
+    }
+
+    // The cache is identified by contents, so every schematic of the tests has its own
+    private File schematic() throws IOException {
+        File file = directory.resolve(UUID.randomUUID() + ".schem").toFile();
+        Files.writeString(file.toPath(), file.getName(), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static <T extends SimpleClipboard> T stub(T shared, int volume) {
+        when(shared.getDimensions()).thenReturn(DIMENSIONS);
+        when(shared.getVolume()).thenReturn(volume);
+        when(shared.getRegion()).thenReturn(new CuboidRegion(null, BlockVector3.ZERO, DIMENSIONS.subtract(1, 1, 1), false));
+        when(shared.getOrigin()).thenReturn(ORIGIN);
+        when(shared.iterator()).thenReturn(Collections.emptyIterator());
+        return shared;
+    }
+
+    private static ClipboardReader reader(ClipboardFormat format) throws IOException {
+        final ClipboardReader reader = mock();
+        when(format.getReader(any())).thenReturn(reader);
+        return reader;
+    }
+
+    private static BlockArrayClipboard read(SimpleClipboard shared) {
+        return new BlockArrayClipboard(shared.getRegion(), shared);
+    }
+
+    @Nested
+    class load {
+
+        @Test
+        void testLoadsOfTheSameFileShareOneRead() throws IOException {
+            File file = schematic();
+            final ClipboardFormat format = mock();
+            final SimpleClipboard shared = stub(mock(), 1);
+            when(reader(format).read(any(UUID.class))).thenReturn(read(shared));
+
+            Clipboard first = SharedClipboardCache.load(file, format);
+            Clipboard second = SharedClipboardCache.load(file, format);
+
+            verify(format, times(1)).getReader(any());
+            assertEquals(ORIGIN, first.getOrigin());
+            assertEquals(ORIGIN, second.getOrigin());
+            first.close();
+            second.close();
+            verify(shared, never()).close();
+        }
+
+        @Test
+        void testFailedLoadDoesNotKeepAReference() throws IOException {
+            File file = schematic();
+            final ClipboardFormat format = mock();
+            // Over the budget, so it is unloaded as soon as it is no longer in use
+            final SimpleClipboard shared = stub(mock(), 2 * HALF_BUDGET_VOLUME + 1);
+            when(reader(format).read(any(UUID.class)))
+                    .thenThrow(new IOException("corrupt"))
+                    .thenReturn(read(shared));
+
+            assertThrows(IOException.class, () -> SharedClipboardCache.load(file, format));
+            Clipboard clipboard = SharedClipboardCache.load(file, format);
+            clipboard.close();
+
+            verify(shared).close();
+        }
+
+        @Test
+        void testClipboardThatCanNotBeSharedIsReadForEachLoad() throws IOException {
+            File file = schematic();
+            final ClipboardFormat format = mock();
+            final Clipboard read = mock();
+            when(reader(format).read(any(UUID.class))).thenReturn(read);
+
+            assertSame(read, SharedClipboardCache.load(file, format));
+            assertSame(read, SharedClipboardCache.load(file, format));
+
+            verify(format, times(4)).getReader(any());
+            verify(read, times(2)).close();
+        }
+
+    }
+
+    @Nested
+    class evict {
+
+        @Test
+        void testEvictedEntryIsClosedAndItsFileDeleted() throws IOException {
+            final ClipboardFormat format = mock();
+            final ClipboardReader reader = reader(format);
+            DiskOptimizedClipboard[] shared = new DiskOptimizedClipboard[3];
+            File[] files = new File[3];
+            for (int i = 0; i < shared.length; i++) {
+                files[i] = directory.resolve("shared-" + i + ".bd").toFile();
+                assertTrue(files[i].createNewFile());
+                shared[i] = stub(mock(), HALF_BUDGET_VOLUME);
+                when(shared[i].getFile()).thenReturn(files[i]);
+            }
+            when(reader.read(any(UUID.class))).thenReturn(read(shared[0]), read(shared[1]), read(shared[2]));
+
+            SharedClipboardCache.load(schematic(), format).close();
+            SharedClipboardCache.load(schematic(), format).close();
+            // Both kept, as they are within the budget
+            verify(shared[0], never()).close();
+            verify(shared[1], never()).close();
+            Clipboard inUse = SharedClipboardCache.load(schematic(), format);
+
+            verify(shared[0]).close();
+            assertFalse(files[0].exists(), "the file of the least recently loaded schematic should be deleted");
+            verify(shared[1], never()).close();
+            assertTrue(files[1].exists());
+            inUse.close();
+        }
+
+        @Test
+        void testEntryInUseIsNotEvicted() throws IOException {
+            File file = schematic();
+            final ClipboardFormat format = mock();
+            final SimpleClipboard shared = stub(mock(), 2 * HALF_BUDGET_VOLUME + 1);
+            when(reader(format).read(any(UUID.class))).thenReturn(read(shared));
+
+            Clipboard first = SharedClipboardCache.load(file, format);
+            Clipboard second = SharedClipboardCache.load(file, format);
+            first.close();
+            verify(shared, never()).close();
+
+            second.close();
+            verify(shared).close();
+        }
+
+    }
+
+    @Nested
+    class copyOnWrite {
+
+        @Test
+        void testModifiedClipboardIsNotShared() throws IOException, WorldEditException {
+            // The clipboard of the loads that modify their schematic is copied in memory
+            Settings.settings().CLIPBOARD.USE_DISK = false;
+            Settings.settings().CLIPBOARD.COMPRESSION_LEVEL = 0;
+            File file = schematic();
+            final ClipboardFormat format = mock();
+            final SimpleClipboard shared = stub(mock(), 1);
+            final BlockState sharedState = mock();
+            when(shared.getBlock(anyInt(), anyInt(), anyInt())).thenReturn(sharedState);
+            when(reader(format).read(any(UUID.class))).thenReturn(read(shared));
+            final BlockState state = mock();
+            when(state.getOrdinalChar()).thenReturn((char) 5);
+
+            Clipboard modified = SharedClipboardCache.load(file, format);
+            Clipboard other = SharedClipboardCache.load(file, format);
+            assertTrue(modified.setBlock(1, 1, 1, state));
+            assertTrue(modified.setBlock(2, 1, 1, state));
+            modified.setOrigin(BlockVector3.at(7, 7, 7));
+
+            verify(shared, never()).setBlock(anyInt(), anyInt(), anyInt(), any(BlockState.class));
+            verify(shared, times(1)).iterator();
+            assertSame(sharedState, other.getBlock(BlockVector3.at(1, 1, 1)));
+            assertEquals(ORIGIN, other.getOrigin(), "the origin should not be shared");
+            assertEquals(BlockVector3.at(7, 7, 7), modified.getOrigin());
+            modified.close();
+            other.close();
+        }
+
+    }
+
+}
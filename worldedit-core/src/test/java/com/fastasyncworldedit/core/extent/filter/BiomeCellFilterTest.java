@@ -0,0 +1,122 @@
+package com.fastasyncworldedit.core.extent.filter;
+
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BiomeCellFilterTest {
+
+    private static final BiomeType BIOME = new BiomeType("test:biome");
+    private static final int MIN_SECTION = -4;
+    private static final int MAX_SECTION = 19;
+
+    // Biomes set per section of the chunk, copied as the filter reuses its array
+    private static Map<Integer, BiomeType[]> apply(BiomeCellFilter filter, int chunkX, int chunkZ, Region region) {
+        Map<Integer, BiomeType[]> sections = new HashMap<>();
+        final IChunk chunk = mock();
+        when(chunk.getX()).thenReturn(chunkX);
+        when(chunk.getZ()).thenReturn(chunkZ);
+        when(chunk.getMinSectionPosition()).thenReturn(MIN_SECTION);
+        when(chunk.getMaxSectionPosition()).thenReturn(MAX_SECTION);
+        doAnswer(invocationOnMock -> {
+            BiomeType[] cells = invocationOnMock.getArgument(1);
+            assertNull(sections.put(invocationOnMock.getArgument(0), cells.clone()), "section set twice");
+            return null;
+        }).when(chunk).setSectionBiomes(anyInt(), any());
+
+        assertNull(filter.applyChunk(chunk, region), "blocks should not be visited");
+        return sections;
+    }
+
+    // Hides the type of the region, so each position is tested
+    private static Region generic(CuboidRegion cuboid) {
+        final Region region = mock();
+        when(region.getMinimumY()).thenReturn(cuboid.getMinimumY());
+        when(region.getMaximumY()).thenReturn(cuboid.getMaximumY());
+        when(region.contains(anyInt(), anyInt(), anyInt())).thenAnswer(invocationOnMock -> cuboid.contains(
+                invocationOnMock.<Integer>getArgument(0),
+                invocationOnMock.<Integer>getArgument(1),
+                invocationOnMock.<Integer>getArgument(2)
+        ));
+        return region;
+    }
+
+    @Nested
+    class applyChunk {
+
+        @Test
+        void testWholeChunkWithoutRegion() {
+            BiomeCellFilter filter = new BiomeCellFilter(BIOME);
+            Map<Integer, BiomeType[]> sections = apply(filter, 3, -7, null);
+
+            assertEquals(MAX_SECTION - MIN_SECTION + 1, sections.size());
+            BiomeType[] expected = new BiomeType[64];
+            Arrays.fill(expected, BIOME);
+            sections.values().forEach(cells -> assertArrayEquals(expected, cells));
+            assertEquals((MAX_SECTION - MIN_SECTION + 1) * 4096, filter.getAffected());
+        }
+
+        @ParameterizedTest
+        @MethodSource("provideRegions")
+        void testCuboidMatchesGenericRegion(int chunkX, int chunkZ, BlockVector3 min, BlockVector3 max) {
+            CuboidRegion cuboid = new CuboidRegion(min, max);
+            BiomeCellFilter fast = new BiomeCellFilter(BIOME);
+            BiomeCellFilter slow = new BiomeCellFilter(BIOME);
+
+            Map<Integer, BiomeType[]> expected = apply(slow, chunkX, chunkZ, generic(cuboid));
+            Map<Integer, BiomeType[]> actual = apply(fast, chunkX, chunkZ, cuboid);
+
+            assertEquals(expected.keySet(), actual.keySet(), "sections set");
+            expected.forEach((layer, cells) -> assertArrayEquals(cells, actual.get(layer), "cells of section " + layer));
+            assertEquals(slow.getAffected(), fast.getAffected(), "positions affected");
+        }
+
+        private static Stream<Arguments> provideRegions() {
+            return Stream.of(
+                    // Whole chunk
+                    Arguments.of(0, 0, BlockVector3.at(0, -64, 0), BlockVector3.at(15, 319, 15)),
+                    // Cells only partly covered, in several sections
+                    Arguments.of(0, 0, BlockVector3.at(1, 5, 2), BlockVector3.at(9, 37, 14)),
+                    Arguments.of(-1, -1, BlockVector3.at(-13, -60, -3), BlockVector3.at(-5, -49, -1)),
+                    // Larger than the chunk
+                    Arguments.of(2, -3, BlockVector3.at(-100, 60, -100), BlockVector3.at(100, 70, 100)),
+                    // A single position
+                    Arguments.of(5, 5, BlockVector3.at(87, 100, 95), BlockVector3.at(87, 100, 95)),
+                    // Outside of the chunk
+                    Arguments.of(0, 0, BlockVector3.at(16, 0, 0), BlockVector3.at(40, 10, 10)),
+                    // Beyond the height of the chunk
+                    Arguments.of(0, 0, BlockVector3.at(0, 400, 0), BlockVector3.at(15, 500, 15))
+            );
+        }
+
+        @Test
+        void testForksAreJoined() {
+            BiomeCellFilter root = new BiomeCellFilter(BIOME);
+            BiomeCellFilter fork = root.init();
+            CuboidRegion region = new CuboidRegion(BlockVector3.at(0, 0, 0), BlockVector3.at(31, 15, 15));
+
+            apply(root, 0, 0, region);
+            apply(fork, 1, 0, region);
+            root.join(fork);
+
+            assertEquals(2 * 16 * 16 * 16, root.getAffected());
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.fastasyncworldedit.core.history;
+
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.sk89q.worldedit.world.World;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Isolated
+class TieredHistoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private int budget;
+    private TieredHistoryStore store;
+
+    @BeforeEach
+    void setUp() {
+        budget = Settings.settings().HISTORY.MEMORY_BUDGET_MB;
+        // Spilling is triggered by the tests, not in the background
+        Settings.settings().HISTORY.MEMORY_BUDGET_MB = -1;
+        store = new TieredHistoryStore(directory.toFile());
+        TieredHistoryStore.setInstance(store);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TieredHistoryStore.setInstance(null);
+        Settings.settings().HISTORY.MEMORY_BUDGET_MB = budget;
+    }
+
+    private static MemoryOptimizedHistory closedHistory() throws IOException {
+        final World world = mock();
+        when(world.getMinY()).thenReturn(-64);
+        when(world.getMaxY()).thenReturn(319);
+        when(world.getName()).thenReturn("world");
+        MemoryOptimizedHistory history = new MemoryOptimizedHistory(world);
+        for (int i = 0; i < 1000; i++) {
+            history.add(i & 31, i >> 5, i % 7, 2 + i % 5, 10 + i % 3);
+        }
+        history.close();
+        return history;
+    }
+
+    private long spillFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private void spillAll() {
+        Settings.settings().HISTORY.MEMORY_BUDGET_MB = 0;
+        store.spill();
+        Settings.settings().HISTORY.MEMORY_BUDGET_MB = -1;
+    }
+
+    @Nested
+    class spill {
+
+        @Test
+        void testSpilledHistoryIsNoLongerResident() throws IOException {
+            MemoryOptimizedHistory history = closedHistory();
+            long bytes = history.getBufferedSize();
+            assertTrue(bytes > 0);
+            assertEquals(bytes, store.getResidentBytes());
+
+            spillAll();
+
+            assertEquals(0, store.getResidentBytes());
+            assertEquals(0, history.getBufferedSize(), "contents should have been released from memory");
+            assertTrue(spillFiles() > 0, "contents should have been written to disk");
+            assertEquals(1000, history.longSize());
+        }
+
+        @Test
+        void testDeletedHistoryRemovesItsFiles() throws IOException {
+            MemoryOptimizedHistory history = closedHistory();
+            spillAll();
+            assertTrue(spillFiles() > 0);
+
+            history.delete();
+
+            assertEquals(0, spillFiles());
+        }
+
+        @Test
+        void testCollectedHistoryRemovesItsFiles() throws Exception {
+            // Dropped without being deleted, e.g. with an unloaded session
+            closedHistory();
+            spillAll();
+            assertTrue(spillFiles() > 0);
+
+            for (int i = 0; i < 100 && spillFiles() > 0; i++) {
+                System.gc();
+                Thread.sleep(10);
+                // Files of collected changesets are deleted the next time the store is used
+                store.getResidentBytes();
+            }
+
+            assertEquals(0, spillFiles(), "files of a garbage collected changeset should be deleted");
+        }
+
+    }
+
+}
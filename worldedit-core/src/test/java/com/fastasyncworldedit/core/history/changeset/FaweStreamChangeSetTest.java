@@ -0,0 +1,271 @@
+package com.fastasyncworldedit.core.history.changeset;
+
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.fastasyncworldedit.core.history.change.MutableFullBlockChange;
+import com.fastasyncworldedit.core.internal.io.FaweInputStream;
+import com.fastasyncworldedit.core.internal.io.FaweOutputStream;
+import com.sk89q.jnbt.NBTInputStream;
+import com.sk89q.jnbt.NBTOutputStream;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BlockTypesCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Isolated
+class FaweStreamChangeSetTest {
+
+    private static final char RESERVED = (char) BlockTypesCache.ReservedIDs.__RESERVED__;
+    private static final char AIR = (char) BlockTypesCache.ReservedIDs.AIR;
+
+    private boolean sectionRecords;
+
+    @BeforeEach
+    void setUp() {
+        sectionRecords = Settings.settings().HISTORY.SECTION_RECORDS;
+    }
+
+    @AfterEach
+    void tearDown() {
+        Settings.settings().HISTORY.SECTION_RECORDS = sectionRecords;
+    }
+
+    private record Change(int x, int y, int z, int from, int to) {
+
+    }
+
+    /**
+     * A change set keeping its block changes in memory, without compression.
+     */
+    private static final class BufferedChangeSet extends FaweStreamChangeSet {
+
+        private ByteArrayOutputStream bytes;
+        private FaweOutputStream blocks;
+
+        private BufferedChangeSet(World world, boolean smallLoc) {
+            super(world, 0, true, smallLoc);
+        }
+
+        @Override
+        public FaweOutputStream getBlockOS(int x, int y, int z) throws IOException {
+            if (blocks == null) {
+                bytes = new ByteArrayOutputStream();
+                blocks = new FaweOutputStream(bytes);
+                writeHeader(blocks, x, y, z);
+            }
+            return blocks;
+        }
+
+        @Override
+        public FaweInputStream getBlockIS() throws IOException {
+            blocks.flush();
+            FaweInputStream in = new FaweInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            readHeader(in);
+            return in;
+        }
+
+        @Override
+        public int getCompressedSize() {
+            return bytes == null ? 0 : bytes.size();
+        }
+
+        @Override
+        public long getSizeInMemory() {
+            return getCompressedSize();
+        }
+
+        @Override
+        public FaweOutputStream getBiomeOS() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NBTOutputStream getEntityCreateOS() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NBTOutputStream getEntityRemoveOS() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NBTOutputStream getTileCreateOS() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NBTOutputStream getTileRemoveOS() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FaweInputStream getBiomeIS() {
+            return null;
+        }
+
+        @Override
+        public NBTInputStream getEntityCreateIS() {
+            return null;
+        }
+
+        @Override
+        public NBTInputStream getEntityRemoveIS() {
+            return null;
+        }
+
+        @Override
+        public NBTInputStream getTileCreateIS() {
+            return null;
+        }
+
+        @Override
+        public NBTInputStream getTileRemoveIS() {
+            return null;
+        }
+
+        @Override
+        public boolean isRecordingChanges() {
+            return true;
+        }
+
+        @Override
+        public void setRecordChanges(boolean recordChanges) {
+        }
+
+    }
+
+    @Nested
+    class addSection {
+
+        private BufferedChangeSet changeSet;
+        private final List<Change> expected = new ArrayList<>();
+        private final SplittableRandom random = new SplittableRandom(1);
+
+        private void create(boolean smallLoc, boolean records) {
+            Settings.settings().HISTORY.SECTION_RECORDS = records;
+            final World world = mock();
+            when(world.getMinY()).thenReturn(-64);
+            when(world.getMaxY()).thenReturn(319);
+            changeSet = new BufferedChangeSet(world, smallLoc);
+        }
+
+        private void add(int x, int y, int z) {
+            int from = 2 + random.nextInt(500);
+            int to = 2 + random.nextInt(500);
+            changeSet.add(x, y, z, from, to);
+            expected.add(new Change(x, y, z, from, to));
+        }
+
+        private void addSection(int bx, int by, int bz, double density) {
+            addSection(bx, by, bz, index -> random.nextDouble() < density);
+        }
+
+        private void addSection(int bx, int by, int bz, IntPredicate changed) {
+            char[] get = new char[4096];
+            char[] set = new char[4096];
+            for (int index = 0; index < 4096; index++) {
+                // Some existing blocks were not loaded, they are stored as air
+                get[index] = random.nextInt(10) == 0 ? RESERVED : (char) (2 + random.nextInt(300));
+                if (changed.test(index)) {
+                    set[index] = (char) (2 + random.nextInt(300));
+                    expected.add(new Change(
+                            bx + (index & 15),
+                            by + (index >> 8),
+                            bz + ((index >> 4) & 15),
+                            get[index] == RESERVED ? AIR : get[index],
+                            set[index]
+                    ));
+                } else {
+                    set[index] = RESERVED;
+                }
+            }
+            changeSet.addSection(bx, by, bz, get, set);
+        }
+
+        private void assertReadBack() throws IOException {
+            assertEquals(expected.size(), changeSet.longSize(), "number of changes");
+            Iterator<MutableFullBlockChange> iterator = changeSet.getFullBlockIterator(null, 0, true);
+            for (int n = 0; n < expected.size(); n++) {
+                assertTrue(iterator.hasNext(), "change " + n + " should be read");
+                MutableFullBlockChange change = iterator.next();
+                Change read = new Change(change.x, change.y, change.z, change.from, change.to);
+                assertEquals(expected.get(n), read, "change " + n);
+            }
+            assertFalse(iterator.hasNext(), "all changes should have been read");
+        }
+
+        @ParameterizedTest
+        @MethodSource("provideFormats")
+        void testSectionsAndSingleChangesAreReadInOrder(boolean smallLoc, boolean records) throws IOException {
+            create(smallLoc, records);
+            // The first change sets the origin of the change set
+            add(-100, 64, 37);
+            // Sparse, written as positions relative to each other
+            addSection(-48, 64, -32, 0.01);
+            add(-47, 70, -30);
+            // Dense, written as a section record if enabled
+            addSection(-16, 80, 16, 0.7);
+            addSection(-32, 80, 16, 1);
+            add(-200, 0, 200);
+            add(-200, 0, 201);
+            // Single changes, in the first and in the last block of a section
+            addSection(64, 240, -64, index -> index == 0);
+            addSection(-64, 48, 48, index -> index == 4095);
+            add(300, 1, -300);
+
+            assertReadBack();
+        }
+
+        @ParameterizedTest
+        @MethodSource("provideFormats")
+        void testSectionFirst(boolean smallLoc, boolean records) throws IOException {
+            create(smallLoc, records);
+            // The section sets the origin of the change set
+            addSection(-1024, 16, 2048, 0.5);
+            add(-1030, 20, 2040);
+            addSection(-1024, 32, 2048, 0.02);
+
+            assertReadBack();
+        }
+
+        @ParameterizedTest
+        @MethodSource("provideFormats")
+        void testEmptySectionIsNotWritten(boolean smallLoc, boolean records) throws IOException {
+            create(smallLoc, records);
+            add(5, 5, 5);
+            addSection(16, 16, 16, 0);
+            add(6, 5, 5);
+
+            assertReadBack();
+        }
+
+        private static Stream<Arguments> provideFormats() {
+            return Stream.of(
+                    Arguments.of(false, true),
+                    Arguments.of(false, false),
+                    // Section records are not used with small positions
+                    Arguments.of(true, true)
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,226 @@
+package com.fastasyncworldedit.core.history.changeset;
+
+import com.fastasyncworldedit.core.internal.io.FaweInputStream;
+import com.fastasyncworldedit.core.internal.io.FaweOutputStream;
+import com.sk89q.worldedit.world.block.BlockTypesCache;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionChangeRecordTest {
+
+    private static final char RESERVED = (char) BlockTypesCache.ReservedIDs.__RESERVED__;
+    private static final char AIR = (char) BlockTypesCache.ReservedIDs.AIR;
+
+    private static byte[] write(SectionChangeRecord record, char[] get, char[] set, boolean redo, int expectedCount)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (FaweOutputStream out = new FaweOutputStream(bytes)) {
+            assertEquals(expectedCount, record.write(out, get, set, redo), "number of changed blocks");
+        }
+        return bytes.toByteArray();
+    }
+
+    private static SectionChangeRecord read(byte[] bytes) throws IOException {
+        SectionChangeRecord record = new SectionChangeRecord();
+        try (FaweInputStream in = new FaweInputStream(new ByteArrayInputStream(bytes))) {
+            record.read(in);
+            assertEquals(-1, in.read(), "the whole record should be read");
+        }
+        return record;
+    }
+
+    // Changed blocks of a random section, with the given number of distinct ordinals before and after the change
+    private static char[][] randomSection(long seed, double density, int distinct) {
+        SplittableRandom random = new SplittableRandom(seed);
+        char[] get = new char[4096];
+        char[] set = new char[4096];
+        for (int i = 0; i < 4096; i++) {
+            get[i] = (char) (2 + random.nextInt(distinct));
+            set[i] = random.nextDouble() < density ? (char) (1000 + random.nextInt(distinct)) : RESERVED;
+        }
+        return new char[][]{get, set};
+    }
+
+    private static int count(char[] set) {
+        int count = 0;
+        for (char c : set) {
+            if (c != RESERVED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Nested
+    class roundTrip {
+
+        @ParameterizedTest
+        @MethodSource("provideSections")
+        void testChangesAreReadInIndexOrder(double density, int distinct, boolean redo) throws IOException {
+            char[][] section = randomSection(Double.doubleToLongBits(density) ^ distinct, density, distinct);
+            char[] get = section[0];
+            char[] set = section[1];
+            int count = count(set);
+
+            SectionChangeRecord record = read(write(new SectionChangeRecord(), get, set, redo, count));
+
+            assertEquals(count, record.size());
+            int n = 0;
+            int last = -1;
+            for (int index = 0; index < 4096; index++) {
+                if (set[index] == RESERVED) {
+                    continue;
+                }
+                assertEquals(index, record.next(), "index of change " + n);
+                assertEquals(get[index], record.from(n), "ordinal before change " + n);
+                assertEquals(redo ? set[index] : AIR, record.to(n), "ordinal after change " + n);
+                last = index;
+                n++;
+            }
+            assertEquals(-1, record.next(), "all changes should have been read");
+            assertEquals(-1, record.next(), "the record should stay exhausted");
+            assertEquals(last, record.lastIndex());
+        }
+
+        private static Stream<Arguments> provideSections() {
+            return Stream.of(
+                    // Full sections are stored without a mask
+                    Arguments.of(1.0, 1, true),
+                    Arguments.of(1.0, 300, true),
+                    Arguments.of(1.0, 300, false),
+                    Arguments.of(0.5, 2, true),
+                    Arguments.of(0.5, 17, false),
+                    // Enough distinct ordinals that entries do not evenly fill a long
+                    Arguments.of(0.9, 600, true),
+                    Arguments.of(0.01, 5, true),
+                    Arguments.of(0.0, 1, true)
+            );
+        }
+
+        @Test
+        void testSingleChangeInLastLong() throws IOException {
+            char[] get = new char[4096];
+            char[] set = new char[4096];
+            Arrays.fill(get, (char) 7);
+            set[4095] = 9;
+
+            SectionChangeRecord record = read(write(new SectionChangeRecord(), get, set, true, 1));
+
+            assertEquals(1, record.size());
+            assertEquals(4095, record.lastIndex());
+            assertEquals(4095, record.next());
+            assertEquals(7, record.from(0));
+            assertEquals(9, record.to(0));
+            assertEquals(-1, record.next());
+        }
+
+        @Test
+        void testReservedExistingBlocksAreStoredAsAir() throws IOException {
+            char[] get = new char[4096];
+            char[] set = new char[4096];
+            Arrays.fill(set, (char) 5);
+            get[10] = 6;
+
+            SectionChangeRecord record = read(write(new SectionChangeRecord(), get, set, true, 4096));
+
+            for (int n = 0; n < 4096; n++) {
+                assertEquals(n, record.next());
+                assertEquals(n == 10 ? 6 : AIR, record.from(n), "ordinal before change " + n);
+                assertEquals(5, record.to(n));
+            }
+        }
+
+        @Test
+        void testRecordsAreReusable() throws IOException {
+            SectionChangeRecord writer = new SectionChangeRecord();
+            char[][] first = randomSection(1, 0.7, 40);
+            char[][] second = randomSection(2, 0.2, 3);
+            byte[] firstBytes = write(writer, first[0], first[1], true, count(first[1]));
+            byte[] secondBytes = write(writer, second[0], second[1], true, count(second[1]));
+
+            assertArrayEquals(firstBytes, write(new SectionChangeRecord(), first[0], first[1], true, count(first[1])),
+                    "a reused record should encode like a new one"
+            );
+
+            SectionChangeRecord reader = new SectionChangeRecord();
+            try (FaweInputStream in = new FaweInputStream(new ByteArrayInputStream(concat(firstBytes, secondBytes)))) {
+                reader.read(in);
+                assertEquals(count(first[1]), reader.size());
+                reader.read(in);
+                assertEquals(count(second[1]), reader.size());
+                for (int index = 0, n = 0; index < 4096; index++) {
+                    if (second[1][index] != RESERVED) {
+                        assertEquals(index, reader.next());
+                        assertEquals(second[0][index], reader.from(n));
+                        assertEquals(second[1][index], reader.to(n));
+                        n++;
+                    }
+                }
+                assertEquals(-1, reader.next());
+            }
+        }
+
+        private static byte[] concat(byte[] a, byte[] b) {
+            byte[] result = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, result, a.length, b.length);
+            return result;
+        }
+
+    }
+
+    @Nested
+    class encoding {
+
+        @Test
+        void testSingleEntryPaletteStoresNoIndices() throws IOException {
+            char[] get = new char[4096];
+            char[] set = new char[4096];
+            Arrays.fill(get, (char) 3);
+            Arrays.fill(set, (char) 4);
+
+            byte[] bytes = write(new SectionChangeRecord(), get, set, true, 4096);
+
+            // Flags, then a palette of size 1 and its ordinal for both before and after the change
+            assertArrayEquals(new byte[]{3, 1, 3, 1, 4}, bytes);
+        }
+
+        @Test
+        void testSparseSectionStoresMask() throws IOException {
+            char[] get = new char[4096];
+            char[] set = new char[4096];
+            set[0] = 2;
+            set[64] = 2;
+
+            byte[] bytes = write(new SectionChangeRecord(), get, set, false, 2);
+
+            // Flags, 64 longs of mask, then a palette of a single entry (air)
+            assertEquals(1 + 64 * Long.BYTES + 2, bytes.length);
+            assertEquals(0, bytes[0], "neither full nor redo");
+        }
+
+        @Test
+        void testEmptyInputFails() {
+            SectionChangeRecord record = new SectionChangeRecord();
+            assertThrows(EOFException.class, () -> {
+                try (FaweInputStream in = new FaweInputStream(new ByteArrayInputStream(new byte[0]))) {
+                    record.read(in);
+                }
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.fastasyncworldedit.core.internal.simd;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorSpecies;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimdSupportTest {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_128;
+    private static final int PERIOD = 0xFFFF;
+
+    @Nested
+    class randomPattern {
+
+        @Test
+        void testXorshiftHasFullPeriod() {
+            short[] seeds = new short[SPECIES.length()];
+            for (int i = 0; i < seeds.length; i++) {
+                seeds[i] = (short) (1 + i * 7919);
+            }
+            ShortVector start = ShortVector.fromArray(SPECIES, seeds, 0);
+            ShortVector x = start;
+            boolean[] seen = new boolean[0x10000];
+            for (int step = 1; step <= PERIOD; step++) {
+                x = SimdSupport.xorshift(x);
+                int value = x.lane(0) & 0xFFFF;
+                assertNotEquals(0, value, "xorshift must never produce 0");
+                assertFalse(seen[value], "value repeated before the end of the period at step " + step);
+                seen[value] = true;
+            }
+            assertEquals(start, x, "all lanes should return to their seed after 2^16 - 1 steps");
+        }
+
+        @ParameterizedTest
+        @MethodSource("provideWeights")
+        void testSelectionFollowsWeights(double[] weights) {
+            short[] ordinals = new short[weights.length];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = (short) (i + 1);
+            }
+            short[] thresholds = SimdSupport.thresholds(weights);
+            long[] counts = new long[weights.length + 1];
+            // Over a full period every lane sees every non-zero 16-bit value once
+            ShortVector x = ShortVector.broadcast(SPECIES, (short) 1);
+            for (int step = 0; step < PERIOD; step++) {
+                x = SimdSupport.xorshift(x);
+                ShortVector chosen = SimdSupport.select(x, ordinals, thresholds);
+                for (int lane = 0; lane < SPECIES.length(); lane++) {
+                    counts[chosen.lane(lane)]++;
+                }
+            }
+            double total = 0;
+            for (double weight : weights) {
+                total += weight;
+            }
+            long samples = (long) PERIOD * SPECIES.length();
+            assertEquals(0, counts[0], "every lane should be given an ordinal");
+            for (int i = 0; i < weights.length; i++) {
+                double expected = weights[i] / total;
+                double actual = (double) counts[i + 1] / samples;
+                // Thresholds are rounded to 16 bits
+                assertEquals(expected, actual, 1.0 / 0x8000, "share of entry " + i);
+            }
+        }
+
+        private static Stream<Arguments> provideWeights() {
+            return Stream.of(
+                    Arguments.of((Object) new double[]{50, 50}),
+                    Arguments.of((Object) new double[]{5, 3, 2}),
+                    Arguments.of((Object) new double[]{1, 1, 1, 1, 1, 1, 1}),
+                    Arguments.of((Object) new double[]{99, 1}),
+                    Arguments.of((Object) new double[]{0.1, 10, 0.1})
+            );
+        }
+
+    }
+
+    @Nested
+    class blockMask {
+
+        @Test
+        void testGatherIndicesZeroExtendsOrdinals() {
+            short[] ordinals = new short[SPECIES.length()];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = (short) (0xFFFF - i * 4099);
+            }
+            int[] indices = new int[ordinals.length];
+            SimdSupport.gatherIndices(ShortVector.fromArray(SPECIES, ordinals, 0), indices);
+            for (int i = 0; i < ordinals.length; i++) {
+                assertEquals(ordinals[i] & 0xFFFF, indices[i], "index of lane " + i);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,346 @@
+package com.fastasyncworldedit.core.math;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares {@link BlockVectorSet} with a {@link HashSet} holding the same positions.
+ */
+class BlockVectorSetTest {
+
+    // Clusters on both sides of the borders of regions, so the sets have regions in common and regions of their own
+    private static final int[][] CLUSTERS = {{0, 0}, {2048, -2048}, {-2048, 0}, {4096, 2047}};
+    // Clusters within the bounds of a set plugged into a BlockVectorSet with a zero offset
+    private static final int[][] CLUSTERS_NEAR_ORIGIN = {{200, 200}, {500, 700}, {800, 300}, {100, 900}};
+
+    private static List<BlockVector3> cluster(SplittableRandom random, int[] center, int maxY, int count) {
+        List<BlockVector3> positions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            positions.add(BlockVector3.at(
+                    center[0] + random.nextInt(-40, 40),
+                    random.nextInt(-64, maxY + 1),
+                    center[1] + random.nextInt(-40, 40)
+            ));
+        }
+        return positions;
+    }
+
+    private static BlockVectorSet blockVectorSet(Collection<BlockVector3> positions) {
+        BlockVectorSet set = new BlockVectorSet();
+        for (BlockVector3 position : positions) {
+            set.add(position);
+        }
+        return set;
+    }
+
+    // A set whose region stores positions relative to another offset than the regions of a new BlockVectorSet
+    private static BlockVectorSet otherOffsetSet(Collection<BlockVector3> positions) {
+        LocalBlockVectorSet local = new LocalBlockVectorSet(0, 0, 0);
+        for (BlockVector3 position : positions) {
+            local.add(position);
+        }
+        return new BlockVectorSet(local);
+    }
+
+    /**
+     * Get the positions of a set, failing if a position is iterated more than once.
+     */
+    static Set<BlockVector3> positions(Iterable<BlockVector3> set) {
+        Set<BlockVector3> positions = new HashSet<>();
+        for (BlockVector3 position : set) {
+            // The iterator may reuse a mutable vector
+            BlockVector3 copy = BlockVector3.at(position.x(), position.y(), position.z());
+            assertTrue(positions.add(copy), () -> copy + " should be iterated once");
+        }
+        return positions;
+    }
+
+    static void assertSameAs(Set<BlockVector3> expected, BlockVectorSet set) {
+        assertEquals(expected.size(), set.size(), "size");
+        assertEquals(expected.isEmpty(), set.isEmpty(), "isEmpty");
+        assertEquals(expected, positions(set), "positions");
+        for (BlockVector3 position : expected) {
+            assertTrue(set.contains(position), () -> "contains " + position);
+        }
+    }
+
+    /**
+     * Two random sets, as BlockVectorSets of the given kind and as HashSets.
+     */
+    private record Operands(Set<BlockVector3> a, Set<BlockVector3> b, BlockVectorSet set, Collection<BlockVector3> other) {
+
+        static Operands of(String kind, int seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            boolean nearOrigin = !kind.equals("same offset") && !kind.equals("hash set");
+            int[][] clusters = nearOrigin ? CLUSTERS_NEAR_ORIGIN : CLUSTERS;
+            int maxY = nearOrigin ? 255 : 319;
+            List<BlockVector3> shared = new ArrayList<>();
+            shared.addAll(cluster(random, clusters[0], maxY, 3000));
+            shared.addAll(cluster(random, clusters[1], maxY, 3000));
+            Set<BlockVector3> a = new HashSet<>(cluster(random, clusters[2], maxY, 500));
+            Set<BlockVector3> b = new HashSet<>(cluster(random, clusters[3], maxY, 500));
+            for (BlockVector3 position : shared) {
+                if (random.nextInt(3) != 0) {
+                    a.add(position);
+                }
+                if (random.nextInt(3) != 0) {
+                    b.add(position);
+                }
+            }
+            return switch (kind) {
+                case "same offset" -> new Operands(a, b, blockVectorSet(a), blockVectorSet(b));
+                case "other offset" -> new Operands(a, b, blockVectorSet(a), otherOffsetSet(b));
+                case "other offset receiver" -> new Operands(a, b, otherOffsetSet(a), blockVectorSet(b));
+                case "hash set" -> new Operands(a, b, blockVectorSet(a), new HashSet<>(b));
+                default -> throw new IllegalArgumentException(kind);
+            };
+        }
+
+    }
+
+    static Stream<Arguments> operands() {
+        return Stream.of("same offset", "other offset", "other offset receiver", "hash set")
+                .flatMap(kind -> IntStream.rangeClosed(1, 3).mapToObj(seed -> Arguments.of(kind, seed)));
+    }
+
+    @Nested
+    class addAll {
+
+        @ParameterizedTest
+        @MethodSource("com.fastasyncworldedit.core.math.BlockVectorSetTest#operands")
+        void testAddAll(String kind, int seed) {
+            Operands operands = Operands.of(kind, seed);
+            Set<BlockVector3> expected = new HashSet<>(operands.a());
+            boolean modified = expected.addAll(operands.b());
+
+            assertEquals(modified, operands.set().addAll(operands.other()), "modified");
+
+            assertSameAs(expected, operands.set());
+            assertEquals(operands.b(), positions(operands.other()), "the added set should not change");
+        }
+
+        @Test
+        void testAddedRegionIsCopied() {
+            BlockVectorSet set = blockVectorSet(List.of(BlockVector3.at(0, 0, 0)));
+            BlockVectorSet other = blockVectorSet(List.of(BlockVector3.at(5000, 10, -5000)));
+
+            assertTrue(set.addAll(other));
+            other.add(5001, 10, -5000);
+
+            assertSameAs(Set.of(BlockVector3.at(0, 0, 0), BlockVector3.at(5000, 10, -5000)), set);
+        }
+
+        @Test
+        void testAddingContainedPositionsIsNotAModification() {
+            BlockVectorSet set = blockVectorSet(List.of(BlockVector3.at(0, 0, 0), BlockVector3.at(1, 2, 3)));
+
+            assertFalse(set.addAll(blockVectorSet(List.of(BlockVector3.at(1, 2, 3)))));
+            assertFalse(set.addAll(new BlockVectorSet()));
+        }
+
+    }
+
+    @Nested
+    class retainAll {
+
+        @ParameterizedTest
+        @MethodSource("com.fastasyncworldedit.core.math.BlockVectorSetTest#operands")
+        void testRetainAll(String kind, int seed) {
+            Operands operands = Operands.of(kind, seed);
+            Set<BlockVector3> expected = new HashSet<>(operands.a());
+            boolean modified = expected.retainAll(operands.b());
+
+            assertEquals(modified, operands.set().retainAll(operands.other()), "modified");
+
+            assertSameAs(expected, operands.set());
+        }
+
+        @Test
+        void testRetainingNothingEmptiesTheSet() {
+            BlockVectorSet set = blockVectorSet(List.of(BlockVector3.at(0, 0, 0), BlockVector3.at(-3000, 300, 7000)));
+
+            assertTrue(set.retainAll(new BlockVectorSet()));
+
+            assertSameAs(Set.of(), set);
+            assertFalse(set.retainAll(new BlockVectorSet()), "an empty set should not be modified");
+        }
+
+    }
+
+    @Nested
+    class removeAll {
+
+        @ParameterizedTest
+        @MethodSource("com.fastasyncworldedit.core.math.BlockVectorSetTest#operands")
+        void testRemoveAll(String kind, int seed) {
+            Operands operands = Operands.of(kind, seed);
+            Set<BlockVector3> expected = new HashSet<>(operands.a());
+            boolean modified = expected.removeAll(operands.b());
+
+            assertEquals(modified, operands.set().removeAll(operands.other()), "modified");
+
+            assertSameAs(expected, operands.set());
+        }
+
+        @Test
+        void testRemovingItselfEmptiesTheSet() {
+            BlockVectorSet set = blockVectorSet(List.of(BlockVector3.at(0, 0, 0), BlockVector3.at(-3000, 300, 7000)));
+
+            assertTrue(set.removeAll(set));
+
+            assertSameAs(Set.of(), set);
+        }
+
+        @Test
+        void testRemovingACopyEmptiesTheSet() {
+            BlockVectorSet set = blockVectorSet(List.of(BlockVector3.at(0, 0, 0), BlockVector3.at(-3000, 300, 7000)));
+
+            assertTrue(set.removeAll(set.copy()));
+
+            assertSameAs(Set.of(), set);
+            // Emptied regions are dropped, so positions can be added to them again
+            set.add(1, 1, 1);
+            assertSameAs(Set.of(BlockVector3.at(1, 1, 1)), set);
+        }
+
+    }
+
+    @Nested
+    class containsAll {
+
+        @ParameterizedTest
+        @MethodSource("com.fastasyncworldedit.core.math.BlockVectorSetTest#operands")
+        void testContainsAll(String kind, int seed) {
+            Operands operands = Operands.of(kind, seed);
+
+            assertEquals(operands.a().containsAll(operands.b()), operands.set().containsAll(operands.other()));
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3})
+        void testContainsSubset(int seed) {
+            Operands operands = Operands.of("same offset", seed);
+            Set<BlockVector3> subset = new HashSet<>(operands.a());
+            subset.retainAll(operands.b());
+
+            assertTrue(operands.set().containsAll(blockVectorSet(subset)));
+            assertTrue(operands.set().containsAll(subset));
+            subset.add(BlockVector3.at(100000, 0, 100000));
+            assertFalse(operands.set().containsAll(blockVectorSet(subset)));
+            assertFalse(operands.set().containsAll(subset));
+        }
+
+    }
+
+    @Nested
+    class forEachInChunkOrder {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3})
+        void testPositionsAreVisitedOnceGroupedByChunk(int seed) {
+            Operands operands = Operands.of("same offset", seed);
+            Set<BlockVector3> visited = new HashSet<>();
+            Set<Long> finishedChunks = new HashSet<>();
+            long[] chunk = {Long.MIN_VALUE};
+
+            operands.set().forEachInChunkOrder((x, y, z, index) -> {
+                BlockVector3 position = BlockVector3.at(x, y, z);
+                assertTrue(visited.add(position), () -> position + " should be visited once");
+                long key = (long) (x >> 4) << 32 | ((z >> 4) & 0xFFFFFFFFL);
+                if (key != chunk[0]) {
+                    finishedChunks.add(chunk[0]);
+                    assertFalse(finishedChunks.contains(key), () -> "the chunk of " + position + " was visited before");
+                    chunk[0] = key;
+                }
+            });
+
+            assertEquals(operands.a(), visited);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3})
+        void testForEachVisitsEachPosition(int seed) {
+            Operands operands = Operands.of("same offset", seed);
+            Set<BlockVector3> visited = new HashSet<>();
+
+            operands.set().forEach((x, y, z, index) -> assertTrue(visited.add(BlockVector3.at(x, y, z))));
+
+            assertEquals(operands.a(), visited);
+        }
+
+    }
+
+    @Nested
+    class write {
+
+        private static BlockVectorSet roundTrip(BlockVectorSet set) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                set.write(out);
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                BlockVectorSet read = BlockVectorSet.read(in);
+                assertEquals(-1, in.read(), "the whole set should be read");
+                return read;
+            }
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3})
+        void testRoundTrip(int seed) throws IOException {
+            Operands operands = Operands.of("same offset", seed);
+            Set<BlockVector3> expected = new HashSet<>(operands.a());
+            // Whole 64-bit words
+            for (int y = 128; y < 192; y++) {
+                operands.set().add(-700, y, 300);
+                expected.add(BlockVector3.at(-700, y, 300));
+            }
+
+            BlockVectorSet read = roundTrip(operands.set());
+
+            assertSameAs(expected, read);
+            read.add(9, 9, 9);
+            assertTrue(read.contains(9, 9, 9), "positions should be added to the set read");
+        }
+
+        @Test
+        void testOtherOffsetRoundTrip() throws IOException {
+            Operands operands = Operands.of("other offset receiver", 1);
+
+            assertSameAs(operands.a(), roundTrip(operands.set()));
+        }
+
+        @Test
+        void testEmptyRegionsAreNotWritten() throws IOException {
+            BlockVectorSet set = blockVectorSet(List.of(BlockVector3.at(0, 0, 0), BlockVector3.at(-3000, 300, 7000)));
+            // Retaining positions one by one keeps the emptied region
+            set.retainAll(new HashSet<>(List.of(BlockVector3.at(0, 0, 0))));
+
+            assertSameAs(Set.of(BlockVector3.at(0, 0, 0)), roundTrip(set));
+            assertSameAs(Set.of(), roundTrip(new BlockVectorSet()));
+        }
+
+    }
+
+}
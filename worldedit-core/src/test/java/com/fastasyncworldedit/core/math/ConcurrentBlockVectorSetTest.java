@@ -0,0 +1,233 @@
+package com.fastasyncworldedit.core.math;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.fastasyncworldedit.core.math.BlockVectorSetTest.positions;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares {@link ConcurrentBlockVectorSet} with a {@link HashSet} holding the same positions.
+ */
+class ConcurrentBlockVectorSetTest {
+
+    private static BlockVector3 randomPosition(SplittableRandom random) {
+        // Around 0 and far from it, on both sides of the borders of sections
+        int scale = random.nextBoolean() ? 40 : 30_000_000;
+        return BlockVector3.at(random.nextInt(-scale, scale), random.nextInt(-64, 320), random.nextInt(-scale, scale));
+    }
+
+    private static void assertSameAs(Set<BlockVector3> expected, ConcurrentBlockVectorSet set) {
+        assertEquals(expected.size(), set.size(), "size");
+        assertEquals(expected.isEmpty(), set.isEmpty(), "isEmpty");
+        assertEquals(expected, positions(set), "positions");
+        for (BlockVector3 position : expected) {
+            assertTrue(set.contains(position), () -> "contains " + position);
+        }
+    }
+
+    @Nested
+    class add {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3})
+        void testAddAndRemove(int seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            ConcurrentBlockVectorSet set = new ConcurrentBlockVectorSet();
+            Set<BlockVector3> expected = new HashSet<>();
+            List<BlockVector3> added = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                if (added.isEmpty() || random.nextInt(4) != 0) {
+                    BlockVector3 position = randomPosition(random);
+                    added.add(position);
+                    assertEquals(expected.add(position), set.add(position), () -> "add " + position);
+                } else {
+                    BlockVector3 position = added.get(random.nextInt(added.size()));
+                    assertEquals(expected.remove(position), set.remove(position), () -> "remove " + position);
+                }
+            }
+
+            assertSameAs(expected, set);
+            for (BlockVector3 position : added) {
+                assertEquals(expected.contains(position), set.contains(position), () -> "contains " + position);
+            }
+        }
+
+        @Test
+        void testConcurrentAdds() throws InterruptedException, ExecutionException {
+            int threads = 4;
+            ConcurrentBlockVectorSet set = new ConcurrentBlockVectorSet();
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                // Every thread adds the same positions, in another order
+                int seed = thread;
+                tasks.add(() -> {
+                    List<BlockVector3> positions = new ArrayList<>();
+                    for (int x = -64; x < 64; x++) {
+                        for (int z = -64; z < 64; z++) {
+                            positions.add(BlockVector3.at(x, (x * 31 + z) & 127, z));
+                        }
+                    }
+                    SplittableRandom random = new SplittableRandom(seed);
+                    int added = 0;
+                    while (!positions.isEmpty()) {
+                        BlockVector3 position = positions.remove(random.nextInt(positions.size()));
+                        if (set.add(position)) {
+                            added++;
+                        }
+                    }
+                    return added;
+                });
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            int added = 0;
+            try {
+                for (Future<Integer> future : executor.invokeAll(tasks)) {
+                    added += future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertEquals(128 * 128, added, "each position should be added by exactly one thread");
+            assertEquals(128 * 128, set.size());
+            for (int x = -64; x < 64; x++) {
+                for (int z = -64; z < 64; z++) {
+                    assertTrue(set.contains(x, (x * 31 + z) & 127, z));
+                }
+            }
+        }
+
+    }
+
+    @Nested
+    class iterator {
+
+        @Test
+        void testRemoveThroughIterator() {
+            SplittableRandom random = new SplittableRandom(1);
+            ConcurrentBlockVectorSet set = new ConcurrentBlockVectorSet();
+            Set<BlockVector3> expected = new HashSet<>();
+            for (int i = 0; i < 5000; i++) {
+                BlockVector3 position = randomPosition(random);
+                set.add(position);
+                expected.add(position);
+            }
+
+            Iterator<BlockVector3> iterator = set.iterator();
+            while (iterator.hasNext()) {
+                BlockVector3 position = iterator.next();
+                if (((position.x() + position.y() + position.z()) & 1) == 0) {
+                    expected.remove(BlockVector3.at(position.x(), position.y(), position.z()));
+                    iterator.remove();
+                }
+            }
+
+            assertSameAs(expected, set);
+        }
+
+        @Test
+        void testForEachVisitsEachPosition() {
+            SplittableRandom random = new SplittableRandom(2);
+            ConcurrentBlockVectorSet set = new ConcurrentBlockVectorSet();
+            Set<BlockVector3> expected = new HashSet<>();
+            for (int i = 0; i < 5000; i++) {
+                BlockVector3 position = randomPosition(random);
+                set.add(position);
+                expected.add(position);
+            }
+            Set<BlockVector3> visited = new HashSet<>();
+
+            set.forEach((x, y, z, index) -> assertTrue(visited.add(BlockVector3.at(x, y, z))));
+
+            assertEquals(expected, visited);
+        }
+
+        @Test
+        void testEmptySet() {
+            ConcurrentBlockVectorSet set = new ConcurrentBlockVectorSet();
+            set.add(1, 2, 3);
+            set.remove(1, 2, 3);
+
+            // The emptied section is kept, but has no positions
+            assertSameAs(Set.of(), set);
+            assertFalse(set.iterator().hasNext());
+        }
+
+    }
+
+    @Nested
+    class write {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3})
+        void testRoundTrip(int seed) throws IOException {
+            SplittableRandom random = new SplittableRandom(seed);
+            ConcurrentBlockVectorSet set = new ConcurrentBlockVectorSet();
+            Set<BlockVector3> expected = new HashSet<>();
+            for (int i = 0; i < 5000; i++) {
+                BlockVector3 position = randomPosition(random);
+                set.add(position);
+                expected.add(position);
+            }
+            // A whole section, and an emptied one
+            for (int index = 0; index < 4096; index++) {
+                set.add(-16 + (index & 15), index >> 8, (index >> 4) & 15);
+                expected.add(BlockVector3.at(-16 + (index & 15), index >> 8, (index >> 4) & 15));
+            }
+            set.add(1000, 100, 1000);
+            set.remove(1000, 100, 1000);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                set.write(out);
+            }
+            ConcurrentBlockVectorSet read;
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                read = ConcurrentBlockVectorSet.read(in);
+                assertEquals(-1, in.read(), "the whole set should be read");
+            }
+
+            assertSameAs(expected, read);
+        }
+
+    }
+
+    @Nested
+    class copy {
+
+        @Test
+        void testCopyIsIndependent() {
+            ConcurrentBlockVectorSet set = new ConcurrentBlockVectorSet();
+            set.add(1, 2, 3);
+            ConcurrentBlockVectorSet copy = set.copy();
+            set.add(1, 2, 4);
+            copy.remove(1, 2, 3);
+
+            assertSameAs(Set.of(BlockVector3.at(1, 2, 3), BlockVector3.at(1, 2, 4)), set);
+            assertSameAs(Set.of(), copy);
+        }
+
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.fastasyncworldedit.core.math;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static com.fastasyncworldedit.core.math.BlockVectorSetTest.positions;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares {@link LocalBlockVectorSet} with a {@link HashSet} holding the same positions, for sets with the same offset
+ * and with different offsets.
+ */
+class LocalBlockVectorSetTest {
+
+    private static Set<BlockVector3> random(SplittableRandom random, int count) {
+        // Within the bounds of all the sets of the tests
+        Set<BlockVector3> positions = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            positions.add(BlockVector3.at(random.nextInt(-300, 300), random.nextInt(-64, 120), random.nextInt(-300, 300)));
+        }
+        return positions;
+    }
+
+    private static LocalBlockVectorSet set(int offsetX, int offsetZ, Set<BlockVector3> positions) {
+        LocalBlockVectorSet set = new LocalBlockVectorSet(offsetX, offsetZ);
+        for (BlockVector3 position : positions) {
+            set.add(position);
+        }
+        return set;
+    }
+
+    private static void assertSameAs(Set<BlockVector3> expected, LocalBlockVectorSet set) {
+        assertEquals(expected.size(), set.size(), "size");
+        assertEquals(expected, positions(set), "positions");
+        for (BlockVector3 position : expected) {
+            assertTrue(set.contains(position), () -> "contains " + position);
+        }
+    }
+
+    @Nested
+    class bulk {
+
+        // The tests combine a set with an offset of 0, 0 and a set with the given offset
+        @ParameterizedTest
+        @ValueSource(ints = {0, 7, -500})
+        void testAddAll(int offset) {
+            SplittableRandom random = new SplittableRandom(offset);
+            Set<BlockVector3> a = random(random, 5000);
+            Set<BlockVector3> b = random(random, 5000);
+            LocalBlockVectorSet set = set(0, 0, a);
+            Set<BlockVector3> expected = new HashSet<>(a);
+
+            assertEquals(expected.addAll(b), set.addAll(set(offset, -offset, b)));
+
+            assertSameAs(expected, set);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, 7, -500})
+        void testRetainAll(int offset) {
+            SplittableRandom random = new SplittableRandom(offset);
+            Set<BlockVector3> a = random(random, 5000);
+            Set<BlockVector3> b = random(random, 5000);
+            b.addAll(a.stream().limit(1000).toList());
+            LocalBlockVectorSet set = set(0, 0, a);
+            Set<BlockVector3> expected = new HashSet<>(a);
+
+            assertEquals(expected.retainAll(b), set.retainAll(set(offset, -offset, b)));
+
+            assertSameAs(expected, set);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, 7, -500})
+        void testRemoveAll(int offset) {
+            SplittableRandom random = new SplittableRandom(offset);
+            Set<BlockVector3> a = random(random, 5000);
+            Set<BlockVector3> b = random(random, 5000);
+            b.addAll(a.stream().limit(1000).toList());
+            LocalBlockVectorSet set = set(0, 0, a);
+            Set<BlockVector3> expected = new HashSet<>(a);
+
+            assertEquals(expected.removeAll(b), set.removeAll(set(offset, -offset, b)));
+
+            assertSameAs(expected, set);
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, 7, -500})
+        void testContainsAll(int offset) {
+            SplittableRandom random = new SplittableRandom(offset);
+            Set<BlockVector3> a = random(random, 5000);
+            Set<BlockVector3> subset = new HashSet<>(a.stream().limit(1000).toList());
+            LocalBlockVectorSet set = set(0, 0, a);
+
+            assertTrue(set.containsAll(set(offset, -offset, subset)));
+            subset.add(BlockVector3.at(301, 0, 0));
+            assertFalse(set.containsAll(set(offset, -offset, subset)));
+        }
+
+        @Test
+        void testEmptySetTakesTheOffsetOfTheAddedSet() {
+            SplittableRandom random = new SplittableRandom(1);
+            Set<BlockVector3> positions = random(random, 1000);
+            LocalBlockVectorSet other = set(-250, 130, positions);
+            LocalBlockVectorSet set = new LocalBlockVectorSet();
+
+            assertTrue(set.addAll(other));
+
+            assertSameAs(positions, set);
+            assertTrue(set.hasSameOffset(other), "the set should be combined with the bitset of the other set");
+        }
+
+    }
+
+    @Nested
+    class forEachInChunkOrder {
+
+        // Points are grouped by the chunks of the world, whether the offset is aligned to chunks or not
+        @ParameterizedTest
+        @ValueSource(ints = {0, 5, -9, 16})
+        void testPositionsAreVisitedOnceGroupedByChunk(int offset) {
+            Set<BlockVector3> positions = random(new SplittableRandom(offset), 5000);
+            LocalBlockVectorSet set = set(offset, -offset, positions);
+            Set<BlockVector3> visited = new HashSet<>();
+            Set<Long> finishedChunks = new HashSet<>();
+            long[] chunk = {Long.MIN_VALUE};
+
+            set.forEachInChunkOrder((x, y, z, index) -> {
+                BlockVector3 position = BlockVector3.at(x, y, z);
+                assertTrue(visited.add(position), () -> position + " should be visited once");
+                long key = (long) (x >> 4) << 32 | ((z >> 4) & 0xFFFFFFFFL);
+                if (key != chunk[0]) {
+                    finishedChunks.add(chunk[0]);
+                    assertFalse(finishedChunks.contains(key), () -> "the chunk of " + position + " was visited before");
+                    chunk[0] = key;
+                }
+            });
+
+            assertEquals(positions, visited);
+        }
+
+    }
+
+    @Nested
+    class write {
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, 7, -500})
+        void testRoundTrip(int offset) throws IOException {
+            Set<BlockVector3> positions = random(new SplittableRandom(offset), 5000);
+            // Whole 64-bit words
+            for (int y = 128; y < 192; y++) {
+                positions.add(BlockVector3.at(offset, y, -offset));
+            }
+            LocalBlockVectorSet set = set(offset, -offset, positions);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                set.write(out);
+            }
+
+            LocalBlockVectorSet read;
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                read = LocalBlockVectorSet.read(in);
+                assertEquals(-1, in.read(), "the whole set should be read");
+            }
+
+            assertSameAs(positions, read);
+            assertTrue(read.hasSameOffset(set), "offset");
+        }
+
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.fastasyncworldedit.core.queue.implementation;
+
+import com.fastasyncworldedit.core.configuration.Settings;
+import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Isolated
+class SubmissionBudgetTest {
+
+    private int percent;
+
+    @BeforeEach
+    void rememberPercent() {
+        percent = Settings.settings().QUEUE.IN_FLIGHT_MEMORY_PERCENT;
+    }
+
+    @AfterEach
+    void restorePercent() {
+        Settings.settings().QUEUE.IN_FLIGHT_MEMORY_PERCENT = percent;
+    }
+
+    @Nested
+    class estimate {
+
+        @Test
+        void testNullSetIsFree() {
+            assertEquals(0, SubmissionBudget.estimate(null));
+        }
+
+        @Test
+        void testSectionsAndBiomesAreCounted() {
+            final IChunkSet set = mock();
+            when(set.getMinSectionPosition()).thenReturn(-4);
+            when(set.getMaxSectionPosition()).thenReturn(19);
+            when(set.hasSection(anyInt())).thenAnswer(invocationOnMock -> invocationOnMock.<Integer>getArgument(0) % 2 == 0);
+            when(set.getBiomes()).thenReturn(null);
+            long blocksOnly = SubmissionBudget.estimate(set);
+
+            BiomeType[][] biomes = new BiomeType[24][];
+            biomes[0] = new BiomeType[64];
+            when(set.getBiomes()).thenReturn(biomes);
+            long oneBiomeSection = SubmissionBudget.estimate(set);
+            biomes[5] = new BiomeType[64];
+            long twoBiomeSections = SubmissionBudget.estimate(set);
+
+            when(set.hasSection(anyInt())).thenReturn(false);
+            when(set.getBiomes()).thenReturn(null);
+            long empty = SubmissionBudget.estimate(set);
+
+            assertTrue(empty > 0, "the set itself should be counted");
+            assertEquals(12 * 4096 * Character.BYTES, blocksOnly - empty, "each section should hold 4096 ordinals");
+            assertTrue(oneBiomeSection > blocksOnly, "biome sections should be counted");
+            assertEquals(2 * (oneBiomeSection - blocksOnly), twoBiomeSections - blocksOnly, "null biome sections are free");
+        }
+
+    }
+
+    @Nested
+    class acquire {
+
+        @Test
+        void testDisabledBudgetReservesNothing() {
+            Settings.settings().QUEUE.IN_FLIGHT_MEMORY_PERCENT = 0;
+            assertEquals(0, SubmissionBudget.getBudget());
+            assertNull(SubmissionBudget.acquire(new Object(), 1024));
+        }
+
+        @Test
+        void testNothingToReserve() {
+            assertNull(SubmissionBudget.acquire(new Object(), 0));
+        }
+
+        @Test
+        void testBudgetFollowsSetting() {
+            Settings.settings().QUEUE.IN_FLIGHT_MEMORY_PERCENT = 10;
+            long tenPercent = SubmissionBudget.getBudget();
+            Settings.settings().QUEUE.IN_FLIGHT_MEMORY_PERCENT = 20;
+            long twentyPercent = SubmissionBudget.getBudget();
+            assertTrue(tenPercent > 0);
+            assertEquals(2 * tenPercent, twentyPercent);
+            Settings.settings().QUEUE.IN_FLIGHT_MEMORY_PERCENT = 200;
+            assertEquals(10 * tenPercent, SubmissionBudget.getBudget(), "budget should not exceed the heap");
+        }
+
+        @Test
+        void testReleaseReturnsMemoryOnce() {
+            long before = SubmissionBudget.getInFlightBytes();
+            Object owner = new Object();
+            SubmissionBudget.Reservation first = SubmissionBudget.acquire(owner, 1000);
+            SubmissionBudget.Reservation second = SubmissionBudget.acquire(owner, 500);
+            assertNotNull(first);
+            assertNotNull(second);
+            assertEquals(1000, first.getBytes());
+            assertEquals(before + 1500, SubmissionBudget.getInFlightBytes());
+
+            first.release();
+            assertEquals(0, first.getBytes());
+            assertEquals(before + 500, SubmissionBudget.getInFlightBytes());
+
+            first.release();
+            assertEquals(before + 500, SubmissionBudget.getInFlightBytes(), "releasing twice should have no effect");
+
+            second.run();
+            assertEquals(before, SubmissionBudget.getInFlightBytes());
+        }
+
+        @Test
+        void testOwnerOverBudgetWaitsForRelease() throws Exception {
+            Settings.settings().QUEUE.IN_FLIGHT_MEMORY_PERCENT = 1;
+            long budget = SubmissionBudget.getBudget();
+            Object owner = new Object();
+            // An edit without chunks in flight may always submit, even over the budget
+            SubmissionBudget.Reservation held = SubmissionBudget.acquire(owner, budget);
+            assertNotNull(held);
+
+            CompletableFuture<SubmissionBudget.Reservation> next = CompletableFuture.supplyAsync(
+                    () -> SubmissionBudget.acquire(owner, 1024)
+            );
+            assertThrows(TimeoutException.class, () -> next.get(200, TimeUnit.MILLISECONDS));
+
+            // Another edit is not held back by this edit's reservation
+            SubmissionBudget.Reservation other = SubmissionBudget.acquire(new Object(), 1024);
+            assertNotNull(other);
+            other.release();
+
+            held.release();
+            SubmissionBudget.Reservation reservation = next.get(5, TimeUnit.SECONDS);
+            assertNotNull(reservation);
+            assertEquals(1024, reservation.getBytes());
+            reservation.release();
+        }
+
+    }
+
+}
@@ -0,0 +1,307 @@
+package com.fastasyncworldedit.core.queue.implementation.chunk;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionSnapshotCacheTest {
+
+    private static final int MIN_SECTION = -4;
+    private static final int MAX_SECTION = 19;
+    private static final long TTL_MILLIS = 60_000;
+
+    private static SectionSnapshotCache cache(long sectionsPerSegment, long ttlMillis) {
+        long maxBytes = sectionsPerSegment * SectionSnapshotCache.SECTION_BYTES * SectionSnapshotCache.SEGMENTS;
+        return new SectionSnapshotCache(MIN_SECTION, MAX_SECTION, maxBytes, ttlMillis);
+    }
+
+    private static char[] section(int value) {
+        char[] data = new char[4096];
+        Arrays.fill(data, (char) value);
+        return data;
+    }
+
+    private static void read(SectionSnapshotCache cache, long key, int sectionY, int value) {
+        cache.put(key, sectionY, section(value), cache.version(key, sectionY));
+    }
+
+    // Keys of chunks sharing a segment, and so a share of the memory budget and an LRU order
+    private static long[] keysInOneSegment(int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        int segment = SectionSnapshotCache.segmentIndex(SectionSnapshotCache.key(0, 0));
+        for (int x = 0; found < count; x++) {
+            long key = SectionSnapshotCache.key(x, -x);
+            if (SectionSnapshotCache.segmentIndex(key) == segment) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+
+    @Nested
+    class put {
+
+        @Test
+        void testCachedSectionIsCopied() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            char[] data = section(5);
+            cache.put(key, 0, data, cache.version(key, 0));
+            data[0] = 9;
+
+            char[] cached = cache.get(key, 0, null);
+            assertArrayEquals(section(5), cached, "the section should be copied when stored");
+            cached[1] = 9;
+            assertArrayEquals(section(5), cache.get(key, 0, new char[4096]), "the section should be copied when read");
+            assertEquals(2, cache.getHits(), "hits");
+        }
+
+        @Test
+        void testReadConcurrentWithSectionWriteIsNotStored() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            long version = cache.version(key, 2);
+            // Written while it was being read
+            cache.invalidate(key, 2);
+
+            cache.put(key, 2, section(5), version);
+
+            assertNull(cache.get(key, 2, null));
+            assertEquals(0, cache.getSize());
+        }
+
+        @Test
+        void testReadConcurrentWithChunkWriteIsNotStored() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            long version = cache.version(key, MAX_SECTION);
+            cache.invalidate(key);
+
+            cache.put(key, MAX_SECTION, section(5), version);
+
+            assertNull(cache.get(key, MAX_SECTION, null));
+        }
+
+        @Test
+        void testReadConcurrentWithWriteOfAnotherSectionIsStored() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            long version = cache.version(key, 2);
+            cache.invalidate(key, 3);
+
+            cache.put(key, 2, section(5), version);
+
+            assertArrayEquals(section(5), cache.get(key, 2, null));
+        }
+
+        @Test
+        void testSectionsOutsideOfTheWorldAreIgnored() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(0, 0);
+            read(cache, key, MIN_SECTION - 1, 5);
+            read(cache, key, MAX_SECTION + 1, 5);
+
+            assertEquals(0, cache.getSize());
+            assertNull(cache.get(key, MIN_SECTION - 1, null));
+            assertNull(cache.get(key, MAX_SECTION + 1, null));
+        }
+
+    }
+
+    @Nested
+    class get {
+
+        @Test
+        void testExpiredSectionIsMissed() throws InterruptedException {
+            SectionSnapshotCache cache = cache(4, 50);
+            long key = SectionSnapshotCache.key(3, -7);
+            read(cache, key, 0, 5);
+            assertNotNull(cache.get(key, 0, null));
+
+            Thread.sleep(200);
+
+            assertNull(cache.get(key, 0, null), "the section should have expired");
+            assertEquals(0, cache.getSize(), "the expired section should be released");
+            assertEquals(1, cache.getHits(), "hits");
+            assertEquals(1, cache.getMisses(), "misses");
+        }
+
+    }
+
+    @Nested
+    class evict {
+
+        @Test
+        void testLeastRecentlyUsedChunkIsEvicted() {
+            SectionSnapshotCache cache = cache(2, TTL_MILLIS);
+            long[] keys = keysInOneSegment(3);
+            read(cache, keys[0], 0, 1);
+            read(cache, keys[1], 0, 2);
+            // Used after the second chunk, so the second one is the least recently used
+            assertNotNull(cache.get(keys[0], 0, null));
+
+            read(cache, keys[2], 0, 3);
+
+            assertArrayEquals(section(1), cache.get(keys[0], 0, null));
+            assertNull(cache.get(keys[1], 0, null), "the least recently used chunk should be evicted");
+            assertArrayEquals(section(3), cache.get(keys[2], 0, null));
+            assertEquals(1, cache.getEvictions(), "evictions");
+            assertEquals(2 * SectionSnapshotCache.SECTION_BYTES, cache.getSize(), "size should stay within the budget");
+        }
+
+        @Test
+        void testChunkIsEvictedWithAllItsSections() {
+            SectionSnapshotCache cache = cache(3, TTL_MILLIS);
+            long[] keys = keysInOneSegment(2);
+            read(cache, keys[0], 0, 1);
+            read(cache, keys[0], 1, 1);
+            read(cache, keys[1], 0, 2);
+            read(cache, keys[1], 1, 2);
+
+            assertNull(cache.get(keys[0], 0, null));
+            assertNull(cache.get(keys[0], 1, null));
+            assertNotNull(cache.get(keys[1], 0, null));
+            assertNotNull(cache.get(keys[1], 1, null));
+            assertEquals(2 * SectionSnapshotCache.SECTION_BYTES, cache.getSize());
+        }
+
+        @Test
+        void testChunksOfOtherSegmentsAreKept() {
+            SectionSnapshotCache cache = cache(1, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(0, 0);
+            long other = key;
+            for (int x = 1; SectionSnapshotCache.segmentIndex(other) == SectionSnapshotCache.segmentIndex(key); x++) {
+                other = SectionSnapshotCache.key(x, x);
+            }
+            read(cache, key, 0, 1);
+            read(cache, other, 0, 2);
+
+            assertNotNull(cache.get(key, 0, null));
+            assertNotNull(cache.get(other, 0, null));
+            assertEquals(0, cache.getEvictions());
+        }
+
+    }
+
+    @Nested
+    class invalidate {
+
+        @Test
+        void testSiblingSectionsStayCached() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            read(cache, key, 0, 1);
+            read(cache, key, 1, 2);
+            read(cache, key, 2, 3);
+
+            cache.invalidate(key, 1);
+
+            assertArrayEquals(section(1), cache.get(key, 0, null));
+            assertNull(cache.get(key, 1, null));
+            assertArrayEquals(section(3), cache.get(key, 2, null));
+            assertEquals(2 * SectionSnapshotCache.SECTION_BYTES, cache.getSize());
+            assertEquals(1, cache.getInvalidations(), "invalidations");
+        }
+
+        @Test
+        void testWholeChunkIsRemoved() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            long other = SectionSnapshotCache.key(4, -7);
+            read(cache, key, 0, 1);
+            read(cache, key, 1, 2);
+            read(cache, other, 0, 3);
+
+            cache.invalidate(key);
+
+            assertNull(cache.get(key, 0, null));
+            assertNull(cache.get(key, 1, null));
+            assertArrayEquals(section(3), cache.get(other, 0, null));
+            assertEquals(SectionSnapshotCache.SECTION_BYTES, cache.getSize());
+        }
+
+        @Test
+        void testSectionCanBeCachedAgain() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            read(cache, key, 0, 1);
+            cache.invalidate(key, 0);
+
+            read(cache, key, 0, 2);
+
+            assertArrayEquals(section(2), cache.get(key, 0, null));
+        }
+
+    }
+
+    @Nested
+    class trim {
+
+        @Test
+        void testReadStartedBeforeTrimIsNotStored() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            cache.invalidate(key, 0);
+            long version = cache.version(key, 0);
+
+            // The chunk has no cached sections, so its versions are dropped and the floor is raised instead
+            cache.trim(false);
+            cache.put(key, 0, section(1), version);
+
+            assertNull(cache.get(key, 0, null));
+            read(cache, key, 0, 2);
+            assertArrayEquals(section(2), cache.get(key, 0, null), "reads started after the trim should be stored");
+        }
+
+        @Test
+        void testVersionsOfCachedChunksAreKept() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            read(cache, key, 0, 1);
+            cache.invalidate(key, 1);
+            long version = cache.version(key, 1);
+
+            assertFalse(cache.trim(false));
+            cache.put(key, 1, section(2), version);
+
+            assertArrayEquals(section(1), cache.get(key, 0, null));
+            assertArrayEquals(section(2), cache.get(key, 1, null));
+        }
+
+        @Test
+        void testInvalidatedSectionStaysInvalidAfterTrim() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            read(cache, key, 0, 1);
+            long version = cache.version(key, 1);
+            cache.invalidate(key, 1);
+
+            cache.trim(false);
+            cache.put(key, 1, section(2), version);
+
+            assertNull(cache.get(key, 1, null));
+        }
+
+        @Test
+        void testAggressiveTrimEmptiesTheCache() {
+            SectionSnapshotCache cache = cache(4, TTL_MILLIS);
+            long key = SectionSnapshotCache.key(3, -7);
+            read(cache, key, 0, 1);
+            read(cache, SectionSnapshotCache.key(-100, 100), 5, 2);
+            long version = cache.version(key, 1);
+
+            assertTrue(cache.trim(true));
+
+            assertEquals(0, cache.getSize());
+            assertNull(cache.get(key, 0, null));
+            cache.put(key, 1, section(3), version);
+            assertNull(cache.get(key, 1, null), "reads started before the trim should not be stored");
+        }
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.fastasyncworldedit.core.queue.implementation.packet;
+
+import com.fastasyncworldedit.core.nbt.FaweCompoundTag;
+import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import org.enginehub.linbus.tree.LinCompoundTag;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChunkUpdateCostTest {
+
+    private static final int SECTION_COUNT = 24;
+
+    /**
+     * Get a delta of the given number of blocks, starting at the given index of the section.
+     */
+    private static SectionDelta delta(int layer, int start, int blocks) {
+        char[] section = new char[4096];
+        for (int i = 0; i < blocks; i++) {
+            section[start + i] = 1;
+        }
+        return SectionDelta.of(layer, section);
+    }
+
+    @Nested
+    class shouldSendDeltas {
+
+        @Test
+        void testChunkWithoutDeltasIsSentInFull() {
+            assertFalse(ChunkUpdateCost.shouldSendDeltas(null, SECTION_COUNT));
+        }
+
+        @Test
+        void testFewChangedBlocksAreSentAsDeltas() {
+            SectionDelta[] deltas = new SectionDelta[SECTION_COUNT];
+            deltas[3] = delta(-1, 0, 1);
+            deltas[20] = delta(16, 100, 50);
+
+            assertTrue(ChunkUpdateCost.shouldSendDeltas(deltas, SECTION_COUNT));
+        }
+
+        // At most 2048 blocks in a chunk, however few bytes they take
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3, 8})
+        void testDeltasAreCappedAt2048Blocks(int sections) {
+            SectionDelta[] deltas = new SectionDelta[SECTION_COUNT];
+            for (int i = 0; i < sections; i++) {
+                int blocks = 2048 / sections + (i < 2048 % sections ? 1 : 0);
+                deltas[i * 2] = delta(i * 2, 0, blocks);
+            }
+            assertTrue(ChunkUpdateCost.shouldSendDeltas(deltas, SECTION_COUNT), "2048 blocks should be sent as deltas");
+
+            deltas[SECTION_COUNT - 1] = delta(SECTION_COUNT - 1, 4095, 1);
+
+            assertFalse(ChunkUpdateCost.shouldSendDeltas(deltas, SECTION_COUNT), "2049 blocks should be sent in full");
+        }
+
+        @Test
+        void testDeltasLargerThanTheFullChunkAreNotSent() {
+            // A chunk of one section, so that deltas within the cap can be larger than the full chunk
+            int fullBytes = ChunkUpdateCost.getFullBytes(1);
+            int blocks = 1;
+            while (ChunkUpdateCost.getDeltaBytes(delta(0, 0, blocks + 1)) < fullBytes) {
+                blocks++;
+            }
+
+            assertTrue(ChunkUpdateCost.shouldSendDeltas(new SectionDelta[]{delta(0, 0, blocks)}, 1));
+            assertFalse(ChunkUpdateCost.shouldSendDeltas(new SectionDelta[]{delta(0, 0, blocks + 1)}, 1));
+        }
+
+    }
+
+    @Nested
+    class newDeltas {
+
+        @Test
+        void testBlockChangesAreCollected() {
+            final IChunkSet set = mock();
+            when(set.tiles()).thenReturn(Map.of());
+
+            SectionDelta[] deltas = ChunkUpdateCost.newDeltas(set, SECTION_COUNT);
+
+            assertNotNull(deltas);
+            assertEquals(SECTION_COUNT, deltas.length);
+        }
+
+        private static Stream<Arguments> fullChanges() {
+            return Stream.of(
+                    Arguments.of("biomes", (Consumer<IChunkSet>) set -> when(set.getBiomes()).thenReturn(
+                            new BiomeType[SECTION_COUNT][])),
+                    Arguments.of("tiles", (Consumer<IChunkSet>) set -> when(set.tiles()).thenReturn(
+                            Map.of(BlockVector3.ZERO, FaweCompoundTag.of(LinCompoundTag.builder().build())))),
+                    Arguments.of("block light", (Consumer<IChunkSet>) set -> when(set.getLight()).thenReturn(
+                            new char[SECTION_COUNT][])),
+                    Arguments.of("sky light", (Consumer<IChunkSet>) set -> when(set.getSkyLight()).thenReturn(
+                            new char[SECTION_COUNT][]))
+            );
+        }
+
+        @ParameterizedTest(name = "{0}")
+        @MethodSource("fullChanges")
+        void testChunkSettingBiomesTilesOrLightIsSentInFull(String name, Consumer<IChunkSet> change) {
+            final IChunkSet set = mock();
+            when(set.tiles()).thenReturn(Map.of());
+            change.accept(set);
+
+            SectionDelta[] deltas = ChunkUpdateCost.newDeltas(set, SECTION_COUNT);
+
+            assertNull(deltas);
+            assertFalse(ChunkUpdateCost.shouldSendDeltas(deltas, SECTION_COUNT));
+        }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.fastasyncworldedit.core.queue.implementation.packet;
+
+import com.sk89q.worldedit.world.block.BlockTypesCache;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SectionDeltaTest {
+
+    @Nested
+    class of {
+
+        @Test
+        void testUnchangedSectionHasNoDelta() {
+            assertNull(SectionDelta.of(0, null));
+            assertNull(SectionDelta.of(0, new char[4096]));
+        }
+
+        @Test
+        void testChangedBlocksAreKeptInOrder() {
+            char[] blocks = new char[4096];
+            blocks[0] = 7;
+            // x 3, z 5, y 9
+            blocks[9 << 8 | 5 << 4 | 3] = 12;
+            blocks[4095] = 1;
+            blocks[2048] = BlockTypesCache.ReservedIDs.__RESERVED__;
+
+            SectionDelta delta = SectionDelta.of(-4, blocks);
+
+            assertNotNull(delta);
+            assertEquals(-4, delta.getLayer());
+            assertEquals(3, delta.size());
+            assertEquals(0, delta.getIndex(0));
+            assertEquals(7, delta.getOrdinal(0));
+            assertEquals(3, delta.getX(1));
+            assertEquals(9, delta.getY(1));
+            assertEquals(5, delta.getZ(1));
+            assertEquals(12, delta.getOrdinal(1));
+            assertEquals(4095, delta.getIndex(2));
+            assertEquals(15, delta.getX(2));
+            assertEquals(15, delta.getY(2));
+            assertEquals(15, delta.getZ(2));
+        }
+
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.fastasyncworldedit.core.regions;
+
+import com.fastasyncworldedit.util.ChunkFilterRecorder;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.RegionOperationException;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FuzzyRegionTest {
+
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 319;
+
+    private static void set(FuzzyRegion region, Set<BlockVector3> expected, int x, int y, int z)
+            throws RegionOperationException {
+        region.set(x, y, z);
+        expected.add(BlockVector3.at(x, y, z));
+    }
+
+    private static void assertFiltered(Set<BlockVector3> expected, ChunkFilterRecorder recorder) {
+        List<BlockVector3> filtered = recorder.getBlocks();
+        assertEquals(expected, new HashSet<>(filtered), "filtered blocks");
+        assertEquals(expected.size(), filtered.size(), "blocks should be filtered once");
+    }
+
+    @Nested
+    class filter {
+
+        @Test
+        void testFilteredBlocksAreTheSelectedBlocks() throws RegionOperationException {
+            FuzzyRegion region = new FuzzyRegion(null, null, null);
+            Set<BlockVector3> expected = new HashSet<>();
+            // A whole section
+            for (int y = -16; y < 0; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = -32; x < -16; x++) {
+                        set(region, expected, x, y, z);
+                    }
+                }
+            }
+            // The same section less one block
+            for (int y = 32; y < 48; y++) {
+                for (int z = -16; z < 0; z++) {
+                    for (int x = 16; x < 32; x++) {
+                        if (x != 31 || y != 47 || z != -1) {
+                            set(region, expected, x, y, z);
+                        }
+                    }
+                }
+            }
+            // Scattered over other sections and chunks, away from the missing block
+            SplittableRandom random = new SplittableRandom(3);
+            for (int i = 0; i < 500; i++) {
+                set(region, expected, random.nextInt(-60, 16), random.nextInt(-64, 80), random.nextInt(-50, 30));
+            }
+
+            ChunkFilterRecorder recorder = ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y);
+
+            assertFiltered(expected, recorder);
+            assertEquals(1, recorder.getWholeSections(), "only the full section should be filtered whole");
+        }
+
+        @Test
+        void testSelectionChangedAfterFilteringIsFiltered() throws RegionOperationException {
+            FuzzyRegion region = new FuzzyRegion(null, null, null);
+            Set<BlockVector3> expected = new HashSet<>();
+            set(region, expected, 3, 4, 5);
+            assertFiltered(expected, ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y));
+
+            // In a section of the same chunk, and in another chunk
+            set(region, expected, 3, 40, 5);
+            set(region, expected, -100, 4, 5);
+
+            assertFiltered(expected, ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y));
+        }
+
+        @Test
+        void testSectionsOutsideOfTheWorldAreNotFiltered() throws RegionOperationException {
+            FuzzyRegion region = new FuzzyRegion(null, null, null);
+            Set<BlockVector3> expected = new HashSet<>();
+            set(region, expected, 0, MAX_Y, 0);
+            region.set(0, MAX_Y + 1, 0);
+            region.set(0, MIN_Y - 1, 0);
+
+            assertFiltered(expected, ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y));
+        }
+
+        @Test
+        void testEmptyRegionIsNotFiltered() {
+            FuzzyRegion region = new FuzzyRegion(null, null, null);
+
+            assertTrue(ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y).getBlocks().isEmpty());
+        }
+
+    }
+
+}
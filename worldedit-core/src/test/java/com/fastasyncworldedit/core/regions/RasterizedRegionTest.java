@@ -0,0 +1,457 @@
+package com.fastasyncworldedit.core.regions;
+
+import com.fastasyncworldedit.util.ChunkFilterRecorder;
+import com.sk89q.worldedit.math.BlockVector3;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the rasterized regions with the blocks the per-block generators of {@code EditSession} set before they were
+ * replaced. The generators are reproduced here as they were, recording positions instead of setting blocks.
+ */
+class RasterizedRegionTest {
+
+    // Not aligned to chunks, and on both sides of 0, so shapes span several chunks
+    private static final BlockVector3 CENTER = BlockVector3.at(-37, 70, 21);
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 319;
+
+    private static void assertSameBlocks(Set<BlockVector3> expected, RasterizedRegion region) {
+        assertEquals(expected.size(), region.getVolume(), "volume");
+
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        for (BlockVector3 position : expected) {
+            assertTrue(
+                    position.containedWithin(min, max),
+                    () -> position + " should be within the bounds " + min + " - " + max
+            );
+        }
+        // One block around the bounds, so blocks wrongly contained outside of them are found too
+        for (int y = min.y() - 1; y <= max.y() + 1; y++) {
+            for (int z = min.z() - 1; z <= max.z() + 1; z++) {
+                for (int x = min.x() - 1; x <= max.x() + 1; x++) {
+                    BlockVector3 position = BlockVector3.at(x, y, z);
+                    assertEquals(expected.contains(position), region.contains(x, y, z), () -> "contains " + position);
+                }
+            }
+        }
+
+        List<BlockVector3> filtered = ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y).getBlocks();
+        assertEquals(expected, new HashSet<>(filtered), "filtered blocks");
+        assertEquals(expected.size(), filtered.size(), "blocks should be filtered once");
+    }
+
+    @Nested
+    class ellipsoid {
+
+        static Stream<Arguments> shapes() {
+            return Stream.of(
+                    Arguments.of(0.0, 0.0, 0.0),
+                    Arguments.of(1.0, 1.0, 1.0),
+                    Arguments.of(2.5, 2.5, 2.5),
+                    Arguments.of(5.0, 5.0, 5.0),
+                    Arguments.of(12.0, 12.0, 12.0),
+                    Arguments.of(20.0, 20.0, 20.0),
+                    Arguments.of(9.0, 3.0, 6.0),
+                    Arguments.of(2.0, 15.0, 4.5),
+                    // Clipped by the bottom of the world
+                    Arguments.of(10.0, 140.0, 10.0)
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource("shapes")
+        void testFilledMatchesGenerator(double radiusX, double radiusY, double radiusZ) {
+            assertSameBlocks(
+                    legacySphere(CENTER, radiusX, radiusY, radiusZ, true),
+                    new RasterizedEllipsoid(null, CENTER, radiusX, radiusY, radiusZ, true, MIN_Y, MAX_Y)
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource("shapes")
+        void testHollowMatchesGenerator(double radiusX, double radiusY, double radiusZ) {
+            assertSameBlocks(
+                    legacySphere(CENTER, radiusX, radiusY, radiusZ, false),
+                    new RasterizedEllipsoid(null, CENTER, radiusX, radiusY, radiusZ, false, MIN_Y, MAX_Y)
+            );
+        }
+
+    }
+
+    @Nested
+    class cylinder {
+
+        static Stream<Arguments> shapes() {
+            return Stream.of(
+                    Arguments.of(0.0, 0.0, 1, 0.0),
+                    Arguments.of(1.0, 1.0, 3, 0.0),
+                    Arguments.of(2.5, 2.5, 5, 0.0),
+                    Arguments.of(8.0, 8.0, 20, 0.0),
+                    Arguments.of(20.0, 20.0, 4, 0.0),
+                    Arguments.of(11.0, 4.0, 9, 0.0),
+                    Arguments.of(8.0, 8.0, 6, 1.0),
+                    Arguments.of(15.0, 10.0, 3, 2.5)
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource("shapes")
+        void testFilledMatchesGenerator(double radiusX, double radiusZ, int height, double thickness) {
+            assertSameBlocks(
+                    legacyCylinder(CENTER, radiusX, radiusZ, height, thickness, true),
+                    new RasterizedCylinder(null, CENTER, radiusX, radiusZ, height, thickness, true)
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource("shapes")
+        void testHollowMatchesGenerator(double radiusX, double radiusZ, int height, double thickness) {
+            assertSameBlocks(
+                    legacyCylinder(CENTER, radiusX, radiusZ, height, thickness, false),
+                    new RasterizedCylinder(null, CENTER, radiusX, radiusZ, height, thickness, false)
+            );
+        }
+
+    }
+
+    @Nested
+    class cone {
+
+        static Stream<Arguments> shapes() {
+            return Stream.of(
+                    Arguments.of(1.0, 1.0, 1, 1.0),
+                    Arguments.of(3.0, 3.0, 5, 1.0),
+                    Arguments.of(6.5, 6.5, 10, 1.0),
+                    Arguments.of(20.0, 20.0, 30, 1.0),
+                    Arguments.of(12.0, 5.0, 8, 2.0),
+                    Arguments.of(4.0, 9.0, 25, 3.0)
+            );
+        }
+
+        // The generator only set the blocks of the quadrant of positive x and z. The region is the same quadrant
+        // mirrored on both axes, as for the other shapes
+        private static Set<BlockVector3> mirrored(Set<BlockVector3> quadrant) {
+            Set<BlockVector3> blocks = new HashSet<>();
+            for (BlockVector3 position : quadrant) {
+                int dx = position.x() - CENTER.x();
+                int dz = position.z() - CENTER.z();
+                blocks.add(position);
+                blocks.add(BlockVector3.at(CENTER.x() - dx, position.y(), position.z()));
+                blocks.add(BlockVector3.at(position.x(), position.y(), CENTER.z() - dz));
+                blocks.add(BlockVector3.at(CENTER.x() - dx, position.y(), CENTER.z() - dz));
+            }
+            return blocks;
+        }
+
+        @ParameterizedTest
+        @MethodSource("shapes")
+        void testFilledMatchesGeneratorInAllQuadrants(double radiusX, double radiusZ, int height, double thickness) {
+            assertSameBlocks(
+                    mirrored(legacyConeQuadrant(CENTER, radiusX, radiusZ, height, true, thickness)),
+                    new RasterizedCone(null, CENTER, radiusX, radiusZ, height, true, thickness)
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource("shapes")
+        void testHollowMatchesGeneratorInAllQuadrants(double radiusX, double radiusZ, int height, double thickness) {
+            assertSameBlocks(
+                    mirrored(legacyConeQuadrant(CENTER, radiusX, radiusZ, height, false, thickness)),
+                    new RasterizedCone(null, CENTER, radiusX, radiusZ, height, false, thickness)
+            );
+        }
+
+    }
+
+    @Nested
+    class pyramid {
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3, 7, 16, 25})
+        void testFilledMatchesGenerator(int size) {
+            assertSameBlocks(legacyPyramid(CENTER, size, true), new RasterizedPyramid(null, CENTER, size, true));
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3, 7, 16, 25})
+        void testHollowMatchesGenerator(int size) {
+            assertSameBlocks(legacyPyramid(CENTER, size, false), new RasterizedPyramid(null, CENTER, size, false));
+        }
+
+    }
+
+    private static Set<BlockVector3> legacySphere(
+            BlockVector3 pos, double radiusX, double radiusY, double radiusZ, boolean filled
+    ) {
+        Set<BlockVector3> blocks = new HashSet<>();
+        radiusX += 0.5;
+        radiusY += 0.5;
+        radiusZ += 0.5;
+
+        final double invRadiusX = 1 / radiusX;
+        final double invRadiusY = 1 / radiusY;
+        final double invRadiusZ = 1 / radiusZ;
+
+        int px = pos.x();
+        int py = pos.y();
+        int pz = pos.z();
+
+        final int ceilRadiusX = (int) Math.ceil(radiusX);
+        final int ceilRadiusY = (int) Math.ceil(radiusY);
+        final int ceilRadiusZ = (int) Math.ceil(radiusZ);
+
+        double nextXn = 0;
+        double nextYn, nextZn;
+        double nextXnSq, nextYnSq, nextZnSq;
+        double xn, yn, zn, dx, dy, dz;
+        double dxy, dxz, dyz, dxyz;
+        int yy;
+
+        forX:
+        for (int x = 0; x <= ceilRadiusX; ++x) {
+            xn = nextXn;
+            dx = xn * xn;
+            nextXn = (x + 1) * invRadiusX;
+            nextXnSq = nextXn * nextXn;
+            nextZn = 0;
+            forZ:
+            for (int z = 0; z <= ceilRadiusZ; ++z) {
+                zn = nextZn;
+                dz = zn * zn;
+                dxz = dx + dz;
+                nextZn = (z + 1) * invRadiusZ;
+                nextZnSq = nextZn * nextZn;
+                nextYn = 0;
+
+                forY:
+                for (int y = 0; y <= ceilRadiusY; ++y) {
+                    yn = nextYn;
+                    dy = yn * yn;
+                    dxyz = dxz + dy;
+                    nextYn = (y + 1) * invRadiusY;
+
+                    if (dxyz > 1) {
+                        if (y == 0) {
+                            if (z == 0) {
+                                break forX;
+                            }
+                            break forZ;
+                        }
+                        break forY;
+                    }
+
+                    nextYnSq = nextYn * nextYn;
+                    dxy = dx + dy;
+                    dyz = dy + dz;
+
+                    if (!filled) {
+                        if (nextXnSq + dyz <= 1 && nextYnSq + dxz <= 1 && nextZnSq + dxy <= 1) {
+                            continue;
+                        }
+                    }
+                    yy = py + y;
+                    if (yy <= MAX_Y) {
+                        addMirrored(blocks, px, pz, x, yy, z);
+                    }
+                    if (y != 0 && (yy = py - y) >= MIN_Y) {
+                        addMirrored(blocks, px, pz, x, yy, z);
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static Set<BlockVector3> legacyCylinder(
+            BlockVector3 pos, double radiusX, double radiusZ, int height, double thickness, boolean filled
+    ) {
+        Set<BlockVector3> blocks = new HashSet<>();
+        radiusX += 0.5;
+        radiusZ += 0.5;
+
+        final double invRadiusX = 1 / radiusX;
+        final double invRadiusZ = 1 / radiusZ;
+
+        int px = pos.x();
+        int py = pos.y();
+        int pz = pos.z();
+
+        final int ceilRadiusX = (int) Math.ceil(radiusX);
+        final int ceilRadiusZ = (int) Math.ceil(radiusZ);
+
+        double xSqr, zSqr, distanceSq;
+        double xn, zn;
+        double dx2, dz2;
+        double nextXn = 0;
+        double nextZn, nextMinZn;
+
+        if (thickness != 0) {
+            double nextMinXn = 0;
+            final double minInvRadiusX = 1 / (radiusX - thickness);
+            final double minInvRadiusZ = 1 / (radiusZ - thickness);
+            forX:
+            for (int x = 0; x <= ceilRadiusX; ++x) {
+                xn = nextXn;
+                dx2 = nextMinXn * nextMinXn;
+                nextXn = (x + 1) * invRadiusX;
+                nextMinXn = (x + 1) * minInvRadiusX;
+                nextZn = 0;
+                nextMinZn = 0;
+                xSqr = xn * xn;
+                forZ:
+                for (int z = 0; z <= ceilRadiusZ; ++z) {
+                    zn = nextZn;
+                    zSqr = zn * zn;
+                    distanceSq = xSqr + zSqr;
+                    if (distanceSq > 1) {
+                        if (z == 0) {
+                            break forX;
+                        }
+                        break forZ;
+                    }
+                    dz2 = nextMinZn * nextMinZn;
+                    nextZn = (z + 1) * invRadiusZ;
+                    nextMinZn = (z + 1) * minInvRadiusZ;
+
+                    if ((dz2 + nextMinXn * nextMinXn <= 1) && (nextMinZn * nextMinZn + dx2 <= 1)) {
+                        continue;
+                    }
+
+                    for (int y = 0; y < height; ++y) {
+                        addMirrored(blocks, px, pz, x, py + y, z);
+                    }
+                }
+            }
+        } else {
+            forX:
+            for (int x = 0; x <= ceilRadiusX; ++x) {
+                xn = nextXn;
+                nextXn = (x + 1) * invRadiusX;
+                nextZn = 0;
+                xSqr = xn * xn;
+                forZ:
+                for (int z = 0; z <= ceilRadiusZ; ++z) {
+                    zn = nextZn;
+                    zSqr = zn * zn;
+                    distanceSq = xSqr + zSqr;
+                    if (distanceSq > 1) {
+                        if (z == 0) {
+                            break forX;
+                        }
+                        break forZ;
+                    }
+
+                    nextZn = (z + 1) * invRadiusZ;
+                    if (!filled) {
+                        if ((zSqr + nextXn * nextXn <= 1) && (nextZn * nextZn + xSqr <= 1)) {
+                            continue;
+                        }
+                    }
+
+                    for (int y = 0; y < height; ++y) {
+                        addMirrored(blocks, px, pz, x, py + y, z);
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static Set<BlockVector3> legacyConeQuadrant(
+            BlockVector3 pos, double radiusX, double radiusZ, int height, boolean filled, double thickness
+    ) {
+        Set<BlockVector3> blocks = new HashSet<>();
+        final int ceilRadiusX = (int) Math.ceil(radiusX);
+        final int ceilRadiusZ = (int) Math.ceil(radiusZ);
+
+        double rx2 = Math.pow(radiusX, 2);
+        double ry2 = Math.pow(height, 2);
+        double rz2 = Math.pow(radiusZ, 2);
+
+        int cx = pos.x();
+        int cy = pos.y();
+        int cz = pos.z();
+
+        for (int y = 0; y < height; ++y) {
+            double ySquaredMinusHeightOverHeightSquared = Math.pow(y - height, 2) / ry2;
+            int yy = cy + y;
+            forX:
+            for (int x = 0; x <= ceilRadiusX; ++x) {
+                double xSquaredOverRadiusX = Math.pow(x, 2) / rx2;
+                int xx = cx + x;
+                forZ:
+                for (int z = 0; z <= ceilRadiusZ; ++z) {
+                    int zz = cz + z;
+                    double zSquaredOverRadiusZ = Math.pow(z, 2) / rz2;
+                    double distanceFromOriginMinusHeightSquared =
+                            xSquaredOverRadiusX + zSquaredOverRadiusZ - ySquaredMinusHeightOverHeightSquared;
+
+                    if (distanceFromOriginMinusHeightSquared > 1) {
+                        if (z == 0) {
+                            break forX;
+                        }
+                        break forZ;
+                    }
+
+                    if (!filled) {
+                        double xNext = Math.pow(x + thickness, 2) / rx2 + zSquaredOverRadiusZ
+                                - ySquaredMinusHeightOverHeightSquared;
+                        double yNext = xSquaredOverRadiusX + zSquaredOverRadiusZ
+                                - Math.pow(y + thickness - height, 2) / ry2;
+                        double zNext = xSquaredOverRadiusX + Math.pow(z + thickness, 2) / rz2
+                                - ySquaredMinusHeightOverHeightSquared;
+                        if (xNext <= 0 && zNext <= 0 && (yNext <= 0 && y + thickness != height)) {
+                            continue;
+                        }
+                    }
+
+                    if (distanceFromOriginMinusHeightSquared <= 0) {
+                        blocks.add(BlockVector3.at(xx, yy, zz));
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static Set<BlockVector3> legacyPyramid(BlockVector3 position, int size, boolean filled) {
+        Set<BlockVector3> blocks = new HashSet<>();
+        int bx = position.x();
+        int by = position.y();
+        int bz = position.z();
+
+        int height = size;
+
+        for (int y = 0; y <= height; ++y) {
+            size--;
+            for (int x = 0; x <= size; ++x) {
+                for (int z = 0; z <= size; ++z) {
+                    if ((filled && z <= size && x <= size) || z == size || x == size) {
+                        addMirrored(blocks, bx, bz, x, by + y, z);
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static void addMirrored(Set<BlockVector3> blocks, int px, int pz, int x, int y, int z) {
+        blocks.add(BlockVector3.at(px + x, y, pz + z));
+        blocks.add(BlockVector3.at(px - x, y, pz + z));
+        blocks.add(BlockVector3.at(px + x, y, pz - z));
+        blocks.add(BlockVector3.at(px - x, y, pz - z));
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.fastasyncworldedit.util;
+
+import com.fastasyncworldedit.core.extent.filter.block.ChunkFilterBlock;
+import com.fastasyncworldedit.core.queue.Filter;
+import com.fastasyncworldedit.core.queue.IChunk;
+import com.fastasyncworldedit.core.queue.IChunkGet;
+import com.fastasyncworldedit.core.queue.IChunkSet;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Records the blocks a region visits when filtering each chunk it intersects, as a {@link ChunkFilterBlock} would filter
+ * them.
+ */
+public final class ChunkFilterRecorder {
+
+    private final List<BlockVector3> blocks = new ArrayList<>();
+    private int wholeSections;
+    private int testedSections;
+    private int layer;
+    private int chunkX;
+    private int chunkZ;
+
+    private ChunkFilterRecorder() {
+    }
+
+    /**
+     * Filter every chunk intersecting the bounds of a region, in a world of the given height.
+     *
+     * @param region region to filter
+     * @param minY   minimum y of the world
+     * @param maxY   maximum y of the world
+     * @return the recorded filter calls
+     */
+    public static ChunkFilterRecorder filter(Region region, int minY, int maxY) {
+        ChunkFilterRecorder recorder = new ChunkFilterRecorder();
+        final Filter filter = mock();
+        final IChunkGet get = mock();
+        when(get.getMinSectionPosition()).thenReturn(minY >> 4);
+        when(get.getMaxSectionPosition()).thenReturn(maxY >> 4);
+        final IChunkSet set = mock();
+        final ChunkFilterBlock block = mock();
+        doAnswer(invocation -> {
+            recorder.layer = invocation.getArgument(2);
+            return block;
+        }).when(block).initLayer(any(), any(), anyInt());
+        doAnswer(invocation -> {
+            recorder.wholeSections++;
+            recorder.visit(0, 0, 0, 15, 15, 15, null);
+            return null;
+        }).when(block).filter(any(Filter.class));
+        doAnswer(invocation -> {
+            Object[] bounds = invocation.getArguments();
+            recorder.visit((int) bounds[1], (int) bounds[2], (int) bounds[3],
+                    (int) bounds[4], (int) bounds[5], (int) bounds[6], null
+            );
+            return null;
+        }).when(block).filter(any(Filter.class), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt());
+        doAnswer(invocation -> {
+            recorder.visit(0, invocation.getArgument(1), 0, 15, invocation.getArgument(2), 15, null);
+            return null;
+        }).when(block).filter(any(Filter.class), anyInt(), anyInt());
+        doAnswer(invocation -> {
+            recorder.testedSections++;
+            recorder.visit(0, 0, 0, 15, 15, 15, invocation.getArgument(1));
+            return null;
+        }).when(block).filter(any(Filter.class), any(Region.class));
+
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        for (int cz = min.z() >> 4; cz <= max.z() >> 4; cz++) {
+            for (int cx = min.x() >> 4; cx <= max.x() >> 4; cx++) {
+                recorder.chunkX = cx;
+                recorder.chunkZ = cz;
+                final IChunk chunk = mock();
+                when(chunk.getX()).thenReturn(cx);
+                when(chunk.getZ()).thenReturn(cz);
+                region.filter(chunk, filter, block, get, set, true);
+            }
+        }
+        return recorder;
+    }
+
+    /**
+     * Get the blocks within the bounds of a region that it contains.
+     */
+    public static Set<BlockVector3> containedBlocks(Region region) {
+        Set<BlockVector3> blocks = new HashSet<>();
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        for (int y = min.y(); y <= max.y(); y++) {
+            for (int z = min.z(); z <= max.z(); z++) {
+                for (int x = min.x(); x <= max.x(); x++) {
+                    BlockVector3 position = BlockVector3.at(x, y, z);
+                    if (region.contains(position)) {
+                        blocks.add(position);
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    // Blocks of a cuboid of the current section, only those contained by the region if one is given
+    private void visit(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Region region) {
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    BlockVector3 position = BlockVector3.at(chunkX << 4 | x, layer << 4 | y, chunkZ << 4 | z);
+                    if (region == null || region.contains(position)) {
+                        blocks.add(position);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the blocks visited, in the order they were visited. Blocks visited more than once are listed again.
+     */
+    public List<BlockVector3> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Get the number of sections filtered as a whole.
+     */
+    public int getWholeSections() {
+        return wholeSections;
+    }
+
+    /**
+     * Get the number of sections filtered by testing each block against the region.
+     */
+    public int getTestedSections() {
+        return testedSections;
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.regions;
+
+import com.fastasyncworldedit.util.ChunkFilterRecorder;
+import com.sk89q.worldedit.math.BlockVector3;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConvexPolyhedralRegionTest {
+
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 319;
+
+    private static ConvexPolyhedralRegion region(List<BlockVector3> vertices) {
+        ConvexPolyhedralRegion region = new ConvexPolyhedralRegion(null);
+        for (BlockVector3 vertex : vertices) {
+            region.addVertex(vertex);
+        }
+        return region;
+    }
+
+    private static List<BlockVector3> vertices(int... coordinates) {
+        List<BlockVector3> vertices = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 3) {
+            vertices.add(BlockVector3.at(coordinates[i], coordinates[i + 1], coordinates[i + 2]));
+        }
+        return vertices;
+    }
+
+    private static void assertFilteredBlocksAreTheContainedBlocks(ConvexPolyhedralRegion region) {
+        assertTrue(region.isDefined(), "the region should be defined");
+
+        List<BlockVector3> filtered = ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y).getBlocks();
+
+        assertEquals(ChunkFilterRecorder.containedBlocks(region), new HashSet<>(filtered), "filtered blocks");
+        assertEquals(new HashSet<>(filtered).size(), filtered.size(), "blocks should be filtered once");
+    }
+
+    @Nested
+    class filter {
+
+        @ParameterizedTest
+        @MethodSource("hulls")
+        void testFilteredBlocksAreTheContainedBlocks(String name, List<BlockVector3> vertices) {
+            assertFilteredBlocksAreTheContainedBlocks(region(vertices));
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {1, 2, 3, 4, 5, 6, 7, 8})
+        void testRandomHull(int seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            List<BlockVector3> vertices = new ArrayList<>();
+            int count = 4 + random.nextInt(12);
+            for (int i = 0; i < count; i++) {
+                vertices.add(BlockVector3.at(random.nextInt(-40, 20), random.nextInt(-20, 60), random.nextInt(-15, 45)));
+            }
+            assertFilteredBlocksAreTheContainedBlocks(region(vertices));
+        }
+
+        @Test
+        void testUndefinedRegionIsNotFiltered() {
+            ConvexPolyhedralRegion region = region(vertices(0, 0, 0, 10, 0, 0, 0, 10, 0));
+
+            assertTrue(ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y).getBlocks().isEmpty());
+        }
+
+        private static Stream<Arguments> hulls() {
+            return Stream.of(
+                    Arguments.of("tetrahedron", vertices(-20, 0, -20, 20, 0, -20, 0, 0, 20, 0, 30, 0)),
+                    // Faces on the borders of chunks and sections
+                    Arguments.of("box", vertices(
+                            -16, -16, -16, 31, -16, -16, -16, -16, 31, 31, -16, 31,
+                            -16, 31, -16, 31, 31, -16, -16, 31, 31, 31, 31, 31
+                    )),
+                    Arguments.of("octahedron", vertices(-25, 40, 7, 25, 40, 7, 0, 15, 7, 0, 65, 7, 0, 40, -18, 0, 40, 32)),
+                    Arguments.of("sloped", vertices(-30, 0, -30, 30, 5, -30, -30, 10, 30, 30, 15, 30, 0, 40, 0)),
+                    // Thinner than a block in places
+                    Arguments.of("thin", vertices(-40, 10, -3, 40, 12, 3, -40, 11, 3, 40, 11, -3))
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * WorldEdit, a Minecraft world manipulation toolkit
+ * Copyright (C) sk89q <http://www.sk89q.com>
+ * Copyright (C) WorldEdit team and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package com.sk89q.worldedit.regions;
+
+import com.fastasyncworldedit.util.ChunkFilterRecorder;
+import com.sk89q.worldedit.math.BlockVector2;
+import com.sk89q.worldedit.math.BlockVector3;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Polygonal2DRegionTest {
+
+    private static final int MIN_Y = -64;
+    private static final int MAX_Y = 319;
+
+    private static List<BlockVector2> points(int... coordinates) {
+        List<BlockVector2> points = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 2) {
+            points.add(BlockVector2.at(coordinates[i], coordinates[i + 1]));
+        }
+        return points;
+    }
+
+    @Nested
+    class filter {
+
+        @ParameterizedTest
+        @MethodSource("polygons")
+        void testFilteredBlocksAreTheContainedBlocks(String name, List<BlockVector2> points, int minY, int maxY) {
+            Polygonal2DRegion region = new Polygonal2DRegion(null, points, minY, maxY);
+
+            List<BlockVector3> filtered = ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y).getBlocks();
+
+            assertEquals(ChunkFilterRecorder.containedBlocks(region), new HashSet<>(filtered), name);
+            assertEquals(new HashSet<>(filtered).size(), filtered.size(), "blocks should be filtered once");
+        }
+
+        @Test
+        void testPolygonWithLessThanThreePointsIsNotFiltered() {
+            Polygonal2DRegion region = new Polygonal2DRegion(null, points(-5, -5, 20, 20), 0, 15);
+
+            assertTrue(ChunkFilterRecorder.filter(region, MIN_Y, MAX_Y).getBlocks().isEmpty());
+        }
+
+        private static Stream<Arguments> polygons() {
+            return Stream.of(
+                    Arguments.of("square", points(-20, -20, 19, -20, 19, 19, -20, 19), 0, 47),
+                    // Edges on the borders of chunks, sections filtered whole
+                    Arguments.of("chunk aligned", points(-16, -32, 31, -32, 31, 15, -16, 15), -64, 63),
+                    Arguments.of("triangle", points(-37, 5, 12, -30, 3, 41), -10, 37),
+                    Arguments.of(
+                            "u",
+                            points(-30, -30, 30, -30, 30, 30, 18, 30, 18, -18, -18, -18, -18, 30, -30, 30),
+                            5, 5
+                    ),
+                    Arguments.of("l", points(0, 0, 40, 0, 40, 8, 8, 8, 8, 40, 0, 40), 60, 80),
+                    Arguments.of(
+                            "star",
+                            points(0, -40, 9, -12, 38, -12, 15, 5, 24, 32, 0, 16, -24, 32, -15, 5, -38, -12, -9, -12),
+                            -1, 16
+                    ),
+                    // Points on the middle of an edge
+                    Arguments.of("collinear", points(-10, -10, 0, -10, 10, -10, 10, 0, 10, 10, -10, 10), 30, 33),
+                    Arguments.of("sliver", points(-40, -40, 40, 39, 41, 40, -39, -40), 0, 3),
+                    Arguments.of("single column", points(7, 7, 7, 7, 7, 7), 0, 300),
+                    Arguments.of("crossing", points(-20, -20, 20, 20, 20, -20, -20, 20), 14, 17)
+            );
+        }
+
+    }
+
+}